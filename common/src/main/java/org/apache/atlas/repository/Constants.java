@@ -103,6 +103,28 @@ public final class Constants {
     public static final String PATCH_TYPE_PROPERTY_KEY        = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "patch.type");
     public static final String PATCH_ACTION_PROPERTY_KEY      = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "patch.action");
     public static final String PATCH_STATE_PROPERTY_KEY       = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "patch.state");
+    public static final String PATCH_PROGRESS_PROPERTY_KEY    = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "patch.progress");
+
+    /**
+     * Task vertices property keys.
+     */
+    public static final String TASK_GUID_PROPERTY_KEY            = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.guid");
+    public static final String TASK_TYPE_PROPERTY_KEY            = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.type");
+    public static final String TASK_STATUS_PROPERTY_KEY          = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.status");
+    public static final String TASK_PARAMETERS_PROPERTY_KEY      = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.parameters");
+    public static final String TASK_ATTEMPT_COUNT_PROPERTY_KEY   = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.attemptCount");
+    public static final String TASK_ERROR_MESSAGE_PROPERTY_KEY   = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.errorMessage");
+    public static final String TASK_START_TIME_PROPERTY_KEY      = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.startTime");
+    public static final String TASK_END_TIME_PROPERTY_KEY        = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.endTime");
+    public static final String TASK_TOTAL_COUNT_PROPERTY_KEY     = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.totalCount");
+    public static final String TASK_PROCESSED_COUNT_PROPERTY_KEY = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "task.processedCount");
+
+    /**
+     * Entity change-log vertices property keys.
+     */
+    public static final String CHANGE_LOG_GUID_PROPERTY_KEY      = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "changeLog.guid");
+    public static final String CHANGE_LOG_OPERATION_PROPERTY_KEY = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "changeLog.operation");
+    public static final String CHANGE_LOG_SEQUENCE_PROPERTY_KEY  = encodePropertyKey(INTERNAL_PROPERTY_KEY_PREFIX + "changeLog.sequence");
 
     /**
      * The homeId field is used when saving into Atlas a copy of an object that is being imported from another
@@ -26,6 +26,7 @@ import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -87,6 +88,26 @@ public interface AtlasGraph<V, E> {
      */
     Iterable<AtlasEdge<V, E>> getEdges();
 
+    /**
+     * Gets the edges, with the given labels, incident on each of the given vertices. Implementations may
+     * retrieve the edges of all the vertices in a single round-trip to the storage backend.
+     *
+     * @param vertices vertices whose edges are to be retrieved
+     * @param direction direction of the edges, relative to each vertex
+     * @param edgeLabels labels of the edges to retrieve
+     * @return map of vertex to its edges
+     */
+    Map<AtlasVertex<V, E>, Iterable<AtlasEdge<V, E>>> getEdges(Collection<AtlasVertex<V, E>> vertices, AtlasEdgeDirection direction, String... edgeLabels);
+
+    /**
+     * Loads all the properties of the given vertices into the current transaction, so that subsequent property
+     * reads on these vertices don't need a round-trip to the storage backend. Implementations may load the
+     * properties of all the vertices in a single round-trip.
+     *
+     * @param vertices vertices whose properties are to be loaded
+     */
+    void loadProperties(Collection<AtlasVertex<V, E>> vertices);
+
     /**
      * Gets all the vertices in the graph.
      * @return
@@ -45,8 +45,10 @@ import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
 import org.janusgraph.core.Cardinality;
 import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphEdge;
 import org.janusgraph.core.JanusGraphFactory;
 import org.janusgraph.core.JanusGraphIndexQuery;
+import org.janusgraph.core.JanusGraphVertex;
 import org.janusgraph.core.PropertyKey;
 import org.janusgraph.core.SchemaViolationException;
 import org.janusgraph.core.schema.JanusGraphIndex;
@@ -184,6 +186,51 @@ public class AtlasJanusGraph implements AtlasGraph<AtlasJanusVertex, AtlasJanusE
         return wrapEdges(edges);
     }
 
+    @Override
+    public Map<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>, Iterable<AtlasEdge<AtlasJanusVertex, AtlasJanusEdge>>> getEdges(Collection<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> vertices, AtlasEdgeDirection direction, String... edgeLabels) {
+        Map<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>, Iterable<AtlasEdge<AtlasJanusVertex, AtlasJanusEdge>>> ret = new LinkedHashMap<>();
+
+        if (vertices == null || vertices.isEmpty()) {
+            return ret;
+        }
+
+        Map<JanusGraphVertex, AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> janusVertices = new LinkedHashMap<>();
+
+        for (AtlasVertex<AtlasJanusVertex, AtlasJanusEdge> vertex : vertices) {
+            janusVertices.put((JanusGraphVertex) vertex.getV().getWrappedElement(), vertex);
+        }
+
+        Map<JanusGraphVertex, Iterable<JanusGraphEdge>> edges = getGraph().multiQuery(janusVertices.keySet())
+                                                                          .direction(AtlasJanusObjectFactory.createDirection(direction))
+                                                                          .labels(edgeLabels)
+                                                                          .edges();
+
+        for (Map.Entry<JanusGraphVertex, AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> entry : janusVertices.entrySet()) {
+            Iterable<JanusGraphEdge> vertexEdges = edges.get(entry.getKey());
+
+            ret.put(entry.getValue(), vertexEdges != null ? wrapEdges(vertexEdges) : Collections.emptyList());
+        }
+
+        return ret;
+    }
+
+    @Override
+    public void loadProperties(Collection<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> vertices) {
+        if (vertices == null || vertices.isEmpty()) {
+            return;
+        }
+
+        Set<JanusGraphVertex> janusVertices = new LinkedHashSet<>();
+
+        for (AtlasVertex<AtlasJanusVertex, AtlasJanusEdge> vertex : vertices) {
+            janusVertices.add((JanusGraphVertex) vertex.getV().getWrappedElement());
+        }
+
+        // the query results are held in the transaction cache of each vertex; property reads on these vertices
+        // are then served from this cache, as the query covers all properties of the vertex
+        getGraph().multiQuery(janusVertices).properties();
+    }
+
     @Override
     public Iterable<AtlasVertex<AtlasJanusVertex, AtlasJanusEdge>> getVertices() {
         Iterator<Vertex> vertices = getGraph().vertices();
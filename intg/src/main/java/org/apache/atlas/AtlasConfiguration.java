@@ -57,6 +57,31 @@ public enum AtlasConfiguration {
     ENTITY_CHANGE_NOTIFY_IGNORE_RELATIONSHIP_ATTRIBUTES("atlas.entity.change.notify.ignore.relationship.attributes", true),
 
     CLASSIFICATION_PROPAGATION_DEFAULT("atlas.classification.propagation.default", true),
+    CLASSIFICATION_PROPAGATION_TRAVERSAL_BATCH_SIZE("atlas.classification.propagation.traversal.batch.size", 500),
+    CLASSIFICATION_PROPAGATION_MAX_IMPACTED_ENTITIES("atlas.classification.propagation.max.impacted.entities", -1),
+
+    TASKS_ENABLED("atlas.tasks.enabled", false),
+    TASKS_WORKER_COUNT("atlas.tasks.worker.count", 2),
+    TASKS_MAX_ATTEMPTS("atlas.tasks.max.attempts", 3),
+    TASKS_RETRY_BASE_DELAY_MS("atlas.tasks.retry.base.delay.ms", 10000), // a failed task is retried after attempts * this delay
+    TASKS_BATCH_SIZE("atlas.tasks.batch.size", 1000),
+
+    FULLTEXT_DEFERRED_ENABLED("atlas.search.fulltext.deferred.enabled", false),
+    FULLTEXT_DEFERRED_BATCH_SIZE("atlas.search.fulltext.deferred.batch.size", 100),
+    FULLTEXT_DEFERRED_WINDOW_MS("atlas.search.fulltext.deferred.window.ms", 1000),
+    FULLTEXT_DEFERRED_MAX_PENDING("atlas.search.fulltext.deferred.max.pending", 100000),
+    FULLTEXT_DEFERRED_MAX_ATTEMPTS("atlas.search.fulltext.deferred.max.attempts", 3),
+
+    ENTITY_SNAPSHOT_CACHE_ENABLED("atlas.entity.snapshot.cache.enabled", false),
+    ENTITY_SNAPSHOT_CACHE_MAX_SIZE_MB("atlas.entity.snapshot.cache.max.size.mb", 100), // total size of serialized snapshots
+    ENTITY_RETRIEVER_PREFETCH_ENABLED("atlas.entity.retriever.prefetch.enabled", false),
+    ENTITY_RETRIEVER_PREFETCH_BATCH_SIZE("atlas.entity.retriever.prefetch.batch.size", 500),
+    ENTITY_BULK_GET_THREAD_COUNT("atlas.entity.bulk.get.thread.count", 8),
+    ENTITY_BULK_GET_MAX_CONCURRENCY_PER_REQUEST("atlas.entity.bulk.get.max.concurrency.per.request", 4),
+    ENTITY_BULK_GET_MIN_BATCH_SIZE("atlas.entity.bulk.get.min.batch.size", 25),
+    ENTITY_REFERRED_ENTITIES_MAX_COUNT("atlas.entity.referred.entities.max.count", -1), // -1: no limit, unless requested by the client
+    ENTITY_READ_AUTHORIZE_REFERRED_ENTITIES("atlas.entity.read.authorize.referred.entities", false),
+    GRAPH_TRANSACTION_EDGE_CACHE_MAX_EDGES("atlas.graph.transaction.edge.cache.max.edges", 100),
 
     //search configuration
     SEARCH_MAX_LIMIT("atlas.search.maxlimit", 10000),
@@ -68,6 +93,15 @@ public enum AtlasConfiguration {
 
     LABEL_MAX_LENGTH("atlas.entity.label.max.length", 50),
     IMPORT_TEMP_DIRECTORY("atlas.import.temp.directory", ""),
+    EXPORT_ENTITY_RETRIEVAL_THREAD_COUNT("atlas.export.entity.retrieval.thread.count", 1), // 1: entities are retrieved on the exporting thread
+    EXPORT_ENTITY_RETRIEVAL_QUEUE_DEPTH("atlas.export.entity.retrieval.queue.depth", 200),
+    EXPORT_ZIP_COMPRESSION_LEVEL("atlas.export.zip.compression.level", -1), // -1: default compression of java.util.zip.Deflater
+    ENTITY_CHANGE_LOG_ENABLED("atlas.entity.change.log.enabled", false),
+    ENTITY_CHANGE_LOG_COMPACTION_INTERVAL_MS("atlas.entity.change.log.compaction.interval.ms", 60000),
+    ENTITY_CHANGE_LOG_READ_LAG_MS("atlas.entity.change.log.read.lag.ms", 60000),
+    BUSINESS_METADATA_IMPORT_NUM_WORKERS("atlas.businessmetadata.import.num.workers", 4),
+    BUSINESS_METADATA_IMPORT_BATCH_SIZE("atlas.businessmetadata.import.batch.size", 100),
+    GLOSSARY_IMPORT_BATCH_SIZE("atlas.glossary.import.batch.size", 100),
     MIGRATION_IMPORT_START_POSITION("atlas.migration.import.start.position", 0),
     LINEAGE_USING_GREMLIN("atlas.lineage.query.use.gremlin", false),
 
@@ -139,6 +139,14 @@ public class BulkImportResponse {
             this.importStatus = importStatus;
         }
 
+        public Integer getRowNumber() {
+            return rowNumber;
+        }
+
+        public void setRowNumber(Integer rowNumber) {
+            this.rowNumber = rowNumber;
+        }
+
         @Override
         public String toString() {
             return "ImportInfo{" +
@@ -20,10 +20,11 @@ package org.apache.atlas.model.glossary.relations;
 import org.apache.atlas.model.annotation.AtlasJSON;
 import org.apache.atlas.model.glossary.enums.AtlasTermAssignmentStatus;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 @AtlasJSON
-public class AtlasTermAssignmentHeader {
+public class AtlasTermAssignmentHeader implements Serializable {
     private String termGuid;
     private String relationGuid;
     private String description;
@@ -539,6 +539,7 @@ public class AtlasEntity extends AtlasStruct implements Serializable {
         private static final long serialVersionUID = 1L;
 
         private Map<String, AtlasEntity> referredEntities;
+        private Integer                  nextReferredEntitiesOffset;
 
 
         public AtlasEntityExtInfo() {
@@ -556,6 +557,7 @@ public class AtlasEntity extends AtlasStruct implements Serializable {
         public AtlasEntityExtInfo(AtlasEntityExtInfo other) {
             if (other != null) {
                 setReferredEntities(other.getReferredEntities());
+                setNextReferredEntitiesOffset(other.getNextReferredEntitiesOffset());
             }
         }
 
@@ -563,6 +565,13 @@ public class AtlasEntity extends AtlasStruct implements Serializable {
 
         public void setReferredEntities(Map<String, AtlasEntity> referredEntities) { this.referredEntities = referredEntities; }
 
+        /**
+         * @return offset to retrieve the next set of referred entities from; null if all referred entities are included
+         */
+        public Integer getNextReferredEntitiesOffset() { return nextReferredEntitiesOffset; }
+
+        public void setNextReferredEntitiesOffset(Integer nextReferredEntitiesOffset) { this.nextReferredEntitiesOffset = nextReferredEntitiesOffset; }
+
         @JsonIgnore
         public final void addReferredEntity(AtlasEntity entity) {
             addReferredEntity(entity.getGuid(), entity);
@@ -638,6 +647,7 @@ public class AtlasEntity extends AtlasStruct implements Serializable {
             sb.append("referredEntities={");
             AtlasBaseTypeDef.dumpObjects(referredEntities, sb);
             sb.append("}");
+            sb.append(", nextReferredEntitiesOffset=").append(nextReferredEntitiesOffset);
             sb.append("}");
 
             return sb;
@@ -654,12 +664,13 @@ public class AtlasEntity extends AtlasStruct implements Serializable {
             }
 
             AtlasEntityExtInfo that = (AtlasEntityExtInfo) o;
-            return Objects.equals(referredEntities, that.referredEntities);
+            return Objects.equals(referredEntities, that.referredEntities) &&
+                   Objects.equals(nextReferredEntitiesOffset, that.nextReferredEntitiesOffset);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(referredEntities);
+            return Objects.hash(referredEntities, nextReferredEntitiesOffset);
         }
 
         @Override
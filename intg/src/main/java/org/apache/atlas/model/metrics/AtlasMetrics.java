@@ -39,6 +39,8 @@ public class AtlasMetrics {
     public static final String PREFIX_CONNECTION_STATUS = "ConnectionStatus:";
     public static final String PREFIX_NOTIFICATION      = "Notification:";
     public static final String PREFIX_SERVER            = "Server:";
+    public static final String PREFIX_FULLTEXT          = "FullText:";
+    public static final String PREFIX_ENTITY_CACHE      = "EntityCache:";
 
     public static final String STAT_NOTIFY_COUNT_CURR_DAY              = PREFIX_NOTIFICATION + "currentDay";
     public static final String STAT_NOTIFY_AVG_TIME_CURR_DAY           = PREFIX_NOTIFICATION + "currentDayAvgTime";
@@ -79,6 +81,14 @@ public class AtlasMetrics {
     public static final String STAT_SERVER_STATUS_BACKEND_STORE        = PREFIX_SERVER + "statusBackendStore";
     public static final String STAT_SERVER_STATUS_INDEX_STORE          = PREFIX_SERVER + "statusIndexStore";
     public static final String STAT_SERVER_UP_TIME                     = PREFIX_SERVER + "upTime";
+    public static final String STAT_FULLTEXT_PENDING_COUNT             = PREFIX_FULLTEXT + "pendingCount";
+    public static final String STAT_FULLTEXT_LAG                       = PREFIX_FULLTEXT + "lagMs";
+    public static final String STAT_FULLTEXT_INDEXED_COUNT             = PREFIX_FULLTEXT + "indexedCount";
+    public static final String STAT_FULLTEXT_LAST_INDEXED_TIME         = PREFIX_FULLTEXT + "lastIndexedTime";
+    public static final String STAT_ENTITY_CACHE_SIZE                  = PREFIX_ENTITY_CACHE + "size";
+    public static final String STAT_ENTITY_CACHE_HIT_COUNT             = PREFIX_ENTITY_CACHE + "hitCount";
+    public static final String STAT_ENTITY_CACHE_MISS_COUNT            = PREFIX_ENTITY_CACHE + "missCount";
+    public static final String STAT_ENTITY_CACHE_EVICTION_COUNT        = PREFIX_ENTITY_CACHE + "evictionCount";
 
     private Map<String, Map<String, Object>> data;
 
@@ -21,6 +21,7 @@ package org.apache.atlas.pc;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
@@ -66,7 +67,22 @@ public abstract class WorkItemConsumer<T> implements Runnable {
             LOG.error("WorkItemConsumer: Interrupted: ", e);
         } finally {
             maxCommitTimeInMs.set(0);
-            countdownLatch.countDown();
+
+            if (countdownLatch != null) {
+                countdownLatch.countDown();
+            }
+        }
+    }
+
+    /**
+     * Processes a batch of items handed off by WorkItemManager. Items are not committed here: the manager calls
+     * commitDirty() once the worker runs out of work, or when a drain is requested.
+     */
+    void processBatch(List<T> items) {
+        for (T item : items) {
+            isDirty.set(true);
+
+            processItem(item);
         }
     }
 
@@ -22,26 +22,67 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
-import java.util.concurrent.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Distributes produced items to a fixed set of workers, each running one consumer.
+ *
+ * Items are handed off in batches of batchSize. Each worker has its own deque of batches: the producer adds a batch to
+ * the worker with the fewest queued batches, a worker takes batches from the head of its own deque and, once that is
+ * empty, steals from the tail of the other workers' deques. The producer is blocked, outside of the manager's lock,
+ * while numWorkers * 2 batches are queued; a producer interrupted while blocked hands off its batch anyway and keeps its
+ * interrupt status, so that no item is lost.
+ *
+ * Idle workers wait to be signalled of a queued batch or of a drain request. Consumers commit once their worker runs out
+ * of work for a while, or when a drain is requested. drainAsync() returns a future that completes once all items
+ * produced so far are processed and committed.
+ */
 public class WorkItemManager<T, U extends WorkItemConsumer> {
     private static final Logger LOG = LoggerFactory.getLogger(WorkItemManager.class);
 
-    private final int              numWorkers;
-    private final BlockingQueue<T> workQueue;
-    private final ExecutorService  service;
-    private final List<U>          consumers = new ArrayList<>();
-    private CountDownLatch         countdownLatch;
-    private Queue<Object>          resultsQueue;
+    private static final int  QUEUED_BATCHES_PER_WORKER = 2;
+    private static final long IDLE_COMMIT_MS            = 5000;
+    private static final long SHUTDOWN_WAIT_MINUTES     = 5;
+
+    private final int                     numWorkers;
+    private final int                     batchSize;
+    private final ExecutorService         service;
+    private final List<U>                 consumers = new ArrayList<>();
+    private final List<Worker>            workers   = new ArrayList<>();
+    private final Semaphore               queuedBatchPermits;
+    private final Object                  completionLock = new Object();
+    private final ReentrantLock           signalLock     = new ReentrantLock();
+    private final Condition               signal         = signalLock.newCondition();              // signalled when a batch is queued, a drain is requested or workers are stopped
+    private       int                     queuedBatches;                                          // queued, and not yet reserved by a worker; guarded by signalLock
+    private       List<T>                 currentBatch;
+    private       int                     nextWorker;
+    private       long                    pendingBatches;                                         // handed off, but not yet processed and committed; guarded by completionLock
+    private       CompletableFuture<Void> completion = CompletableFuture.completedFuture(null);   // guarded by completionLock
+    private volatile boolean              isCommitRequested;
+    private volatile boolean              isStopped;
+    private Queue<Object>                 resultsQueue;
 
     public WorkItemManager(WorkItemBuilder builder, String namePrefix, int batchSize, int numWorkers, boolean collectResults) {
-        this.numWorkers = numWorkers;
-        this.workQueue  = new LinkedBlockingQueue<>(batchSize * numWorkers);
-        this.service    = Executors.newFixedThreadPool(numWorkers, new ThreadFactoryBuilder().setNameFormat(namePrefix + "-%d").build());
+        this.numWorkers         = Math.max(numWorkers, 1);
+        this.batchSize          = Math.max(batchSize, 1);
+        this.queuedBatchPermits = new Semaphore(this.numWorkers * QUEUED_BATCHES_PER_WORKER);
+        this.service            = Executors.newFixedThreadPool(this.numWorkers, new ThreadFactoryBuilder().setNameFormat(namePrefix + "-%d").build());
 
-        createConsumers(builder, numWorkers, collectResults);
+        createConsumers(builder, namePrefix, collectResults);
 
         start();
     }
@@ -54,15 +95,17 @@ public class WorkItemManager<T, U extends WorkItemConsumer> {
         this.resultsQueue = resultsQueue;
     }
 
-    private void createConsumers(WorkItemBuilder builder, int numWorkers, boolean collectResults) {
+    private void createConsumers(WorkItemBuilder builder, String namePrefix, boolean collectResults) {
         if (collectResults) {
             setResultsCollection(new ConcurrentLinkedQueue<>());
         }
 
         for (int i = 0; i < numWorkers; i++) {
-            U c = (U) builder.build(workQueue);
+            // items are handed to the consumer in batches, by its worker; the queue is used only when the consumer is run by itself
+            U c = (U) builder.build(new LinkedBlockingQueue<>());
 
             consumers.add(c);
+            workers.add(new Worker(i, c, new WorkerMetrics(namePrefix + "-" + i)));
 
             if (collectResults) {
                 c.setResults(resultsQueue);
@@ -70,57 +113,109 @@ public class WorkItemManager<T, U extends WorkItemConsumer> {
         }
     }
 
-    public void start() {
-        this.countdownLatch = new CountDownLatch(numWorkers);
+    /**
+     * Starts workers that are not running.
+     */
+    public synchronized void start() {
+        isStopped = false;
 
-        for (U c : consumers) {
-            c.setCountDownLatch(countdownLatch);
-
-            service.execute(c);
+        for (Worker worker : workers) {
+            if (worker.future == null || worker.future.isDone()) {
+                worker.future = service.submit(worker);
+            }
         }
     }
 
     public void produce(T item) {
-        try {
-            workQueue.put(item);
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
+        List<T> items;
+
+        synchronized (this) {
+            if (currentBatch == null) {
+                currentBatch = new ArrayList<>(batchSize);
+            }
+
+            currentBatch.add(item);
+
+            if (currentBatch.size() < batchSize) {
+                return;
+            }
+
+            items = detachCurrentBatch();
         }
+
+        handOff(items);
     }
 
     public void checkProduce(T item) {
-        if (countdownLatch.getCount() < numWorkers) {
-            LOG.info("Fewer workers detected: {}", countdownLatch.getCount());
+        synchronized (this) {
+            for (Worker worker : workers) {
+                if (worker.future != null && worker.future.isDone()) {
+                    LOG.info("Stopped worker detected: {}. Restarting", worker.metrics.getName());
 
-            drain();
+                    start();
 
-            start();
+                    break;
+                }
+            }
         }
 
         produce(item);
     }
 
-    public void drain() {
-        try {
-            if (countdownLatch == null || countdownLatch.getCount() == 0) {
-                return;
-            }
+    /**
+     * Hands off items produced so far and requests workers to commit them.
+     *
+     * @return future that completes once all items handed off so far are processed and committed
+     */
+    public CompletableFuture<Void> drainAsync() {
+        List<T>                 items;
+        CompletableFuture<Void> ret;
 
-            LOG.debug("Drain: Stated! Queue size: {}", workQueue.size());
-            this.countdownLatch.await();
-            LOG.debug("Drain: Done! Queue size: {}", workQueue.size());
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
+        synchronized (this) {
+            items = detachCurrentBatch();
+
+            synchronized (completionLock) {
+                if (pendingBatches > 0) {
+                    isCommitRequested = true;
+                }
+
+                ret = completion;
+            }
         }
+
+        handOff(items);
+
+        signalWorkers();
+
+        return ret;
+    }
+
+    public void drain() {
+        LOG.debug("Drain: Started!");
+
+        awaitCompletion(drainAsync());
+
+        LOG.debug("Drain: Done!");
     }
 
     public void shutdown() throws InterruptedException {
-        int avgCommitTimeSeconds = getAvgCommitTimeSeconds() * 2;
+        LOG.info("WorkItemManager: Shutdown started...");
+
+        awaitCompletion(drainAsync());
 
-        LOG.info("WorkItemManager: Shutdown started. Will wait for: {} minutes...", avgCommitTimeSeconds);
+        isStopped = true;
+
+        signalWorkers();
 
         service.shutdown();
-        service.awaitTermination(avgCommitTimeSeconds, TimeUnit.MINUTES);
+
+        if (!service.awaitTermination(SHUTDOWN_WAIT_MINUTES, TimeUnit.MINUTES)) {
+            LOG.warn("WorkItemManager: workers did not stop in {} minutes", SHUTDOWN_WAIT_MINUTES);
+        }
+
+        for (WorkerMetrics metrics : getWorkerMetrics()) {
+            LOG.info("WorkItemManager: {}", metrics);
+        }
 
         LOG.info("WorkItemManager: Shutdown done!");
     }
@@ -129,13 +224,269 @@ public class WorkItemManager<T, U extends WorkItemConsumer> {
         return this.resultsQueue;
     }
 
-    private int getAvgCommitTimeSeconds() {
-        int commitTimeSeconds = 0;
+    public List<WorkerMetrics> getWorkerMetrics() {
+        List<WorkerMetrics> ret = new ArrayList<>(workers.size());
+
+        for (Worker worker : workers) {
+            ret.add(worker.metrics);
+        }
+
+        return Collections.unmodifiableList(ret);
+    }
+
+    // the batch is counted as pending here, under the manager's lock, so that a drain requested before it is handed off waits for it
+    private List<T> detachCurrentBatch() {
+        if (currentBatch == null || currentBatch.isEmpty()) {
+            return null;
+        }
+
+        List<T> ret = currentBatch;
+
+        currentBatch = null;
+
+        synchronized (completionLock) {
+            if (pendingBatches++ == 0) {
+                completion        = new CompletableFuture<>();
+                isCommitRequested = false;
+            }
+        }
+
+        return ret;
+    }
+
+    private void handOff(List<T> items) {
+        if (items == null) {
+            return;
+        }
+
+        boolean hasPermit;
+
+        try {
+            queuedBatchPermits.acquire();
+
+            hasPermit = true;
+        } catch (InterruptedException ex) {
+            LOG.warn("WorkItemManager: interrupted while waiting for a queue slot. Handing off {} items without waiting", items.size());
+
+            Thread.currentThread().interrupt();
+
+            hasPermit = false;
+        }
+
+        Worker worker;
+
+        synchronized (this) {
+            worker = getLeastLoadedWorker();
+        }
+
+        worker.deque.offerLast(new Batch<>(items, hasPermit));
+
+        signalLock.lock();
+
+        try {
+            queuedBatches++;
+
+            signal.signal();
+        } finally {
+            signalLock.unlock();
+        }
+    }
+
+    private void signalWorkers() {
+        signalLock.lock();
 
-        for (U c : consumers) {
-            commitTimeSeconds += c.getMaxCommitTimeInMs();
+        try {
+            signal.signalAll();
+        } finally {
+            signalLock.unlock();
         }
+    }
+
+    // ties are broken round-robin, so that batches are spread across idle workers
+    private Worker getLeastLoadedWorker() {
+        Worker ret = null;
 
-        return (commitTimeSeconds / consumers.size()) / 1000;
+        for (int i = 0; i < numWorkers; i++) {
+            Worker worker = workers.get((nextWorker + i) % numWorkers);
+
+            if (ret == null || worker.deque.size() < ret.deque.size()) {
+                ret = worker;
+            }
+        }
+
+        nextWorker = (nextWorker + 1) % numWorkers;
+
+        return ret;
+    }
+
+    private void onBatchesCommitted(int count) {
+        CompletableFuture<Void> completed = null;
+
+        synchronized (completionLock) {
+            pendingBatches -= count;
+
+            if (pendingBatches == 0) {
+                isCommitRequested = false;
+                completed         = completion;
+            }
+        }
+
+        if (completed != null) {
+            completed.complete(null);
+        }
+    }
+
+    private static void awaitCompletion(CompletableFuture<Void> future) {
+        try {
+            future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            LOG.error("WorkItemManager: failed to complete", ex.getCause());
+        }
+    }
+
+    private static class Batch<T> {
+        final List<T> items;
+        final boolean hasPermit;
+        final long    queuedTimeNs = System.nanoTime();
+
+        Batch(List<T> items, boolean hasPermit) {
+            this.items     = items;
+            this.hasPermit = hasPermit;
+        }
+    }
+
+    private class Worker implements Runnable {
+        final    int                            index;
+        final    U                              consumer;
+        final    WorkerMetrics                  metrics;
+        final    LinkedBlockingDeque<Batch<T>> deque = new LinkedBlockingDeque<>();
+        volatile Future<?>                      future;
+        int                                     uncommittedBatches;
+
+        Worker(int index, U consumer, WorkerMetrics metrics) {
+            this.index    = index;
+            this.consumer = consumer;
+            this.metrics  = metrics;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!isStopped) {
+                    if (reserveBatch()) {
+                        // the reserved batch is in one of the deques, though another worker may take it while this one looks for it
+                        while (!takeBatch()) {
+                            Thread.yield();
+                        }
+                    } else {
+                        commit();
+                    }
+                }
+            } catch (InterruptedException ex) {
+                LOG.warn("{}: interrupted", metrics.getName());
+            } finally {
+                commit();
+            }
+        }
+
+        /**
+         * Waits for a queued batch and reserves it.
+         *
+         * @return false when the worker is stopped, or has uncommitted batches and either a drain is requested or no batch
+         * was queued for IDLE_COMMIT_MS
+         */
+        private boolean reserveBatch() throws InterruptedException {
+            long waitNs = TimeUnit.MILLISECONDS.toNanos(IDLE_COMMIT_MS);
+
+            signalLock.lock();
+
+            try {
+                while (queuedBatches == 0) {
+                    if (isStopped) {
+                        return false;
+                    }
+
+                    if (uncommittedBatches > 0) {
+                        if (isCommitRequested || waitNs <= 0) {
+                            return false;
+                        }
+
+                        waitNs = signal.awaitNanos(waitNs);
+                    } else {
+                        signal.await();
+                    }
+                }
+
+                queuedBatches--;
+
+                return true;
+            } finally {
+                signalLock.unlock();
+            }
+        }
+
+        // own batches are taken from the head; batches of other workers are stolen from the tail
+        private boolean takeBatch() {
+            Batch<T> batch = deque.pollFirst();
+
+            if (batch != null) {
+                process(batch, false);
+
+                return true;
+            }
+
+            for (int i = 1; i < numWorkers; i++) {
+                Worker victim = workers.get((index + i) % numWorkers);
+
+                batch = victim.deque.pollLast();
+
+                if (batch != null) {
+                    process(batch, true);
+
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private void process(Batch<T> batch, boolean isStolen) {
+            if (batch.hasPermit) {
+                queuedBatchPermits.release();
+            }
+
+            long    startNs  = System.nanoTime();
+            boolean isFailed = false;
+
+            try {
+                consumer.processBatch(batch.items);
+            } catch (Throwable t) {
+                LOG.error("{}: failed to process batch of {} items", metrics.getName(), batch.items.size(), t);
+
+                isFailed = true;
+            } finally {
+                uncommittedBatches++;
+
+                metrics.onBatch(batch.items.size(), startNs - batch.queuedTimeNs, System.nanoTime() - startNs, isStolen, isFailed);
+            }
+        }
+
+        private void commit() {
+            if (uncommittedBatches == 0) {
+                return;
+            }
+
+            try {
+                consumer.commitDirty();
+            } catch (Throwable t) {
+                LOG.error("{}: commit failed", metrics.getName(), t);
+            } finally {
+                onBatchesCommitted(uncommittedBatches);
+
+                uncommittedBatches = 0;
+            }
+        }
     }
 }
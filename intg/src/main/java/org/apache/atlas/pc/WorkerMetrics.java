@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.pc;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of a WorkItemManager worker. Updated only by the worker thread; read by any thread.
+ */
+public class WorkerMetrics {
+    private final    String name;
+    private volatile long   itemCount;
+    private volatile long   batchCount;
+    private volatile long   stolenBatchCount;
+    private volatile long   failedBatchCount;
+    private volatile long   busyTimeNs;
+    private volatile long   queueWaitTimeNs;
+    private volatile long   maxBatchLatencyNs;
+
+    WorkerMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public long getStolenBatchCount() {
+        return stolenBatchCount;
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatchCount;
+    }
+
+    public long getBusyTimeMs() {
+        return TimeUnit.NANOSECONDS.toMillis(busyTimeNs);
+    }
+
+    /**
+     * @return items processed per second of time spent processing
+     */
+    public long getItemsPerSecond() {
+        long busyNs = busyTimeNs;
+
+        return busyNs > 0 ? (itemCount * TimeUnit.SECONDS.toNanos(1)) / busyNs : 0;
+    }
+
+    public long getAvgBatchLatencyMs() {
+        long batches = batchCount;
+
+        return batches > 0 ? TimeUnit.NANOSECONDS.toMillis(busyTimeNs / batches) : 0;
+    }
+
+    public long getMaxBatchLatencyMs() {
+        return TimeUnit.NANOSECONDS.toMillis(maxBatchLatencyNs);
+    }
+
+    /**
+     * @return average time batches waited in the queue, before being picked up by this worker
+     */
+    public long getAvgQueueWaitMs() {
+        long batches = batchCount;
+
+        return batches > 0 ? TimeUnit.NANOSECONDS.toMillis(queueWaitTimeNs / batches) : 0;
+    }
+
+    void onBatch(int items, long queueWaitNs, long latencyNs, boolean isStolen, boolean isFailed) {
+        itemCount       += items;
+        batchCount      += 1;
+        busyTimeNs      += latencyNs;
+        queueWaitTimeNs += queueWaitNs;
+
+        if (isStolen) {
+            stolenBatchCount += 1;
+        }
+
+        if (isFailed) {
+            failedBatchCount += 1;
+        }
+
+        if (latencyNs > maxBatchLatencyNs) {
+            maxBatchLatencyNs = latencyNs;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: items=%d, batches=%d, stolen=%d, failed=%d, items/sec=%d, avgBatchLatencyMs=%d, maxBatchLatencyMs=%d, avgQueueWaitMs=%d",
+                             name, itemCount, batchCount, stolenBatchCount, failedBatchCount, getItemsPerSecond(), getAvgBatchLatencyMs(), getMaxBatchLatencyMs(), getAvgQueueWaitMs());
+    }
+}
@@ -44,6 +44,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -95,6 +96,7 @@ public class AtlasEntityType extends AtlasStructType {
     private List<AtlasAttribute>                             dynEvalTriggerAttributes   = Collections.emptyList();
     private Map<String,List<TemplateToken>>                  parsedTemplates            = Collections.emptyMap();
     private Set<String>                                      tagPropagationEdges        = Collections.emptySet();
+    private volatile AtlasAttribute[]                        hierarchyAttributes        = null;
 
     public AtlasEntityType(AtlasEntityDef entityDef) {
         super(entityDef);
@@ -144,6 +146,7 @@ public class AtlasEntityType extends AtlasStructType {
         this.allSuperTypes          = Collections.unmodifiableSet(allS);
         this.allAttributes          = Collections.unmodifiableMap(allA);
         this.uniqAttributes         = getUniqueAttributes(this.allAttributes);
+        this.hierarchyAttributes    = null; // this will be populated on first use, by getHierarchyAttributes()
         this.subTypes               = new HashSet<>(); // this will be populated in resolveReferencesPhase2()
         this.allSubTypes            = new HashSet<>(); // this will be populated in resolveReferencesPhase2()
         this.typeAndAllSubTypes     = new HashSet<>(); // this will be populated in resolveReferencesPhase2()
@@ -742,6 +745,92 @@ public class AtlasEntityType extends AtlasStructType {
         return ret;
     }
 
+    /**
+     * Validates and normalizes attributes of the given entity in a single pass over the attributes of this type and
+     * its superTypes, each attribute visited once. Reports the same messages as validateValue(); attribute values are
+     * normalized as by getNormalizedValue(). Intended for bulk writes, where the entity is rejected if any message is
+     * reported.
+     *
+     * @return true if the entity is valid
+     */
+    public boolean validateAndNormalizeValue(AtlasEntity entity, String objName, List<String> messages) {
+        boolean             ret        = true;
+        Map<String, Object> attributes = entity.getAttributes();
+
+        for (AtlasAttribute attribute : getHierarchyAttributes()) {
+            String            attrName = attribute.getName();
+            AtlasAttributeDef attrDef  = attribute.getAttributeDef();
+            AtlasType         attrType = attribute.getAttributeType();
+            boolean           hasValue = attributes != null && attributes.containsKey(attrName);
+            Object            value    = hasValue ? attributes.get(attrName) : null;
+
+            if (value != null) {
+                Object normalizedValue = attrType.getNormalizedValue(value); // null for an invalid value
+
+                // messages are built only for invalid values
+                if (normalizedValue == null) {
+                    ret = attrType.validateValue(value, objName + "." + attrName, messages) && ret;
+                } else if (normalizedValue != value) {
+                    attributes.put(attrName, normalizedValue);
+                }
+            } else if (!attrDef.getIsOptional()) {
+                // if required attribute is null, check if attribute value specified in relationship
+                if (entity.getRelationshipAttribute(attrName) == null) {
+                    ret = false;
+
+                    messages.add(objName + "." + attrName + ": mandatory attribute value missing in type " + attribute.getDefinedInType().getTypeName());
+                } else {
+                    entity.setAttribute(attrName, hasValue ? attrType.createDefaultValue() : attrType.createDefaultValue(attrDef.getDefaultValue()));
+                }
+            }
+        }
+
+        ret = validateRelationshipAttributes(entity, objName, messages) && ret;
+
+        if (ret) {
+            normalizeRelationshipAttributeValues(entity, false);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Validates and normalizes the attributes present in the given entity, for a partial update, in a single pass.
+     * Reports the same messages as validateValueForUpdate().
+     *
+     * @return true if the entity is valid
+     */
+    public boolean validateAndNormalizeValueForUpdate(AtlasEntity entity, String objName, List<String> messages) {
+        boolean             ret        = true;
+        Map<String, Object> attributes = entity.getAttributes();
+
+        if (MapUtils.isNotEmpty(attributes)) {
+            for (Map.Entry<String, Object> e : attributes.entrySet()) {
+                Object         value     = e.getValue();
+                AtlasAttribute attribute = value != null ? allAttributes.get(e.getKey()) : null;
+
+                if (attribute == null) {
+                    continue;
+                }
+
+                AtlasType attrType        = attribute.getAttributeType();
+                Object    normalizedValue = attrType.getNormalizedValueForUpdate(value); // null for an invalid value
+
+                if (normalizedValue == null) {
+                    ret = attrType.validateValueForUpdate(value, objName + "." + e.getKey(), messages) && ret;
+                } else if (normalizedValue != value) {
+                    e.setValue(normalizedValue);
+                }
+            }
+        }
+
+        if (ret) {
+            normalizeRelationshipAttributeValues(entity, true);
+        }
+
+        return ret;
+    }
+
     @Override
     public AtlasType getTypeForAttribute() {
         AtlasType attributeType = new AtlasObjectIdType(getTypeName());
@@ -821,6 +910,55 @@ public class AtlasEntityType extends AtlasStructType {
         typeAndAllSubTypes.add(subType.getTypeName());
     }
 
+    /*
+     * attributes defined in this type and in each of its superTypes - superTypes first, each type only once. An
+     * attribute redefined in a subType is included once for each type that defines it, as validateValue() does.
+     *
+     * Attribute instances are taken from allAttributes of the type that defines them, hence this is computed on first
+     * use, after resolveReferences() has been called on all superTypes.
+     */
+    private AtlasAttribute[] getHierarchyAttributes() {
+        AtlasAttribute[] ret = hierarchyAttributes;
+
+        if (ret == null) {
+            Map<String, List<AtlasAttribute>> typeAttributes = new LinkedHashMap<>();
+
+            collectHierarchyAttributes(typeAttributes);
+
+            List<AtlasAttribute> attributes = new ArrayList<>();
+
+            for (List<AtlasAttribute> typeAttrs : typeAttributes.values()) {
+                attributes.addAll(typeAttrs);
+            }
+
+            ret = attributes.toArray(new AtlasAttribute[attributes.size()]);
+
+            hierarchyAttributes = ret;
+        }
+
+        return ret;
+    }
+
+    private void collectHierarchyAttributes(Map<String, List<AtlasAttribute>> typeAttributes) {
+        if (typeAttributes.containsKey(getTypeName())) {
+            return;
+        }
+
+        for (AtlasEntityType superType : superTypes) {
+            superType.collectHierarchyAttributes(typeAttributes);
+        }
+
+        List<AtlasAttribute> attributes = new ArrayList<>();
+
+        if (CollectionUtils.isNotEmpty(entityDef.getAttributeDefs())) {
+            for (AtlasAttributeDef attributeDef : entityDef.getAttributeDefs()) {
+                attributes.add(getAllAttributes().get(attributeDef.getName()));
+            }
+        }
+
+        typeAttributes.put(getTypeName(), attributes);
+    }
+
     private void getTypeHierarchyInfo(AtlasTypeRegistry typeRegistry,
                                       Set<String> allSuperTypeNames,
                                       Map<String, AtlasAttribute> allAttributes) throws AtlasBaseException {
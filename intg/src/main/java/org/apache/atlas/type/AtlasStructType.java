@@ -725,6 +725,7 @@ public class AtlasStructType extends AtlasType {
         private final AtlasAttributeDef        attributeDef;
         private final String                   qualifiedName;
         private final String                   vertexPropertyName;
+        private final String                   vertexPropertyEdgeLabel;
         private final String                   vertexUniquePropertyName;
         private final boolean                  isOwnedRef;
         private final boolean                  isObjectRef;
@@ -745,6 +746,7 @@ public class AtlasStructType extends AtlasType {
             this.attributeType            = attributeType.getTypeForAttribute();
             this.qualifiedName            = getQualifiedAttributeName(definedInType.getStructDef(), attributeDef.getName());
             this.vertexPropertyName       = generateVertexPropertyName(definedInType.getStructDef(), attributeDef, qualifiedName);
+            this.vertexPropertyEdgeLabel  = getEdgeLabel(vertexPropertyName);
             this.vertexUniquePropertyName = attrDef.getIsUnique() ? encodePropertyKey(getQualifiedAttributeName(definedInType.getStructDef(), UNIQUE_ATTRIBUTE_SHADE_PROPERTY_PREFIX + attributeDef.getName())) : null;
             this.relationshipName         = relationshipName;
             this.relationshipEdgeLabel    = getRelationshipEdgeLabel(relationshipLabel);
@@ -806,6 +808,7 @@ public class AtlasStructType extends AtlasType {
             this.attributeDef              = other.attributeDef;
             this.qualifiedName             = other.qualifiedName;
             this.vertexPropertyName        = other.vertexPropertyName;
+            this.vertexPropertyEdgeLabel   = other.vertexPropertyEdgeLabel;
             this.vertexUniquePropertyName  = other.vertexUniquePropertyName;
             this.isOwnedRef                = other.isOwnedRef;
             this.isObjectRef               = other.isObjectRef;
@@ -840,6 +843,11 @@ public class AtlasStructType extends AtlasType {
 
         public String getVertexPropertyName() { return vertexPropertyName; }
 
+        /**
+         * @return label of edges to struct values, and to entities referenced without a relationship-def
+         */
+        public String getVertexPropertyEdgeLabel() { return vertexPropertyEdgeLabel; }
+
         public String getVertexUniquePropertyName() { return vertexUniquePropertyName; }
 
         public boolean isOwnedRef() { return isOwnedRef; }
@@ -26,6 +26,8 @@ import org.apache.atlas.utils.AtlasJson;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -139,6 +141,10 @@ public abstract class AtlasType {
         return AtlasJson.toJson(obj);
     }
 
+    public static void toJson(Object obj, OutputStream out) throws IOException {
+        AtlasJson.writeJson(obj, out);
+    }
+
     public static <T> T fromJson(String jsonStr, Class<T> type) {
         return AtlasJson.fromJson(jsonStr, type);
     }
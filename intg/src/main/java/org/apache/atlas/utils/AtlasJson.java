@@ -47,6 +47,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -117,6 +118,18 @@ public class AtlasJson {
         return ret;
     }
 
+    /**
+     * Writes the given object as JSON directly to the given stream, without building the JSON string. The stream is
+     * flushed, but not closed.
+     */
+    public static void writeJson(Object obj, OutputStream out) throws IOException {
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            mapper.writeValue(generator, obj);
+        }
+    }
+
     public static <T> T fromJson(String jsonStr, Class<T> type) {
         T ret = null;
 
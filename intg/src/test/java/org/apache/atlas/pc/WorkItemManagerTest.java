@@ -26,8 +26,10 @@ import org.testng.annotations.Test;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class WorkItemManagerTest {
     private static final Logger LOG = LoggerFactory.getLogger(WorkItemManagerTest.class);
@@ -107,6 +109,51 @@ public class WorkItemManagerTest {
         assertEquals(cb.integers.size(), numberOfItems);
     }
 
+    @Test
+    public void drainAsyncCompletesAfterAllItemsAreProcessed() throws Exception {
+        IntegerConsumerBuilder cb = new IntegerConsumerBuilder();
+        int numberOfItems = 103;
+
+        WorkItemManager<Integer, WorkItemConsumer> wi = getWorkItemManger(cb, 3);
+        for (int i = 0; i < numberOfItems; i++) {
+            wi.produce(i);
+        }
+
+        wi.drainAsync().get(1, TimeUnit.MINUTES);
+        assertEquals(cb.integers.size(), numberOfItems);
+
+        long itemCount = 0;
+        for (WorkerMetrics metrics : wi.getWorkerMetrics()) {
+            itemCount += metrics.getItemCount();
+        }
+
+        assertEquals(wi.getWorkerMetrics().size(), 3);
+        assertEquals(itemCount, numberOfItems);
+
+        wi.shutdown();
+    }
+
+    @Test
+    public void itemsOfInterruptedProducerAreProcessed() throws Exception {
+        IntegerConsumerBuilder cb = new IntegerConsumerBuilder();
+        int numberOfItems = 10;
+
+        WorkItemManager<Integer, WorkItemConsumer> wi = getWorkItemManger(cb, 2);
+
+        Thread.currentThread().interrupt();
+
+        for (int i = 0; i < numberOfItems; i++) {
+            wi.produce(i);
+        }
+
+        assertTrue(Thread.interrupted());
+
+        wi.drainAsync().get(1, TimeUnit.MINUTES);
+        assertEquals(cb.integers.size(), numberOfItems);
+
+        wi.shutdown();
+    }
+
     private WorkItemManager<Integer, WorkItemConsumer> getWorkItemManger(IntegerConsumerBuilder cb, int numWorkers) {
         return new WorkItemManager<>(cb, 5, numWorkers);
     }
@@ -132,6 +132,56 @@ public class TestAtlasEntityType {
         }
     }
 
+    @Test
+    public void testEntityTypeValidateAndNormalizeValue() {
+        String       intAttrName  = ModelTestUtil.getDefaultAttributeName(AtlasBaseTypeDef.ATLAS_TYPE_INT);
+        String       dateAttrName = ModelTestUtil.getDefaultAttributeName(AtlasBaseTypeDef.ATLAS_TYPE_DATE);
+        List<String> messages     = new ArrayList<>();
+        AtlasEntity  validValue   = entityType.createDefaultValue();
+
+        validValue.setAttribute(intAttrName, "10");
+
+        assertTrue(entityType.validateAndNormalizeValue(validValue, "testObj", messages));
+        assertEquals(messages.size(), 0);
+        assertEquals(validValue.getAttribute(intAttrName), 10);
+
+        AtlasEntity invalidValue1 = entityType.createDefaultValue();
+        AtlasEntity invalidValue2 = entityType.createDefaultValue();
+        AtlasEntity invalidValue3 = new AtlasEntity(entityType.getTypeName());
+
+        invalidValue1.setAttribute(intAttrName, "xyz");
+        invalidValue2.setAttribute(dateAttrName, "xyz");
+
+        for (AtlasEntity value : new AtlasEntity[] { invalidValue1, invalidValue2, invalidValue3 }) {
+            List<String> expectedMessages = new ArrayList<>();
+
+            assertFalse(entityType.validateValue(value, "testObj", expectedMessages));
+
+            assertFalse(entityType.validateAndNormalizeValue(value, "testObj", messages));
+            assertEquals(new HashSet<>(messages), new HashSet<>(expectedMessages), "value=" + value);
+
+            messages.clear();
+        }
+    }
+
+    @Test
+    public void testEntityTypeValidateAndNormalizeValueForUpdate() {
+        String       intAttrName = ModelTestUtil.getDefaultAttributeName(AtlasBaseTypeDef.ATLAS_TYPE_INT);
+        List<String> messages    = new ArrayList<>();
+        AtlasEntity  value       = new AtlasEntity(entityType.getTypeName());
+
+        value.setAttribute(intAttrName, "10");
+
+        assertTrue(entityType.validateAndNormalizeValueForUpdate(value, "testObj", messages));
+        assertEquals(messages.size(), 0);
+        assertEquals(value.getAttribute(intAttrName), 10);
+
+        value.setAttribute(intAttrName, "xyz");
+
+        assertFalse(entityType.validateAndNormalizeValueForUpdate(value, "testObj", messages));
+        assertEquals(messages.size(), 1);
+    }
+
     @Test
     public void testValidConstraints() {
         AtlasTypeRegistry          typeRegistry = new AtlasTypeRegistry();
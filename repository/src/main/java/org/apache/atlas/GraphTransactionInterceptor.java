@@ -23,9 +23,12 @@ import org.aopalliance.intercept.MethodInvocation;
 import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.exception.NotFoundException;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.utils.AtlasPerfMetrics.MetricRecorder;
+import org.apache.commons.collections.IteratorUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -37,7 +40,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -51,6 +56,8 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
     private static final ThreadLocal<Boolean>                   isTxnOpen                  = ThreadLocal.withInitial(() -> Boolean.FALSE);
     private static final ThreadLocal<Boolean>                   innerFailure               = ThreadLocal.withInitial(() -> Boolean.FALSE);
     private static final ThreadLocal<Map<String, AtlasVertex>>  guidVertexCache            = ThreadLocal.withInitial(() -> new HashMap<>());
+    private static final ThreadLocal<Map<EdgesCacheKey, List<AtlasEdge>>> vertexEdgesCache = ThreadLocal.withInitial(() -> new HashMap<>());
+    private static final int                                    EDGE_CACHE_MAX_EDGES       = AtlasConfiguration.GRAPH_TRANSACTION_EDGE_CACHE_MAX_EDGES.getInt();
 
     private final AtlasGraph graph;
 
@@ -118,6 +125,7 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
                 isTxnOpen.set(Boolean.FALSE);
                 innerFailure.set(Boolean.FALSE);
                 guidVertexCache.get().clear();
+                vertexEdgesCache.get().clear();
 
                 List<PostTransactionHook> trxHooks = postTransactionHooks.get();
 
@@ -181,6 +189,13 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
         OBJECT_UPDATE_SYNCHRONIZER.lockObject(guids);
     }
 
+    /**
+     * @return true if the calling thread is in a transaction started by this interceptor
+     */
+    public static boolean isTxnOpen() {
+        return isTxnOpen.get();
+    }
+
     public static void addToVertexCache(String guid, AtlasVertex vertex) {
         Map<String, AtlasVertex> cache = guidVertexCache.get();
 
@@ -201,6 +216,70 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
 
     public static void clearCache() {
         guidVertexCache.get().clear();
+        vertexEdgesCache.get().clear();
+    }
+
+    /**
+     * Returns edges of the vertex with the given label, from the cache of the current transaction if available. Edges
+     * are cached only for vertices that have up to atlas.graph.transaction.edge.cache.max.edges of them; edges of
+     * other vertices are read from the graph on every call.
+     *
+     * Edges are cached only while a transaction started by this interceptor is open, since the cache is cleared when
+     * that transaction ends; callers that commit the graph by other means always read edges from the graph.
+     */
+    public static Iterator<AtlasEdge> getEdges(AtlasVertex vertex, AtlasEdgeDirection direction, String edgeLabel) {
+        if (EDGE_CACHE_MAX_EDGES <= 0 || !isTxnOpen.get()) {
+            return vertex.getEdges(direction, edgeLabel).iterator();
+        }
+
+        Map<EdgesCacheKey, List<AtlasEdge>> cache = vertexEdgesCache.get();
+        EdgesCacheKey                       key   = new EdgesCacheKey(vertex.getId(), direction, edgeLabel);
+        List<AtlasEdge>                     edges = cache.get(key);
+
+        if (edges != null) {
+            return edges.iterator();
+        }
+
+        Iterator<AtlasEdge> iter = vertex.getEdges(direction, edgeLabel).iterator();
+
+        edges = new ArrayList<>();
+
+        while (iter.hasNext() && edges.size() < EDGE_CACHE_MAX_EDGES) {
+            edges.add(iter.next());
+        }
+
+        if (iter.hasNext()) { // too many edges to cache
+            return IteratorUtils.chainedIterator(edges.iterator(), iter);
+        }
+
+        cache.put(key, edges);
+
+        return edges.iterator();
+    }
+
+    /**
+     * Invalidates cached edges of the given vertices with the given label; to be called when such an edge is added or removed.
+     */
+    public static void invalidateEdgesCache(AtlasVertex outVertex, AtlasVertex inVertex, String edgeLabel) {
+        Map<EdgesCacheKey, List<AtlasEdge>> cache = vertexEdgesCache.get();
+
+        if (cache.isEmpty()) {
+            return;
+        }
+
+        for (AtlasEdgeDirection direction : AtlasEdgeDirection.values()) {
+            if (outVertex != null) {
+                cache.remove(new EdgesCacheKey(outVertex.getId(), direction, edgeLabel));
+            }
+
+            if (inVertex != null) {
+                cache.remove(new EdgesCacheKey(inVertex.getId(), direction, edgeLabel));
+            }
+        }
+    }
+
+    public static void clearEdgesCache() {
+        vertexEdgesCache.get().clear();
     }
 
     boolean logException(Throwable t) {
@@ -331,4 +410,36 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
             }
         }
     }
+
+    private static final class EdgesCacheKey {
+        private final Object             vertexId;
+        private final AtlasEdgeDirection direction;
+        private final String             edgeLabel;
+
+        EdgesCacheKey(Object vertexId, AtlasEdgeDirection direction, String edgeLabel) {
+            this.vertexId  = vertexId;
+            this.direction = direction;
+            this.edgeLabel = edgeLabel;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof EdgesCacheKey)) {
+                return false;
+            }
+
+            EdgesCacheKey that = (EdgesCacheKey) o;
+
+            return direction == that.direction && Objects.equals(vertexId, that.vertexId) && Objects.equals(edgeLabel, that.edgeLabel);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(vertexId, direction, edgeLabel);
+        }
+    }
 }
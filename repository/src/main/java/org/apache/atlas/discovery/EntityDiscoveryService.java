@@ -47,6 +47,7 @@ import org.apache.atlas.repository.userprofile.UserProfileService;
 import org.apache.atlas.type.*;
 import org.apache.atlas.type.AtlasBuiltInTypes.AtlasObjectIdType;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute.AtlasRelationshipEdgeDirection;
 import org.apache.atlas.util.AtlasGremlinQueryProvider;
 import org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery;
 import org.apache.atlas.util.SearchTracker;
@@ -58,7 +59,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
-import javax.script.Bindings;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.util.*;
@@ -77,7 +77,12 @@ import static org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery.
 public class EntityDiscoveryService implements AtlasDiscoveryService {
     private static final Logger LOG = LoggerFactory.getLogger(EntityDiscoveryService.class);
     private static final String DEFAULT_SORT_ATTRIBUTE_NAME = "name";
-    private static final String SORT_ATTRIBUTE_NAME = "sortAttributeName";
+
+    private static final Comparator<RelatedVertex> RELATED_VERTEX_COMPARATOR = (v1, v2) -> {
+        int ret = compareSortValues(v1.sortValue, v2.sortValue);
+
+        return ret != 0 ? ret : String.valueOf(v1.vertex.getId()).compareTo(String.valueOf(v2.vertex.getId()));
+    };
 
     private final AtlasGraph                      graph;
     private final EntityGraphRetriever            entityRetriever;
@@ -584,9 +589,14 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
             attribute = entityType.getRelationshipAttribute(relation, null);
         }
 
+        AtlasEntityType    relatedEntityType = null;
+        AtlasEdgeDirection direction         = AtlasEdgeDirection.BOTH;
+
         if (attribute != null) {
             if (attribute.isObjectRef()) {
-                relation = attribute.getRelationshipEdgeLabel();
+                relation          = attribute.getRelationshipEdgeLabel();
+                relatedEntityType = getReferencedEntityType(attribute.getAttributeType());
+                direction         = toEdgeDirection(attribute.getRelationshipEdgeDirection());
             } else {
                 throw new AtlasBaseException(AtlasErrorCode.INVALID_RELATIONSHIP_ATTRIBUTE, relation, attribute.getTypeName());
             }
@@ -596,7 +606,11 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
             sortByAttributeName = DEFAULT_SORT_ATTRIBUTE_NAME;
         }
 
-        AtlasAttribute sortByAttribute = entityType.getAttribute(sortByAttributeName);
+        AtlasAttribute sortByAttribute = relatedEntityType != null ? relatedEntityType.getAttribute(sortByAttributeName) : null;
+
+        if (sortByAttribute == null) {
+            sortByAttribute = entityType.getAttribute(sortByAttributeName);
+        }
 
         if (sortByAttribute == null) {
             sortByAttributeName = null;
@@ -609,66 +623,30 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
             }
         }
 
-        QueryParams  params               = QueryParams.getNormalizedParams(limit, offset);
-        ScriptEngine scriptEngine         = graph.getGremlinScriptEngine();
-        Bindings     bindings             = scriptEngine.createBindings();
-        Set<String>  states               = getEntityStates();
-        String       relatedEntitiesQuery = gremlinQueryProvider.getQuery(RELATIONSHIP_SEARCH);
+        QueryParams params = QueryParams.getNormalizedParams(limit, offset);
+        Set<String> states = getEntityStates();
 
         if (excludeDeletedEntities) {
             states.remove(DELETED.toString());
         }
 
-        if (sortOrder == ASCENDING) {
-            relatedEntitiesQuery += gremlinQueryProvider.getQuery(RELATIONSHIP_SEARCH_ASCENDING_SORT);
-            bindings.put(SORT_ATTRIBUTE_NAME, sortByAttributeName);
+        RelatedVerticesPage page;
 
-        } else if (sortOrder == DESCENDING) {
-            relatedEntitiesQuery += gremlinQueryProvider.getQuery(RELATIONSHIP_SEARCH_DESCENDING_SORT);
-            bindings.put(SORT_ATTRIBUTE_NAME, sortByAttributeName);
+        if (sortByAttributeName == null || sortOrder == null) {
+            page = getRelatedVerticesInEdgeOrder(entityVertex, direction, relation, states, params.offset(), params.limit());
+        } else {
+            page = getRelatedVerticesBySortValue(entityVertex, direction, relation, states, sortByAttributeName, sortOrder, params.offset(), params.limit());
         }
 
-        relatedEntitiesQuery += gremlinQueryProvider.getQuery(TO_RANGE_LIST);
-
-        bindings.put("g", graph);
-        bindings.put("guid", guid);
-        bindings.put("relation", relation);
-        bindings.put("states", Collections.unmodifiableSet(states));
-        bindings.put("startIdx", params.offset());
-        bindings.put("endIdx", params.offset() + params.limit());
-
-        try {
-            Object result = graph.executeGremlinScript(scriptEngine, bindings, relatedEntitiesQuery, false);
-
-            if (result instanceof List && CollectionUtils.isNotEmpty((List) result)) {
-                List<?> queryResult  = (List) result;
-                Object  firstElement = queryResult.get(0);
-
-                if (firstElement instanceof AtlasVertex) {
-                    List<AtlasVertex>       vertices   = (List<AtlasVertex>) queryResult;
-                    List<AtlasEntityHeader> resultList = new ArrayList<>(vertices.size());
-
-                    for (AtlasVertex vertex : vertices) {
-                        resultList.add(entityRetriever.toAtlasEntityHeader(vertex));
-                    }
-
-                    ret.setEntities(resultList);
-                }
-            }
-
-            if (ret.getEntities() == null) {
-                ret.setEntities(new ArrayList<>());
-            }
-        } catch (ScriptException e) {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Gremlin script execution failed for relationship search query: {}", relatedEntitiesQuery, e);
-            }
+        List<AtlasEntityHeader> resultList = new ArrayList<>(page.vertices.size());
 
-            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "Relationship search query failed");
-        } finally {
-            graph.releaseGremlinScriptEngine(scriptEngine);
+        for (AtlasVertex vertex : page.vertices) {
+            resultList.add(entityRetriever.toAtlasEntityHeader(vertex));
         }
 
+        ret.setEntities(resultList);
+        ret.setApproximateCount(page.count);
+
         scrubSearchResults(ret);
 
         return ret;
@@ -838,6 +816,163 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         return "";
     }
 
+    /**
+     * Returns the given page of vertices related to entityVertex by edges with the given label, in the order of edges.
+     *
+     * Related vertices are reached through the adjacency list of entityVertex, and iteration stops once the page is
+     * filled. Hence the count of related vertices is known only when the page reaches the last of them; otherwise it
+     * is -1, rather than reading the rest of the edges just to count them.
+     */
+    private static RelatedVerticesPage getRelatedVerticesInEdgeOrder(AtlasVertex entityVertex, AtlasEdgeDirection direction, String relation, Set<String> states,
+                                                                     int offset, int limit) {
+        Iterator<AtlasEdge> edges   = GraphHelper.getAdjacentEdgesByLabel(entityVertex, direction, relation);
+        List<AtlasVertex>   ret     = new ArrayList<>();
+        int                 skipped = 0;
+
+        while (edges.hasNext() && ret.size() < limit) {
+            AtlasVertex relatedVertex = getRelatedVertex(entityVertex, edges.next(), states);
+
+            if (relatedVertex == null) {
+                continue;
+            }
+
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                ret.add(relatedVertex);
+            }
+        }
+
+        return new RelatedVerticesPage(ret, edges.hasNext() ? -1 : skipped + ret.size());
+    }
+
+    /**
+     * Returns the given page of vertices related to entityVertex by edges with the given label, in the order of the
+     * given vertex property.
+     *
+     * Relationship edges don't carry properties of the related vertices, and the graph has no index that orders the
+     * vertices related to a given vertex; hence the sort property is read from every related vertex, and the cost is
+     * proportional to the number of related vertices. Only offset + limit vertices are retained while iterating, and
+     * the count of related vertices is taken from the same iteration.
+     */
+    private static RelatedVerticesPage getRelatedVerticesBySortValue(AtlasVertex entityVertex, AtlasEdgeDirection direction, String relation, Set<String> states,
+                                                                     String sortByPropertyName, SortOrder sortOrder, int offset, int limit) {
+        Iterator<AtlasEdge>          edges       = GraphHelper.getAdjacentEdgesByLabel(entityVertex, direction, relation);
+        Comparator<RelatedVertex>    comparator  = sortOrder == DESCENDING ? RELATED_VERTEX_COMPARATOR.reversed() : RELATED_VERTEX_COMPARATOR;
+        int                          maxCount    = offset + limit;
+        PriorityQueue<RelatedVertex> topVertices = new PriorityQueue<>(Math.min(maxCount, 1024), comparator.reversed()); // head is the last in sort order
+        long                         count       = 0;
+
+        while (edges.hasNext()) {
+            AtlasVertex relatedVertex = getRelatedVertex(entityVertex, edges.next(), states);
+
+            if (relatedVertex == null) {
+                continue;
+            }
+
+            RelatedVertex candidate = new RelatedVertex(relatedVertex, relatedVertex.getProperty(sortByPropertyName, Object.class));
+
+            count++;
+
+            if (topVertices.size() < maxCount) {
+                topVertices.add(candidate);
+            } else if (comparator.compare(candidate, topVertices.peek()) < 0) {
+                topVertices.poll();
+                topVertices.add(candidate);
+            }
+        }
+
+        List<RelatedVertex> sorted = new ArrayList<>(topVertices);
+
+        sorted.sort(comparator);
+
+        List<AtlasVertex> ret = new ArrayList<>(Math.max(sorted.size() - offset, 0));
+
+        for (int i = offset; i < sorted.size(); i++) {
+            ret.add(sorted.get(i).vertex);
+        }
+
+        return new RelatedVerticesPage(ret, count);
+    }
+
+    private static AtlasEdgeDirection toEdgeDirection(AtlasRelationshipEdgeDirection direction) {
+        if (direction == AtlasRelationshipEdgeDirection.IN) {
+            return AtlasEdgeDirection.IN;
+        } else if (direction == AtlasRelationshipEdgeDirection.OUT) {
+            return AtlasEdgeDirection.OUT;
+        }
+
+        return AtlasEdgeDirection.BOTH;
+    }
+
+    private static AtlasVertex getRelatedVertex(AtlasVertex entityVertex, AtlasEdge edge, Set<String> states) {
+        if (!states.contains(edge.getProperty(STATE_PROPERTY_KEY, String.class))) {
+            return null;
+        }
+
+        AtlasVertex ret = edge.getOutVertex();
+
+        if (Objects.equals(ret.getId(), entityVertex.getId())) {
+            ret = edge.getInVertex();
+        }
+
+        return states.contains(ret.getProperty(STATE_PROPERTY_KEY, String.class)) ? ret : null;
+    }
+
+    private AtlasEntityType getReferencedEntityType(AtlasType type) {
+        if (type instanceof AtlasArrayType) {
+            type = ((AtlasArrayType) type).getElementType();
+        }
+
+        if (type instanceof AtlasMapType) {
+            type = ((AtlasMapType) type).getValueType();
+        }
+
+        if (type instanceof AtlasObjectIdType) {
+            return typeRegistry.getEntityTypeByName(((AtlasObjectIdType) type).getObjectType());
+        }
+
+        return type instanceof AtlasEntityType ? (AtlasEntityType) type : null;
+    }
+
+    // vertices without the sort property are ordered after the rest
+    @SuppressWarnings("unchecked")
+    private static int compareSortValues(Object val1, Object val2) {
+        if (val1 == null || val2 == null) {
+            return val1 == null ? (val2 == null ? 0 : 1) : -1;
+        }
+
+        if (val1 instanceof Comparable && val1.getClass().equals(val2.getClass())) {
+            return ((Comparable<Object>) val1).compareTo(val2);
+        }
+
+        if (val1 instanceof Number && val2 instanceof Number) {
+            return Double.compare(((Number) val1).doubleValue(), ((Number) val2).doubleValue());
+        }
+
+        return val1.toString().compareTo(val2.toString());
+    }
+
+    private static class RelatedVertex {
+        final AtlasVertex vertex;
+        final Object      sortValue;
+
+        RelatedVertex(AtlasVertex vertex, Object sortValue) {
+            this.vertex    = vertex;
+            this.sortValue = sortValue;
+        }
+    }
+
+    private static class RelatedVerticesPage {
+        final List<AtlasVertex> vertices;
+        final long              count; // count of all related vertices; -1 if not known
+
+        RelatedVerticesPage(List<AtlasVertex> vertices, long count) {
+            this.vertices = vertices;
+            this.count    = count;
+        }
+    }
+
     private Set<String> getEntityStates() {
         return new HashSet<>(Arrays.asList(ACTIVE.toString(), DELETED.toString()));
     }
@@ -27,12 +27,16 @@ import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
 import org.apache.atlas.model.glossary.relations.AtlasRelatedCategoryHeader;
 import org.apache.atlas.model.glossary.relations.AtlasRelatedTermHeader;
 import org.apache.atlas.model.glossary.relations.AtlasTermCategorizationHeader;
+import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasRelatedObjectId;
+import org.apache.atlas.repository.graph.GraphHelper;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.ogm.DataAccess;
 import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
 import org.apache.atlas.repository.store.graph.v2.AtlasEntityChangeNotifier;
 import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.FileUtils;
 import org.apache.commons.collections.CollectionUtils;
@@ -58,26 +62,30 @@ import static org.apache.atlas.glossary.GlossaryUtils.*;
 
 @Service
 public class GlossaryService {
-    private static final Logger  LOG                 = LoggerFactory.getLogger(GlossaryService.class);
-    private static final boolean DEBUG_ENABLED       = LOG.isDebugEnabled();
-    private static final String  QUALIFIED_NAME_ATTR = "qualifiedName";
+    private static final Logger  LOG                         = LoggerFactory.getLogger(GlossaryService.class);
+    private static final boolean DEBUG_ENABLED               = LOG.isDebugEnabled();
+    private static final String  QUALIFIED_NAME_ATTR         = "qualifiedName";
+    private static final String  TERM_ASSIGNED_ENTITIES_ATTR = "assignedEntities";
 
     private final DataAccess                dataAccess;
     private final GlossaryTermUtils         glossaryTermUtils;
     private final GlossaryCategoryUtils     glossaryCategoryUtils;
     private final AtlasTypeRegistry         atlasTypeRegistry;
     private final AtlasEntityChangeNotifier entityChangeNotifier;
+    private final EntityGraphRetriever      entityRetriever;
 
     private static final char[] invalidNameChars = { '@', '.' };
 
     @Inject
     public GlossaryService(DataAccess dataAccess, final AtlasRelationshipStore relationshipStore,
-                           final AtlasTypeRegistry typeRegistry, AtlasEntityChangeNotifier entityChangeNotifier) {
+                           final AtlasTypeRegistry typeRegistry, AtlasEntityChangeNotifier entityChangeNotifier,
+                           EntityGraphRetriever entityRetriever) {
         this.dataAccess           = dataAccess;
         atlasTypeRegistry         = typeRegistry;
         glossaryTermUtils         = new GlossaryTermUtils(relationshipStore, typeRegistry, dataAccess);
         glossaryCategoryUtils     = new GlossaryCategoryUtils(relationshipStore, typeRegistry, dataAccess);
         this.entityChangeNotifier = entityChangeNotifier;
+        this.entityRetriever      = entityRetriever;
     }
 
     /**
@@ -389,6 +397,35 @@ public class GlossaryService {
         return ret;
     }
 
+    /**
+     * Creates the given terms, and their relations, in a single transaction. Unlike createTerms(), the terms are not
+     * validated and are not reloaded after creation: the caller must set qualifiedName and anchor of each term, and
+     * verify that no term with the qualifiedName exists. GUIDs assigned to the terms are set in the given objects.
+     *
+     * @param glossaryTerms terms to create
+     * @throws AtlasBaseException
+     */
+    @GraphTransaction
+    public void createTermsNoLoad(List<AtlasGlossaryTerm> glossaryTerms) throws AtlasBaseException {
+        if (DEBUG_ENABLED) {
+            LOG.debug("==> GlossaryService.createTermsNoLoad({})", CollectionUtils.size(glossaryTerms));
+        }
+
+        if (CollectionUtils.isEmpty(glossaryTerms)) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "glossaryTerm(s) is null/empty");
+        }
+
+        dataAccess.saveNoLoad(glossaryTerms);
+
+        for (AtlasGlossaryTerm glossaryTerm : glossaryTerms) {
+            glossaryTermUtils.processTermRelations(getAtlasGlossaryTermSkeleton(glossaryTerm.getGuid()), glossaryTerm, GlossaryUtils.RelationshipOperation.CREATE);
+        }
+
+        if (DEBUG_ENABLED) {
+            LOG.debug("<== GlossaryService.createTermsNoLoad()");
+        }
+    }
+
     @GraphTransaction
     public AtlasGlossaryTerm updateTerm(AtlasGlossaryTerm atlasGlossaryTerm) throws AtlasBaseException {
         if (DEBUG_ENABLED) {
@@ -899,25 +936,43 @@ public class GlossaryService {
             throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "termGuid is null/empty");
         }
 
-        AtlasGlossaryTerm         glossaryTerm     = dataAccess.load(getAtlasGlossaryTermSkeleton(termGuid));
-        Set<AtlasRelatedObjectId> assignedEntities = glossaryTerm.getAssignedEntities();
+        // assignments are read from the term's relationship edges, instead of loading the whole term
+        return entityRetriever.getRelatedObjectIds(getTermVertex(termGuid), getAssignedEntitiesAttribute(), Math.max(offset, 0), limit, sortOrder);
+    }
 
-        List<AtlasRelatedObjectId> ret;
-        if (CollectionUtils.isNotEmpty(assignedEntities)) {
-            ret = new ArrayList<>(assignedEntities);
-            if (sortOrder != null) {
-                ret.sort((o1, o2) -> sortOrder == SortOrder.ASCENDING ?
-                                             o1.getDisplayText().compareTo(o2.getDisplayText()) :
-                                             o2.getDisplayText().compareTo(o1.getDisplayText()));
-            }
-            ret = new PaginationHelper<>(assignedEntities, offset, limit).getPaginatedList();
-        } else {
-            ret = Collections.emptyList();
+    @GraphTransaction
+    public long getAssignedEntitiesCount(final String termGuid) throws AtlasBaseException {
+        if (Objects.isNull(termGuid)) {
+            throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "termGuid is null/empty");
+        }
+
+        return entityRetriever.getRelatedObjectCount(getTermVertex(termGuid), getAssignedEntitiesAttribute());
+    }
+
+    private AtlasVertex getTermVertex(String termGuid) throws AtlasBaseException {
+        AtlasVertex ret = AtlasGraphUtilsV2.findByGuid(termGuid);
+
+        if (ret == null) {
+            throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, termGuid);
+        }
+
+        String typeName = GraphHelper.getTypeName(ret);
+
+        if (!ATLAS_GLOSSARY_TERM_TYPENAME.equals(typeName)) {
+            throw new AtlasBaseException(AtlasErrorCode.UNEXPECTED_TYPE, ATLAS_GLOSSARY_TERM_TYPENAME, typeName);
+        }
+
+        if (GraphHelper.getStatus(ret) == AtlasEntity.Status.DELETED) {
+            throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_DELETED, termGuid);
         }
 
         return ret;
     }
 
+    private AtlasAttribute getAssignedEntitiesAttribute() {
+        return atlasTypeRegistry.getEntityTypeByName(ATLAS_GLOSSARY_TERM_TYPENAME).getRelationshipAttribute(TERM_ASSIGNED_ENTITIES_ATTR, EntityGraphRetriever.TERM_RELATION_NAME);
+    }
+
     private boolean glossaryExists(AtlasGlossary atlasGlossary) {
         AtlasVertex vertex = AtlasGraphUtilsV2.findByUniqueAttributes(atlasTypeRegistry.getEntityTypeByName(GlossaryUtils.ATLAS_GLOSSARY_TYPENAME), new HashMap<String, Object>() {{
             put(QUALIFIED_NAME_ATTR, atlasGlossary.getQualifiedName());
@@ -0,0 +1,353 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.glossary;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.bulkimport.BulkImportResponse;
+import org.apache.atlas.bulkimport.BulkImportResponse.ImportInfo;
+import org.apache.atlas.bulkimport.BulkImportResponse.ImportStatus;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.glossary.AtlasGlossary;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.ogm.DataAccess;
+import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
+import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.util.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.atlas.glossary.GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME;
+import static org.apache.atlas.glossary.GlossaryUtils.ATLAS_GLOSSARY_TYPENAME;
+
+/**
+ * Creates glossary terms from a CSV or Excel file, in batches.
+ *
+ * All rows of the file are read first. Glossaries, existing terms with qualifiedNames of the new terms, and terms
+ * referred to in related-term columns are then looked up with one query for every MAX_VALUES_PER_QUERY names, instead
+ * of a lookup for each row and each reference. Terms are created in transactions of batchSize terms, without reloading
+ * them after creation; if a transaction fails, terms of the batch are created one at a time, so that failures are
+ * reported only against rows of the terms that failed. Listeners, like audit, are notified of terms created only after
+ * commit, so that terms of a failed transaction are not notified.
+ *
+ * Unlike GlossaryService.importGlossaryData(), invalid rows don't fail the whole file: result of each row is reported.
+ */
+@Component
+public class GlossaryTermImporter {
+    private static final Logger LOG = LoggerFactory.getLogger(GlossaryTermImporter.class);
+
+    private static final int    MAX_VALUES_PER_QUERY    = 1000;
+    private static final String GLOSSARY_QUALIFIED_NAME = ATLAS_GLOSSARY_TYPENAME + ".qualifiedName";
+    private static final String TERM_QUALIFIED_NAME     = ATLAS_GLOSSARY_TERM_TYPENAME + ".qualifiedName";
+
+    private final GlossaryService   glossaryService;
+    private final GlossaryTermUtils glossaryTermUtils;
+    private final int               batchSize;
+
+    @Inject
+    public GlossaryTermImporter(GlossaryService glossaryService, DataAccess dataAccess, AtlasRelationshipStore relationshipStore, AtlasTypeRegistry typeRegistry) {
+        this(glossaryService, dataAccess, relationshipStore, typeRegistry, AtlasConfiguration.GLOSSARY_IMPORT_BATCH_SIZE.getInt());
+    }
+
+    GlossaryTermImporter(GlossaryService glossaryService, DataAccess dataAccess, AtlasRelationshipStore relationshipStore, AtlasTypeRegistry typeRegistry, int batchSize) {
+        this.glossaryService   = glossaryService;
+        this.glossaryTermUtils = new GlossaryTermUtils(relationshipStore, typeRegistry, dataAccess);
+        this.batchSize         = Math.max(batchSize, 1);
+    }
+
+    /**
+     * Creates glossary terms in the given file. Glossaries that don't exist are created.
+     *
+     * @return result of each row of the file, in the order of rows
+     */
+    public BulkImportResponse importGlossaryTerms(InputStream inputStream, String fileName) throws AtlasBaseException {
+        if (StringUtils.isBlank(fileName)) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_FILE_TYPE, fileName);
+        }
+
+        long      startTime = System.currentTimeMillis();
+        List<Row> rows      = new ArrayList<>();
+
+        try {
+            FileUtils.readFileData(fileName, inputStream, record -> rows.add(new Row(rows.size() + 1, record)));
+        } catch (IOException e) {
+            throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_UPLOAD, e);
+        }
+
+        Map<String, String> glossaryGuids = resolveGlossaries(rows);
+        Map<String, String> termGuids     = resolveTerms(rows);
+        List<Row>           toCreate      = toTerms(rows, glossaryGuids, termGuids);
+        boolean             prevNotify    = RequestContext.get().isNotifyListenersOnCommit();
+
+        // terms of a failed batch are created again one at a time; listeners shouldn't be notified of the failed batch
+        RequestContext.get().setNotifyListenersOnCommit(true);
+
+        try {
+            for (int i = 0; i < toCreate.size(); i += batchSize) {
+                createTerms(toCreate.subList(i, Math.min(i + batchSize, toCreate.size())));
+            }
+        } finally {
+            RequestContext.get().setNotifyListenersOnCommit(prevNotify);
+        }
+
+        BulkImportResponse ret = new BulkImportResponse();
+
+        for (Row row : rows) {
+            if (row.result.getImportStatus() == ImportStatus.SUCCESS) {
+                ret.setSuccessImportInfoList(row.result);
+            } else {
+                ret.setFailedImportInfoList(row.result);
+            }
+        }
+
+        LOG.info("importGlossaryTerms(fileName={}): {} rows, {} failed, in {} ms", fileName, rows.size(), ret.getFailedImportInfoList().size(), System.currentTimeMillis() - startTime);
+
+        return ret;
+    }
+
+    // glossaries are looked up by qualifiedName, which is the glossary name given in the file
+    private Map<String, String> resolveGlossaries(List<Row> rows) {
+        Set<String> glossaryNames = new LinkedHashSet<>();
+
+        for (Row row : rows) {
+            if (StringUtils.isBlank(row.glossaryName)) {
+                row.onFailure("The GlossaryName is blank for the record : " + Arrays.toString(row.record));
+            } else {
+                glossaryNames.add(row.glossaryName);
+            }
+        }
+
+        Map<String, String> ret            = findGuids(ATLAS_GLOSSARY_TYPENAME, GLOSSARY_QUALIFIED_NAME, glossaryNames);
+        Map<String, String> createFailures = new HashMap<>();
+
+        for (String glossaryName : glossaryNames) {
+            if (ret.get(glossaryName) != null) {
+                continue;
+            }
+
+            if (GlossaryService.isNameInvalid(glossaryName)) {
+                createFailures.put(glossaryName, "The provided Glossary Name is invalid : " + glossaryName);
+
+                continue;
+            }
+
+            AtlasGlossary glossary = new AtlasGlossary();
+
+            glossary.setName(glossaryName);
+
+            try {
+                ret.put(glossaryName, glossaryService.createGlossary(glossary).getGuid());
+            } catch (AtlasBaseException e) {
+                LOG.error("importGlossaryTerms(): failed to create glossary {}", glossaryName, e);
+
+                createFailures.put(glossaryName, e.getMessage());
+            } finally {
+                RequestContext.get().clearCache();
+            }
+        }
+
+        for (Row row : rows) {
+            if (row.result == null && createFailures.containsKey(row.glossaryName)) {
+                row.onFailure(createFailures.get(row.glossaryName));
+            }
+        }
+
+        return ret;
+    }
+
+    // looks up terms with qualifiedNames of the new terms, to detect duplicates, and terms referred to by the new terms
+    private Map<String, String> resolveTerms(List<Row> rows) {
+        Set<String> qualifiedNames = new LinkedHashSet<>();
+
+        for (Row row : rows) {
+            if (row.result == null) {
+                if (StringUtils.isNotBlank(row.termName)) {
+                    qualifiedNames.add(row.getQualifiedName());
+                }
+
+                qualifiedNames.addAll(glossaryTermUtils.getRelatedTermQualifiedNames(row.record));
+            }
+        }
+
+        Map<String, String> ret = findGuids(ATLAS_GLOSSARY_TERM_TYPENAME, TERM_QUALIFIED_NAME, qualifiedNames);
+
+        // record terms not found as well, so that they are not looked up again while populating the terms
+        for (String qualifiedName : qualifiedNames) {
+            ret.putIfAbsent(qualifiedName, null);
+        }
+
+        return ret;
+    }
+
+    private List<Row> toTerms(List<Row> rows, Map<String, String> glossaryGuids, Map<String, String> termGuids) {
+        List<Row>   ret            = new ArrayList<>();
+        Set<String> qualifiedNames = new HashSet<>();
+
+        for (Row row : rows) {
+            if (row.result != null) {
+                continue;
+            }
+
+            List<String>      failedTermMsgs = new ArrayList<>();
+            AtlasGlossaryTerm glossaryTerm   = glossaryTermUtils.populateGlossaryTermObject(failedTermMsgs, row.record, glossaryGuids.get(row.glossaryName), termGuids);
+
+            if (!failedTermMsgs.isEmpty()) {
+                row.onFailure(StringUtils.join(failedTermMsgs, "").trim());
+            } else if (GlossaryService.isNameInvalid(row.termName)) {
+                row.onFailure(new AtlasBaseException(AtlasErrorCode.INVALID_DISPLAY_NAME).getMessage());
+            } else if (termGuids.get(row.getQualifiedName()) != null || !qualifiedNames.add(row.getQualifiedName())) {
+                row.onFailure(new AtlasBaseException(AtlasErrorCode.GLOSSARY_TERM_ALREADY_EXISTS, row.getQualifiedName()).getMessage());
+            } else {
+                glossaryTerm.setQualifiedName(row.getQualifiedName());
+
+                row.term     = glossaryTerm;
+                row.tempGuid = glossaryTerm.getGuid();
+
+                ret.add(row);
+            }
+        }
+
+        return ret;
+    }
+
+    private void createTerms(List<Row> rows) {
+        try {
+            glossaryService.createTermsNoLoad(toGlossaryTerms(rows));
+
+            for (Row row : rows) {
+                row.onSuccess();
+            }
+
+            return;
+        } catch (Throwable t) {
+            resetGuids(rows);
+
+            if (rows.size() == 1) {
+                onFailure(rows.get(0), t);
+
+                return;
+            }
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("importGlossaryTerms(): creation of {} terms failed; creating one at a time", rows.size(), t);
+            }
+        } finally {
+            RequestContext.get().clearCache();
+        }
+
+        for (Row row : rows) {
+            try {
+                glossaryService.createTermsNoLoad(Collections.singletonList(row.term));
+
+                row.onSuccess();
+            } catch (Throwable t) {
+                resetGuids(Collections.singletonList(row));
+
+                onFailure(row, t);
+            } finally {
+                RequestContext.get().clearCache();
+            }
+        }
+    }
+
+    private void onFailure(Row row, Throwable t) {
+        LOG.error("importGlossaryTerms(): failed to create term {}", row.getQualifiedName(), t);
+
+        row.onFailure(t.getMessage());
+    }
+
+    private static List<AtlasGlossaryTerm> toGlossaryTerms(List<Row> rows) {
+        List<AtlasGlossaryTerm> ret = new ArrayList<>(rows.size());
+
+        for (Row row : rows) {
+            ret.add(row.term);
+        }
+
+        return ret;
+    }
+
+    // guids assigned in a failed transaction are discarded, so that the terms are created afresh on retry
+    private static void resetGuids(List<Row> rows) {
+        for (Row row : rows) {
+            row.term.setGuid(row.tempGuid);
+        }
+    }
+
+    private static Map<String, String> findGuids(String typeName, String propertyName, Collection<String> values) {
+        Map<String, String> ret   = new HashMap<>();
+        List<String>        names = new ArrayList<>(values);
+
+        for (int i = 0; i < names.size(); i += MAX_VALUES_PER_QUERY) {
+            Map<String, AtlasVertex> vertices = AtlasGraphUtilsV2.findByTypeAndUniquePropertyValues(typeName, propertyName, names.subList(i, Math.min(i + MAX_VALUES_PER_QUERY, names.size())));
+
+            for (Map.Entry<String, AtlasVertex> entry : vertices.entrySet()) {
+                ret.put(entry.getKey(), AtlasGraphUtilsV2.getIdFromVertex(entry.getValue()));
+            }
+        }
+
+        return ret;
+    }
+
+    private static class Row {
+        final int         rowNumber;
+        final String[]    record;
+        final String      glossaryName;
+        final String      termName;
+        AtlasGlossaryTerm term;
+        String            tempGuid;
+        ImportInfo        result;
+
+        Row(int rowNumber, String[] record) {
+            this.rowNumber    = rowNumber;
+            this.record       = record;
+            this.glossaryName = record.length > 0 ? record[0] : null;
+            this.termName     = record.length > 1 ? record[1] : null;
+        }
+
+        String getQualifiedName() {
+            return termName + GlossaryUtils.invalidNameChars[0] + glossaryName;
+        }
+
+        void onSuccess() {
+            result = new ImportInfo(glossaryName, termName, ImportStatus.SUCCESS, "", rowNumber);
+        }
+
+        void onFailure(String message) {
+            result = new ImportInfo(glossaryName, termName, ImportStatus.FAILED, message, rowNumber);
+        }
+    }
+}
@@ -57,6 +57,8 @@ public class GlossaryTermUtils extends GlossaryUtils {
     private static final Logger  LOG           = LoggerFactory.getLogger(GlossaryTermUtils.class);
     private static final boolean DEBUG_ENABLED = LOG.isDebugEnabled();
 
+    private static final int RELATED_TERMS_START_COLUMN_INDEX = 8; // TranslationTerms, followed by other related-term columns
+
     protected GlossaryTermUtils(AtlasRelationshipStore relationshipStore, AtlasTypeRegistry typeRegistry, DataAccess dataAccess) {
         super(relationshipStore, typeRegistry, dataAccess);
     }
@@ -532,6 +534,7 @@ public class GlossaryTermUtils extends GlossaryUtils {
     protected List<AtlasGlossaryTerm> getGlossaryTermDataList(List<String[]> fileData, List<String> failedTermMsgs) throws AtlasBaseException {
         List<AtlasGlossaryTerm> glossaryTerms     = new ArrayList<>();
         Map<String, String>     glossaryNameCache = new HashMap<>();
+        Map<String, String>     termGuidCache     = new HashMap<>();
 
         for (String[] record : fileData) {
             AtlasGlossaryTerm glossaryTerm = new AtlasGlossaryTerm();
@@ -569,7 +572,7 @@ public class GlossaryTermUtils extends GlossaryUtils {
 
             if (glossaryGuid != null) {
                 glossaryNameCache.put(glossaryName, glossaryGuid);
-                glossaryTerm = populateGlossaryTermObject(failedTermMsgs, record, glossaryGuid);
+                glossaryTerm = populateGlossaryTermObject(failedTermMsgs, record, glossaryGuid, termGuidCache);
                 glossaryTerms.add(glossaryTerm);
             }
         }
@@ -641,7 +644,31 @@ public class GlossaryTermUtils extends GlossaryUtils {
         return ret;
     }
 
-    protected Set getAtlasRelatedTermHeaderSet(String csvRecord, String termName, String glossaryName, List<String> failedTermMsgs) {
+    /**
+     * @return qualifiedNames of the terms referred to in related-term columns of the given record
+     */
+    protected Set<String> getRelatedTermQualifiedNames(String[] record) {
+        Set<String> ret = new HashSet<>();
+
+        for (int i = RELATED_TERMS_START_COLUMN_INDEX; i < record.length; i++) {
+            if (StringUtils.isNotBlank(record[i])) {
+                for (String data : record[i].split(FileUtils.ESCAPE_CHARACTER + FileUtils.PIPE_CHARACTER)) {
+                    String dataArray[] = data.split(FileUtils.ESCAPE_CHARACTER + FileUtils.COLON_CHARACTER);
+
+                    if ((dataArray.length % 2) == 0) {
+                        ret.add(dataArray[1] + invalidNameChars[0] + dataArray[0]);
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * @param termGuidCache qualifiedName -> guid of terms already looked up; a null guid indicates that the term doesn't exist
+     */
+    protected Set getAtlasRelatedTermHeaderSet(String csvRecord, String termName, String glossaryName, List<String> failedTermMsgs, Map<String, String> termGuidCache) {
         Set ret = null;
 
         if (StringUtils.isNotBlank(csvRecord)) {
@@ -650,19 +677,28 @@ public class GlossaryTermUtils extends GlossaryUtils {
             AtlasRelatedTermHeader relatedTermHeader;
 
             for (String data : csvRecordArray) {
-                AtlasVertex vertex      = null;
-                String      dataArray[] = data.split(FileUtils.ESCAPE_CHARACTER + FileUtils.COLON_CHARACTER);
+                String glossaryTermGuid = null;
+                String dataArray[]      = data.split(FileUtils.ESCAPE_CHARACTER + FileUtils.COLON_CHARACTER);
 
                 if ((dataArray.length % 2) == 0) {
-                    vertex = AtlasGraphUtilsV2.findByTypeAndUniquePropertyName(GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME,
-                            GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME + invalidNameChars[1] + QUALIFIED_NAME_ATTR, dataArray[1] + invalidNameChars[0] + dataArray[0]);
+                    String qualifiedName = dataArray[1] + invalidNameChars[0] + dataArray[0];
+
+                    if (termGuidCache.containsKey(qualifiedName)) {
+                        glossaryTermGuid = termGuidCache.get(qualifiedName);
+                    } else {
+                        AtlasVertex vertex = AtlasGraphUtilsV2.findByTypeAndUniquePropertyName(GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME,
+                                GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME + invalidNameChars[1] + QUALIFIED_NAME_ATTR, qualifiedName);
+
+                        glossaryTermGuid = (vertex != null) ? AtlasGraphUtilsV2.getIdFromVertex(vertex) : null;
+
+                        termGuidCache.put(qualifiedName, glossaryTermGuid);
+                    }
                 } else {
                     failedTermMsgs.add("\n" + "Either incorrect data specified for Term or Term does not exist : " +termName);
                 }
 
-                if (vertex != null) {
-                    String glossaryTermGuid = AtlasGraphUtilsV2.getIdFromVertex(vertex);
-                    relatedTermHeader       = new AtlasRelatedTermHeader();
+                if (glossaryTermGuid != null) {
+                    relatedTermHeader = new AtlasRelatedTermHeader();
                     relatedTermHeader.setTermGuid(glossaryTermGuid);
                     ret.add(relatedTermHeader);
                 } else {
@@ -677,7 +713,7 @@ public class GlossaryTermUtils extends GlossaryUtils {
         return ret;
     }
 
-    protected AtlasGlossaryTerm populateGlossaryTermObject(List<String> failedTermMsgList, String[] record, String glossaryGuid) {
+    protected AtlasGlossaryTerm populateGlossaryTermObject(List<String> failedTermMsgList, String[] record, String glossaryGuid, Map<String, String> termGuidCache) {
         AtlasGlossaryTerm ret    = new AtlasGlossaryTerm();
         int               i      = 0;
         int               length = record.length;
@@ -699,33 +735,33 @@ public class GlossaryTermUtils extends GlossaryUtils {
 
             ret.setAdditionalAttributes(((length > ++i) ? (Map<String, Object>) getMapValue(record[i], failedTermMsgList) : null));
 
-            ret.setTranslationTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setTranslationTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
-            ret.setValidValuesFor((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setValidValuesFor((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
-            ret.setSynonyms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setSynonyms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
-            ret.setReplacedBy((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setReplacedBy((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
-            ret.setValidValues((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setValidValues((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
-            ret.setReplacementTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setReplacementTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
-            ret.setSeeAlso((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setSeeAlso((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
-            ret.setTranslatedTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setTranslatedTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
-            ret.setIsA((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setIsA((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
             ret.setAnchor(new AtlasGlossaryHeader(glossaryGuid));
 
-            ret.setAntonyms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setAntonyms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
-            ret.setClassifies((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setClassifies((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
-            ret.setPreferredToTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setPreferredToTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
 
-            ret.setPreferredTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList) : null);
+            ret.setPreferredTerms((length > ++i) ? (Set<AtlasRelatedTermHeader>) getAtlasRelatedTermHeaderSet(record[i], ret.getName(), record[0], failedTermMsgList, termGuidCache) : null);
         }
 
         return ret;
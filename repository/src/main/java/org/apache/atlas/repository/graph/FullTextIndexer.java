@@ -0,0 +1,359 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graph;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
+import org.apache.atlas.service.Service;
+import org.apache.atlas.util.AtlasRepositoryConfiguration;
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.atlas.repository.Constants.ENTITY_TEXT_PROPERTY_KEY;
+
+/**
+ * Computes the full-text property (__entityText) of entities in the background, instead of in the transaction
+ * that updates the entities.
+ *
+ * Guids of mutated entities are queued after the transaction commits. Repeated updates to an entity, while it is
+ * waiting in the queue, are coalesced into a single computation. Queued entities are processed in batches, with one
+ * graph transaction per batch.
+ *
+ * The queue holds at most maxPending entities: when it is full, threads queueing entities wait for the indexer to
+ * catch up. Entities of a batch that fails to commit are queued again, up to maxAttempts times.
+ */
+@Component
+public class FullTextIndexer implements Service {
+    private static final Logger LOG = LoggerFactory.getLogger(FullTextIndexer.class);
+
+    private final    AtlasGraph           graph;
+    private final    FullTextMapperV2     fullTextMapper;
+    private final    boolean              isDeferred;
+    private final    int                  batchSize;
+    private final    long                 windowMs;
+    private final    int                  maxPending;
+    private final    int                  maxAttempts;
+    private final    Map<String, Long>    pendingGuids   = new LinkedHashMap<>(); // guid -> time when first queued
+    private final    Map<String, Integer> failedAttempts = new HashMap<>();       // guid -> number of failed attempts to update full-text
+    private          ExecutorService      executorService;
+    private volatile boolean              isRunning;
+    private volatile long                 indexedCount;
+    private volatile long                 lastIndexedTime;
+
+    @Inject
+    public FullTextIndexer(AtlasGraph graph, FullTextMapperV2 fullTextMapper) {
+        this(graph, fullTextMapper, AtlasConfiguration.FULLTEXT_DEFERRED_ENABLED.getBoolean(), AtlasConfiguration.FULLTEXT_DEFERRED_BATCH_SIZE.getInt(),
+             AtlasConfiguration.FULLTEXT_DEFERRED_WINDOW_MS.getLong(), AtlasConfiguration.FULLTEXT_DEFERRED_MAX_PENDING.getInt(),
+             AtlasConfiguration.FULLTEXT_DEFERRED_MAX_ATTEMPTS.getInt());
+    }
+
+    @VisibleForTesting
+    FullTextIndexer(AtlasGraph graph, FullTextMapperV2 fullTextMapper, boolean isDeferred, int batchSize, long windowMs, int maxPending, int maxAttempts) {
+        this.graph          = graph;
+        this.fullTextMapper = fullTextMapper;
+        this.isDeferred     = isDeferred;
+        this.batchSize      = batchSize;
+        this.windowMs       = windowMs;
+        this.maxPending     = Math.max(maxPending, batchSize);
+        this.maxAttempts    = Math.max(maxAttempts, 1);
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled()) {
+            LOG.info("FullTextIndexer.start(): deferred full-text computation is disabled");
+
+            return;
+        }
+
+        synchronized (this) {
+            if (executorService == null) {
+                isRunning       = true;
+                executorService = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-fulltext-indexer").setDaemon(true).build());
+
+                executorService.submit(this::run);
+            }
+        }
+
+        LOG.info("FullTextIndexer.start(): batchSize={}, windowMs={}, maxPending={}, maxAttempts={}", batchSize, windowMs, maxPending, maxAttempts);
+    }
+
+    @Override
+    public void stop() {
+        ExecutorService executor;
+
+        synchronized (this) {
+            executor        = executorService;
+            executorService = null;
+            isRunning       = false;
+
+            notifyAll(); // threads waiting for room in the queue
+        }
+
+        if (executor != null) {
+            executor.shutdownNow();
+
+            try {
+                executor.awaitTermination(windowMs + 30000, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+            }
+
+            LOG.info("FullTextIndexer.stop(): stopped. {} entities are pending", getPendingCount());
+        }
+    }
+
+    /**
+     * @return true if full-text of entities is computed in the background, instead of in the updating transaction
+     */
+    public boolean isEnabled() {
+        return isDeferred && AtlasRepositoryConfiguration.isFullTextSearchEnabled() && !AtlasRepositoryConfiguration.isFreeTextSearchEnabled();
+    }
+
+    /**
+     * Queues the given entities for full-text computation, once the current graph transaction commits successfully.
+     */
+    public void enqueueOnCommit(Collection<String> guids) {
+        if (CollectionUtils.isEmpty(guids)) {
+            return;
+        }
+
+        final List<String> toQueue = new ArrayList<>(guids);
+
+        new GraphTransactionInterceptor.PostTransactionHook() {
+            @Override
+            public void onComplete(boolean isSuccess) {
+                if (isSuccess) {
+                    enqueue(toQueue);
+                }
+            }
+        };
+    }
+
+    /**
+     * Queues the given entities for full-text computation. When the queue is full, waits for the indexer to make room.
+     */
+    public synchronized void enqueue(Collection<String> guids) {
+        int dropped = 0;
+
+        for (String guid : guids) {
+            if (pendingGuids.containsKey(guid)) {
+                continue;
+            }
+
+            try {
+                while (isRunning && pendingGuids.size() >= maxPending) {
+                    wait();
+                }
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (pendingGuids.size() < maxPending) {
+                pendingGuids.put(guid, System.currentTimeMillis());
+            } else { // the indexer is stopped, or this thread was interrupted
+                dropped++;
+            }
+        }
+
+        if (dropped > 0) {
+            LOG.warn("FullTextIndexer: queue is full ({} entities); full-text of {} entities will not be updated", maxPending, dropped);
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return pendingGuids.size();
+    }
+
+    /**
+     * @return time, in milliseconds, since the oldest pending entity was queued; 0 if no entity is pending
+     */
+    public synchronized long getLagMs() {
+        Iterator<Long> iter = pendingGuids.values().iterator();
+
+        return iter.hasNext() ? System.currentTimeMillis() - iter.next() : 0;
+    }
+
+    public long getIndexedCount() {
+        return indexedCount;
+    }
+
+    public long getLastIndexedTime() {
+        return lastIndexedTime;
+    }
+
+    private void run() {
+        LOG.info("==> FullTextIndexer.run()");
+
+        while (isRunning) {
+            try {
+                // wait for the window to elapse, so that repeated updates to an entity are coalesced
+                Thread.sleep(windowMs);
+
+                processPending();
+            } catch (InterruptedException excp) {
+                break;
+            } catch (Throwable t) {
+                LOG.error("FullTextIndexer: unexpected error", t);
+            }
+        }
+
+        // complete pending entities before exit, so that their full-text isn't lost
+        try {
+            processPending();
+        } catch (Throwable t) {
+            LOG.error("FullTextIndexer: failed to process pending entities on stop", t);
+        }
+
+        LOG.info("<== FullTextIndexer.run()");
+    }
+
+    // processes entities pending at the start; entities queued again, after a failed batch, are processed in the next window
+    @VisibleForTesting
+    void processPending() {
+        for (int remaining = getPendingCount(); remaining > 0; ) {
+            List<String> batch = nextBatch(Math.min(batchSize, remaining));
+
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            remaining -= batch.size();
+
+            processBatch(batch);
+        }
+    }
+
+    private synchronized List<String> nextBatch(int maxSize) {
+        List<String>     ret  = new ArrayList<>(Math.min(maxSize, pendingGuids.size()));
+        Iterator<String> iter = pendingGuids.keySet().iterator();
+
+        while (iter.hasNext() && ret.size() < maxSize) {
+            ret.add(iter.next());
+
+            iter.remove();
+        }
+
+        notifyAll(); // threads waiting for room in the queue
+
+        return ret;
+    }
+
+    // queues entities of a failed batch again, unless they failed maxAttempts times; the queue bound doesn't apply here, as this runs in the indexer thread
+    private synchronized void requeue(List<String> guids) {
+        List<String> abandoned = new ArrayList<>();
+        long         now       = System.currentTimeMillis();
+
+        for (String guid : guids) {
+            int attempts = failedAttempts.merge(guid, 1, Integer::sum);
+
+            if (attempts < maxAttempts) {
+                pendingGuids.putIfAbsent(guid, now);
+            } else {
+                failedAttempts.remove(guid);
+
+                abandoned.add(guid);
+            }
+        }
+
+        if (!abandoned.isEmpty()) {
+            LOG.error("FullTextIndexer: failed to update full-text of {} entities in {} attempts: {}", abandoned.size(), maxAttempts, abandoned);
+        }
+    }
+
+    private synchronized void clearFailedAttempts(List<String> guids) {
+        if (!failedAttempts.isEmpty()) {
+            for (String guid : guids) {
+                failedAttempts.remove(guid);
+            }
+        }
+    }
+
+    private void processBatch(List<String> guids) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> FullTextIndexer.processBatch({})", guids.size());
+        }
+
+        int count = 0;
+
+        try {
+            for (String guid : guids) {
+                AtlasVertex vertex = AtlasGraphUtilsV2.findByGuid(guid);
+
+                if (vertex == null || GraphHelper.isInternalType(vertex)) {
+                    continue;
+                }
+
+                try {
+                    String fullText = fullTextMapper.getIndexTextForEntity(guid);
+
+                    AtlasGraphUtilsV2.setEncodedProperty(vertex, ENTITY_TEXT_PROPERTY_KEY, fullText);
+
+                    count++;
+                } catch (AtlasBaseException e) {
+                    LOG.error("FullText mapping failed for Vertex[ guid = {} ]", guid, e);
+                }
+            }
+
+            graph.commit();
+
+            clearFailedAttempts(guids);
+
+            indexedCount   += count;
+            lastIndexedTime = System.currentTimeMillis();
+        } catch (Throwable t) {
+            LOG.error("FullTextIndexer: failed to update full-text of {} entities; they will be retried", guids.size(), t);
+
+            try {
+                graph.rollback();
+            } catch (Throwable rollbackExcp) {
+                LOG.error("FullTextIndexer: rollback failed", rollbackExcp);
+            }
+
+            requeue(guids);
+        } finally {
+            RequestContext.clear();
+            GraphTransactionInterceptor.clearCache();
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== FullTextIndexer.processBatch({}): updated={}", guids.size(), count);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import com.google.common.collect.HashBiMap;
 import org.apache.atlas.ApplicationProperties;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContext;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.instance.AtlasEntity;
@@ -200,6 +201,8 @@ public final class GraphHelper {
 
         ret = graph.addEdge(fromVertex, toVertex, edgeLabel);
 
+        GraphTransactionInterceptor.invalidateEdgesCache(fromVertex, toVertex, edgeLabel);
+
         if (ret != null) {
             AtlasGraphUtilsV2.setEncodedProperty(ret, STATE_PROPERTY_KEY, ACTIVE.name());
             AtlasGraphUtilsV2.setEncodedProperty(ret, TIMESTAMP_PROPERTY_KEY, RequestContext.get().getRequestTime());
@@ -326,7 +329,7 @@ public final class GraphHelper {
 
         Iterator<AtlasEdge> ret = null;
         if(instanceVertex != null && edgeLabel != null) {
-            ret = instanceVertex.getEdges(direction, edgeLabel).iterator();
+            ret = GraphTransactionInterceptor.getEdges(instanceVertex, direction, edgeLabel);
         }
 
         RequestContext.get().endMetricRecord(metric);
@@ -618,6 +621,8 @@ public final class GraphHelper {
             LOG.debug("==> removeEdge({})", string(edge));
         }
 
+        GraphTransactionInterceptor.invalidateEdgesCache(edge.getOutVertex(), edge.getInVertex(), edge.getLabel());
+
         graph.removeEdge(edge);
 
         if (LOG.isDebugEnabled()) {
@@ -635,6 +640,15 @@ public final class GraphHelper {
             LOG.debug("==> GraphHelper.removeVertex({})", string(vertex));
         }
 
+        String guid = getGuid(vertex);
+
+        if (guid != null) {
+            GraphTransactionInterceptor.removeFromVertexCache(guid);
+        }
+
+        // edges of the vertex are removed along with it
+        GraphTransactionInterceptor.clearEdgesCache();
+
         graph.removeVertex(vertex);
 
         if (LOG.isDebugEnabled()) {
@@ -643,7 +657,15 @@ public final class GraphHelper {
     }
 
     public AtlasVertex getVertexForGUID(String guid) throws EntityNotFoundException {
-        return findVertex(Constants.GUID_PROPERTY_KEY, guid);
+        AtlasVertex ret = GraphTransactionInterceptor.getVertexFromCache(guid);
+
+        if (ret == null) {
+            ret = findVertex(Constants.GUID_PROPERTY_KEY, guid);
+
+            GraphTransactionInterceptor.addToVertexCache(guid, ret);
+        }
+
+        return ret;
     }
 
     public AtlasEdge getEdgeForGUID(String guid) throws AtlasBaseException {
@@ -704,8 +726,30 @@ public final class GraphHelper {
      *  @return GUID to AtlasVertex map with the result.
      */
     public Map<String, AtlasVertex> getVerticesForGUIDs(List<String> guids) {
+        Map<String, AtlasVertex> ret         = new HashMap<>(guids.size());
+        List<String>             uncachedIds = new ArrayList<>();
+
+        for (String guid : guids) {
+            AtlasVertex vertex = guid != null ? GraphTransactionInterceptor.getVertexFromCache(guid) : null;
+
+            if (vertex != null) {
+                ret.put(guid, vertex);
+            } else {
+                uncachedIds.add(guid);
+            }
+        }
+
+        if (!uncachedIds.isEmpty()) {
+            Map<String, AtlasVertex> vertices = getVerticesForPropertyValues(Constants.GUID_PROPERTY_KEY, uncachedIds);
 
-        return getVerticesForPropertyValues(Constants.GUID_PROPERTY_KEY, guids);
+            for (Map.Entry<String, AtlasVertex> entry : vertices.entrySet()) {
+                GraphTransactionInterceptor.addToVertexCache(entry.getKey(), entry.getValue());
+            }
+
+            ret.putAll(vertices);
+        }
+
+        return ret;
     }
 
     public static void updateModificationMetadata(AtlasVertex vertex) {
@@ -1410,6 +1454,12 @@ public final class GraphHelper {
         return ret;
     }
 
+    public static Map<String, Object> getPrimitiveMap(AtlasVertex instanceVertex, AtlasAttribute attribute) {
+        Map<String, Object> ret = instanceVertex.getProperty(attribute.getVertexPropertyName(), Map.class);
+
+        return ret;
+    }
+
     public static List<AtlasEdge> getCollectionElementsUsingRelationship(AtlasVertex vertex, AtlasAttribute attribute) {
         List<AtlasEdge>                ret;
         String                         edgeLabel     = attribute.getRelationshipEdgeLabel();
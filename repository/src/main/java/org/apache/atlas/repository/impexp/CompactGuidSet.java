@@ -0,0 +1,141 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set of entity guids, for exports with a large number of entities.
+ *
+ * Guids in UUID format are stored as pairs of longs in an open-addressing table - 16 bytes per guid, instead of a
+ * String object per guid. Other guids are stored in a regular set. Membership is exact: unlike a Bloom filter, there
+ * are no false positives, which would cause entities to be left out of the export.
+ */
+class CompactGuidSet {
+    private static final int   INITIAL_CAPACITY = 1024; // must be a power of 2
+    private static final float MAX_LOAD_FACTOR  = 0.6f;
+
+    private final Set<String> otherGuids = new HashSet<>();
+    private       long[]      msbs       = new long[INITIAL_CAPACITY];
+    private       long[]      lsbs       = new long[INITIAL_CAPACITY];
+    private       boolean[]   used       = new boolean[INITIAL_CAPACITY];
+    private       int         uuidCount;
+
+    /**
+     * @return true if the guid was not in the set
+     */
+    public boolean add(String guid) {
+        UUID uuid = toUUID(guid);
+
+        if (uuid == null) {
+            return otherGuids.add(guid);
+        }
+
+        if (uuidCount + 1 > used.length * MAX_LOAD_FACTOR) {
+            resize(used.length * 2);
+        }
+
+        return insert(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public boolean contains(String guid) {
+        UUID uuid = toUUID(guid);
+
+        if (uuid == null) {
+            return otherGuids.contains(guid);
+        }
+
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        int  mask = used.length - 1;
+
+        for (int i = hash(msb, lsb) & mask; used[i]; i = (i + 1) & mask) {
+            if (msbs[i] == msb && lsbs[i] == lsb) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public int size() {
+        return uuidCount + otherGuids.size();
+    }
+
+    private boolean insert(long msb, long lsb) {
+        int mask = used.length - 1;
+        int i    = hash(msb, lsb) & mask;
+
+        for (; used[i]; i = (i + 1) & mask) {
+            if (msbs[i] == msb && lsbs[i] == lsb) {
+                return false;
+            }
+        }
+
+        used[i] = true;
+        msbs[i] = msb;
+        lsbs[i] = lsb;
+
+        uuidCount++;
+
+        return true;
+    }
+
+    private void resize(int capacity) {
+        long[]    oldMsbs = msbs;
+        long[]    oldLsbs = lsbs;
+        boolean[] oldUsed = used;
+
+        msbs      = new long[capacity];
+        lsbs      = new long[capacity];
+        used      = new boolean[capacity];
+        uuidCount = 0;
+
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                insert(oldMsbs[i], oldLsbs[i]);
+            }
+        }
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+
+        h ^= (h >>> 32);
+        h ^= (h >>> 16);
+
+        return (int) h;
+    }
+
+    // returns null if the guid is not in the canonical UUID format, so that the guid is stored as is
+    private static UUID toUUID(String guid) {
+        if (guid == null || guid.length() != 36) {
+            return null;
+        }
+
+        try {
+            UUID ret = UUID.fromString(guid);
+
+            return ret.toString().equals(guid) ? ret : null;
+        } catch (IllegalArgumentException excp) {
+            return null;
+        }
+    }
+}
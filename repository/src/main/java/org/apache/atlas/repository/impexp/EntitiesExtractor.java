@@ -21,6 +21,7 @@ package org.apache.atlas.repository.impexp;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.typedef.AtlasEntityDef;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.graph.v2.EntityChangeLog;
 import org.apache.atlas.type.AtlasTypeRegistry;
 
 import java.util.HashMap;
@@ -35,9 +36,9 @@ public class EntitiesExtractor {
     private Map<String, ExtractStrategy> extractors = new HashMap<>();
     private ExtractStrategy extractor;
 
-    public EntitiesExtractor(AtlasGraph atlasGraph, AtlasTypeRegistry typeRegistry) {
+    public EntitiesExtractor(AtlasGraph atlasGraph, AtlasTypeRegistry typeRegistry, EntityChangeLog entityChangeLog) {
         extractors.put(VERTEX_BASED_EXTRACT, new VertexExtractor(atlasGraph, typeRegistry));
-        extractors.put(INCREMENTAL_EXTRACT, new IncrementalExportEntityProvider(atlasGraph));
+        extractors.put(INCREMENTAL_EXTRACT, new IncrementalExportEntityProvider(atlasGraph, entityChangeLog));
         extractors.put(RELATION_BASED_EXTRACT, new RelationshipAttributesExtractor(typeRegistry));
     }
 
@@ -18,6 +18,10 @@
 package org.apache.atlas.repository.impexp;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContext;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasExportRequest;
@@ -32,6 +36,7 @@ import org.apache.atlas.model.typedef.AtlasRelationshipDef;
 import org.apache.atlas.model.typedef.AtlasStructDef;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.graph.v2.EntityChangeLog;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
 import org.apache.atlas.repository.util.UniqueList;
 import org.apache.atlas.type.AtlasTypeRegistry;
@@ -48,6 +53,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.apache.atlas.model.impexp.AtlasExportRequest.FETCH_TYPE_CONNECTED;
 import static org.apache.atlas.model.impexp.AtlasExportRequest.FETCH_TYPE_FULL;
@@ -64,16 +73,23 @@ public class ExportService {
     private final EntityGraphRetriever      entityGraphRetriever;
     private       ExportTypeProcessor       exportTypeProcessor;
     private final HdfsPathEntityCreator     hdfsPathEntityCreator;
+    private final AtlasGraph                atlasGraph;
+    private final int                       retrievalThreadCount;
+    private final int                       retrievalQueueDepth;
 
     @Inject
     public ExportService(final AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph,
-                         AuditsWriter auditsWriter, HdfsPathEntityCreator hdfsPathEntityCreator) {
+                         AuditsWriter auditsWriter, HdfsPathEntityCreator hdfsPathEntityCreator,
+                         EntityChangeLog entityChangeLog) {
         this.typeRegistry         = typeRegistry;
         this.entityGraphRetriever = new EntityGraphRetriever(this.typeRegistry);
         this.auditsWriter         = auditsWriter;
         this.hdfsPathEntityCreator = hdfsPathEntityCreator;
         this.startEntityFetchByExportRequest = new StartEntityFetchByExportRequest(atlasGraph, typeRegistry, AtlasGremlinQueryProvider.INSTANCE);
-        this.entitiesExtractor = new EntitiesExtractor(atlasGraph, typeRegistry);
+        this.entitiesExtractor = new EntitiesExtractor(atlasGraph, typeRegistry, entityChangeLog);
+        this.atlasGraph           = atlasGraph;
+        this.retrievalThreadCount = AtlasConfiguration.EXPORT_ENTITY_RETRIEVAL_THREAD_COUNT.getInt();
+        this.retrievalQueueDepth  = Math.max(AtlasConfiguration.EXPORT_ENTITY_RETRIEVAL_QUEUE_DEPTH.getInt(), 1);
     }
 
     public AtlasExportResult run(ZipSink exportSink, AtlasExportRequest request, String userName, String hostName,
@@ -82,7 +98,8 @@ public class ExportService {
         AtlasExportResult result = new AtlasExportResult(request, userName, requestingIP,
                 hostName, startTime, getCurrentChangeMarker());
 
-        ExportContext context = new ExportContext(result, exportSink);
+        ExecutorService executor = retrievalThreadCount > 1 ? Executors.newFixedThreadPool(retrievalThreadCount, new ThreadFactoryBuilder().setNameFormat("atlas-export-%d").setDaemon(true).build()) : null;
+        ExportContext   context  = new ExportContext(result, exportSink, executor);
         exportTypeProcessor = new ExportTypeProcessor(typeRegistry);
 
         try {
@@ -96,6 +113,13 @@ public class ExportService {
         } catch(Exception ex) {
             LOG.error("Operation failed: ", ex);
         } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+
+            // the sink is buffered: entries written so far are made available to the caller, who closes the sink
+            exportSink.flush();
+
             entitiesExtractor.close();
 
             LOG.info("<== export(user={}, from={}): status {}: changeMarker: {}",
@@ -208,8 +232,12 @@ public class ExportService {
 
             while (!context.guidsToProcess.isEmpty()) {
                 while (!context.guidsToProcess.isEmpty()) {
-                    String guid = context.guidsToProcess.remove(0);
-                    processEntityGuid(guid, context);
+                    if (context.executor != null) {
+                        processFrontier(context);
+                    } else {
+                        String guid = context.guidsToProcess.remove(0);
+                        processEntityGuid(guid, context);
+                    }
                 }
 
                 if (!context.lineageToProcess.isEmpty()) {
@@ -256,6 +284,71 @@ public class ExportService {
         }
     }
 
+    /**
+     * Processes entities at the head of guidsToProcess, up to the retrieval queue depth. Entities are retrieved from the
+     * graph concurrently on the executor, and are then processed on this thread in the same order as in guidsToProcess:
+     * writes to the sink, and updates to the traversal state in context, remain single-threaded and in the same order as
+     * a serial export.
+     */
+    private void processFrontier(ExportContext context) throws AtlasBaseException {
+        RequestContext                       requestContext = RequestContext.get();
+        List<String>                         frontier       = new ArrayList<>(retrievalQueueDepth);
+        List<Future<AtlasEntityWithExtInfo>> futures        = new ArrayList<>(retrievalQueueDepth);
+
+        while (!context.guidsToProcess.isEmpty() && frontier.size() < retrievalQueueDepth) {
+            String guid = context.guidsToProcess.remove(0);
+
+            if (!context.guidsProcessed.contains(guid)) {
+                frontier.add(guid);
+            }
+        }
+
+        try {
+            for (String guid : frontier) {
+                futures.add(context.executor.submit(() -> retrieveEntity(guid, requestContext)));
+            }
+
+            for (int i = 0; i < frontier.size(); i++) {
+                AtlasEntityWithExtInfo entityWithExtInfo = futures.get(i).get();
+
+                // the entity might have been processed as a referred entity of an earlier entity in the frontier
+                if (!context.guidsProcessed.contains(frontier.get(i))) {
+                    processEntity(entityWithExtInfo, context);
+                }
+            }
+        } catch (ExecutionException excp) {
+            Throwable cause = excp.getCause();
+
+            if (cause instanceof AtlasBaseException) {
+                throw (AtlasBaseException) cause;
+            }
+
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, cause, cause.getMessage());
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, excp, excp.getMessage());
+        } finally {
+            for (Future<AtlasEntityWithExtInfo> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private AtlasEntityWithExtInfo retrieveEntity(String guid, RequestContext requestContext) throws AtlasBaseException {
+        RequestContext.clear();
+        RequestContext.get().copyRequestDetails(requestContext);
+
+        try {
+            return entityGraphRetriever.toAtlasEntityWithExtInfo(guid);
+        } finally {
+            atlasGraph.rollback(); // nothing to commit: close the read-only transaction of this thread
+
+            GraphTransactionInterceptor.clearCache();
+            RequestContext.clear();
+        }
+    }
+
     public void processEntity(AtlasEntityWithExtInfo entityWithExtInfo, ExportContext context) throws AtlasBaseException {
         addEntity(entityWithExtInfo, context);
         exportTypeProcessor.addTypes(entityWithExtInfo.getEntity(), context);
@@ -359,10 +452,13 @@ public class ExportService {
         private final boolean isHiveTableIncremental;
 
         private       int                 progressReportCount = 0;
+        private final long                startTime           = System.currentTimeMillis();
+        final ExecutorService             executor; // retrieves entities concurrently; null to retrieve them on the exporting thread
 
-        ExportContext(AtlasExportResult result, ZipSink sink) {
-            this.result = result;
-            this.sink   = sink;
+        ExportContext(AtlasExportResult result, ZipSink sink, ExecutorService executor) {
+            this.result   = result;
+            this.sink     = sink;
+            this.executor = executor;
 
             fetchType    = ExportFetchType.from(result.getRequest().getFetchTypeOptionValue());
             skipLineage  = result.getRequest().getSkipLineageOptionValue();
@@ -432,7 +528,9 @@ public class ExportService {
             if ((guidsProcessed.size() - progressReportCount) > REPORTING_THREASHOLD) {
                 progressReportCount = guidsProcessed.size();
 
-                LOG.info("export(): in progress.. number of entities exported: {}", this.guidsProcessed.size());
+                long elapsedMs = Math.max(System.currentTimeMillis() - startTime, 1);
+
+                LOG.info("export(): in progress.. number of entities exported: {}, entities/sec: {}", this.guidsProcessed.size(), (guidsProcessed.size() * 1000L) / elapsedMs);
             }
         }
 
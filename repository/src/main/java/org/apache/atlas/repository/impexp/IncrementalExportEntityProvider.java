@@ -20,7 +20,13 @@ package org.apache.atlas.repository.impexp;
 
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graph.GraphHelper;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v2.EntityChangeLog;
 import org.apache.atlas.repository.util.UniqueList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,8 +36,10 @@ import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class IncrementalExportEntityProvider implements ExtractStrategy {
     private static final Logger LOG = LoggerFactory.getLogger(IncrementalExportEntityProvider.class);
@@ -52,11 +60,22 @@ public class IncrementalExportEntityProvider implements ExtractStrategy {
     private static final String QUERY_TABLE_SD = QUERY_DB + ".out('__hive_table.sd')";
     private static final String QUERY_TABLE_COLUMNS = QUERY_DB + ".out('__hive_table.columns')";
 
+    private static final String EDGE_LABEL_TABLE_DB      = "__hive_table.db";
+    private static final String EDGE_LABEL_TABLE_SD      = "__hive_table.sd";
+    private static final String EDGE_LABEL_TABLE_COLUMNS = "__hive_table.columns";
+    private static final int    GUID_BATCH_SIZE          = 100;
+
     private ScriptEngine scriptEngine;
+    private final EntityChangeLog entityChangeLog;
 
-    @Inject
     public IncrementalExportEntityProvider(AtlasGraph atlasGraph) {
+        this(atlasGraph, null);
+    }
+
+    @Inject
+    public IncrementalExportEntityProvider(AtlasGraph atlasGraph, EntityChangeLog entityChangeLog) {
         this.atlasGraph = atlasGraph;
+        this.entityChangeLog = entityChangeLog;
         try {
             this.scriptEngine = atlasGraph.getGremlinScriptEngine();
         } catch (AtlasBaseException e) {
@@ -93,11 +112,90 @@ public class IncrementalExportEntityProvider implements ExtractStrategy {
     }
 
     private void partial(String dbEntityGuid, long timeStamp, UniqueList<String> guidsToProcess) {
+        Set<String> changedGuids = entityChangeLog != null ? entityChangeLog.getChangedGuids(timeStamp) : null;
+
+        if (changedGuids != null) {
+            partialFromChangeLog(dbEntityGuid, changedGuids, guidsToProcess);
+
+            return;
+        }
+
         guidsToProcess.addAll(fetchGuids(dbEntityGuid, QUERY_TABLE, timeStamp));
         guidsToProcess.addAll(fetchGuids(dbEntityGuid, QUERY_SD, timeStamp));
         guidsToProcess.addAll(fetchGuids(dbEntityGuid, QUERY_COLUMN, timeStamp));
     }
 
+    // adds the changed tables, storage descriptors and columns of the database; same order as the traversal queries.
+    // changed entities are resolved GUID_BATCH_SIZE at a time with the guid index, and the database of each table is looked up once
+    private void partialFromChangeLog(String dbEntityGuid, Set<String> changedGuids, UniqueList<String> guidsToProcess) {
+        List<String>         tables      = new ArrayList<>();
+        List<String>         sds         = new ArrayList<>();
+        List<String>         columns     = new ArrayList<>();
+        Map<Object, Boolean> isTableInDb = new HashMap<>();
+        List<String>         guids       = new ArrayList<>(changedGuids);
+
+        for (int i = 0; i < guids.size(); i += GUID_BATCH_SIZE) {
+            Map<String, AtlasVertex> vertices = GraphHelper.getInstance().getVerticesForPropertyValues(Constants.GUID_PROPERTY_KEY, guids.subList(i, Math.min(i + GUID_BATCH_SIZE, guids.size())));
+
+            for (Map.Entry<String, AtlasVertex> entry : vertices.entrySet()) {
+                String      guid     = entry.getKey();
+                AtlasVertex vertex   = entry.getValue();
+                AtlasVertex dbVertex = getAdjacentVertex(vertex, AtlasEdgeDirection.OUT, EDGE_LABEL_TABLE_DB);
+
+                if (dbVertex != null) {
+                    if (isDatabase(dbVertex, dbEntityGuid)) {
+                        tables.add(guid);
+                    }
+
+                    continue;
+                }
+
+                AtlasVertex tableVertex = getAdjacentVertex(vertex, AtlasEdgeDirection.IN, EDGE_LABEL_TABLE_SD);
+
+                if (tableVertex != null) {
+                    if (isTableInDatabase(tableVertex, dbEntityGuid, isTableInDb)) {
+                        sds.add(guid);
+                    }
+
+                    continue;
+                }
+
+                tableVertex = getAdjacentVertex(vertex, AtlasEdgeDirection.IN, EDGE_LABEL_TABLE_COLUMNS);
+
+                if (tableVertex != null && isTableInDatabase(tableVertex, dbEntityGuid, isTableInDb)) {
+                    columns.add(guid);
+                }
+            }
+        }
+
+        LOG.info("partialFromChangeLog(db={}): changed entities={}, tables={}, storage descriptors={}, columns={}",
+                 dbEntityGuid, changedGuids.size(), tables.size(), sds.size(), columns.size());
+
+        guidsToProcess.addAll(tables);
+        guidsToProcess.addAll(sds);
+        guidsToProcess.addAll(columns);
+    }
+
+    private boolean isTableInDatabase(AtlasVertex tableVertex, String dbEntityGuid, Map<Object, Boolean> isTableInDb) {
+        return isTableInDb.computeIfAbsent(tableVertex.getId(), id -> isDatabase(getAdjacentVertex(tableVertex, AtlasEdgeDirection.OUT, EDGE_LABEL_TABLE_DB), dbEntityGuid));
+    }
+
+    private boolean isDatabase(AtlasVertex vertex, String dbEntityGuid) {
+        return vertex != null && dbEntityGuid.equals(GraphHelper.getGuid(vertex));
+    }
+
+    private AtlasVertex getAdjacentVertex(AtlasVertex vertex, AtlasEdgeDirection direction, String edgeLabel) {
+        Iterator<AtlasEdge> edges = GraphHelper.getAdjacentEdgesByLabel(vertex, direction, edgeLabel);
+
+        if (edges == null || !edges.hasNext()) {
+            return null;
+        }
+
+        AtlasEdge edge = edges.next();
+
+        return direction == AtlasEdgeDirection.OUT ? edge.getInVertex() : edge.getOutVertex();
+    }
+
     private void full(String dbEntityGuid, UniqueList<String> guidsToProcess) {
         guidsToProcess.addAll(fetchGuids(dbEntityGuid, QUERY_TABLE, 0L));
     }
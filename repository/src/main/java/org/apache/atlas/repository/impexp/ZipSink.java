@@ -17,20 +17,19 @@
  */
 package org.apache.atlas.repository.impexp;
 
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasExportResult;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.type.AtlasType;
-import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -38,39 +37,52 @@ public class ZipSink {
     private static final Logger LOG = LoggerFactory.getLogger(ZipSink.class);
 
     private static String FILE_EXTENSION_JSON = ".json";
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
 
     private ZipOutputStream zipOutputStream;
-    final Set<String>       guids = new HashSet<>();
+    final CompactGuidSet    guids = new CompactGuidSet();
 
     public ZipSink(OutputStream outputStream) {
-        zipOutputStream = new ZipOutputStream(outputStream);
+        this(outputStream, AtlasConfiguration.EXPORT_ZIP_COMPRESSION_LEVEL.getInt());
+    }
+
+    public ZipSink(OutputStream outputStream, int compressionLevel) {
+        zipOutputStream = new ZipOutputStream(new BufferedOutputStream(outputStream, OUTPUT_BUFFER_SIZE));
+
+        zipOutputStream.setLevel(compressionLevel);
     }
 
     public void add(AtlasEntity entity) throws AtlasBaseException {
-        String jsonData = convertToJSON(entity);
-        saveToZip(entity.getGuid(), jsonData);
+        saveToZip(entity.getGuid(), entity);
         recordAddedEntityGuids(entity);
     }
 
     public void add(AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo) throws AtlasBaseException {
-        String jsonData = convertToJSON(entityWithExtInfo);
-        saveToZip(entityWithExtInfo.getEntity().getGuid(), jsonData);
+        saveToZip(entityWithExtInfo.getEntity().getGuid(), entityWithExtInfo);
         recordAddedEntityGuids(entityWithExtInfo);
     }
 
     public void setResult(AtlasExportResult result) throws AtlasBaseException {
-        String jsonData = convertToJSON(result);
-        saveToZip(ZipExportFileNames.ATLAS_EXPORT_INFO_NAME, jsonData);
+        saveToZip(ZipExportFileNames.ATLAS_EXPORT_INFO_NAME, result);
     }
 
     public void setTypesDef(AtlasTypesDef typesDef) throws AtlasBaseException {
-        String jsonData = convertToJSON(typesDef);
-        saveToZip(ZipExportFileNames.ATLAS_TYPESDEF_NAME, jsonData);
+        saveToZip(ZipExportFileNames.ATLAS_TYPESDEF_NAME, typesDef);
     }
 
     public void setExportOrder(List<String> result) throws AtlasBaseException {
-        String jsonData = convertToJSON(result);
-        saveToZip(ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME, jsonData);
+        saveToZip(ZipExportFileNames.ATLAS_EXPORT_ORDER_NAME, result);
+    }
+
+    // entries written so far are passed on to the output stream; the zip is completed only by close()
+    public void flush() {
+        try {
+            if (zipOutputStream != null) {
+                zipOutputStream.flush();
+            }
+        } catch (IOException e) {
+            LOG.error("Error flushing Zip file", e);
+        }
     }
 
     public void close() {
@@ -84,51 +96,26 @@ public class ZipSink {
         }
     }
 
-    private String convertToJSON(Object entity) {
-        return AtlasType.toJson(entity);
-    }
-
-    private void saveToZip(ZipExportFileNames fileName, String jsonData) throws AtlasBaseException {
-        saveToZip(fileName.toString(), jsonData);
+    private void saveToZip(ZipExportFileNames fileName, Object obj) throws AtlasBaseException {
+        saveToZip(fileName.toString(), obj);
     }
 
-    private void saveToZip(String fileName, String jsonData) throws AtlasBaseException {
+    private void saveToZip(String fileName, Object obj) throws AtlasBaseException {
         try {
-            addToZipStream(fileName.toString() + FILE_EXTENSION_JSON, jsonData);
+            addToZipStream(fileName + FILE_EXTENSION_JSON, obj);
         } catch (IOException e) {
             throw new AtlasBaseException(String.format("Error writing file %s.", fileName), e);
         }
     }
 
-    private void addToZipStream(String entryName, String payload) throws IOException {
-
+    // the object is serialized directly into the zip entry, without first building its JSON string
+    private void addToZipStream(String entryName, Object obj) throws IOException {
         ZipEntry e = new ZipEntry(entryName);
         zipOutputStream.putNextEntry(e);
-        writeBytes(payload);
+        AtlasType.toJson(obj, zipOutputStream);
         zipOutputStream.closeEntry();
     }
 
-    private void writeBytes(String payload) throws IOException {
-        splitAndWriteBytes(payload, 10 * 1024 * 1024, zipOutputStream);
-    }
-
-    static void splitAndWriteBytes(String msg, int bufferSize, OutputStream os) throws IOException {
-        int numberOfSplits = (int) Math.ceil(((float) msg.length()) / bufferSize);
-        if (numberOfSplits == 0) {
-            numberOfSplits = 1;
-        } else {
-            if (LOG.isDebugEnabled()) {
-                LOG.info("ZipSink: number of splits: {}", numberOfSplits);
-            }
-        }
-
-        for (int i = 0, start = 0; i < numberOfSplits; i++, start += bufferSize) {
-            int end = bufferSize + start;
-            String s = StringUtils.substring(msg, start, end);
-            os.write(s.getBytes());
-        }
-    }
-
     public boolean hasEntity(String guid) {
         return guids.contains(guid);
     }
@@ -136,7 +123,9 @@ public class ZipSink {
     private void recordAddedEntityGuids(AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo) {
         guids.add(entityWithExtInfo.getEntity().getGuid());
         if(entityWithExtInfo.getReferredEntities() != null) {
-            guids.addAll(entityWithExtInfo.getReferredEntities().keySet());
+            for (String guid : entityWithExtInfo.getReferredEntities().keySet()) {
+                guids.add(guid);
+            }
         }
     }
 
@@ -18,6 +18,7 @@
 
 package org.apache.atlas.repository.impexp;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.apache.atlas.entitytransform.BaseEntityHandler;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasExportResult;
@@ -31,27 +32,52 @@ import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
 import static org.apache.atlas.AtlasErrorCode.IMPORT_ATTEMPTING_EMPTY_ZIP;
 
+/**
+ * Import source that unpacks the zip into a backing directory, so that entities are not held in memory.
+ *
+ * Zip entries are appended to a single data file, and their offsets are recorded in an index by entry name. After
+ * unpacking, the data file is memory-mapped in segments; entries are read by guid from the mapped segments, without
+ * a file open/read per entity.
+ */
 public class ZipSourceWithBackingDirectory implements EntityImportStream {
     private static final Logger LOG = LoggerFactory.getLogger(ZipSourceWithBackingDirectory.class);
     private static final String TEMPORARY_DIRECTORY_PREFIX = "atlas-import-temp-";
     private static final String EXT_JSON = ".json";
+    private static final String DATA_FILE_NAME = "atlas-import-data.bin";
+    private static final int    DEFAULT_SEGMENT_SIZE = 1024 * 1024 * 1024; // size of each mapped region of the data file
+    private static final int    BUFFER_SIZE          = 64 * 1024;
+
+    private final int segmentSize;
 
     private Path tempDirectory;
+    private final Map<String, Extent> index = new HashMap<>(); // zip entry name -> location in the data file
+    private FileChannel               dataChannel;
+    private MappedByteBuffer[]        segments;
 
     private ImportTransforms importTransform;
     private List<BaseEntityHandler> entityHandlers;
@@ -65,6 +91,13 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
     }
 
     public ZipSourceWithBackingDirectory(InputStream inputStream, String backingDirectory) throws IOException, AtlasBaseException {
+        this(inputStream, backingDirectory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    @VisibleForTesting
+    ZipSourceWithBackingDirectory(InputStream inputStream, String backingDirectory, int segmentSize) throws IOException, AtlasBaseException {
+        this.segmentSize = segmentSize;
+
         setupBackingStore(inputStream, backingDirectory);
         if (isZipFileEmpty()) {
             throw new AtlasBaseException(IMPORT_ATTEMPTING_EMPTY_ZIP, "Attempting to import empty ZIP.");
@@ -111,12 +144,7 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
 
     @Override
     public AtlasEntity.AtlasEntityWithExtInfo getEntityWithExtInfo(String guid) throws AtlasBaseException {
-        final File file = getFileFromTemporaryDirectory(guid + EXT_JSON);
-        if (!file.exists()) {
-            return null;
-        }
-
-        String json = getJsonStringForFile(file);
+        String json = getJsonStringForEntry(guid + EXT_JSON);
         if (StringUtils.isEmpty(json)) {
             return null;
         }
@@ -172,9 +200,10 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
     }
 
 
+    // the entry is only dropped from the index: the data file is shared by all entries, and is deleted on close()
     @Override
     public void onImportComplete(String guid) {
-        getFileFromTemporaryDirectory(guid + EXT_JSON).delete();
+        index.remove(guid + EXT_JSON);
     }
 
     @Override
@@ -205,6 +234,19 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
     @Override
     public void close() {
         creationOrder.clear();
+        index.clear();
+
+        segments = null;
+
+        try {
+            if (dataChannel != null) {
+                dataChannel.close();
+                dataChannel = null;
+            }
+        } catch (IOException e) {
+            LOG.error("Import: Error closing: {}", DATA_FILE_NAME, e);
+        }
+
         try {
             LOG.error("Import: Removing temporary directory: {}", tempDirectory.toString());
             FileUtils.deleteDirectory(tempDirectory.toFile());
@@ -218,17 +260,18 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
     }
 
     private <T> T getJsonFromEntry(String entryName, Class<T> clazz) throws AtlasBaseException {
-        final File file = getFileFromTemporaryDirectory(entryName + EXT_JSON);
-        if (!file.exists()) {
+        String json = getJsonStringForEntry(entryName + EXT_JSON);
+        if (json == null) {
             throw new AtlasBaseException(entryName + " not found!");
         }
 
-        return convertFromJson(clazz, getJsonStringForFile(file));
+        return convertFromJson(clazz, json);
     }
 
     private void setupBackingStore(InputStream inputStream, String backingDirectory) throws AtlasBaseException, IOException {
         initTempDirectory(backingDirectory);
         unzipToTempDirectory(inputStream);
+        mapDataFile();
         setupIterator();
     }
 
@@ -257,12 +300,24 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
         LOG.info("Import: Temporary directory: {}", tempDirectory.toString());
 
         ZipInputStream zis = new ZipInputStream(inputStream);
-        try {
+        try (OutputStream dataFile = new BufferedOutputStream(new FileOutputStream(getFileFromTemporaryDirectory(DATA_FILE_NAME)), BUFFER_SIZE)) {
+            byte[]   buf      = new byte[BUFFER_SIZE];
+            long     offset   = 0;
             ZipEntry zipEntry = zis.getNextEntry();
+
             while (zipEntry != null) {
                 String entryName = zipEntry.getName();
+                long   length    = 0;
+
+                for (int n = zis.read(buf, 0, buf.length); n > -1; n = zis.read(buf, 0, buf.length)) {
+                    dataFile.write(buf, 0, n);
+
+                    length += n;
+                }
 
-                writeJsonToFile(entryName,  getJsonPayloadFromZipEntryStream(zis));
+                index.put(entryName, new Extent(offset, length));
+
+                offset += length;
                 numberOfEntries++;
 
                 zipEntry = zis.getNextEntry();
@@ -276,9 +331,20 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
         }
     }
 
-    private void writeJsonToFile(String entryName, byte[] jsonPayload) throws IOException {
-        File f = getFileFromTemporaryDirectory(entryName);
-        Files.write(f.toPath(), jsonPayload);
+    private void mapDataFile() throws IOException {
+        dataChannel = FileChannel.open(getFileFromTemporaryDirectory(DATA_FILE_NAME).toPath(), StandardOpenOption.READ);
+
+        long size = dataChannel.size();
+
+        segments = new MappedByteBuffer[(int) ((size + segmentSize - 1) / segmentSize)];
+
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i * segmentSize;
+
+            segments[i] = dataChannel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, size - start));
+        }
+
+        LOG.info("Import: data file: size={}, entries={}, mapped segments={}", size, index.size(), segments.length);
     }
 
     private File getFileFromTemporaryDirectory(String entryName) {
@@ -295,32 +361,37 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
         reset();
     }
 
-    private byte[] getJsonPayloadFromZipEntryStream(ZipInputStream zipInputStream) {
-        try {
-            byte[] buf = new byte[1024];
-
-            int n = 0;
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            while ((n = zipInputStream.read(buf, 0, 1024)) > -1) {
-                bos.write(buf, 0, n);
-            }
+    // entries are copied out of the mapped segments; an entry can span segments
+    private String getJsonStringForEntry(String entryName) {
+        Extent extent = index.get(entryName);
 
-            return bos.toByteArray();
-        } catch (IOException ex) {
-            LOG.error("Error fetching string from entry.", ex);
+        if (extent == null || segments == null) {
+            return null;
         }
 
-        return null;
-    }
+        if (extent.length > Integer.MAX_VALUE) {
+            LOG.warn("Error fetching: {}: entry too large ({} bytes)", entryName, extent.length);
 
-    private String getJsonStringForFile(File file) {
-        try {
-            byte[] bytes = Files.readAllBytes(file.toPath());
-            return new String(bytes);
-        } catch (IOException e) {
-            LOG.warn("Error fetching: {}", file.toString(), e);
             return null;
         }
+
+        byte[] bytes  = new byte[(int) extent.length];
+        long   offset = extent.offset;
+
+        for (int copied = 0; copied < bytes.length; ) {
+            // duplicate: position is not shared with other readers; called through ByteBuffer and Buffer, so that classes built on later JDKs run on Java 8
+            ByteBuffer segment = ((ByteBuffer) segments[(int) (offset / segmentSize)]).duplicate();
+            int        start   = (int) (offset % segmentSize);
+            int        count   = Math.min(bytes.length - copied, segment.capacity() - start);
+
+            ((Buffer) segment).position(start);
+            segment.get(bytes, copied, count);
+
+            copied += count;
+            offset += count;
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
     }
 
     private void applyTransformers(AtlasEntity.AtlasEntityWithExtInfo entityWithExtInfo) {
@@ -368,4 +439,14 @@ public class ZipSourceWithBackingDirectory implements EntityImportStream {
 
         return null;
     }
+
+    private static class Extent {
+        final long offset;
+        final long length;
+
+        Extent(long offset, long length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
 }
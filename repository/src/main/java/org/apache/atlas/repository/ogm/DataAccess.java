@@ -21,12 +21,14 @@ import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.AtlasBaseModelObject;
 import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.repository.store.graph.v2.AtlasEntityStream;
 import org.apache.atlas.utils.AtlasPerfTracer;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,6 +86,61 @@ public class DataAccess {
         }
     }
 
+    /**
+     * Saves the given objects with a single entity-store update, without reloading them. GUIDs assigned to newly
+     * created objects are set in the objects.
+     */
+    public <T extends AtlasBaseModelObject> void saveNoLoad(Iterable<T> objs) throws AtlasBaseException {
+        Objects.requireNonNull(objs, "Can't save a null object");
+
+        AtlasPerfTracer perf = null;
+
+        try {
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "DataAccess.multiSaveNoLoad()");
+            }
+
+            List<T>                  toSave              = new ArrayList<>();
+            AtlasEntitiesWithExtInfo entitiesWithExtInfo = new AtlasEntitiesWithExtInfo();
+
+            for (T obj : objs) {
+                Objects.requireNonNull(obj, "Can't save a null object");
+
+                DataTransferObject<T>  dto               = (DataTransferObject<T>) dtoRegistry.get(obj.getClass());
+                AtlasEntityWithExtInfo entityWithExtInfo = dto.toEntityWithExtInfo(obj);
+
+                entitiesWithExtInfo.addEntity(entityWithExtInfo.getEntity());
+
+                if (MapUtils.isNotEmpty(entityWithExtInfo.getReferredEntities())) {
+                    for (AtlasEntity referredEntity : entityWithExtInfo.getReferredEntities().values()) {
+                        entitiesWithExtInfo.addReferredEntity(referredEntity);
+                    }
+                }
+
+                toSave.add(obj);
+            }
+
+            if (toSave.isEmpty()) {
+                return;
+            }
+
+            EntityMutationResponse entityMutationResponse = entityStore.createOrUpdate(new AtlasEntityStream(entitiesWithExtInfo), false);
+
+            // Update GUID assignment for newly created entities
+            if (CollectionUtils.isNotEmpty(entityMutationResponse.getCreatedEntities())) {
+                for (T obj : toSave) {
+                    String assignedGuid = entityMutationResponse.getGuidAssignments().get(obj.getGuid());
+
+                    if (assignedGuid != null && !obj.getGuid().equals(assignedGuid)) {
+                        obj.setGuid(assignedGuid);
+                    }
+                }
+            }
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
     public <T extends AtlasBaseModelObject> Iterable<T> save(Iterable<T> obj) throws AtlasBaseException {
         Objects.requireNonNull(obj, "Can't save a null object");
 
@@ -56,8 +56,9 @@ public class AtlasPatchManager {
                 new SuggestionsRequestHandlerPatch(context)
         };
 
-        try {
-            for (AtlasPatchHandler handler : handlers) {
+        for (AtlasPatchHandler handler : handlers) {
+            // a failed patch is logged and left unapplied, to be applied again at next startup; remaining patches are still applied
+            try {
                 PatchStatus patchStatus = handler.getStatusFromRegistry();
 
                 if (patchStatus == APPLIED || patchStatus == SKIPPED) {
@@ -67,10 +68,9 @@ public class AtlasPatchManager {
 
                     handler.apply();
                 }
+            } catch (Exception ex) {
+                LOG.error("Error applying java handler: {}", handler.getPatchId(), ex);
             }
         }
-        catch (Exception ex) {
-            LOG.error("Error applying patches.", ex);
-        }
     }
 }
@@ -112,6 +112,38 @@ public class AtlasPatchRegistry {
         }
     }
 
+    /**
+     * @return progress saved by the patch, to resume from; null if none
+     */
+    public String getProgress(String patchId) {
+        try {
+            AtlasVertex patchVertex = findByPatchId(patchId);
+
+            return patchVertex != null ? getEncodedProperty(patchVertex, PATCH_PROGRESS_PROPERTY_KEY, String.class) : null;
+        } finally {
+            graph.commit();
+        }
+    }
+
+    /**
+     * Saves progress of the patch and commits; null progress removes the saved progress.
+     */
+    public void updateProgress(String patchId, String progress) {
+        try {
+            AtlasVertex patchVertex = findByPatchId(patchId);
+
+            if (patchVertex != null) {
+                if (progress != null) {
+                    setEncodedProperty(patchVertex, PATCH_PROGRESS_PROPERTY_KEY, progress);
+                } else {
+                    patchVertex.removeProperty(PATCH_PROGRESS_PROPERTY_KEY);
+                }
+            }
+        } finally {
+            graph.commit();
+        }
+    }
+
     private static String getId(String incomingId, String patchFile, int index) {
         String patchId = incomingId;
 
@@ -18,21 +18,17 @@
 package org.apache.atlas.repository.patches;
 
 import org.apache.atlas.exception.AtlasBaseException;
-import org.apache.atlas.pc.WorkItemManager;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
-import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
-import org.apache.atlas.type.AtlasClassificationType;
 import org.apache.atlas.type.AtlasEntityType;
-import org.apache.atlas.type.AtlasTypeRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.function.LongConsumer;
 
 import static org.apache.atlas.model.patches.AtlasPatch.PatchStatus.APPLIED;
 
@@ -64,7 +60,7 @@ public class ClassificationTextPatch extends AtlasPatchHandler {
     public static class ClassificationTextPatchProcessor extends ConcurrentPatchProcessor {
 
         public ClassificationTextPatchProcessor(PatchContext context) {
-            super(context);
+            super(context, PATCH_ID);
         }
 
         @Override
@@ -73,41 +69,33 @@ public class ClassificationTextPatch extends AtlasPatchHandler {
         }
 
         @Override
-        public void submitVerticesToUpdate(WorkItemManager manager) {
-            AtlasTypeRegistry typeRegistry = getTypeRegistry();
-            AtlasGraph        graph        = getGraph();
-            Set<Long>         vertexIds    = new HashSet<>();
-
-            for (AtlasClassificationType classificationType : typeRegistry.getAllClassificationTypes()) {
-                LOG.info("finding classification of type {}", classificationType.getTypeName());
-
-                Iterable<AtlasVertex> iterable = graph.query().has(Constants.ENTITY_TYPE_PROPERTY_KEY, classificationType.getTypeName()).vertices();
-                int                   count    = 0;
-
-                for (Iterator<AtlasVertex> iter = iterable.iterator(); iter.hasNext(); ) {
-                    AtlasVertex         classificationVertex = iter.next();
-                    Iterable<AtlasEdge> edges                = classificationVertex.getEdges(AtlasEdgeDirection.IN);
+        protected Collection<String> getScanKeys() {
+            return getTypeRegistry().getAllClassificationDefNames();
+        }
 
-                    for (AtlasEdge edge : edges) {
-                        AtlasVertex entityVertex = edge.getOutVertex();
-                        Long        vertexId     = (Long) entityVertex.getId();
+        @Override
+        public void submitVerticesToUpdate(String classificationTypeName, LongConsumer vertexIds) {
+            LOG.info("finding classification of type {}", classificationTypeName);
 
-                        if (vertexIds.contains(vertexId)) {
-                            continue;
-                        }
+            Iterable<AtlasVertex> iterable  = getGraph().query().has(Constants.ENTITY_TYPE_PROPERTY_KEY, classificationTypeName).vertices();
+            int                   count     = 0;
+            long                  edgeCount = 0;
 
-                        vertexIds.add(vertexId);
+            for (Iterator<AtlasVertex> iter = iterable.iterator(); iter.hasNext(); ) {
+                AtlasVertex         classificationVertex = iter.next();
+                Iterable<AtlasEdge> edges                = classificationVertex.getEdges(AtlasEdgeDirection.IN);
 
-                        manager.checkProduce(vertexId);
-                    }
+                // an entity with classifications of multiple types is submitted for each type; processing is idempotent
+                for (AtlasEdge edge : edges) {
+                    vertexIds.accept((Long) edge.getOutVertex().getId());
 
-                    count++;
+                    edgeCount++;
                 }
 
-                LOG.info("found {} classification of type {}", count, classificationType.getTypeName());
+                count++;
             }
 
-            LOG.info("found {} entities with classifications", vertexIds.size());
+            LOG.info("found {} classification of type {}, applied to {} entities", count, classificationTypeName, edgeCount);
         }
 
         @Override
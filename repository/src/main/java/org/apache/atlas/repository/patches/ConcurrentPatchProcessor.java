@@ -17,64 +17,127 @@
  */
 package org.apache.atlas.repository.patches;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.instance.AtlasEntity;
-import org.apache.atlas.pc.WorkItemBuilder;
-import org.apache.atlas.pc.WorkItemConsumer;
-import org.apache.atlas.pc.WorkItemManager;
 import org.apache.atlas.repository.graph.GraphBackedSearchIndexer;
 import org.apache.atlas.repository.graphdb.*;
 import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphMapper;
 import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.commons.configuration.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
+/**
+ * Applies a patch to vertices with multiple workers.
+ *
+ * The patch splits its vertices into scan keys, like names of types, and submits the vertex ids of a key when asked
+ * to scan it. Keys are scanned concurrently, and ids are queued in batches as they are found; workers process and
+ * commit a batch at a time. Hence scans overlap processing, and only the queued batches are held in memory.
+ *
+ * A key is complete once its scan has ended and all its batches are committed. Complete keys are saved in
+ * AtlasPatchRegistry, at most once every progress save interval; when the patch is applied again after a restart,
+ * saved keys are skipped and the rest are processed again from their start. Processing of a vertex must hence be
+ * idempotent.
+ */
 public abstract class ConcurrentPatchProcessor {
     private static final Logger LOG = LoggerFactory.getLogger(ConcurrentPatchProcessor.class);
 
-    private static final String NUM_WORKERS_PROPERTY = "atlas.patch.numWorkers";
-    private static final String BATCH_SIZE_PROPERTY  = "atlas.patch.batchSize";
-    private static final String ATLAS_SOLR_SHARDS    = "ATLAS_SOLR_SHARDS";
-    private static final String WORKER_NAME_PREFIX   = "patchWorkItem";
+    private static final String NUM_WORKERS_PROPERTY        = "atlas.patch.numWorkers";
+    private static final String BATCH_SIZE_PROPERTY         = "atlas.patch.batchSize";
+    private static final String PROGRESS_INTERVAL_PROPERTY  = "atlas.patch.progress.save.interval.ms";
+    private static final String ATLAS_SOLR_SHARDS           = "ATLAS_SOLR_SHARDS";
+    private static final String WORKER_NAME_PREFIX          = "patchWorkItem";
+    private static final String SCANNER_NAME_PREFIX         = "patchScanner";
+    private static final int    MAX_COMMIT_RETRY            = 3;
+    private static final long   QUEUE_OFFER_TIMEOUT_MS      = 1000;
     private static final int    NUM_WORKERS;
     private static final int    BATCH_SIZE;
+    private static final long   PROGRESS_SAVE_INTERVAL_MS;
 
     private final EntityGraphMapper        entityGraphMapper;
     private final AtlasGraph               graph;
     private final GraphBackedSearchIndexer indexer;
     private final AtlasTypeRegistry        typeRegistry;
+    private final AtlasPatchRegistry       patchRegistry;
+    private final String                   patchId;
+    private final int                      numWorkers;
+    private final int                      batchSize;
+    private final long                     progressSaveIntervalMs;
+    private final AtomicLong               processedCount   = new AtomicLong();
+    private final Set<String>              completedKeys    = new TreeSet<>();
+    private       int                      savedKeyCount    = 0;
+    private       long                     lastProgressSave = System.currentTimeMillis();
+    private volatile boolean               isFailed         = false;
 
     static {
-        int numWorkers = 3;
-        int batchSize  = 300;
+        int  numWorkers             = 3;
+        int  batchSize              = 300;
+        long progressSaveIntervalMs = 60000;
 
         try {
             Configuration config = ApplicationProperties.get();
 
-            numWorkers = config.getInt(NUM_WORKERS_PROPERTY, config.getInt(ATLAS_SOLR_SHARDS, 1) * 3);
-            batchSize  = config.getInt(BATCH_SIZE_PROPERTY, 300);
+            numWorkers             = config.getInt(NUM_WORKERS_PROPERTY, config.getInt(ATLAS_SOLR_SHARDS, 1) * 3);
+            batchSize              = config.getInt(BATCH_SIZE_PROPERTY, 300);
+            progressSaveIntervalMs = config.getLong(PROGRESS_INTERVAL_PROPERTY, progressSaveIntervalMs);
 
-            LOG.info("UniqueAttributePatch: {}={}, {}={}", NUM_WORKERS_PROPERTY, numWorkers, BATCH_SIZE_PROPERTY, batchSize);
+            LOG.info("ConcurrentPatchProcessor: {}={}, {}={}, {}={}", NUM_WORKERS_PROPERTY, numWorkers, BATCH_SIZE_PROPERTY, batchSize, PROGRESS_INTERVAL_PROPERTY, progressSaveIntervalMs);
         } catch (Exception e) {
             LOG.error("Error retrieving configuration.", e);
         }
 
-        NUM_WORKERS = numWorkers;
-        BATCH_SIZE  = batchSize;
+        NUM_WORKERS               = Math.max(numWorkers, 1);
+        BATCH_SIZE                = Math.max(batchSize, 1);
+        PROGRESS_SAVE_INTERVAL_MS = Math.max(progressSaveIntervalMs, 0);
     }
 
     public ConcurrentPatchProcessor(PatchContext context) {
-        this.graph             = context.getGraph();
-        this.indexer           = context.getIndexer();
-        this.typeRegistry      = context.getTypeRegistry();
-        this.entityGraphMapper = context.getEntityGraphMapper();
+        this(context, null);
+    }
+
+    /**
+     * @param patchId id of the patch, to save progress with; progress is not saved if null
+     */
+    public ConcurrentPatchProcessor(PatchContext context, String patchId) {
+        this(context, patchId, NUM_WORKERS, BATCH_SIZE, PROGRESS_SAVE_INTERVAL_MS);
+    }
+
+    ConcurrentPatchProcessor(PatchContext context, String patchId, int numWorkers, int batchSize, long progressSaveIntervalMs) {
+        this.graph                  = context.getGraph();
+        this.indexer                = context.getIndexer();
+        this.typeRegistry           = context.getTypeRegistry();
+        this.entityGraphMapper      = context.getEntityGraphMapper();
+        this.patchRegistry          = context.getPatchRegistry();
+        this.patchId                = patchId;
+        this.numWorkers             = numWorkers;
+        this.batchSize              = batchSize;
+        this.progressSaveIntervalMs = progressSaveIntervalMs;
     }
 
     public EntityGraphMapper getEntityGraphMapper() {
@@ -99,127 +162,338 @@ public abstract class ConcurrentPatchProcessor {
     }
 
     protected abstract void prepareForExecution() throws AtlasBaseException;
-    protected abstract void submitVerticesToUpdate(WorkItemManager manager);
+    protected abstract Collection<String> getScanKeys();
+    protected abstract void submitVerticesToUpdate(String scanKey, LongConsumer vertexIds);
     protected abstract void processVertexItem(Long vertexId, AtlasVertex vertex, String typeName, AtlasEntityType entityType) throws AtlasBaseException;
 
-    private void execute() {
-        WorkItemManager manager = new WorkItemManager(new ConsumerBuilder(graph, typeRegistry, this),
-                                                      WORKER_NAME_PREFIX, BATCH_SIZE, NUM_WORKERS, false);
+    private void execute() throws AtlasBaseException {
+        Set<String> keysToScan = new LinkedHashSet<>(getScanKeys());
+        Set<String> savedKeys  = loadProgress();
+
+        if (savedKeys != null) {
+            LOG.info("ConcurrentPatchProcessor: patchId={}: resuming; skipping {} complete scan keys", patchId, savedKeys.size());
+
+            keysToScan.removeAll(savedKeys);
+            completedKeys.addAll(savedKeys);
+
+            savedKeyCount = completedKeys.size();
+        }
+
+        LOG.info("ConcurrentPatchProcessor: patchId={}: {} scan keys", patchId, keysToScan.size());
+
+        int                  numScanners = Math.max(1, Math.min(numWorkers, keysToScan.size()));
+        BlockingQueue<Batch> queue       = new ArrayBlockingQueue<>(numWorkers * 2);
+        ExecutorService      scanners    = Executors.newFixedThreadPool(numScanners, new ThreadFactoryBuilder().setNameFormat(SCANNER_NAME_PREFIX + "-%d").setDaemon(true).build());
+        ExecutorService      workers     = Executors.newFixedThreadPool(numWorkers, new ThreadFactoryBuilder().setNameFormat(WORKER_NAME_PREFIX + "-%d").setDaemon(true).build());
+        List<Future<?>>      scans       = new ArrayList<>(keysToScan.size());
+        List<Future<?>>      processing  = new ArrayList<>(numWorkers);
+        AtlasBaseException   failure     = null;
 
         try {
-            submitVerticesToUpdate(manager);
+            for (int i = 0; i < numWorkers; i++) {
+                processing.add(workers.submit(() -> {
+                    processBatches(queue);
 
-            manager.drain();
+                    return null;
+                }));
+            }
+
+            for (String key : keysToScan) {
+                scans.add(scanners.submit(() -> {
+                    scan(key, queue);
+
+                    return null;
+                }));
+            }
+
+            failure = waitFor(scans, failure);
+
+            // batches of keys scanned before a scan failed are still processed, for their keys to complete
+            endBatches(queue);
+
+            if (isFailed) {
+                workers.shutdownNow(); // stops workers waiting for batches
+            }
+
+            failure = waitFor(processing, failure);
         } finally {
+            scanners.shutdownNow();
+            workers.shutdownNow();
+        }
+
+        LOG.info("Total: Commit: {}", processedCount.get());
+
+        if (failure != null) {
+            saveProgress(true);
+
+            throw failure;
+        }
+
+        if (patchId != null) {
+            patchRegistry.updateProgress(patchId, null);
+        }
+    }
+
+    private AtlasBaseException waitFor(List<Future<?>> futures, AtlasBaseException failure) throws AtlasBaseException {
+        for (Future<?> future : futures) {
             try {
-                manager.shutdown();
+                future.get();
+            } catch (ExecutionException e) {
+                LOG.error("ConcurrentPatchProcessor: patchId={}: scan or worker failed", patchId, e.getCause());
+
+                if (failure == null) {
+                    failure = e.getCause() instanceof AtlasBaseException ? (AtlasBaseException) e.getCause() : new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, e.getCause());
+                }
             } catch (InterruptedException e) {
-                LOG.error("ConcurrentPatchProcessor.execute(): interrupted during WorkItemManager shutdown.", e);
+                isFailed = true;
+
+                Thread.currentThread().interrupt();
+
+                throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, e);
             }
         }
+
+        return failure;
     }
 
-    private static class ConsumerBuilder implements WorkItemBuilder<Consumer, Long> {
-        private final AtlasTypeRegistry typeRegistry;
-        private final AtlasGraph graph;
-        private final ConcurrentPatchProcessor patchItemProcessor;
+    // queues an END for each worker, to stop after processing the batches queued before it
+    private void endBatches(BlockingQueue<Batch> queue) throws AtlasBaseException {
+        try {
+            for (int i = 0; i < numWorkers; i++) {
+                if (!enqueue(queue, Batch.END)) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            isFailed = true;
 
-        public ConsumerBuilder(AtlasGraph graph, AtlasTypeRegistry typeRegistry, ConcurrentPatchProcessor patchItemProcessor) {
-            this.graph = graph;
-            this.typeRegistry = typeRegistry;
-            this.patchItemProcessor = patchItemProcessor;
-        }
+            Thread.currentThread().interrupt();
 
-        @Override
-        public Consumer build(BlockingQueue<Long> queue) {
-            return new Consumer(graph, typeRegistry, queue, patchItemProcessor);
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, e);
         }
     }
 
-    private static class Consumer extends WorkItemConsumer<Long> {
-        private int MAX_COMMIT_RETRY_COUNT = 3;
-        private final AtlasGraph graph;
-        private final AtlasTypeRegistry typeRegistry;
+    // queues ids of the key in batches, as they are submitted by the patch
+    private void scan(String key, BlockingQueue<Batch> queue) {
+        ScanKey scanKey = new ScanKey(key);
+        long[]  ids     = new long[batchSize];
+        int[]   count   = { 0 };
 
-        private final AtomicLong counter;
-        private final ConcurrentPatchProcessor individualItemProcessor;
+        LOG.info("ConcurrentPatchProcessor: patchId={}: scanning {}", patchId, key);
 
-        public Consumer(AtlasGraph graph, AtlasTypeRegistry typeRegistry, BlockingQueue<Long> queue, ConcurrentPatchProcessor individualItemProcessor) {
-            super(queue);
+        try {
+            submitVerticesToUpdate(key, id -> {
+                ids[count[0]++] = id;
 
-            this.graph        = graph;
-            this.typeRegistry = typeRegistry;
-            this.counter = new AtomicLong(0);
-            this.individualItemProcessor = individualItemProcessor;
-        }
+                if (count[0] == ids.length) {
+                    enqueueBatch(queue, scanKey, ids, count[0]);
 
-        @Override
-        protected void doCommit() {
-            if (counter.get() % BATCH_SIZE == 0) {
-                LOG.info("Processed: {}", counter.get());
+                    count[0] = 0;
+                }
+            });
 
-                attemptCommit();
+            if (count[0] > 0) {
+                enqueueBatch(queue, scanKey, ids, count[0]);
             }
+        } finally {
+            graph.rollback(); // the scan only reads
         }
 
-        @Override
-        protected void commitDirty() {
-            attemptCommit();
+        LOG.info("ConcurrentPatchProcessor: patchId={}: scanned {}", patchId, key);
+
+        onBatchDone(scanKey); // the scan itself is done
+    }
 
-            LOG.info("Total: Commit: {}", counter.get());
+    private void enqueueBatch(BlockingQueue<Batch> queue, ScanKey scanKey, long[] ids, int count) {
+        scanKey.pendingCount.incrementAndGet();
 
-            super.commitDirty();
+        try {
+            if (!enqueue(queue, new Batch(scanKey, Arrays.copyOf(ids, count)))) {
+                throw new IllegalStateException("patch processing failed; stopped scanning " + scanKey.key);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("interrupted while queueing vertices of " + scanKey.key, e);
         }
+    }
 
-        private void attemptCommit() {
-            for (int retryCount = 1; retryCount <= MAX_COMMIT_RETRY_COUNT; retryCount++) {
-                try {
-                    graph.commit();
+    // waits for space in the queue; returns false, without queueing, once processing failed
+    private boolean enqueue(BlockingQueue<Batch> queue, Batch batch) throws InterruptedException {
+        while (!queue.offer(batch, QUEUE_OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            if (isFailed) {
+                return false;
+            }
+        }
 
-                    break;
-                } catch(Exception ex) {
-                    LOG.error("Commit exception: ", retryCount, ex);
+        return true;
+    }
 
-                    try {
-                        Thread.currentThread().sleep(300 * retryCount);
-                    } catch (InterruptedException e) {
-                        LOG.error("Commit exception: Pause: Interrputed!", e);
+    private void processBatches(BlockingQueue<Batch> queue) throws AtlasBaseException, InterruptedException {
+        try {
+            for (Batch batch = queue.take(); batch != Batch.END && !isFailed; batch = queue.take()) {
+                long[] ids = batch.ids;
+
+                Arrays.sort(ids); // duplicates submitted in a batch are processed once
+
+                for (int i = 0; i < ids.length; i++) {
+                    if (i == 0 || ids[i] != ids[i - 1]) {
+                        processItem(ids[i]);
                     }
                 }
+
+                if (!attemptCommit()) {
+                    throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "commit failed after " + MAX_COMMIT_RETRY + " attempts");
+                }
+
+                LOG.info("Processed: {}", processedCount.addAndGet(ids.length));
+
+                // caches are cleared after every batch, to not grow through the whole patch
+                GraphTransactionInterceptor.clearCache();
+                RequestContext.clear();
+
+                onBatchDone(batch.scanKey);
             }
+        } catch (AtlasBaseException | RuntimeException e) {
+            isFailed = true;
+
+            graph.rollback();
+
+            throw e;
+        } finally {
+            GraphTransactionInterceptor.clearCache();
+            RequestContext.clear();
         }
+    }
 
-        @Override
-        protected void processItem(Long vertexId) {
-            counter.incrementAndGet();
-            AtlasVertex vertex = graph.getVertex(Long.toString(vertexId));
+    private void processItem(long vertexId) {
+        AtlasVertex vertex = graph.getVertex(Long.toString(vertexId));
 
-            if (vertex == null) {
-                LOG.warn("processItem(vertexId={}): AtlasVertex not found!", vertexId);
+        if (vertex == null) {
+            LOG.warn("processItem(vertexId={}): AtlasVertex not found!", vertexId);
 
-                return;
-            }
+            return;
+        }
 
-            if (AtlasGraphUtilsV2.isTypeVertex(vertex)) {
-                return;
-            }
+        if (AtlasGraphUtilsV2.isTypeVertex(vertex)) {
+            return;
+        }
 
-            if (AtlasGraphUtilsV2.getState(vertex) != AtlasEntity.Status.ACTIVE) {
-                return;
-            }
+        if (AtlasGraphUtilsV2.getState(vertex) != AtlasEntity.Status.ACTIVE) {
+            return;
+        }
 
-            String          typeName   = AtlasGraphUtilsV2.getTypeName(vertex);
-            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
-            if (entityType == null) {
-                return;
-            }
+        String          typeName   = AtlasGraphUtilsV2.getTypeName(vertex);
+        AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
 
+        if (entityType == null) {
+            return;
+        }
+
+        try {
+            processVertexItem(vertexId, vertex, typeName, entityType);
+        } catch (AtlasBaseException e) {
+            LOG.error("Error processing: {}", vertexId, e);
+        }
+    }
+
+    private boolean attemptCommit() {
+        for (int retryCount = 1; retryCount <= MAX_COMMIT_RETRY; retryCount++) {
             try {
-                individualItemProcessor.processVertexItem(vertexId, vertex, typeName, entityType);
-                doCommit();
-            } catch (AtlasBaseException e) {
-                LOG.error("Error processing: {}", vertexId, e);
+                graph.commit();
+
+                return true;
+            } catch(Exception ex) {
+                LOG.error("Commit exception: {}", retryCount, ex);
+
+                try {
+                    Thread.sleep(300 * retryCount);
+                } catch (InterruptedException e) {
+                    LOG.error("Commit exception: Pause: Interrputed!", e);
+
+                    Thread.currentThread().interrupt();
+
+                    break;
+                }
             }
         }
+
+        return false;
+    }
+
+    private void onBatchDone(ScanKey scanKey) {
+        if (scanKey.pendingCount.decrementAndGet() == 0) {
+            synchronized (this) {
+                completedKeys.add(scanKey.key);
+            }
+
+            saveProgress(false);
+        }
+    }
+
+    private Set<String> loadProgress() {
+        if (patchId == null) {
+            return null;
+        }
+
+        String progress = patchRegistry.getProgress(patchId);
+
+        try {
+            return progress != null ? fromProgressString(progress) : null;
+        } catch (IllegalArgumentException e) {
+            LOG.warn("ConcurrentPatchProcessor: patchId={}: ignoring invalid saved progress {}", patchId, progress, e);
+
+            return null;
+        }
+    }
+
+    // saves complete keys, unless saved within the save interval; saving is serialized, so that a save doesn't overwrite newer progress
+    private synchronized void saveProgress(boolean force) {
+        long now = System.currentTimeMillis();
+
+        if (patchId == null || completedKeys.size() == savedKeyCount || (!force && now - lastProgressSave < progressSaveIntervalMs)) {
+            return;
+        }
+
+        patchRegistry.updateProgress(patchId, toProgressString(completedKeys));
+
+        savedKeyCount    = completedKeys.size();
+        lastProgressSave = now;
+    }
+
+    static String toProgressString(Collection<String> completedKeys) {
+        return AtlasType.toJson(completedKeys);
+    }
+
+    static Set<String> fromProgressString(String progress) {
+        String[] keys = AtlasType.fromJson(progress, String[].class);
+
+        if (keys == null) {
+            throw new IllegalArgumentException("invalid progress: " + progress);
+        }
+
+        return new LinkedHashSet<>(Arrays.asList(keys));
+    }
+
+    // pendingCount: batches queued and not yet committed, plus 1 while the key is being scanned
+    private static class ScanKey {
+        final String        key;
+        final AtomicInteger pendingCount = new AtomicInteger(1);
+
+        ScanKey(String key) {
+            this.key = key;
+        }
+    }
+
+    private static class Batch {
+        static final Batch END = new Batch(null, new long[0]);
+
+        final ScanKey scanKey;
+        final long[]  ids;
+
+        Batch(ScanKey scanKey, long[] ids) {
+            this.scanKey = scanKey;
+            this.ids     = ids;
+        }
     }
 }
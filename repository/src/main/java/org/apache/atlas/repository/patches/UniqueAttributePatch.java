@@ -19,7 +19,6 @@ package org.apache.atlas.repository.patches;
 
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
-import org.apache.atlas.pc.WorkItemManager;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.IndexException;
 import org.apache.atlas.repository.graph.GraphBackedSearchIndexer.UniqueKind;
@@ -28,13 +27,13 @@ import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
-import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.function.LongConsumer;
 
 import static org.apache.atlas.model.patches.AtlasPatch.PatchStatus.APPLIED;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getIdFromVertex;
@@ -66,7 +65,7 @@ public class UniqueAttributePatch extends AtlasPatchHandler {
 
     public static class UniqueAttributePatchProcessor extends ConcurrentPatchProcessor {
         public UniqueAttributePatchProcessor(PatchContext context) {
-            super(context);
+            super(context, PATCH_ID);
         }
 
         @Override
@@ -76,26 +75,26 @@ public class UniqueAttributePatch extends AtlasPatchHandler {
         }
 
         @Override
-        public void submitVerticesToUpdate(WorkItemManager manager) {
-            AtlasTypeRegistry typeRegistry = getTypeRegistry();
-            AtlasGraph        graph        = getGraph();
+        protected Collection<String> getScanKeys() {
+            return getTypeRegistry().getAllEntityDefNames();
+        }
 
-            for (AtlasEntityType entityType : typeRegistry.getAllEntityTypes()) {
-                LOG.info("finding entities of type {}", entityType.getTypeName());
+        @Override
+        public void submitVerticesToUpdate(String entityTypeName, LongConsumer vertexIds) {
+            LOG.info("finding entities of type {}", entityTypeName);
 
-                Iterable<Object> iterable = graph.query().has(Constants.ENTITY_TYPE_PROPERTY_KEY, entityType.getTypeName()).vertexIds();
-                int              count    = 0;
+            Iterable<Object> iterable = getGraph().query().has(Constants.ENTITY_TYPE_PROPERTY_KEY, entityTypeName).vertexIds();
+            int              count    = 0;
 
-                for (Iterator<Object> iter = iterable.iterator(); iter.hasNext(); ) {
-                    Object vertexId = iter.next();
+            for (Iterator<Object> iter = iterable.iterator(); iter.hasNext(); ) {
+                Object vertexId = iter.next();
 
-                    manager.checkProduce((Long) vertexId);
+                vertexIds.accept((Long) vertexId);
 
-                    count++;
-                }
-
-                LOG.info("found {} entities of type {}", count, entityType.getTypeName());
+                count++;
             }
+
+            LOG.info("found {} entities of type {}", count, entityTypeName);
         }
 
         @Override
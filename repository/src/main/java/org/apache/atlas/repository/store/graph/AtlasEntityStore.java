@@ -66,6 +66,31 @@ public interface AtlasEntityStore {
      */
     AtlasEntityWithExtInfo getById(String guid, boolean isMinExtInfo, boolean ignoreRelationships) throws AtlasBaseException;
 
+    /**
+     *
+     * Get entity definition by its guid, with only the given attributes
+     * @param guid
+     * @param isMinExtInfo
+     * @param attributes names of attributes to retrieve; null to retrieve all attributes
+     * @param relationshipAttributes names of relationship attributes to retrieve; null to retrieve all relationship attributes
+     * @return AtlasEntity
+     */
+    AtlasEntityWithExtInfo getById(String guid, boolean isMinExtInfo, boolean ignoreRelationships, Set<String> attributes, Set<String> relationshipAttributes) throws AtlasBaseException;
+
+    /**
+     *
+     * Get entity definition by its guid, with a window of the entities it refers to
+     * @param guid
+     * @param isMinExtInfo
+     * @param attributes names of attributes to retrieve; null to retrieve all attributes
+     * @param relationshipAttributes names of relationship attributes to retrieve; null to retrieve all relationship attributes
+     * @param referredEntitiesOffset number of referred entities to skip
+     * @param referredEntitiesLimit maximum number of referred entities to retrieve; -1 for no limit
+     * @return AtlasEntity
+     */
+    AtlasEntityWithExtInfo getById(String guid, boolean isMinExtInfo, boolean ignoreRelationships, Set<String> attributes, Set<String> relationshipAttributes,
+                                   int referredEntitiesOffset, int referredEntitiesLimit) throws AtlasBaseException;
+
     /**
      * Get entity header for the given GUID
      * @param guid
@@ -94,6 +119,17 @@ public interface AtlasEntityStore {
      */
     AtlasEntitiesWithExtInfo getByIds(List<String> guid, boolean isMinExtInfo, boolean ignoreRelationships) throws AtlasBaseException;
 
+    /**
+     * Batch GET to retrieve entities by their ID, with only the given attributes
+     * @param guid
+     * @param isMinExtInfo
+     * @param attributes names of attributes to retrieve; null to retrieve all attributes
+     * @param relationshipAttributes names of relationship attributes to retrieve; null to retrieve all relationship attributes
+     * @return
+     * @throws AtlasBaseException
+     */
+    AtlasEntitiesWithExtInfo getByIds(List<String> guid, boolean isMinExtInfo, boolean ignoreRelationships, Set<String> attributes, Set<String> relationshipAttributes) throws AtlasBaseException;
+
     /**
      * Batch GET to retrieve entities by their uniqueIds
      * @param entityType
@@ -266,6 +302,14 @@ public interface AtlasEntityStore {
      */
     void addOrUpdateBusinessAttributes(String guid, Map<String, Map<String, Object>> businessAttrbutes, boolean isOverwrite) throws AtlasBaseException;
 
+    /**
+     * Adds or updates business attributes of multiple entities, in a single transaction
+     * @param businessAttributesByGuid business attributes of entities, keyed by entity guid
+     * @param isOverwrite
+     * @throws AtlasBaseException
+     */
+    void addOrUpdateBusinessAttributes(Map<String, Map<String, Map<String, Object>>> businessAttributesByGuid, boolean isOverwrite) throws AtlasBaseException;
+
     /**
      *
      * @param guid
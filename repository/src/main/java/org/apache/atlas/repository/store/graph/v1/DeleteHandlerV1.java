@@ -466,32 +466,18 @@ public abstract class DeleteHandlerV1 {
             return;
         }
 
-        List<AtlasVertex>                   currentClassificationVertices = getPropagatableClassifications(edge);
-        Map<AtlasVertex, List<AtlasVertex>> currentClassificationsMap     = entityRetriever.getClassificationPropagatedEntitiesMapping(currentClassificationVertices);
-        Map<AtlasVertex, List<AtlasVertex>> updatedClassificationsMap     = entityRetriever.getClassificationPropagatedEntitiesMapping(currentClassificationVertices, getRelationshipGuid(edge));
-        Map<AtlasVertex, List<AtlasVertex>> removePropagationsMap         = new HashMap<>();
+        Set<AtlasVertex> classificationVertices = new LinkedHashSet<>(getPropagatableClassifications(edge));
+        boolean          isTermEntityEdge       = isTermEntityEdge(edge);
 
-        if (MapUtils.isNotEmpty(currentClassificationsMap) && MapUtils.isEmpty(updatedClassificationsMap)) {
-            removePropagationsMap.putAll(currentClassificationsMap);
-        } else {
-            for (AtlasVertex classificationVertex : updatedClassificationsMap.keySet()) {
-                List<AtlasVertex> currentPropagatingEntities = currentClassificationsMap.containsKey(classificationVertex) ? currentClassificationsMap.get(classificationVertex) : Collections.emptyList();
-                List<AtlasVertex> updatedPropagatingEntities = updatedClassificationsMap.containsKey(classificationVertex) ? updatedClassificationsMap.get(classificationVertex) : Collections.emptyList();
-                List<AtlasVertex> entitiesRemoved            = (List<AtlasVertex>) CollectionUtils.subtract(currentPropagatingEntities, updatedPropagatingEntities);
-
-                if (CollectionUtils.isNotEmpty(entitiesRemoved)) {
-                    removePropagationsMap.put(classificationVertex, entitiesRemoved);
-                }
+        for (AtlasVertex classificationVertex : classificationVertices) {
+            if (!isTermEntityEdge && !getRemovePropagations(classificationVertex)) {
+                continue;
             }
-        }
-
-        boolean isTermEntityEdge = isTermEntityEdge(edge);
 
-        for (AtlasVertex classificationVertex : removePropagationsMap.keySet()) {
-            boolean removePropagations = getRemovePropagations(classificationVertex);
+            List<AtlasVertex> entitiesRemoved = entityRetriever.getPropagationsToRemove(classificationVertex, edge);
 
-            if (isTermEntityEdge || removePropagations) {
-                removeTagPropagation(classificationVertex, removePropagationsMap.get(classificationVertex));
+            if (CollectionUtils.isNotEmpty(entitiesRemoved)) {
+                removeTagPropagation(classificationVertex, entitiesRemoved);
             }
         }
     }
@@ -584,7 +570,16 @@ public abstract class DeleteHandlerV1 {
             for (AtlasVertex classificationVertex : classificationVertices) {
                 String            classificationName     = getTypeName(classificationVertex);
                 AtlasVertex       associatedEntityVertex = getAssociatedEntityVertex(classificationVertex);
-                List<AtlasVertex> referrals              = entityRetriever.getIncludedImpactedVerticesV2(associatedEntityVertex, getRelationshipGuid(edge));
+                List<AtlasVertex> referralVertices       = entityRetriever.getImpactedVerticesV2(associatedEntityVertex, getRelationshipGuid(edge), null, Collections.singletonList(toVertex));
+
+                // toVertex is still reachable from the associated entity, hence so are all the impacted entities
+                if (referralVertices == null) {
+                    continue;
+                }
+
+                Set<AtlasVertex> referrals = new HashSet<>(referralVertices);
+
+                referrals.add(associatedEntityVertex);
 
                 for (AtlasVertex impactedEntityVertex : impactedEntityVertices) {
                     if (referrals.contains(impactedEntityVertex)) {
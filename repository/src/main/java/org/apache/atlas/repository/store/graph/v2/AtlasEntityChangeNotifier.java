@@ -20,6 +20,7 @@ package org.apache.atlas.repository.store.graph.v2;
 
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContext;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.listener.EntityChangeListener;
@@ -41,6 +42,7 @@ import org.apache.atlas.utils.AtlasPerfMetrics.MetricRecorder;
 import org.apache.atlas.v1.model.instance.Referenceable;
 import org.apache.atlas.v1.model.instance.Struct;
 import org.apache.atlas.repository.converters.AtlasInstanceConverter;
+import org.apache.atlas.repository.graph.FullTextIndexer;
 import org.apache.atlas.repository.graph.FullTextMapperV2;
 import org.apache.atlas.repository.graph.GraphHelper;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
@@ -55,6 +57,7 @@ import org.springframework.stereotype.Component;
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
@@ -73,6 +76,9 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
     private final Set<EntityChangeListenerV2> entityChangeListenersV2;
     private final AtlasInstanceConverter      instanceConverter;
     private final FullTextMapperV2            fullTextMapperV2;
+    private final FullTextIndexer             fullTextIndexer;
+    private final EntitySnapshotCache         entitySnapshotCache;
+    private final EntityChangeLog             entityChangeLog;
     private final AtlasTypeRegistry           atlasTypeRegistry;
     private final boolean                     isV2EntityNotificationEnabled;
 
@@ -82,17 +88,25 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
                                      Set<EntityChangeListenerV2> entityChangeListenersV2,
                                      AtlasInstanceConverter instanceConverter,
                                      FullTextMapperV2 fullTextMapperV2,
+                                     FullTextIndexer fullTextIndexer,
+                                     EntitySnapshotCache entitySnapshotCache,
+                                     EntityChangeLog entityChangeLog,
                                      AtlasTypeRegistry atlasTypeRegistry) {
         this.entityChangeListeners         = entityChangeListeners;
         this.entityChangeListenersV2       = entityChangeListenersV2;
         this.instanceConverter             = instanceConverter;
         this.fullTextMapperV2              = fullTextMapperV2;
+        this.fullTextIndexer               = fullTextIndexer;
+        this.entitySnapshotCache           = entitySnapshotCache;
+        this.entityChangeLog               = entityChangeLog;
         this.atlasTypeRegistry             = atlasTypeRegistry;
         this.isV2EntityNotificationEnabled = AtlasRepositoryConfiguration.isV2EntityNotificationEnabled();
     }
 
     @Override
     public void onEntitiesMutated(EntityMutationResponse entityMutationResponse, boolean isImport) throws AtlasBaseException {
+        onEntitiesChanged(entityMutationResponse);
+
         if (CollectionUtils.isEmpty(entityChangeListeners)) {
             return;
         }
@@ -122,6 +136,8 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
 
     @Override
     public void notifyRelationshipMutation(AtlasRelationship relationship, EntityNotification.EntityNotificationV2.OperationType operationType) throws AtlasBaseException {
+        onEntitiesChanged(relationship);
+
         if (CollectionUtils.isEmpty(entityChangeListeners)) {
             return;
         }
@@ -141,6 +157,8 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
 
     @Override
     public void onClassificationAddedToEntity(AtlasEntity entity, List<AtlasClassification> addedClassifications) throws AtlasBaseException {
+        onEntityChanged(entity.getGuid());
+
         if (isV2EntityNotificationEnabled) {
             doFullTextMapping(entity.getGuid());
 
@@ -171,6 +189,8 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
 
     @Override
     public void onClassificationsAddedToEntities(List<AtlasEntity> entities, List<AtlasClassification> addedClassifications) throws AtlasBaseException {
+        onEntitiesChanged(entities);
+
         if (isV2EntityNotificationEnabled) {
             doFullTextMappingHelper(entities);
 
@@ -207,6 +227,8 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
 
     @Override
     public void onClassificationUpdatedToEntity(AtlasEntity entity, List<AtlasClassification> updatedClassifications) throws AtlasBaseException {
+        onEntityChanged(entity.getGuid());
+
         doFullTextMapping(entity.getGuid());
 
         if (isV2EntityNotificationEnabled) {
@@ -235,6 +257,8 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
 
     @Override
     public void onClassificationDeletedFromEntity(AtlasEntity entity, List<AtlasClassification> deletedClassifications) throws AtlasBaseException {
+        onEntityChanged(entity.getGuid());
+
         doFullTextMapping(entity.getGuid());
 
         if (isV2EntityNotificationEnabled) {
@@ -263,6 +287,8 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
 
     @Override
     public void onClassificationsDeletedFromEntities(List<AtlasEntity> entities, List<AtlasClassification> deletedClassifications) throws AtlasBaseException {
+        onEntitiesChanged(entities);
+
         doFullTextMappingHelper(entities);
 
         if (isV2EntityNotificationEnabled) {
@@ -297,6 +323,8 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
 
     @Override
     public void onTermAddedToEntities(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entityIds) throws AtlasBaseException {
+        onEntitiesChanged(term, entityIds);
+
         // listeners notified on term-entity association only if v2 notifications are enabled
         if (isV2EntityNotificationEnabled) {
             for (EntityChangeListenerV2 listener : entityChangeListenersV2) {
@@ -317,6 +345,8 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
 
     @Override
     public void onTermDeletedFromEntities(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entityIds) throws AtlasBaseException {
+        onEntitiesChanged(term, entityIds);
+
         // listeners notified on term-entity disassociation only if v2 notifications are enabled
         if (isV2EntityNotificationEnabled) {
             for (EntityChangeListenerV2 listener : entityChangeListenersV2) {
@@ -337,6 +367,8 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
 
     @Override
     public void onLabelsUpdatedFromEntity(String entityGuid, Set<String> addedLabels, Set<String> deletedLabels) throws AtlasBaseException {
+        onEntityChanged(entityGuid);
+
         doFullTextMapping(entityGuid);
 
         if (isV2EntityNotificationEnabled) {
@@ -361,12 +393,16 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
 
     @Override
     public void onBusinessAttributesUpdated(String entityGuid, Map<String, Map<String, Object>> updatedBusinessAttributes) throws AtlasBaseException{
+        onEntityChanged(entityGuid);
+
         if (isV2EntityNotificationEnabled) {
             AtlasEntity entity = instanceConverter.getAndCacheEntity(entityGuid);
 
-            for (EntityChangeListenerV2 listener : entityChangeListenersV2) {
-                listener.onBusinessAttributesUpdated(entity, updatedBusinessAttributes);
-            }
+            notifyOnCommitIfRequested(() -> {
+                for (EntityChangeListenerV2 listener : entityChangeListenersV2) {
+                    listener.onBusinessAttributesUpdated(entity, updatedBusinessAttributes);
+                }
+            });
         }
     }
 
@@ -398,6 +434,99 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
         }
     }
 
+    private void onEntityChanged(String guid) {
+        if (guid != null) {
+            onEntitiesChanged(Collections.singletonMap(guid, EntityOperation.UPDATE));
+        }
+    }
+
+    private void onEntitiesChanged(List<AtlasEntity> entities) {
+        if (CollectionUtils.isEmpty(entities)) {
+            return;
+        }
+
+        Map<String, EntityOperation> changes = new LinkedHashMap<>();
+
+        for (AtlasEntity entity : entities) {
+            changes.put(entity.getGuid(), EntityOperation.UPDATE);
+        }
+
+        onEntitiesChanged(changes);
+    }
+
+    private void onEntitiesChanged(EntityMutationResponse entityMutationResponse) {
+        if (entityMutationResponse == null) {
+            return;
+        }
+
+        Map<String, EntityOperation> changes = new LinkedHashMap<>();
+
+        addChanges(changes, entityMutationResponse.getCreatedEntities(), EntityOperation.CREATE);
+        addChanges(changes, entityMutationResponse.getUpdatedEntities(), EntityOperation.UPDATE);
+        addChanges(changes, entityMutationResponse.getPartialUpdatedEntities(), EntityOperation.PARTIAL_UPDATE);
+        addChanges(changes, entityMutationResponse.getDeletedEntities(), EntityOperation.DELETE);
+        addChanges(changes, entityMutationResponse.getPurgedEntities(), EntityOperation.PURGE);
+
+        onEntitiesChanged(changes);
+    }
+
+    private void onEntitiesChanged(AtlasRelationship relationship) {
+        if (relationship == null) {
+            return;
+        }
+
+        Map<String, EntityOperation> changes = new LinkedHashMap<>();
+
+        if (relationship.getEnd1() != null) {
+            changes.put(relationship.getEnd1().getGuid(), EntityOperation.UPDATE);
+        }
+
+        if (relationship.getEnd2() != null) {
+            changes.put(relationship.getEnd2().getGuid(), EntityOperation.UPDATE);
+        }
+
+        onEntitiesChanged(changes);
+    }
+
+    private void onEntitiesChanged(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entityIds) {
+        Map<String, EntityOperation> changes = new LinkedHashMap<>();
+
+        if (term != null) {
+            changes.put(term.getGuid(), EntityOperation.UPDATE);
+        }
+
+        if (entityIds != null) {
+            for (AtlasRelatedObjectId entityId : entityIds) {
+                changes.put(entityId.getGuid(), EntityOperation.UPDATE);
+            }
+        }
+
+        onEntitiesChanged(changes);
+    }
+
+    // cached snapshots of changed entities are invalidated after commit; the changes are recorded in the change log in the current transaction
+    private void onEntitiesChanged(Map<String, EntityOperation> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        if (entitySnapshotCache != null) {
+            entitySnapshotCache.invalidateOnCommit(changes.keySet());
+        }
+
+        if (entityChangeLog != null) {
+            entityChangeLog.record(changes);
+        }
+    }
+
+    private static void addChanges(Map<String, EntityOperation> changes, List<AtlasEntityHeader> headers, EntityOperation operation) {
+        if (headers != null) {
+            for (AtlasEntityHeader header : headers) {
+                changes.put(header.getGuid(), operation);
+            }
+        }
+    }
+
     private String getListenerName(EntityChangeListener listener) {
         return listener.getClass().getSimpleName();
     }
@@ -436,71 +565,106 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
         if (operation != EntityOperation.PURGE && instanceConverter != null) {
             List<Referenceable> typedRefInsts = toReferenceables(entityHeaders, operation);
 
-            for (EntityChangeListener listener : entityChangeListeners) {
-                try {
-                    switch (operation) {
-                        case CREATE:
-                            listener.onEntitiesAdded(typedRefInsts, isImport);
-                            break;
-                        case UPDATE:
-                        case PARTIAL_UPDATE:
-                            listener.onEntitiesUpdated(typedRefInsts, isImport);
-                            break;
-                        case DELETE:
-                            listener.onEntitiesDeleted(typedRefInsts, isImport);
-                            break;
+            notifyOnCommitIfRequested(() -> {
+                for (EntityChangeListener listener : entityChangeListeners) {
+                    try {
+                        switch (operation) {
+                            case CREATE:
+                                listener.onEntitiesAdded(typedRefInsts, isImport);
+                                break;
+                            case UPDATE:
+                            case PARTIAL_UPDATE:
+                                listener.onEntitiesUpdated(typedRefInsts, isImport);
+                                break;
+                            case DELETE:
+                                listener.onEntitiesDeleted(typedRefInsts, isImport);
+                                break;
+                        }
+                    } catch (AtlasException e) {
+                        throw new AtlasBaseException(AtlasErrorCode.NOTIFICATION_FAILED, e, getListenerName(listener), operation.toString());
                     }
-                } catch (AtlasException e) {
-                    throw new AtlasBaseException(AtlasErrorCode.NOTIFICATION_FAILED, e, getListenerName(listener), operation.toString());
                 }
-            }
+            });
         }
     }
 
     private void notifyV2Listeners(List<AtlasEntityHeader> entityHeaders, EntityOperation operation, boolean isImport) throws AtlasBaseException {
         List<AtlasEntity> entities = toAtlasEntities(entityHeaders, operation);
 
-        for (EntityChangeListenerV2 listener : entityChangeListenersV2) {
-            switch (operation) {
-                case CREATE:
-                    listener.onEntitiesAdded(entities, isImport);
-                    break;
-
-                case UPDATE:
-                case PARTIAL_UPDATE:
-                    listener.onEntitiesUpdated(entities, isImport);
-                    break;
-
-                case DELETE:
-                    listener.onEntitiesDeleted(entities, isImport);
-                    break;
-
-                case PURGE:
-                    listener.onEntitiesPurged(entities);
-                    break;
+        notifyOnCommitIfRequested(() -> {
+            for (EntityChangeListenerV2 listener : entityChangeListenersV2) {
+                switch (operation) {
+                    case CREATE:
+                        listener.onEntitiesAdded(entities, isImport);
+                        break;
+
+                    case UPDATE:
+                    case PARTIAL_UPDATE:
+                        listener.onEntitiesUpdated(entities, isImport);
+                        break;
+
+                    case DELETE:
+                        listener.onEntitiesDeleted(entities, isImport);
+                        break;
+
+                    case PURGE:
+                        listener.onEntitiesPurged(entities);
+                        break;
+                }
             }
-        }
+        });
     }
 
     private void notifyV2RelationshipListeners(List<AtlasRelationship> relationships, EntityOperation operation, boolean isImport) throws AtlasBaseException {
-
-        for (EntityChangeListenerV2 listener : entityChangeListenersV2) {
-            switch (operation) {
-                case CREATE:
-                    listener.onRelationshipsAdded(relationships, isImport);
-                    break;
-                case UPDATE:
-                case PARTIAL_UPDATE:
-                    listener.onRelationshipsUpdated(relationships, isImport);
-                    break;
-                case DELETE:
-                    listener.onRelationshipsDeleted(relationships, isImport);
-                    break;
-                case PURGE:
-                    listener.onRelationshipsPurged(relationships);
-                    break;
+        notifyOnCommitIfRequested(() -> {
+            for (EntityChangeListenerV2 listener : entityChangeListenersV2) {
+                switch (operation) {
+                    case CREATE:
+                        listener.onRelationshipsAdded(relationships, isImport);
+                        break;
+                    case UPDATE:
+                    case PARTIAL_UPDATE:
+                        listener.onRelationshipsUpdated(relationships, isImport);
+                        break;
+                    case DELETE:
+                        listener.onRelationshipsDeleted(relationships, isImport);
+                        break;
+                    case PURGE:
+                        listener.onRelationshipsPurged(relationships);
+                        break;
+                }
             }
+        });
+    }
+
+    /**
+     * Notifies listeners right away; or, if RequestContext.isNotifyListenersOnCommit() is set, once the current graph
+     * transaction commits successfully. Listeners are not notified of changes that are rolled back, and failures of
+     * listeners notified after commit are logged, instead of failing the transaction.
+     */
+    private void notifyOnCommitIfRequested(ListenerNotification notification) throws AtlasBaseException {
+        if (!RequestContext.get().isNotifyListenersOnCommit() || !GraphTransactionInterceptor.isTxnOpen()) {
+            notification.notifyListeners();
+
+            return;
         }
+
+        new GraphTransactionInterceptor.PostTransactionHook() {
+            @Override
+            public void onComplete(boolean isSuccess) {
+                if (isSuccess) {
+                    try {
+                        notification.notifyListeners();
+                    } catch (AtlasBaseException e) {
+                        LOG.error("failed to notify listeners after commit", e);
+                    }
+                }
+            }
+        };
+    }
+
+    private interface ListenerNotification {
+        void notifyListeners() throws AtlasBaseException;
     }
 
     private List<Referenceable> toReferenceables(List<AtlasEntityHeader> entityHeaders, EntityOperation operation) throws AtlasBaseException {
@@ -611,6 +775,20 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
             return;
         }
 
+        if (fullTextIndexer.isEnabled()) {
+            List<String> guids = new ArrayList<>(entityHeaders.size());
+
+            for (AtlasEntityHeader entityHeader : entityHeaders) {
+                if (!GraphHelper.isInternalType(entityHeader.getTypeName())) {
+                    guids.add(entityHeader.getGuid());
+                }
+            }
+
+            fullTextIndexer.enqueueOnCommit(guids);
+
+            return;
+        }
+
         MetricRecorder metric = RequestContext.get().startMetricRecord("fullTextMapping");
 
         for (AtlasEntityHeader entityHeader : entityHeaders) {
@@ -646,6 +824,12 @@ public class AtlasEntityChangeNotifier implements IAtlasEntityChangeNotifier {
             return;
         }
 
+        if (fullTextIndexer.isEnabled()) {
+            fullTextIndexer.enqueueOnCommit(Collections.singletonList(entityId));
+
+            return;
+        }
+
         AtlasVertex atlasVertex = AtlasGraphUtilsV2.findByGuid(entityId);
         if(atlasVertex == null || GraphHelper.isInternalType(atlasVertex)) {
             return;
@@ -100,13 +100,11 @@ public class AtlasEntityGraphDiscoveryV2 implements EntityGraphDiscovery {
 
         validateLabels(entity.getLabels());
 
-        type.validateValue(entity, entity.getTypeName(), messages);
+        type.validateAndNormalizeValue(entity, entity.getTypeName(), messages);
 
         if (!messages.isEmpty()) {
             throw new AtlasBaseException(AtlasErrorCode.INSTANCE_CRUD_INVALID_PARAMS, messages);
         }
-
-        type.getNormalizedValue(entity);
     }
 
     @Override
@@ -127,13 +125,11 @@ public class AtlasEntityGraphDiscoveryV2 implements EntityGraphDiscovery {
 
         validateLabels(entity.getLabels());
 
-        type.validateValueForUpdate(entity, entity.getTypeName(), messages);
+        type.validateAndNormalizeValueForUpdate(entity, entity.getTypeName(), messages);
 
         if (!messages.isEmpty()) {
             throw new AtlasBaseException(AtlasErrorCode.INSTANCE_CRUD_INVALID_PARAMS, messages);
         }
-
-        type.getNormalizedValueForUpdate(entity);
     }
 
     @Override
@@ -18,6 +18,7 @@
 package org.apache.atlas.repository.store.graph.v2;
 
 
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContext;
@@ -34,6 +35,7 @@ import org.apache.atlas.model.instance.AtlasCheckStateResult;
 import org.apache.atlas.model.instance.AtlasClassification;
 import org.apache.atlas.model.instance.AtlasEntity;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.Status;
 import org.apache.atlas.model.instance.AtlasEntityHeader;
@@ -79,6 +81,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -100,22 +103,32 @@ public class AtlasEntityStoreV2 implements AtlasEntityStore {
     private static final Logger LOG = LoggerFactory.getLogger(AtlasEntityStoreV2.class);
     private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("store.EntityStore");
 
+    private static final boolean AUTHORIZE_REFERRED_ENTITIES = AtlasConfiguration.ENTITY_READ_AUTHORIZE_REFERRED_ENTITIES.getBoolean();
+
 
     private final DeleteHandlerDelegate     deleteDelegate;
     private final AtlasTypeRegistry         typeRegistry;
     private final IAtlasEntityChangeNotifier entityChangeNotifier;
     private final EntityGraphMapper         entityGraphMapper;
     private final EntityGraphRetriever      entityRetriever;
+    private final EntitySnapshotCache       entitySnapshotCache;
 
 
-    @Inject
     public AtlasEntityStoreV2(DeleteHandlerDelegate deleteDelegate, AtlasTypeRegistry typeRegistry,
                               IAtlasEntityChangeNotifier entityChangeNotifier, EntityGraphMapper entityGraphMapper) {
+        this(deleteDelegate, typeRegistry, entityChangeNotifier, entityGraphMapper, null);
+    }
+
+    @Inject
+    public AtlasEntityStoreV2(DeleteHandlerDelegate deleteDelegate, AtlasTypeRegistry typeRegistry,
+                              IAtlasEntityChangeNotifier entityChangeNotifier, EntityGraphMapper entityGraphMapper,
+                              EntitySnapshotCache entitySnapshotCache) {
         this.deleteDelegate       = deleteDelegate;
         this.typeRegistry         = typeRegistry;
         this.entityChangeNotifier = entityChangeNotifier;
         this.entityGraphMapper    = entityGraphMapper;
         this.entityRetriever      = new EntityGraphRetriever(typeRegistry);
+        this.entitySnapshotCache  = entitySnapshotCache;
     }
 
     @Override
@@ -147,19 +160,53 @@ public class AtlasEntityStoreV2 implements AtlasEntityStore {
     @Override
     @GraphTransaction
     public AtlasEntityWithExtInfo getById(final String guid, final boolean isMinExtInfo, boolean ignoreRelationships) throws AtlasBaseException {
+        return getById(guid, isMinExtInfo, ignoreRelationships, null, null);
+    }
+
+    @Override
+    @GraphTransaction
+    public AtlasEntityWithExtInfo getById(final String guid, final boolean isMinExtInfo, boolean ignoreRelationships, Set<String> attributes, Set<String> relationshipAttributes) throws AtlasBaseException {
+        return getById(guid, isMinExtInfo, ignoreRelationships, attributes, relationshipAttributes, 0, -1);
+    }
+
+    @Override
+    @GraphTransaction
+    public AtlasEntityWithExtInfo getById(final String guid, final boolean isMinExtInfo, boolean ignoreRelationships, Set<String> attributes, Set<String> relationshipAttributes,
+                                          int referredEntitiesOffset, int referredEntitiesLimit) throws AtlasBaseException {
         if (LOG.isDebugEnabled()) {
-            LOG.debug("==> getById({}, {})", guid, isMinExtInfo);
+            LOG.debug("==> getById({}, {}, attributes={}, relationshipAttributes={}, referredEntitiesOffset={}, referredEntitiesLimit={})", guid, isMinExtInfo, attributes, relationshipAttributes, referredEntitiesOffset, referredEntitiesLimit);
         }
 
         EntityGraphRetriever entityRetriever = new EntityGraphRetriever(typeRegistry, ignoreRelationships);
+        AtlasVertex          entityVertex    = entityRetriever.getEntityVertex(guid);
+
+        // authorize before reading the entity, so that denied requests don't read its attributes and references
+        AtlasAuthorizationUtils.verifyAccess(new AtlasEntityAccessRequest(typeRegistry, AtlasPrivilege.ENTITY_READ, entityRetriever.toAtlasEntityHeaderForAuthorization(entityVertex)), "read entity: guid=", guid);
 
-        AtlasEntityWithExtInfo ret = entityRetriever.toAtlasEntityWithExtInfo(guid, isMinExtInfo);
+        // snapshots in the cache have all attributes and all referred entities; other reads are served from the graph
+        boolean                isProjection = attributes != null || relationshipAttributes != null;
+        boolean                useCache     = !isProjection && referredEntitiesOffset <= 0 && entitySnapshotCache != null && entitySnapshotCache.isEnabled();
+        AtlasEntityWithExtInfo ret          = useCache ? entitySnapshotCache.get(guid, isMinExtInfo, ignoreRelationships) : null;
+
+        if (ret != null && referredEntitiesLimit >= 0 && MapUtils.isNotEmpty(ret.getReferredEntities()) && ret.getReferredEntities().size() > referredEntitiesLimit) {
+            ret = null;
+        }
 
         if (ret == null) {
-            throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, guid);
+            long cacheGeneration = useCache ? entitySnapshotCache.getGeneration() : 0;
+
+            ret = entityRetriever.toAtlasEntityWithExtInfo(entityVertex, isMinExtInfo, attributes, relationshipAttributes, referredEntitiesOffset, referredEntitiesLimit);
+
+            if (ret == null) {
+                throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, guid);
+            }
+
+            if (useCache && ret.getNextReferredEntitiesOffset() == null) {
+                entitySnapshotCache.put(guid, isMinExtInfo, ignoreRelationships, ret, cacheGeneration);
+            }
         }
 
-        AtlasAuthorizationUtils.verifyAccess(new AtlasEntityAccessRequest(typeRegistry, AtlasPrivilege.ENTITY_READ, new AtlasEntityHeader(ret.getEntity())), "read entity: guid=", guid);
+        removeUnauthorizedReferredEntities(ret);
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("<== getById({}, {}): {}", guid, isMinExtInfo, ret);
@@ -168,6 +215,25 @@ public class AtlasEntityStoreV2 implements AtlasEntityStore {
         return ret;
     }
 
+    // referred entities are read along with the entity; those the user is not authorized to read are removed
+    private void removeUnauthorizedReferredEntities(AtlasEntityExtInfo entityExtInfo) {
+        if (!AUTHORIZE_REFERRED_ENTITIES || entityExtInfo == null || MapUtils.isEmpty(entityExtInfo.getReferredEntities())) {
+            return;
+        }
+
+        for (Iterator<AtlasEntity> iter = entityExtInfo.getReferredEntities().values().iterator(); iter.hasNext(); ) {
+            AtlasEntity referredEntity = iter.next();
+
+            if (!AtlasAuthorizationUtils.isAccessAllowed(new AtlasEntityAccessRequest(typeRegistry, AtlasPrivilege.ENTITY_READ, new AtlasEntityHeader(referredEntity)))) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("removing referred entity {}: not authorized to read", referredEntity.getGuid());
+                }
+
+                iter.remove();
+            }
+        }
+    }
+
     @Override
     @GraphTransaction
     public AtlasEntityHeader getHeaderById(final String guid) throws AtlasBaseException {
@@ -201,22 +267,29 @@ public class AtlasEntityStoreV2 implements AtlasEntityStore {
     @Override
     @GraphTransaction
     public AtlasEntitiesWithExtInfo getByIds(List<String> guids, boolean isMinExtInfo, boolean ignoreRelationships) throws AtlasBaseException {
+        return getByIds(guids, isMinExtInfo, ignoreRelationships, null, null);
+    }
+
+    @Override
+    @GraphTransaction
+    public AtlasEntitiesWithExtInfo getByIds(List<String> guids, boolean isMinExtInfo, boolean ignoreRelationships, Set<String> attributes, Set<String> relationshipAttributes) throws AtlasBaseException {
         if (LOG.isDebugEnabled()) {
-            LOG.debug("==> getByIds({}, {})", guids, isMinExtInfo);
+            LOG.debug("==> getByIds({}, {}, attributes={}, relationshipAttributes={})", guids, isMinExtInfo, attributes, relationshipAttributes);
         }
 
         EntityGraphRetriever entityRetriever = new EntityGraphRetriever(typeRegistry, ignoreRelationships);
 
-        AtlasEntitiesWithExtInfo ret = entityRetriever.toAtlasEntitiesWithExtInfo(guids, isMinExtInfo);
-
-        if(ret != null){
-            for(String guid : guids){
-                AtlasEntity entity = ret.getEntity(guid);
+        // authorize all entities before reading any of them
+        for (String guid : guids) {
+            AtlasVertex entityVertex = entityRetriever.getEntityVertex(guid);
 
-                AtlasAuthorizationUtils.verifyAccess(new AtlasEntityAccessRequest(typeRegistry, AtlasPrivilege.ENTITY_READ, new AtlasEntityHeader(entity)), "read entity: guid=", guid);
-            }
+            AtlasAuthorizationUtils.verifyAccess(new AtlasEntityAccessRequest(typeRegistry, AtlasPrivilege.ENTITY_READ, entityRetriever.toAtlasEntityHeaderForAuthorization(entityVertex)), "read entity: guid=", guid);
         }
 
+        AtlasEntitiesWithExtInfo ret = entityRetriever.toAtlasEntitiesWithExtInfo(guids, isMinExtInfo, attributes, relationshipAttributes);
+
+        removeUnauthorizedReferredEntities(ret);
+
         if (LOG.isDebugEnabled()) {
             LOG.debug("<== getByIds({}, {}): {}", guids, isMinExtInfo, ret);
         }
@@ -869,7 +942,8 @@ public class AtlasEntityStoreV2 implements AtlasEntityStore {
         String                           typeName                     = getTypeName(entityVertex);
         AtlasEntityType                  entityType                   = typeRegistry.getEntityTypeByName(typeName);
         AtlasEntityHeader                entityHeader                 = entityRetriever.toAtlasEntityHeaderWithClassifications(entityVertex);
-        Map<String, Map<String, Object>> currEntityBusinessAttributes = entityRetriever.getBusinessMetadata(entityVertex);
+        // when not overwriting, only business-metadata in the request can change; hence current values of others aren't read
+        Map<String, Map<String, Object>> currEntityBusinessAttributes = entityRetriever.getBusinessMetadata(entityVertex, isOverwrite ? null : businessAttrbutes.keySet());
         Set<String>                      updatedBusinessMetadataNames = new HashSet<>();
 
         for (String bmName : entityType.getBusinessAttributes().keySet()) {
@@ -908,6 +982,18 @@ public class AtlasEntityStoreV2 implements AtlasEntityStore {
         }
     }
 
+    @Override
+    @GraphTransaction
+    public void addOrUpdateBusinessAttributes(Map<String, Map<String, Map<String, Object>>> businessAttributesByGuid, boolean isOverwrite) throws AtlasBaseException {
+        if (MapUtils.isEmpty(businessAttributesByGuid)) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "businessAttributes is null/empty");
+        }
+
+        for (Map.Entry<String, Map<String, Map<String, Object>>> entry : businessAttributesByGuid.entrySet()) {
+            addOrUpdateBusinessAttributes(entry.getKey(), entry.getValue(), isOverwrite);
+        }
+    }
+
     @Override
     @GraphTransaction
     public void removeBusinessAttributes(String guid, Map<String, Map<String, Object>> businessAttributes) throws AtlasBaseException {
@@ -1678,7 +1764,7 @@ public class AtlasEntityStoreV2 implements AtlasEntityStore {
         return ret;
     }
 
-    private List assignMultipleValues(String bmAttributeValues, String elementTypeName, List failedTermMsgList, int lineIndex) {
+    static List assignMultipleValues(String bmAttributeValues, String elementTypeName, List failedTermMsgList, int lineIndex) {
 
         String[] arr = bmAttributeValues.split(FileUtils.ESCAPE_CHARACTER + FileUtils.PIPE_CHARACTER);
         try {
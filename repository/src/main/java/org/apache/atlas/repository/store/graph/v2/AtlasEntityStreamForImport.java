@@ -21,6 +21,7 @@ import org.apache.atlas.entitytransform.BaseEntityHandler;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasExportResult;
 import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.impexp.ImportTransforms;
@@ -34,6 +35,10 @@ public class AtlasEntityStreamForImport extends AtlasEntityStream implements Ent
         super(entityWithExtInfo, entityStream);
     }
 
+    public AtlasEntityStreamForImport(AtlasEntitiesWithExtInfo entitiesWithExtInfo, EntityStream entityStream) {
+        super(entitiesWithExtInfo, entityStream);
+    }
+
     @Override
     public AtlasEntityWithExtInfo getNextEntityWithExtInfo() {
         currentPosition++;
@@ -60,7 +65,7 @@ public class AtlasEntityStreamForImport extends AtlasEntityStream implements Ent
 
     @Override
     public int size() {
-        return 1;
+        return super.entitiesWithExtInfo.getEntities().size();
     }
 
     @Override
@@ -55,8 +55,10 @@ import org.slf4j.LoggerFactory;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -420,6 +422,32 @@ public class AtlasGraphUtilsV2 {
         return vertex;
     }
 
+    /**
+     * @return vertices of the given type, keyed by the value of the given unique property; values with no vertex are not in the result
+     */
+    public static Map<String, AtlasVertex> findByTypeAndUniquePropertyValues(String typeName, String propertyName, Collection<String> attrVals) {
+        MetricRecorder metric = RequestContext.get().startMetricRecord("findByTypeAndUniquePropertyValues");
+
+        Map<String, AtlasVertex> ret = new HashMap<>();
+
+        AtlasGraphQuery query = getGraphInstance().query()
+                                                    .has(ENTITY_TYPE_PROPERTY_KEY, typeName)
+                                                    .in(propertyName, attrVals);
+
+        for (Iterator<AtlasVertex> results = query.vertices().iterator(); results.hasNext(); ) {
+            AtlasVertex vertex  = results.next();
+            Object      attrVal = vertex.getProperty(propertyName, Object.class);
+
+            if (attrVal != null) {
+                ret.putIfAbsent(attrVal.toString(), vertex);
+            }
+        }
+
+        RequestContext.get().endMetricRecord(metric);
+
+        return ret;
+    }
+
     public static AtlasVertex findBySuperTypeAndUniquePropertyName(String typeName, String propertyName, Object attrVal) {
         MetricRecorder metric = RequestContext.get().startMetricRecord("findBySuperTypeAndUniquePropertyName");
 
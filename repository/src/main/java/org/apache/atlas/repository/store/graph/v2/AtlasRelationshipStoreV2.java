@@ -538,14 +538,15 @@ public class AtlasRelationshipStoreV2 implements AtlasRelationshipStore {
         PropagateTags newTagPropagation = relationship.getPropagateTags();
 
         if (newTagPropagation != oldTagPropagation) {
-            List<AtlasVertex>                   currentClassificationVertices = getPropagatableClassifications(edge);
-            Map<AtlasVertex, List<AtlasVertex>> currentClassificationsMap     = entityRetriever.getClassificationPropagatedEntitiesMapping(currentClassificationVertices);
+            List<AtlasVertex> currentClassificationVertices = getPropagatableClassifications(edge);
 
             // Update propagation edge
             AtlasGraphUtilsV2.setEncodedProperty(edge, RELATIONSHIPTYPE_TAG_PROPAGATION_KEY, newTagPropagation.name());
 
             List<AtlasVertex>                   updatedClassificationVertices = getPropagatableClassifications(edge);
             List<AtlasVertex>                   classificationVerticesUnion   = (List<AtlasVertex>) CollectionUtils.union(currentClassificationVertices, updatedClassificationVertices);
+            // current propagations are read from existing propagated classification edges; only the updated ones need a traversal
+            Map<AtlasVertex, List<AtlasVertex>> currentClassificationsMap     = entityRetriever.getCurrentPropagatedEntitiesMapping(classificationVerticesUnion);
             Map<AtlasVertex, List<AtlasVertex>> updatedClassificationsMap     = entityRetriever.getClassificationPropagatedEntitiesMapping(classificationVerticesUnion);
 
             // compute add/remove propagations list
@@ -20,6 +20,7 @@ package org.apache.atlas.repository.store.graph.v2;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContext;
 import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.exception.AtlasBaseException;
@@ -234,6 +235,8 @@ public class AtlasTypeDefGraphStoreV2 extends AtlasTypeDefGraphStore {
     }
 
     void deleteTypeVertexOutEdges(AtlasVertex vertex) throws AtlasBaseException {
+        GraphTransactionInterceptor.clearEdgesCache();
+
         Iterable<AtlasEdge> edges = vertex.getEdges(AtlasEdgeDirection.OUT);
 
         for (AtlasEdge edge : edges) {
@@ -270,6 +273,8 @@ public class AtlasTypeDefGraphStoreV2 extends AtlasTypeDefGraphStore {
             throw new AtlasBaseException(AtlasErrorCode.TYPE_HAS_REFERENCES);
         }
 
+        GraphTransactionInterceptor.clearEdgesCache();
+
         Iterable<AtlasEdge> edges = vertex.getEdges(AtlasEdgeDirection.OUT);
 
         for (AtlasEdge edge : edges) {
@@ -391,11 +396,14 @@ public class AtlasTypeDefGraphStoreV2 extends AtlasTypeDefGraphStore {
     }
 
     AtlasEdge addEdge(AtlasVertex outVertex, AtlasVertex inVertex, String edgeLabel) {
+        GraphTransactionInterceptor.invalidateEdgesCache(outVertex, inVertex, edgeLabel);
 
         return atlasGraph.addEdge(outVertex, inVertex, edgeLabel);
     }
 
     void removeEdge(AtlasVertex outVertex, AtlasVertex inVertex, String edgeLabel) {
+        GraphTransactionInterceptor.invalidateEdgesCache(outVertex, inVertex, edgeLabel);
+
         Iterable<AtlasEdge> edges = outVertex.getEdges(AtlasEdgeDirection.OUT, edgeLabel);
 
         for (AtlasEdge edge : edges) {
@@ -26,6 +26,7 @@ import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.type.AtlasStructType;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 import org.apache.atlas.type.AtlasType;
+import org.apache.commons.lang3.StringUtils;
 
 
 import java.util.Objects;
@@ -132,6 +133,10 @@ public class AttributeMutationContext {
 
     public String getVertexProperty() { return vertexProperty; }
 
+    public String getVertexPropertyEdgeLabel() {
+        return StringUtils.equals(vertexProperty, attribute.getVertexPropertyName()) ? attribute.getVertexPropertyEdgeLabel() : AtlasGraphUtilsV2.getEdgeLabel(vertexProperty);
+    }
+
     public AtlasVertex getReferringVertex() { return referringVertex; }
 
     public AtlasEdge getCurrentEdge() {
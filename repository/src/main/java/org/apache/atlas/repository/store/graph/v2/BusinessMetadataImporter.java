@@ -0,0 +1,489 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.bulkimport.BulkImportResponse;
+import org.apache.atlas.bulkimport.BulkImportResponse.ImportInfo;
+import org.apache.atlas.bulkimport.BulkImportResponse.ImportStatus;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.TypeCategory;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graph.GraphHelper;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.type.AtlasArrayType;
+import org.apache.atlas.type.AtlasBusinessMetadataType.AtlasBusinessAttribute;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasEnumType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.util.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Imports business attributes of entities from a CSV or Excel file, applying rows in batches on multiple workers.
+ *
+ * Rows are read one at a time and routed to a lane by the entity they update, so that all rows of an entity are applied
+ * by one worker, in file order. Each lane collects rows into chunks of batchSize rows. A worker resolves the entities
+ * of a chunk with one lookup per entity-type and unique attribute, and updates all entities of the chunk in one
+ * transaction; if the transaction fails, entities of the chunk are updated one at a time, so that failures are
+ * reported only against rows of the entities that failed. Listeners, like audit, are notified of updates only after
+ * commit, so that updates of a failed transaction are not notified.
+ *
+ * Result of each row is reported on the calling thread, as rows are processed.
+ */
+@Component
+public class BusinessMetadataImporter {
+    private static final Logger LOG = LoggerFactory.getLogger(BusinessMetadataImporter.class);
+
+    private static final int  CHUNKS_IN_FLIGHT_PER_WORKER = 2;
+    private static final long REPORT_INTERVAL_MS          = 100;
+
+    private final AtlasEntityStore  entityStore;
+    private final AtlasTypeRegistry typeRegistry;
+    private final AtlasGraph        graph;
+    private final int               numWorkers;
+    private final int               batchSize;
+
+    @Inject
+    public BusinessMetadataImporter(AtlasEntityStore entityStore, AtlasTypeRegistry typeRegistry, AtlasGraph graph) {
+        this(entityStore, typeRegistry, graph, AtlasConfiguration.BUSINESS_METADATA_IMPORT_NUM_WORKERS.getInt(), AtlasConfiguration.BUSINESS_METADATA_IMPORT_BATCH_SIZE.getInt());
+    }
+
+    BusinessMetadataImporter(AtlasEntityStore entityStore, AtlasTypeRegistry typeRegistry, AtlasGraph graph, int numWorkers, int batchSize) {
+        this.entityStore  = entityStore;
+        this.typeRegistry = typeRegistry;
+        this.graph        = graph;
+        this.numWorkers   = Math.max(numWorkers, 1);
+        this.batchSize    = Math.max(batchSize, 1);
+    }
+
+    public BulkImportResponse importBusinessAttributes(InputStream inputStream, String fileName) throws AtlasBaseException {
+        BulkImportResponse ret = new BulkImportResponse();
+
+        importBusinessAttributes(inputStream, fileName, importInfo -> {
+            if (importInfo.getImportStatus() == ImportStatus.SUCCESS) {
+                ret.setSuccessImportInfoList(importInfo);
+            } else {
+                ret.setFailedImportInfoList(importInfo);
+            }
+        });
+
+        return ret;
+    }
+
+    /**
+     * Imports business attributes in the given file, reporting result of each row to the given consumer. The consumer
+     * is called on the calling thread only.
+     */
+    public void importBusinessAttributes(InputStream inputStream, String fileName, Consumer<ImportInfo> reporter) throws AtlasBaseException {
+        if (StringUtils.isBlank(fileName)) {
+            throw new AtlasBaseException(AtlasErrorCode.FILE_NAME_NOT_FOUND, fileName);
+        }
+
+        long      startTime = System.currentTimeMillis();
+        ImportRun importRun = new ImportRun(reporter);
+
+        try {
+            long rowCount = FileUtils.readFileData(fileName, inputStream, importRun::addRecord);
+
+            importRun.complete();
+
+            LOG.info("importBusinessAttributes(fileName={}): {} rows, {} failed, in {} ms", fileName, rowCount, importRun.failedCount, System.currentTimeMillis() - startTime);
+        } catch (IOException e) {
+            LOG.error("An Exception occurred while uploading the file : {}", e.getMessage());
+
+            throw new AtlasBaseException(AtlasErrorCode.FAILED_TO_UPLOAD, e);
+        } catch (CancellationException e) {
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, e, "business-metadata import interrupted");
+        } finally {
+            importRun.close();
+        }
+    }
+
+    private class ImportRun {
+        private final Consumer<ImportInfo>        reporter;
+        private final RequestContext              requestContext = RequestContext.get();
+        private final ExecutorService             executor       = Executors.newFixedThreadPool(numWorkers, new ThreadFactoryBuilder().setNameFormat("atlas-bm-import-%d").setDaemon(true).build());
+        private final Semaphore                   permits        = new Semaphore(numWorkers * CHUNKS_IN_FLIGHT_PER_WORKER); // bounds the chunks waiting for a worker
+        private final Queue<ImportInfo>           results        = new ConcurrentLinkedQueue<>();
+        private final List<List<Row>>             laneRows       = new ArrayList<>();
+        private final List<CompletableFuture<?>>  laneTails      = new ArrayList<>();                                        // chunks of a lane are chained, to run one after another
+        private       int                         lastLineIndex;
+        private       long                        failedCount;
+
+        ImportRun(Consumer<ImportInfo> reporter) {
+            this.reporter = reporter;
+
+            for (int i = 0; i < numWorkers; i++) {
+                laneRows.add(new ArrayList<>(batchSize));
+                laneTails.add(CompletableFuture.completedFuture(null));
+            }
+        }
+
+        void addRecord(String[] record) {
+            Row row = toRow(record, ++lastLineIndex);
+
+            if (row != null) {
+                int lane = Math.floorMod(row.entityKey.hashCode(), numWorkers);
+
+                laneRows.get(lane).add(row);
+
+                if (laneRows.get(lane).size() >= batchSize) {
+                    submit(lane);
+                }
+            }
+
+            report();
+        }
+
+        void complete() throws AtlasBaseException {
+            for (int lane = 0; lane < numWorkers; lane++) {
+                submit(lane);
+            }
+
+            CompletableFuture<Void> allChunks = CompletableFuture.allOf(laneTails.toArray(new CompletableFuture[0]));
+
+            try {
+                while (true) {
+                    try {
+                        allChunks.get(REPORT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+                        break;
+                    } catch (TimeoutException e) {
+                        report();
+                    }
+                }
+            } catch (ExecutionException e) {
+                throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, e.getCause(), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new CancellationException("interrupted");
+            }
+
+            report();
+        }
+
+        void close() {
+            executor.shutdownNow();
+        }
+
+        private void submit(int lane) {
+            List<Row> chunk = laneRows.get(lane);
+
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            laneRows.set(lane, new ArrayList<>(batchSize));
+
+            try {
+                while (!permits.tryAcquire(REPORT_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                    report();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new CancellationException("interrupted");
+            }
+
+            laneTails.set(lane, laneTails.get(lane).thenRunAsync(() -> importChunk(chunk), executor));
+        }
+
+        private void report() {
+            for (ImportInfo importInfo = results.poll(); importInfo != null; importInfo = results.poll()) {
+                if (importInfo.getImportStatus() != ImportStatus.SUCCESS) {
+                    failedCount++;
+                }
+
+                reporter.accept(importInfo);
+            }
+        }
+
+        private Row toRow(String[] record, int lineIndex) {
+            boolean isMissingFields = record.length < FileUtils.UNIQUE_ATTR_NAME_COLUMN_INDEX ||
+                                      StringUtils.isBlank(record[FileUtils.TYPENAME_COLUMN_INDEX]) ||
+                                      StringUtils.isBlank(record[FileUtils.UNIQUE_ATTR_VALUE_COLUMN_INDEX]) ||
+                                      StringUtils.isBlank(record[FileUtils.BM_ATTR_NAME_COLUMN_INDEX]) ||
+                                      StringUtils.isBlank(record[FileUtils.BM_ATTR_VALUE_COLUMN_INDEX]);
+
+            if (isMissingFields) {
+                results.add(new ImportInfo(ImportStatus.FAILED, "Missing fields: " + Arrays.toString(record) + " at line #" + lineIndex, lineIndex));
+
+                return null;
+            }
+
+            String          typeName         = record[FileUtils.TYPENAME_COLUMN_INDEX];
+            String          uniqueAttrValue  = record[FileUtils.UNIQUE_ATTR_VALUE_COLUMN_INDEX];
+            String          bmAttribute      = record[FileUtils.BM_ATTR_NAME_COLUMN_INDEX];
+            String          bmAttributeValue = record[FileUtils.BM_ATTR_VALUE_COLUMN_INDEX];
+            AtlasEntityType entityType       = typeRegistry.getEntityTypeByName(typeName);
+
+            if (entityType == null) {
+                results.add(new ImportInfo(ImportStatus.FAILED, "Invalid entity-type: " + typeName + " at line #" + lineIndex, lineIndex));
+
+                return null;
+            }
+
+            String   uniqueAttrName = record.length > FileUtils.UNIQUE_ATTR_NAME_COLUMN_INDEX && StringUtils.isNotBlank(record[FileUtils.UNIQUE_ATTR_NAME_COLUMN_INDEX]) ? typeName + "." + record[FileUtils.UNIQUE_ATTR_NAME_COLUMN_INDEX] : Constants.QUALIFIED_NAME;
+            String[] bmAttrNames    = bmAttribute.split(FileUtils.ESCAPE_CHARACTER + ".");
+
+            if (bmAttrNames.length < 2) {
+                results.add(new ImportInfo(uniqueAttrValue, bmAttribute, ImportStatus.FAILED, "Provided businessAttributeName is not in proper format : " + bmAttribute + " at line #" + lineIndex, lineIndex));
+
+                return null;
+            }
+
+            String                 bmName     = bmAttrNames[0];
+            String                 bmAttrName = bmAttrNames[1];
+            AtlasBusinessAttribute bmAttr     = entityType.getBusinessAttributes(bmName) != null ? entityType.getBusinessAttributes(bmName).get(bmAttrName) : null;
+
+            if (bmAttr == null) {
+                results.add(new ImportInfo(uniqueAttrValue, bmName + "." + bmAttrName, ImportStatus.FAILED, "Provided businessAttributeName is not valid : " + bmName + "." + bmAttrName + " at line #" + lineIndex, lineIndex));
+
+                return null;
+            }
+
+            List<String> failedMsgs = new ArrayList<>();
+            Object       value;
+
+            if (bmAttr.getAttributeType().getTypeCategory() == TypeCategory.ARRAY) {
+                AtlasArrayType arrayType = (AtlasArrayType) bmAttr.getAttributeType();
+
+                if (arrayType.getElementType() instanceof AtlasEnumType) {
+                    value = AtlasGraphUtilsV2.assignEnumValues(bmAttributeValue, (AtlasEnumType) arrayType.getElementType(), failedMsgs, lineIndex);
+                } else {
+                    value = AtlasEntityStoreV2.assignMultipleValues(bmAttributeValue, arrayType.getElementTypeName(), failedMsgs, lineIndex);
+                }
+            } else {
+                value = bmAttributeValue;
+            }
+
+            if (!failedMsgs.isEmpty()) {
+                results.add(new ImportInfo(uniqueAttrValue, bmAttribute, ImportStatus.FAILED, StringUtils.join(failedMsgs, "\n"), lineIndex));
+
+                return null;
+            }
+
+            return new Row(lineIndex, typeName, uniqueAttrName, uniqueAttrValue, bmName, bmAttrName, value);
+        }
+
+        // runs in a worker thread
+        private void importChunk(List<Row> rows) {
+            RequestContext.clear();
+            RequestContext.get().copyRequestDetails(requestContext);
+            RequestContext.get().setNotifyListenersOnCommit(true); // so that updates of a failed chunk, retried below, aren't audited twice
+
+            try {
+                Map<String, List<Row>> rowsByGuid = resolveEntities(rows);
+
+                if (!rowsByGuid.isEmpty()) {
+                    updateEntities(rowsByGuid);
+                }
+            } catch (Throwable t) {
+                LOG.error("importBusinessAttributes(): failed to import {} rows", rows.size(), t);
+
+                for (Row row : rows) {
+                    if (!row.isReported) {
+                        onFailure(row, t.getMessage());
+                    }
+                }
+            } finally {
+                permits.release();
+
+                graph.rollback(); // discards reads of rows that didn't reach an update
+
+                GraphTransactionInterceptor.clearCache();
+                RequestContext.clear();
+            }
+        }
+
+        // entities are looked up with one query for each entity-type and unique attribute in the chunk
+        private Map<String, List<Row>> resolveEntities(List<Row> rows) {
+            Map<String, List<Row>>              ret        = new LinkedHashMap<>();
+            Map<String, Map<String, List<Row>>> rowsByType = new LinkedHashMap<>(); // typeName -> uniqueAttrName -> rows
+
+            for (Row row : rows) {
+                rowsByType.computeIfAbsent(row.typeName, k -> new LinkedHashMap<>()).computeIfAbsent(row.uniqueAttrName, k -> new ArrayList<>()).add(row);
+            }
+
+            for (Map.Entry<String, Map<String, List<Row>>> typeEntry : rowsByType.entrySet()) {
+                for (Map.Entry<String, List<Row>> attrEntry : typeEntry.getValue().entrySet()) {
+                    Set<String> values = new LinkedHashSet<>();
+
+                    for (Row row : attrEntry.getValue()) {
+                        values.add(row.uniqueAttrValue);
+                    }
+
+                    Map<String, AtlasVertex> vertices = AtlasGraphUtilsV2.findByTypeAndUniquePropertyValues(typeEntry.getKey(), attrEntry.getKey(), values);
+                    Map<String, String>      guids    = new HashMap<>();
+
+                    for (Map.Entry<String, AtlasVertex> vertexEntry : vertices.entrySet()) {
+                        guids.put(vertexEntry.getKey(), GraphHelper.getGuid(vertexEntry.getValue()));
+                    }
+
+                    for (Row row : attrEntry.getValue()) {
+                        String guid = guids.get(row.uniqueAttrValue);
+
+                        if (guid == null) {
+                            onFailure(row, "Provided UniqueAttributeValue is not valid : " + row.uniqueAttrValue + " at line #" + row.lineIndex);
+                        } else {
+                            ret.computeIfAbsent(guid, k -> new ArrayList<>()).add(row);
+                        }
+                    }
+                }
+            }
+
+            return ret;
+        }
+
+        private void updateEntities(Map<String, List<Row>> rowsByGuid) {
+            Map<String, Map<String, Map<String, Object>>> businessAttributesByGuid = new LinkedHashMap<>();
+
+            for (Map.Entry<String, List<Row>> entry : rowsByGuid.entrySet()) {
+                businessAttributesByGuid.put(entry.getKey(), toBusinessAttributes(entry.getValue()));
+            }
+
+            try {
+                entityStore.addOrUpdateBusinessAttributes(businessAttributesByGuid, false);
+
+                for (List<Row> entityRows : rowsByGuid.values()) {
+                    onSuccess(entityRows);
+                }
+
+                return;
+            } catch (Throwable t) {
+                if (rowsByGuid.size() == 1) {
+                    onFailure(rowsByGuid.values().iterator().next(), t);
+
+                    return;
+                }
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("importBusinessAttributes(): update of {} entities failed; updating one at a time", rowsByGuid.size(), t);
+                }
+            } finally {
+                RequestContext.get().clearCache();
+            }
+
+            for (Map.Entry<String, List<Row>> entry : rowsByGuid.entrySet()) {
+                try {
+                    entityStore.addOrUpdateBusinessAttributes(entry.getKey(), businessAttributesByGuid.get(entry.getKey()), false);
+
+                    onSuccess(entry.getValue());
+                } catch (Throwable t) {
+                    onFailure(entry.getValue(), t);
+                } finally {
+                    RequestContext.get().clearCache();
+                }
+            }
+        }
+
+        private void onSuccess(List<Row> rows) {
+            for (Row row : rows) {
+                row.isReported = true;
+
+                results.add(new ImportInfo(row.uniqueAttrValue, row.getBmAttribute(), ImportStatus.SUCCESS, "", row.lineIndex));
+            }
+        }
+
+        private void onFailure(List<Row> rows, Throwable t) {
+            LOG.error("Error occurred while updating BusinessMetadata Attributes for Entity {}", rows.get(0).uniqueAttrValue, t);
+
+            for (Row row : rows) {
+                onFailure(row, t.getMessage());
+            }
+        }
+
+        private void onFailure(Row row, String message) {
+            row.isReported = true;
+
+            results.add(new ImportInfo(row.uniqueAttrValue, row.getBmAttribute(), ImportStatus.FAILED, message, row.lineIndex));
+        }
+    }
+
+    // later rows of an entity override earlier rows for the same attribute
+    private static Map<String, Map<String, Object>> toBusinessAttributes(List<Row> rows) {
+        Map<String, Map<String, Object>> ret = new HashMap<>();
+
+        for (Row row : rows) {
+            ret.computeIfAbsent(row.bmName, k -> new HashMap<>()).put(row.bmAttrName, row.value);
+        }
+
+        return ret;
+    }
+
+    private static class Row {
+        final int     lineIndex;
+        final String  typeName;
+        final String  uniqueAttrName;
+        final String  uniqueAttrValue;
+        final String  entityKey;
+        final String  bmName;
+        final String  bmAttrName;
+        final Object  value;
+        boolean       isReported;
+
+        Row(int lineIndex, String typeName, String uniqueAttrName, String uniqueAttrValue, String bmName, String bmAttrName, Object value) {
+            this.lineIndex       = lineIndex;
+            this.typeName        = typeName;
+            this.uniqueAttrName  = uniqueAttrName;
+            this.uniqueAttrValue = uniqueAttrValue;
+            this.entityKey       = typeName + "_" + uniqueAttrName + "_" + uniqueAttrValue;
+            this.bmName          = bmName;
+            this.bmAttrName      = bmAttrName;
+            this.value           = value;
+        }
+
+        String getBmAttribute() {
+            return bmName + "." + bmAttrName;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.commons.collections.MapUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.atlas.repository.Constants.CHANGE_LOG_GUID_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.CHANGE_LOG_OPERATION_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.CHANGE_LOG_SEQUENCE_PROPERTY_KEY;
+import static org.apache.atlas.repository.graphdb.AtlasGraphQuery.ComparisionOperator.GREATER_THAN_EQUAL;
+import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getEncodedProperty;
+import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.setEncodedProperty;
+
+/**
+ * Durable log of entity changes, persisted as vertices in the graph, used to find entities changed since a given
+ * change marker without traversing the graph.
+ *
+ * Changes are recorded in the graph transaction that makes them, hence are committed or rolled back along with the
+ * entities. Each change is appended as a record with a sequence that is the time of the change in milliseconds, made
+ * strictly increasing; hence the sequence is comparable with change markers returned by export. Appending keeps the
+ * write path free of lookups; a background compaction then removes all but the latest record of each changed entity,
+ * so the log holds about one record per entity.
+ *
+ * The sequence is taken when the change is recorded, not when its transaction commits: a transaction that commits
+ * after a reader read the log can have records older than what the reader saw. Export markers are the start time of
+ * the earliest active request, which already precedes such changes; in addition readers look back by a lag window,
+ * which should exceed the longest transaction.
+ *
+ * The log covers only changes after its start sequence, which is recorded along with the first change written to it.
+ */
+@Component
+public class EntityChangeLog {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityChangeLog.class);
+
+    private static final String LOG_START_GUID        = "__changeLog.start";
+    private static final String LOG_START_OPERATION   = "START";
+    private static final int    COMPACTION_BATCH_SIZE = 100;
+
+    private final    AtlasGraph               graph;
+    private final    boolean                  isEnabled;
+    private final    long                     readLagMs;
+    private final    AtomicLong               lastSequence   = new AtomicLong();
+    private final    Set<String>              guidsToCompact = ConcurrentHashMap.newKeySet();
+    private final    ScheduledExecutorService compactionExecutor;
+    private volatile boolean                  isStartRecorded;
+
+    @Inject
+    public EntityChangeLog(AtlasGraph graph) {
+        this(graph, AtlasConfiguration.ENTITY_CHANGE_LOG_ENABLED.getBoolean(), AtlasConfiguration.ENTITY_CHANGE_LOG_READ_LAG_MS.getLong(),
+             AtlasConfiguration.ENTITY_CHANGE_LOG_COMPACTION_INTERVAL_MS.getLong());
+    }
+
+    @VisibleForTesting
+    EntityChangeLog(AtlasGraph graph, boolean isEnabled, long readLagMs, long compactionIntervalMs) {
+        this.graph     = graph;
+        this.isEnabled = isEnabled;
+        this.readLagMs = Math.max(readLagMs, 0);
+
+        if (isEnabled && compactionIntervalMs > 0) {
+            compactionExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-change-log-compaction").setDaemon(true).build());
+
+            compactionExecutor.scheduleWithFixedDelay(this::compact, compactionIntervalMs, compactionIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            compactionExecutor = null;
+        }
+
+        LOG.info("EntityChangeLog: isEnabled={}, readLagMs={}, compactionIntervalMs={}", isEnabled, readLagMs, compactionIntervalMs);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (compactionExecutor != null) {
+            compactionExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Records the given changes in the current graph transaction; caller is responsible for commit.
+     */
+    public void record(Map<String, EntityOperation> changes) {
+        if (!isEnabled || MapUtils.isEmpty(changes)) {
+            return;
+        }
+
+        long sequence = nextSequence(); // all the given changes share the sequence
+
+        if (!isStartRecorded) {
+            recordStart(sequence);
+        }
+
+        for (Map.Entry<String, EntityOperation> entry : changes.entrySet()) {
+            addRecord(entry.getKey(), entry.getValue().name(), sequence);
+        }
+
+        guidsToCompact.addAll(changes.keySet());
+    }
+
+    /**
+     * @return guids of entities changed at or after the given sequence, less the read lag; null if the log doesn't
+     * cover that sequence
+     */
+    public Set<String> getChangedGuids(long fromSequence) {
+        if (!isEnabled) {
+            return null;
+        }
+
+        long readFromSequence = fromSequence - readLagMs;
+        Long startSequence    = getStartSequence();
+
+        if (startSequence == null || readFromSequence < startSequence) {
+            LOG.info("EntityChangeLog: changes since {} are not in the log (start={}, readLagMs={})", fromSequence, startSequence, readLagMs);
+
+            return null;
+        }
+
+        Set<String>           ret  = new LinkedHashSet<>();
+        Iterator<AtlasVertex> iter = graph.query().has(CHANGE_LOG_SEQUENCE_PROPERTY_KEY, GREATER_THAN_EQUAL, readFromSequence).vertices().iterator();
+
+        while (iter.hasNext()) {
+            String guid = getEncodedProperty(iter.next(), CHANGE_LOG_GUID_PROPERTY_KEY, String.class);
+
+            if (guid != null && !LOG_START_GUID.equals(guid)) {
+                ret.add(guid);
+            }
+        }
+
+        LOG.info("EntityChangeLog: {} entities changed since {}", ret.size(), readFromSequence);
+
+        return ret;
+    }
+
+    /**
+     * Removes all but the latest record of entities changed since the previous compaction, in batches of
+     * COMPACTION_BATCH_SIZE entities per transaction. Entities of a failed batch are compacted again on the next run.
+     */
+    @VisibleForTesting
+    void compact() {
+        List<String> guids = new ArrayList<>(guidsToCompact);
+
+        guidsToCompact.removeAll(guids);
+
+        int removedCount = 0;
+
+        for (int i = 0; i < guids.size(); i += COMPACTION_BATCH_SIZE) {
+            List<String> batch = guids.subList(i, Math.min(i + COMPACTION_BATCH_SIZE, guids.size()));
+
+            try {
+                int batchRemovedCount = 0;
+
+                for (String guid : batch) {
+                    batchRemovedCount += removeSupersededRecords(guid);
+                }
+
+                graph.commit();
+
+                removedCount += batchRemovedCount;
+            } catch (Exception e) {
+                LOG.warn("EntityChangeLog: compaction of {} entities failed; will be retried", batch.size(), e);
+
+                graph.rollback();
+
+                guidsToCompact.addAll(batch);
+            }
+        }
+
+        if (removedCount > 0) {
+            LOG.info("EntityChangeLog: compaction of {} entities removed {} records", guids.size(), removedCount);
+        }
+    }
+
+    // the start is looked up only until a transaction that recorded changes commits
+    private void recordStart(long sequence) {
+        if (graph.query().has(CHANGE_LOG_GUID_PROPERTY_KEY, LOG_START_GUID).vertices().iterator().hasNext()) {
+            isStartRecorded = true;
+
+            return;
+        }
+
+        addRecord(LOG_START_GUID, LOG_START_OPERATION, sequence);
+
+        new GraphTransactionInterceptor.PostTransactionHook() {
+            @Override
+            public void onComplete(boolean isSuccess) {
+                if (isSuccess) {
+                    isStartRecorded = true;
+                }
+            }
+        };
+    }
+
+    // concurrent transactions may each record a start; the latest one is used, so that no change is missed
+    private Long getStartSequence() {
+        Long                  ret  = null;
+        Iterator<AtlasVertex> iter = graph.query().has(CHANGE_LOG_GUID_PROPERTY_KEY, LOG_START_GUID).vertices().iterator();
+
+        while (iter.hasNext()) {
+            Long sequence = getEncodedProperty(iter.next(), CHANGE_LOG_SEQUENCE_PROPERTY_KEY, Long.class);
+
+            if (sequence != null && (ret == null || sequence > ret)) {
+                ret = sequence;
+            }
+        }
+
+        return ret;
+    }
+
+    private int removeSupersededRecords(String guid) {
+        int                   ret            = 0;
+        AtlasVertex           latest         = null;
+        Long                  latestSequence = null;
+        Iterator<AtlasVertex> iter           = graph.query().has(CHANGE_LOG_GUID_PROPERTY_KEY, guid).vertices().iterator();
+
+        while (iter.hasNext()) {
+            AtlasVertex vertex   = iter.next();
+            Long        sequence = getEncodedProperty(vertex, CHANGE_LOG_SEQUENCE_PROPERTY_KEY, Long.class);
+
+            if (latest == null || (sequence != null && (latestSequence == null || sequence > latestSequence))) {
+                if (latest != null) {
+                    graph.removeVertex(latest);
+
+                    ret++;
+                }
+
+                latest         = vertex;
+                latestSequence = sequence;
+            } else {
+                graph.removeVertex(vertex);
+
+                ret++;
+            }
+        }
+
+        return ret;
+    }
+
+    private void addRecord(String guid, String operation, long sequence) {
+        AtlasVertex vertex = graph.addVertex();
+
+        setEncodedProperty(vertex, CHANGE_LOG_GUID_PROPERTY_KEY, guid);
+        setEncodedProperty(vertex, CHANGE_LOG_OPERATION_PROPERTY_KEY, operation);
+        setEncodedProperty(vertex, CHANGE_LOG_SEQUENCE_PROPERTY_KEY, sequence);
+    }
+
+    private long nextSequence() {
+        return lastSequence.updateAndGet(last -> Math.max(System.currentTimeMillis(), last + 1));
+    }
+}
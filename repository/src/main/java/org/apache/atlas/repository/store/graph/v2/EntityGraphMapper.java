@@ -22,6 +22,7 @@ import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContext;
+import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.TimeBoundary;
 import org.apache.atlas.model.TypeCategory;
@@ -34,6 +35,7 @@ import org.apache.atlas.model.instance.AtlasRelationship;
 import org.apache.atlas.model.instance.AtlasStruct;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
+import org.apache.atlas.model.tasks.AtlasTask;
 import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
 import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef.Cardinality;
 import org.apache.atlas.repository.Constants;
@@ -48,6 +50,7 @@ import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
 import org.apache.atlas.repository.store.graph.EntityGraphDiscoveryContext;
 import org.apache.atlas.repository.store.graph.v1.DeleteHandlerDelegate;
+import org.apache.atlas.tasks.TaskManagement;
 import org.apache.atlas.type.AtlasArrayType;
 import org.apache.atlas.type.AtlasBuiltInTypes;
 import org.apache.atlas.type.AtlasClassificationType;
@@ -108,6 +111,9 @@ import static org.apache.atlas.repository.graph.GraphHelper.string;
 import static org.apache.atlas.repository.graph.GraphHelper.updateModificationMetadata;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getIdFromVertex;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.isReference;
+import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory.CLASSIFICATION_PROPAGATION_ADD;
+import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory.PARAM_CLASSIFICATION_VERTEX_ID;
+import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory.PARAM_ENTITY_GUID;
 import static org.apache.atlas.type.AtlasStructType.AtlasAttribute.AtlasRelationshipEdgeDirection.IN;
 import static org.apache.atlas.type.AtlasStructType.AtlasAttribute.AtlasRelationshipEdgeDirection.OUT;
 
@@ -139,11 +145,12 @@ public class EntityGraphMapper {
     private final AtlasInstanceConverter    instanceConverter;
     private final EntityGraphRetriever      entityRetriever;
     private final IFullTextMapper fullTextMapperV2;
+    private final TaskManagement            taskManagement;
 
     @Inject
     public EntityGraphMapper(DeleteHandlerDelegate deleteDelegate, AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph,
                              AtlasRelationshipStore relationshipStore, IAtlasEntityChangeNotifier entityChangeNotifier,
-                             AtlasInstanceConverter instanceConverter, IFullTextMapper fullTextMapperV2) {
+                             AtlasInstanceConverter instanceConverter, IFullTextMapper fullTextMapperV2, TaskManagement taskManagement) {
         this.deleteDelegate       = deleteDelegate;
         this.typeRegistry         = typeRegistry;
         this.graph                = atlasGraph;
@@ -152,6 +159,7 @@ public class EntityGraphMapper {
         this.instanceConverter    = instanceConverter;
         this.entityRetriever      = new EntityGraphRetriever(typeRegistry);
         this.fullTextMapperV2     = fullTextMapperV2;
+        this.taskManagement       = taskManagement;
     }
 
     public AtlasVertex createVertex(AtlasEntity entity) throws AtlasBaseException {
@@ -728,7 +736,7 @@ public class EntityGraphMapper {
                 return mapPrimitiveValue(ctx, context);
 
             case STRUCT: {
-                String    edgeLabel   = AtlasGraphUtilsV2.getEdgeLabel(ctx.getVertexProperty());
+                String    edgeLabel   = ctx.getVertexPropertyEdgeLabel();
                 AtlasEdge currentEdge = graphHelper.getEdgeForLabel(ctx.getReferringVertex(), edgeLabel);
                 AtlasEdge edge        = currentEdge != null ? currentEdge : null;
 
@@ -753,7 +761,7 @@ public class EntityGraphMapper {
 
                 // if relationshipDefs doesn't exist, use legacy way of finding edge label.
                 if (StringUtils.isEmpty(edgeLabel)) {
-                    edgeLabel = AtlasGraphUtilsV2.getEdgeLabel(ctx.getVertexProperty());
+                    edgeLabel = ctx.getVertexPropertyEdgeLabel();
                 }
 
                 String    relationshipGuid = getRelationshipGuid(ctx.getValue());
@@ -860,7 +868,7 @@ public class EntityGraphMapper {
         AtlasVertex     inverseVertex    = edge.getInVertex();
         String          inverseEdgeLabel = inverseAttribute.getRelationshipEdgeLabel();
         AtlasEdge       inverseEdge      = graphHelper.getEdgeForLabel(inverseVertex, inverseEdgeLabel);
-        String          propertyName     = AtlasGraphUtilsV2.getQualifiedAttributePropertyKey(inverseType, inverseAttribute.getName());
+        String          propertyName     = inverseAttribute.getVertexPropertyName();
 
         // create new inverse reference
         AtlasEdge newEdge = createInverseReferenceUsingRelationship(context, inverseAttribute, edge, relationshipAttributes);
@@ -982,8 +990,7 @@ public class EntityGraphMapper {
     private AtlasEdge createInverseReference(AtlasAttribute inverseAttribute, AtlasStructType inverseAttributeType,
                                              AtlasVertex inverseVertex, AtlasVertex vertex) throws AtlasBaseException {
 
-        String propertyName     = AtlasGraphUtilsV2.getQualifiedAttributePropertyKey(inverseAttributeType, inverseAttribute.getName());
-        String inverseEdgeLabel = AtlasGraphUtilsV2.getEdgeLabel(propertyName);
+        String inverseEdgeLabel = inverseAttribute.getVertexPropertyEdgeLabel();
         AtlasEdge ret;
 
         try {
@@ -1071,7 +1078,7 @@ public class EntityGraphMapper {
 
             ret = ctx.getCurrentEdge();
         } else if (ctx.getValue() != null) {
-            String edgeLabel = AtlasGraphUtilsV2.getEdgeLabel(ctx.getVertexProperty());
+            String edgeLabel = ctx.getVertexPropertyEdgeLabel();
 
             AtlasStruct structVal = null;
             if (ctx.getValue() instanceof AtlasStruct) {
@@ -1124,7 +1131,7 @@ public class EntityGraphMapper {
         if (ctx.getCurrentEdge() != null) {
             ret = updateEdge(ctx.getAttributeDef(), ctx.getValue(), ctx.getCurrentEdge(), entityVertex);
         } else if (ctx.getValue() != null) {
-            String edgeLabel = AtlasGraphUtilsV2.getEdgeLabel(ctx.getVertexProperty());
+            String edgeLabel = ctx.getVertexPropertyEdgeLabel();
 
             try {
                 ret = graphHelper.getOrCreateEdge(ctx.getReferringVertex(), entityVertex, edgeLabel);
@@ -1946,7 +1953,9 @@ public class EntityGraphMapper {
                 //Add current Vertex to be notified
                 addedClassifications.get(classification).add(entityVertex);
 
-                if (propagateTags) {
+                if (propagateTags && isDeferredPropagationEnabled()) {
+                    createPropagationTask(guid, classificationVertex);
+                } else if (propagateTags) {
                     // compute propagatedEntityVertices only once
                     if (entitiesToPropagateTo == null) {
                         entitiesToPropagateTo = entityRetriever.getImpactedVerticesV2(entityVertex);
@@ -1994,6 +2003,60 @@ public class EntityGraphMapper {
         }
     }
 
+    /**
+     * Returns ids of the vertices the given classification should be propagated to.
+     */
+    public List<String> getPropagationTargetVertexIds(String entityGuid, String classificationVertexId) throws AtlasBaseException {
+        AtlasVertex  entityVertex = AtlasGraphUtilsV2.findByGuid(entityGuid);
+        List<String> ret          = new ArrayList<>();
+
+        if (entityVertex != null) {
+            for (AtlasVertex vertex : entityRetriever.getImpactedVerticesV2(entityVertex, null, classificationVertexId)) {
+                ret.add(vertex.getIdForDisplay());
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Propagates the given classification to a batch of entity vertices, in its own transaction.
+     * @return false if the classification no longer exists or no longer propagates, true otherwise
+     */
+    @GraphTransaction
+    public boolean propagateClassification(String classificationVertexId, List<String> entityVertexIds) throws AtlasBaseException {
+        AtlasVertex classificationVertex = graph.getVertex(classificationVertexId);
+
+        if (classificationVertex == null || !isPropagationEnabled(classificationVertex)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("propagateClassification(): classification vertex {} not found or propagation disabled", classificationVertexId);
+            }
+
+            return false;
+        }
+
+        List<AtlasVertex> entityVertices = new ArrayList<>(entityVertexIds.size());
+
+        for (String entityVertexId : entityVertexIds) {
+            AtlasVertex entityVertex = graph.getVertex(entityVertexId);
+
+            if (entityVertex != null) {
+                entityVertices.add(entityVertex);
+            }
+        }
+
+        List<AtlasVertex> entitiesPropagatedTo = deleteDelegate.getHandler().addTagPropagation(classificationVertex, entityVertices);
+
+        if (CollectionUtils.isNotEmpty(entitiesPropagatedTo)) {
+            AtlasClassification classification     = entityRetriever.toAtlasClassification(classificationVertex);
+            List<AtlasEntity>   propagatedEntities = updateClassificationText(classification, entitiesPropagatedTo);
+
+            entityChangeNotifier.onClassificationsAddedToEntities(propagatedEntities, Collections.singletonList(classification));
+        }
+
+        return true;
+    }
+
     public void deleteClassification(String entityGuid, String classificationName, String associatedEntityGuid) throws AtlasBaseException {
         if (StringUtils.isEmpty(associatedEntityGuid) || associatedEntityGuid.equals(entityGuid)) {
             deleteClassification(entityGuid, classificationName);
@@ -2558,6 +2621,23 @@ public class EntityGraphMapper {
         }
     }
 
+    private boolean isDeferredPropagationEnabled() {
+        return taskManagement != null && taskManagement.isEnabled();
+    }
+
+    private void createPropagationTask(String entityGuid, AtlasVertex classificationVertex) {
+        Map<String, Object> parameters = new HashMap<>();
+
+        parameters.put(PARAM_ENTITY_GUID, entityGuid);
+        parameters.put(PARAM_CLASSIFICATION_VERTEX_ID, classificationVertex.getIdForDisplay());
+
+        AtlasTask task = taskManagement.createTask(CLASSIFICATION_PROPAGATION_ADD, RequestContext.getCurrentUser(), parameters);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(" --> Deferred propagation of classification: [{}] from entity {} to task {}", getTypeName(classificationVertex), entityGuid, task.getGuid());
+        }
+    }
+
     private List<AtlasEntity> updateClassificationText(AtlasClassification classification, Collection<AtlasVertex> propagatedVertices) throws AtlasBaseException {
         List<AtlasEntity> propagatedEntities = new ArrayList<>();
 
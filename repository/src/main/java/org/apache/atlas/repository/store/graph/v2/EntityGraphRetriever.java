@@ -17,10 +17,19 @@
  */
 package org.apache.atlas.repository.store.graph.v2;
 
+import com.carrotsearch.hppc.LongHashSet;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.SortOrder;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.TimeBoundary;
+import org.apache.atlas.model.TypeCategory;
 import org.apache.atlas.model.glossary.enums.AtlasTermAssignmentStatus;
 import org.apache.atlas.model.glossary.relations.AtlasTermAssignmentHeader;
 import org.apache.atlas.model.instance.AtlasClassification;
@@ -39,13 +48,16 @@ import org.apache.atlas.model.typedef.AtlasRelationshipDef.PropagateTags;
 import org.apache.atlas.model.typedef.AtlasRelationshipEndDef;
 import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
 import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
 import org.apache.atlas.repository.graph.GraphHelper;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
 import org.apache.atlas.repository.graphdb.AtlasElement;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.type.AtlasArrayType;
 import org.apache.atlas.type.AtlasBuiltInTypes.AtlasObjectIdType;
+import org.apache.atlas.type.AtlasClassificationType;
 import org.apache.atlas.type.AtlasEntityType;
 import org.apache.atlas.type.AtlasMapType;
 import org.apache.atlas.type.AtlasBusinessMetadataType.AtlasBusinessAttribute;
@@ -64,6 +76,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -71,14 +84,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.apache.atlas.glossary.GlossaryUtils.TERM_ASSIGNMENT_ATTR_CONFIDENCE;
@@ -133,18 +155,44 @@ public class EntityGraphRetriever {
     private static final TypeReference<List<TimeBoundary>> TIME_BOUNDARIES_LIST_TYPE = new TypeReference<List<TimeBoundary>>() {};
     private static final GraphHelper graphHelper = GraphHelper.getInstance();
 
+    private static final int IMPACTED_VERTICES_BATCH_SIZE = AtlasConfiguration.CLASSIFICATION_PROPAGATION_TRAVERSAL_BATCH_SIZE.getInt();
+    private static final int MAX_IMPACTED_VERTICES        = AtlasConfiguration.CLASSIFICATION_PROPAGATION_MAX_IMPACTED_ENTITIES.getInt();
+    private static final boolean PREFETCH_ENABLED         = AtlasConfiguration.ENTITY_RETRIEVER_PREFETCH_ENABLED.getBoolean();
+    private static final int PREFETCH_BATCH_SIZE          = AtlasConfiguration.ENTITY_RETRIEVER_PREFETCH_BATCH_SIZE.getInt();
+    private static final int BULK_GET_THREAD_COUNT        = AtlasConfiguration.ENTITY_BULK_GET_THREAD_COUNT.getInt();
+    private static final int BULK_GET_MAX_CONCURRENCY     = AtlasConfiguration.ENTITY_BULK_GET_MAX_CONCURRENCY_PER_REQUEST.getInt();
+    private static final int BULK_GET_MIN_BATCH_SIZE      = AtlasConfiguration.ENTITY_BULK_GET_MIN_BATCH_SIZE.getInt();
+
+    private static volatile ExecutorService bulkGetExecutor;
+
     private final AtlasTypeRegistry typeRegistry;
 
     private final boolean ignoreRelationshipAttr;
 
+    private final boolean prefetchEnabled;
+
     @Inject
     public EntityGraphRetriever(AtlasTypeRegistry typeRegistry) {
         this(typeRegistry, false);
     }
 
     public EntityGraphRetriever(AtlasTypeRegistry typeRegistry, boolean ignoreRelationshipAttr) {
-        this.typeRegistry = typeRegistry;
+        this(typeRegistry, ignoreRelationshipAttr, PREFETCH_ENABLED);
+    }
+
+    @VisibleForTesting
+    EntityGraphRetriever(AtlasTypeRegistry typeRegistry, boolean ignoreRelationshipAttr, boolean prefetchEnabled) {
+        this.typeRegistry           = typeRegistry;
         this.ignoreRelationshipAttr = ignoreRelationshipAttr;
+        this.prefetchEnabled        = prefetchEnabled;
+    }
+
+    /**
+     * Stops the worker threads of bulk entity reads, which are shared by all instances, when the application shuts down.
+     */
+    @PreDestroy
+    public void destroy() {
+        shutdownBulkGetExecutor();
     }
 
     public AtlasEntity toAtlasEntity(String guid, boolean includeReferences) throws AtlasBaseException {
@@ -180,9 +228,59 @@ public class EntityGraphRetriever {
     }
 
     public AtlasEntityWithExtInfo toAtlasEntityWithExtInfo(AtlasVertex entityVertex, boolean isMinExtInfo) throws AtlasBaseException {
-        AtlasEntityExtInfo     entityExtInfo = new AtlasEntityExtInfo();
-        AtlasEntity            entity        = mapVertexToAtlasEntity(entityVertex, entityExtInfo, isMinExtInfo);
-        AtlasEntityWithExtInfo ret           = new AtlasEntityWithExtInfo(entity, entityExtInfo);
+        return toAtlasEntityWithExtInfo(entityVertex, isMinExtInfo, null, null);
+    }
+
+    /**
+     * @param attributes names of attributes to map in the entity; null to map all attributes
+     * @param relationshipAttributes names of relationship attributes to map in the entity; null to map all relationship attributes
+     */
+    public AtlasEntityWithExtInfo toAtlasEntityWithExtInfo(String guid, boolean isMinExtInfo, Set<String> attributes, Set<String> relationshipAttributes) throws AtlasBaseException {
+        return toAtlasEntityWithExtInfo(getEntityVertex(guid), isMinExtInfo, attributes, relationshipAttributes);
+    }
+
+    public AtlasEntityWithExtInfo toAtlasEntityWithExtInfo(AtlasVertex entityVertex, boolean isMinExtInfo, Set<String> attributes, Set<String> relationshipAttributes) throws AtlasBaseException {
+        return toAtlasEntityWithExtInfo(entityVertex, isMinExtInfo, attributes, relationshipAttributes, 0, -1);
+    }
+
+    /**
+     * Entities referred by the given entity are included from referredEntitiesOffset, up to referredEntitiesLimit of
+     * them; references to the rest are returned as object-ids. Entities referred by included entities are not limited.
+     *
+     * @param referredEntitiesLimit maximum number of referred entities to include; -1 for no limit
+     */
+    public AtlasEntityWithExtInfo toAtlasEntityWithExtInfo(AtlasVertex entityVertex, boolean isMinExtInfo, Set<String> attributes, Set<String> relationshipAttributes,
+                                                           int referredEntitiesOffset, int referredEntitiesLimit) throws AtlasBaseException {
+        final AtlasEntityExtInfo entityExtInfo;
+
+        if (referredEntitiesOffset > 0 || referredEntitiesLimit >= 0) {
+            entityExtInfo = new BoundedEntityExtInfo(GraphHelper.getGuid(entityVertex), referredEntitiesOffset, referredEntitiesLimit);
+        } else {
+            entityExtInfo = new AtlasEntityExtInfo();
+        }
+
+        AtlasEntity entity = mapVertexToAtlasEntity(entityVertex, entityExtInfo, isMinExtInfo, true, attributes, relationshipAttributes);
+        boolean     hasMore = false;
+
+        if (entityExtInfo instanceof BoundedEntityExtInfo) {
+            BoundedEntityExtInfo boundedExtInfo = (BoundedEntityExtInfo) entityExtInfo;
+
+            for (AtlasVertex referredVertex : boundedExtInfo.getWindow()) {
+                if (isMinExtInfo) {
+                    mapVertexToAtlasEntityMin(referredVertex, entityExtInfo);
+                } else {
+                    mapVertexToAtlasEntity(referredVertex, entityExtInfo);
+                }
+            }
+
+            hasMore = boundedExtInfo.hasMore();
+        }
+
+        AtlasEntityWithExtInfo ret = new AtlasEntityWithExtInfo(entity, entityExtInfo);
+
+        if (hasMore) {
+            ret.setNextReferredEntitiesOffset(referredEntitiesOffset + referredEntitiesLimit);
+        }
 
         ret.compact();
 
@@ -221,7 +319,108 @@ public class EntityGraphRetriever {
         return ret;
     }
 
+    /**
+     * Header with details used to authorize access to the entity - type, classifications, labels and attributes stored
+     * in the entity vertex (primitive and enum values, and arrays and maps of them), which includes unique attributes
+     * and other attributes that policies can evaluate, like owner. Details are read from properties of the entity
+     * vertex, without reading its edges; hence struct and reference attributes are not included. Classifications are
+     * read with their attributes, for policies to evaluate, only when a classification type of the entity has
+     * attributes; otherwise only their names are read.
+     */
+    public AtlasEntityHeader toAtlasEntityHeaderForAuthorization(AtlasVertex entityVertex) throws AtlasBaseException {
+        AtlasEntityHeader ret      = new AtlasEntityHeader();
+        String            typeName = getTypeName(entityVertex);
+
+        ret.setTypeName(typeName);
+        ret.setGuid(GraphHelper.getGuid(entityVertex));
+        ret.setStatus(GraphHelper.getStatus(entityVertex));
+        ret.setLabels(getLabels(entityVertex));
+
+        List<String> classificationNames = new ArrayList<>();
+        List<String> names               = AtlasGraphUtilsV2.getClassificationNames(entityVertex);
+        List<String> propagatedNames     = AtlasGraphUtilsV2.getPropagatedClassificationNames(entityVertex);
+
+        if (names != null) {
+            classificationNames.addAll(names);
+        }
+
+        if (propagatedNames != null) {
+            classificationNames.addAll(propagatedNames);
+        }
+
+        if (!classificationNames.isEmpty()) {
+            List<AtlasClassification> classifications;
+
+            if (hasClassificationAttributes(classificationNames)) {
+                classifications = getAllClassifications(entityVertex);
+            } else {
+                classifications = new ArrayList<>(classificationNames.size());
+
+                for (String classificationName : classificationNames) {
+                    classifications.add(new AtlasClassification(classificationName));
+                }
+            }
+
+            ret.setClassificationNames(classificationNames);
+            ret.setClassifications(classifications);
+        }
+
+        AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
+
+        if (entityType != null) {
+            for (AtlasAttribute attribute : entityType.getAllAttributes().values()) {
+                if (!isVertexPropertyAttribute(attribute.getAttributeType())) {
+                    continue;
+                }
+
+                Object attrValue = mapVertexToAttribute(entityVertex, attribute, null, false, false);
+
+                if (attrValue != null) {
+                    ret.setAttribute(attribute.getName(), attrValue);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    // unknown types are treated as having attributes, so that their classifications are read in full
+    private boolean hasClassificationAttributes(List<String> classificationNames) {
+        for (String classificationName : classificationNames) {
+            AtlasClassificationType classificationType = typeRegistry.getClassificationTypeByName(classificationName);
+
+            if (classificationType == null || MapUtils.isNotEmpty(classificationType.getAllAttributes())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // true if values of the attribute are stored in a property of the vertex, rather than in edges
+    private static boolean isVertexPropertyAttribute(AtlasType attrType) {
+        switch (attrType.getTypeCategory()) {
+            case ARRAY:
+                return isPrimitiveOrEnum(((AtlasArrayType) attrType).getElementType());
+            case MAP:
+                return isPrimitiveOrEnum(((AtlasMapType) attrType).getValueType());
+            default:
+                return isPrimitiveOrEnum(attrType);
+        }
+    }
+
+    private static boolean isPrimitiveOrEnum(AtlasType type) {
+        return type.getTypeCategory() == TypeCategory.PRIMITIVE || type.getTypeCategory() == TypeCategory.ENUM;
+    }
+
     public Map<String, Map<String, Object>> getBusinessMetadata(AtlasVertex entityVertex) throws AtlasBaseException {
+        return getBusinessMetadata(entityVertex, null);
+    }
+
+    /**
+     * @param bmNames names of business-metadata to read; all business-metadata of the entity-type are read if null
+     */
+    public Map<String, Map<String, Object>> getBusinessMetadata(AtlasVertex entityVertex, Collection<String> bmNames) throws AtlasBaseException {
         Map<String, Map<String, Object>>                         ret             = null;
         String                                                   entityTypeName  = getTypeName(entityVertex);
         AtlasEntityType                                          entityType      = typeRegistry.getEntityTypeByName(entityTypeName);
@@ -233,6 +432,10 @@ public class EntityGraphRetriever {
                 Map<String, AtlasBusinessAttribute> bmAttributes  = entry.getValue();
                 Map<String, Object>                         entityBmAttrs = null;
 
+                if (bmNames != null && !bmNames.contains(bmName)) {
+                    continue;
+                }
+
                 for (AtlasBusinessAttribute bmAttribute : bmAttributes.values()) {
                     Object bmAttrValue = mapVertexToAttribute(entityVertex, bmAttribute, null, false, false);
 
@@ -375,21 +578,171 @@ public class EntityGraphRetriever {
     }
 
     public AtlasEntitiesWithExtInfo toAtlasEntitiesWithExtInfo(List<String> guids, boolean isMinExtInfo) throws AtlasBaseException {
+        return toAtlasEntitiesWithExtInfo(guids, isMinExtInfo, null, null);
+    }
+
+    /**
+     * @param attributes names of attributes to map in the entities; null to map all attributes
+     * @param relationshipAttributes names of relationship attributes to map in the entities; null to map all relationship attributes
+     */
+    public AtlasEntitiesWithExtInfo toAtlasEntitiesWithExtInfo(List<String> guids, boolean isMinExtInfo, Set<String> attributes, Set<String> relationshipAttributes) throws AtlasBaseException {
+        int                      batchCount = getBulkGetBatchCount(guids.size());
+        AtlasEntitiesWithExtInfo ret;
+
+        if (batchCount > 1) {
+            ret = mapEntitiesInParallel(guids, batchCount, isMinExtInfo, attributes, relationshipAttributes);
+        } else {
+            ret = mapEntities(guids, isMinExtInfo, attributes, relationshipAttributes);
+        }
+
+        ret.compact();
+
+        return ret;
+    }
+
+    private AtlasEntitiesWithExtInfo mapEntities(List<String> guids, boolean isMinExtInfo, Set<String> attributes, Set<String> relationshipAttributes) throws AtlasBaseException {
         AtlasEntitiesWithExtInfo ret = new AtlasEntitiesWithExtInfo();
 
         for (String guid : guids) {
             AtlasVertex vertex = getEntityVertex(guid);
 
-            AtlasEntity entity = mapVertexToAtlasEntity(vertex, ret, isMinExtInfo);
+            AtlasEntity entity = mapVertexToAtlasEntity(vertex, ret, isMinExtInfo, true, attributes, relationshipAttributes);
 
             ret.addEntity(entity);
         }
 
-        ret.compact();
+        return ret;
+    }
+
+    /**
+     * Maps batches of the given entities in worker threads, each with its own read-only graph transaction, and
+     * merges the results in the order of the given guids. Referred entities mapped by more than one batch are
+     * included once.
+     */
+    private AtlasEntitiesWithExtInfo mapEntitiesInParallel(List<String> guids, int batchCount, boolean isMinExtInfo, Set<String> attributes, Set<String> relationshipAttributes) throws AtlasBaseException {
+        List<List<String>>                     batches        = Lists.partition(guids, (guids.size() + batchCount - 1) / batchCount);
+        List<Future<AtlasEntitiesWithExtInfo>> futures        = new ArrayList<>(batches.size());
+        ExecutorService                        executor       = getBulkGetExecutor();
+        RequestContext                         requestContext = RequestContext.get();
+        AtlasEntitiesWithExtInfo               ret            = new AtlasEntitiesWithExtInfo();
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("mapEntitiesInParallel(guids={}): batches={}", guids.size(), batches.size());
+        }
+
+        try {
+            for (List<String> batch : batches) {
+                futures.add(executor.submit(() -> mapEntitiesInWorker(batch, isMinExtInfo, attributes, relationshipAttributes, requestContext)));
+            }
+
+            for (Future<AtlasEntitiesWithExtInfo> future : futures) {
+                AtlasEntitiesWithExtInfo batchRet = future.get();
+
+                for (AtlasEntity entity : batchRet.getEntities()) {
+                    ret.addEntity(entity);
+                }
+
+                if (MapUtils.isNotEmpty(batchRet.getReferredEntities())) {
+                    for (Map.Entry<String, AtlasEntity> entry : batchRet.getReferredEntities().entrySet()) {
+                        if (ret.getReferredEntity(entry.getKey()) == null) {
+                            ret.addReferredEntity(entry.getKey(), entry.getValue());
+                        }
+                    }
+                }
+            }
+        } catch (ExecutionException excp) {
+            Throwable cause = excp.getCause();
+
+            if (cause instanceof AtlasBaseException) {
+                throw (AtlasBaseException) cause;
+            }
+
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, cause, cause.getMessage());
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, excp, excp.getMessage());
+        } finally {
+            for (Future<AtlasEntitiesWithExtInfo> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        return ret;
+    }
+
+    private AtlasEntitiesWithExtInfo mapEntitiesInWorker(List<String> guids, boolean isMinExtInfo, Set<String> attributes, Set<String> relationshipAttributes, RequestContext requestContext) throws AtlasBaseException {
+        RequestContext.clear();
+        RequestContext.get().copyRequestDetails(requestContext);
+
+        try {
+            return mapEntities(guids, isMinExtInfo, attributes, relationshipAttributes);
+        } finally {
+            getGraph().rollback(); // nothing to commit: close the read-only transaction of this thread
+
+            GraphTransactionInterceptor.clearCache();
+            RequestContext.clear();
+        }
+    }
+
+    /**
+     * @return number of batches to map the given number of entities in; 1 to map the entities in the calling thread
+     */
+    private static int getBulkGetBatchCount(int guidCount) {
+        if (BULK_GET_THREAD_COUNT <= 1 || BULK_GET_MAX_CONCURRENCY <= 1 || guidCount < 2 * BULK_GET_MIN_BATCH_SIZE) {
+            return 1;
+        }
+
+        RequestContext context = RequestContext.get();
+
+        // entities updated in the current transaction are not visible to transactions of worker threads
+        if (!context.getUpdatedEntities().isEmpty() || !context.getDeletedEntities().isEmpty()) {
+            return 1;
+        }
+
+        return Math.min(BULK_GET_MAX_CONCURRENCY, guidCount / Math.max(BULK_GET_MIN_BATCH_SIZE, 1));
+    }
+
+    private static ExecutorService getBulkGetExecutor() {
+        ExecutorService ret = bulkGetExecutor;
+
+        if (ret == null) {
+            synchronized (EntityGraphRetriever.class) {
+                ret = bulkGetExecutor;
+
+                if (ret == null) {
+                    ret = Executors.newFixedThreadPool(BULK_GET_THREAD_COUNT, new ThreadFactoryBuilder().setNameFormat("atlas-entity-retriever-%d").setDaemon(true).build());
+
+                    bulkGetExecutor = ret;
+                }
+            }
+        }
 
         return ret;
     }
 
+    // a later bulk read starts a new executor
+    static void shutdownBulkGetExecutor() {
+        ExecutorService executor;
+
+        synchronized (EntityGraphRetriever.class) {
+            executor        = bulkGetExecutor;
+            bulkGetExecutor = null;
+        }
+
+        if (executor != null) {
+            executor.shutdownNow();
+
+            try {
+                if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    LOG.warn("shutdownBulkGetExecutor(): worker threads did not stop in 30 seconds");
+                }
+            } catch (InterruptedException excp) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     public Map<String, Object> getEntityUniqueAttribute(AtlasVertex entityVertex) throws AtlasBaseException {
         Map<String, Object> ret        = null;
         String              typeName   = AtlasGraphUtilsV2.getTypeName(entityVertex);
@@ -439,7 +792,7 @@ public class EntityGraphRetriever {
         return ret;
     }
 
-    public void evaluateClassificationPropagation(AtlasVertex classificationVertex, List<AtlasVertex> entitiesToAddPropagation, List<AtlasVertex> entitiesToRemovePropagation) {
+    public void evaluateClassificationPropagation(AtlasVertex classificationVertex, List<AtlasVertex> entitiesToAddPropagation, List<AtlasVertex> entitiesToRemovePropagation) throws AtlasBaseException {
         if (classificationVertex != null) {
             String            entityGuid         = getClassificationEntityGuid(classificationVertex);
             AtlasVertex       entityVertex       = AtlasGraphUtilsV2.findByGuid(entityGuid);
@@ -461,11 +814,11 @@ public class EntityGraphRetriever {
         }
     }
 
-    public Map<AtlasVertex, List<AtlasVertex>> getClassificationPropagatedEntitiesMapping(List<AtlasVertex> classificationVertices) {
+    public Map<AtlasVertex, List<AtlasVertex>> getClassificationPropagatedEntitiesMapping(List<AtlasVertex> classificationVertices) throws AtlasBaseException {
         return getClassificationPropagatedEntitiesMapping(classificationVertices, null);
     }
 
-    public Map<AtlasVertex, List<AtlasVertex>> getClassificationPropagatedEntitiesMapping(List<AtlasVertex> classificationVertices, String relationshipGuidToExclude) {
+    public Map<AtlasVertex, List<AtlasVertex>> getClassificationPropagatedEntitiesMapping(List<AtlasVertex> classificationVertices, String relationshipGuidToExclude) throws AtlasBaseException {
         Map<AtlasVertex, List<AtlasVertex>> ret = new HashMap<>();
 
         if (CollectionUtils.isNotEmpty(classificationVertices)) {
@@ -482,85 +835,248 @@ public class EntityGraphRetriever {
         return ret;
     }
 
-    public List<AtlasVertex> getImpactedVerticesV2(AtlasVertex entityVertex) {
+    /**
+     * Entities to which each of the given classifications is currently propagated. Unlike
+     * getClassificationPropagatedEntitiesMapping(), this reads the propagated classification edges - which are
+     * maintained as propagations are added and removed - instead of traversing the lineage.
+     */
+    public Map<AtlasVertex, List<AtlasVertex>> getCurrentPropagatedEntitiesMapping(List<AtlasVertex> classificationVertices) {
+        Map<AtlasVertex, List<AtlasVertex>> ret = new HashMap<>();
+
+        if (CollectionUtils.isNotEmpty(classificationVertices)) {
+            for (AtlasVertex classificationVertex : classificationVertices) {
+                ret.put(classificationVertex, getAllPropagatedEntityVertices(classificationVertex));
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Entities from which the given classification should be removed when the given relationship no longer
+     * propagates. Only the entities currently holding the propagated classification are considered, and the
+     * lineage is traversed at most once - stopping early when both ends of the relationship remain reachable.
+     */
+    public List<AtlasVertex> getPropagationsToRemove(AtlasVertex classificationVertex, AtlasEdge relationshipEdge) throws AtlasBaseException {
+        List<AtlasVertex> ret                = new ArrayList<>();
+        List<AtlasVertex> propagatedEntities = getAllPropagatedEntityVertices(classificationVertex);
+
+        if (propagatedEntities.isEmpty()) {
+            return ret;
+        }
+
+        AtlasVertex sourceEntityVertex = AtlasGraphUtilsV2.findByGuid(getClassificationEntityGuid(classificationVertex));
+
+        if (sourceEntityVertex == null) {
+            return ret;
+        }
+
+        List<AtlasVertex> impactedEntities = getImpactedVerticesV2(sourceEntityVertex, getRelationshipGuid(relationshipEdge), classificationVertex.getIdForDisplay(),
+                                                                   Arrays.asList(relationshipEdge.getOutVertex(), relationshipEdge.getInVertex()));
+
+        if (impactedEntities != null) {
+            LongHashSet impactedIds = new LongHashSet(impactedEntities.size());
+
+            for (AtlasVertex impactedEntity : impactedEntities) {
+                impactedIds.add(getVertexId(impactedEntity));
+            }
+
+            for (AtlasVertex propagatedEntity : propagatedEntities) {
+                if (!impactedIds.contains(getVertexId(propagatedEntity))) {
+                    ret.add(propagatedEntity);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    public List<AtlasVertex> getImpactedVerticesV2(AtlasVertex entityVertex) throws AtlasBaseException {
         return getImpactedVerticesV2(entityVertex, null);
     }
 
-    public List<AtlasVertex> getImpactedVerticesV2(AtlasVertex entityVertex, String relationshipGuidToExclude) {
+    public List<AtlasVertex> getImpactedVerticesV2(AtlasVertex entityVertex, String relationshipGuidToExclude) throws AtlasBaseException {
         List<AtlasVertex> ret = new ArrayList<>();
 
-        traverseImpactedVertices(entityVertex, relationshipGuidToExclude, null, new HashSet<>(), ret);
+        traverseImpactedVertices(entityVertex, relationshipGuidToExclude, null, ret, null, MAX_IMPACTED_VERTICES);
 
         return ret;
     }
 
-    public List<AtlasVertex> getIncludedImpactedVerticesV2(AtlasVertex entityVertex, String relationshipGuidToExclude) {
+    public List<AtlasVertex> getIncludedImpactedVerticesV2(AtlasVertex entityVertex, String relationshipGuidToExclude) throws AtlasBaseException {
         List<AtlasVertex> ret = new ArrayList<>(Arrays.asList(entityVertex));
 
-        traverseImpactedVertices(entityVertex, relationshipGuidToExclude, null, new HashSet<>(), ret);
+        traverseImpactedVertices(entityVertex, relationshipGuidToExclude, null, ret, null, MAX_IMPACTED_VERTICES);
 
         return ret;
     }
 
-    public List<AtlasVertex> getImpactedVerticesV2(AtlasVertex entityVertex, String relationshipGuidToExclude, String classificationId) {
+    public List<AtlasVertex> getImpactedVerticesV2(AtlasVertex entityVertex, String relationshipGuidToExclude, String classificationId) throws AtlasBaseException {
+        return getImpactedVerticesV2(entityVertex, relationshipGuidToExclude, classificationId, MAX_IMPACTED_VERTICES);
+    }
+
+    /**
+     * @param maxVertices maximum number of impacted vertices; no limit if not positive
+     * @throws AtlasBaseException with CLASSIFICATION_PROPAGATION_LIMIT_EXCEEDED if more than maxVertices vertices are impacted
+     */
+    public List<AtlasVertex> getImpactedVerticesV2(AtlasVertex entityVertex, String relationshipGuidToExclude, String classificationId, int maxVertices) throws AtlasBaseException {
         List<AtlasVertex> ret = new ArrayList<>();
 
-        traverseImpactedVertices(entityVertex, relationshipGuidToExclude, classificationId, new HashSet<>(), ret);
+        traverseImpactedVertices(entityVertex, relationshipGuidToExclude, classificationId, ret, null, maxVertices);
 
         return ret;
     }
 
-    private void traverseImpactedVertices(AtlasVertex entityVertex, String relationshipGuidToExclude, String classificationId, Set<String> visitedVertices, List<AtlasVertex> result) {
-        visitedVertices.add(entityVertex.getIdForDisplay());
+    /**
+     * Finds the vertices to which a classification on the given entity would propagate, stopping as soon as all of
+     * the given vertices are reached. Since everything reachable from a reached vertex remains reachable, callers
+     * evaluating the removal of a relationship can skip further work when this returns null.
+     *
+     * @return null if all of verticesToFind are impacted; otherwise all the impacted vertices
+     */
+    public List<AtlasVertex> getImpactedVerticesV2(AtlasVertex entityVertex, String relationshipGuidToExclude, String classificationId, Collection<AtlasVertex> verticesToFind) throws AtlasBaseException {
+        List<AtlasVertex> ret    = new ArrayList<>();
+        LongHashSet       toFind = new LongHashSet();
 
-        AtlasEntityType entityType          = typeRegistry.getEntityTypeByName(getTypeName(entityVertex));
-        String[]        tagPropagationEdges = entityType != null ? entityType.getTagPropagationEdgesArray() : null;
+        for (AtlasVertex vertex : verticesToFind) {
+            toFind.add(getVertexId(vertex));
+        }
 
-        if (tagPropagationEdges != null) {
-            Iterable<AtlasEdge> propagationEdges = entityVertex.getEdges(AtlasEdgeDirection.BOTH, tagPropagationEdges);
+        // result must be complete to compute removals, hence no limit on the number of vertices
+        boolean allFound = traverseImpactedVertices(entityVertex, relationshipGuidToExclude, classificationId, ret, toFind, -1);
 
-            for (AtlasEdge propagationEdge : propagationEdges) {
-                if (getEdgeStatus(propagationEdge) != ACTIVE) {
-                    continue;
-                }
+        return allFound ? null : ret;
+    }
+
+    /**
+     * Breadth-first traversal of tag-propagation edges, one level at a time. Edges of vertices in a level are
+     * fetched in batches, grouped by entity-type (since the propagation edge labels depend on the type).
+     *
+     * @return true if the traversal stopped early because all of verticesToFind were visited
+     * @throws AtlasBaseException if more than maxVertices vertices are impacted, when maxVertices is positive
+     */
+    private boolean traverseImpactedVertices(AtlasVertex entityVertex, String relationshipGuidToExclude, String classificationId, List<AtlasVertex> result, LongHashSet verticesToFind, int maxVertices) throws AtlasBaseException {
+        LongHashSet       visitedVertices = new LongHashSet();
+        List<AtlasVertex> currentLevel    = new ArrayList<>();
+        int               resultCount     = 0;
+        long              entityVertexId  = getVertexId(entityVertex);
 
-                PropagateTags tagPropagation = getPropagateTags(propagationEdge);
+        visitedVertices.add(entityVertexId);
+        currentLevel.add(entityVertex);
 
-                if (tagPropagation == null || tagPropagation == NONE) {
+        if (verticesToFind != null) {
+            verticesToFind.remove(entityVertexId);
+
+            if (verticesToFind.isEmpty()) {
+                return true;
+            }
+        }
+
+        while (!currentLevel.isEmpty()) {
+            List<AtlasVertex>              nextLevel       = new ArrayList<>();
+            Map<String, List<AtlasVertex>> verticesByType  = new LinkedHashMap<>();
+
+            for (AtlasVertex vertex : currentLevel) {
+                verticesByType.computeIfAbsent(getTypeName(vertex), k -> new ArrayList<>()).add(vertex);
+            }
+
+            for (Map.Entry<String, List<AtlasVertex>> entry : verticesByType.entrySet()) {
+                AtlasEntityType entityType          = typeRegistry.getEntityTypeByName(entry.getKey());
+                String[]        tagPropagationEdges = entityType != null ? entityType.getTagPropagationEdgesArray() : null;
+
+                if (tagPropagationEdges == null) {
                     continue;
-                } else if (tagPropagation == TWO_TO_ONE)  {
-                    if (isOutVertex(entityVertex, propagationEdge)) {
-                        continue;
-                    }
-                } else if (tagPropagation == ONE_TO_TWO) {
-                    if (!isOutVertex(entityVertex, propagationEdge)) {
-                        continue;
-                    }
                 }
 
-                if (relationshipGuidToExclude != null) {
-                    if (StringUtils.equals(getRelationshipGuid(propagationEdge), relationshipGuidToExclude)) {
-                        continue;
-                    }
-                }
+                for (List<AtlasVertex> batch : Lists.partition(entry.getValue(), IMPACTED_VERTICES_BATCH_SIZE)) {
+                    Map<AtlasVertex, Iterable<AtlasEdge>> batchEdges = getGraph().getEdges(batch, AtlasEdgeDirection.BOTH, tagPropagationEdges);
+
+                    for (AtlasVertex vertex : batch) {
+                        Iterable<AtlasEdge> propagationEdges = batchEdges.get(vertex);
+
+                        if (propagationEdges == null) {
+                            continue;
+                        }
+
+                        for (AtlasEdge propagationEdge : propagationEdges) {
+                            if (!isPropagationAllowed(vertex, propagationEdge, relationshipGuidToExclude, classificationId)) {
+                                continue;
+                            }
+
+                            AtlasVertex adjacentVertex = getOtherVertex(propagationEdge, vertex);
 
-                if (classificationId != null) {
-                    List<String> blockedClassificationIds = getBlockedClassificationIds(propagationEdge);
+                            long adjacentVertexId = getVertexId(adjacentVertex);
 
-                    if (CollectionUtils.isNotEmpty(blockedClassificationIds) && blockedClassificationIds.contains(classificationId)) {
-                        continue;
+                            if (visitedVertices.add(adjacentVertexId)) {
+                                result.add(adjacentVertex);
+                                nextLevel.add(adjacentVertex);
+
+                                resultCount++;
+
+                                if (verticesToFind != null && verticesToFind.remove(adjacentVertexId) && verticesToFind.isEmpty()) {
+                                    return true;
+                                }
+
+                                // a partial result would leave propagations incomplete, hence the operation fails instead
+                                if (maxVertices > 0 && resultCount > maxVertices) {
+                                    throw new AtlasBaseException(AtlasErrorCode.CLASSIFICATION_PROPAGATION_LIMIT_EXCEEDED, GraphHelper.getGuid(entityVertex), String.valueOf(maxVertices));
+                                }
+                            }
+                        }
                     }
                 }
+            }
 
-                AtlasVertex adjacentVertex = getOtherVertex(propagationEdge, entityVertex);
+            currentLevel = nextLevel;
+        }
 
-                if (!visitedVertices.contains(adjacentVertex.getIdForDisplay())) {
-                    result.add(adjacentVertex);
+        return false;
+    }
 
-                    traverseImpactedVertices(adjacentVertex, relationshipGuidToExclude, classificationId, visitedVertices, result);
-                }
+    private boolean isPropagationAllowed(AtlasVertex vertex, AtlasEdge propagationEdge, String relationshipGuidToExclude, String classificationId) {
+        if (getEdgeStatus(propagationEdge) != ACTIVE) {
+            return false;
+        }
+
+        PropagateTags tagPropagation = getPropagateTags(propagationEdge);
+
+        if (tagPropagation == null || tagPropagation == NONE) {
+            return false;
+        } else if (tagPropagation == TWO_TO_ONE)  {
+            if (isOutVertex(vertex, propagationEdge)) {
+                return false;
+            }
+        } else if (tagPropagation == ONE_TO_TWO) {
+            if (!isOutVertex(vertex, propagationEdge)) {
+                return false;
             }
         }
+
+        if (relationshipGuidToExclude != null) {
+            if (StringUtils.equals(getRelationshipGuid(propagationEdge), relationshipGuidToExclude)) {
+                return false;
+            }
+        }
+
+        if (classificationId != null) {
+            List<String> blockedClassificationIds = getBlockedClassificationIds(propagationEdge);
+
+            if (CollectionUtils.isNotEmpty(blockedClassificationIds) && blockedClassificationIds.contains(classificationId)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long getVertexId(AtlasVertex vertex) {
+        Object id = vertex.getId();
+
+        return id instanceof Number ? ((Number) id).longValue() : Long.parseLong(vertex.getIdForDisplay());
+    }
+
+    private static AtlasGraph getGraph() {
+        return AtlasGraphProvider.getGraphInstance();
     }
 
     private boolean isOutVertex(AtlasVertex vertex, AtlasEdge edge) {
@@ -606,6 +1122,10 @@ public class EntityGraphRetriever {
     }
 
     private AtlasEntity mapVertexToAtlasEntity(AtlasVertex entityVertex, AtlasEntityExtInfo entityExtInfo, boolean isMinExtInfo, boolean includeReferences) throws AtlasBaseException {
+        return mapVertexToAtlasEntity(entityVertex, entityExtInfo, isMinExtInfo, includeReferences, null, null);
+    }
+
+    private AtlasEntity mapVertexToAtlasEntity(AtlasVertex entityVertex, AtlasEntityExtInfo entityExtInfo, boolean isMinExtInfo, boolean includeReferences, Set<String> attributes, Set<String> relationshipAttributes) throws AtlasBaseException {
         String      guid   = GraphHelper.getGuid(entityVertex);
         AtlasEntity entity = entityExtInfo != null ? entityExtInfo.getEntity(guid) : null;
 
@@ -622,12 +1142,20 @@ public class EntityGraphRetriever {
 
             mapSystemAttributes(entityVertex, entity);
 
+            if (attributes != null) {
+                attributes = withUniqueAttributes(entity.getTypeName(), attributes);
+            }
+
+            if (prefetchEnabled) {
+                prefetchAdjacentVertices(entityVertex, entity.getTypeName(), includeReferences, attributes, relationshipAttributes);
+            }
+
             mapBusinessAttributes(entityVertex, entity);
 
-            mapAttributes(entityVertex, entity, entityExtInfo, isMinExtInfo, includeReferences);
+            mapAttributes(entityVertex, entity, entityExtInfo, isMinExtInfo, includeReferences, attributes);
 
             if (!ignoreRelationshipAttr) { // only map when really needed
-                mapRelationshipAttributes(entityVertex, entity, entityExtInfo, isMinExtInfo);
+                mapRelationshipAttributes(entityVertex, entity, entityExtInfo, isMinExtInfo, relationshipAttributes);
             }
 
             mapClassifications(entityVertex, entity);
@@ -640,6 +1168,101 @@ public class EntityGraphRetriever {
         return mapVertexToAtlasEntityMin(entityVertex, entityExtInfo, null);
     }
 
+    /**
+     * Loads the edges of the given entity vertex that are read while mapping the entity - i.e. edges of reference,
+     * struct and relationship attributes, classifications and term assignments - with one query, followed by the
+     * properties of vertices at the other end of these edges, with one query per batch of vertices. Mapping of the
+     * entity then reads these edges and vertex properties from the graph transaction, instead of issuing a query for
+     * each attribute and each referenced vertex.
+     */
+    private void prefetchAdjacentVertices(AtlasVertex entityVertex, String typeName, boolean includeReferences, Set<String> attributes, Set<String> relationshipAttributes) {
+        AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
+
+        if (entityType == null) {
+            return;
+        }
+
+        Set<String> edgeLabels = new HashSet<>();
+
+        edgeLabels.add(CLASSIFICATION_LABEL);
+        edgeLabels.add(TERM_ASSIGNMENT_LABEL);
+
+        for (AtlasAttribute attribute : entityType.getAllAttributes().values()) {
+            if (isEdgeAttribute(attribute) && (includeReferences || !attribute.isObjectRef()) && isIncluded(attribute.getName(), attributes)) {
+                edgeLabels.add(attribute.getRelationshipEdgeLabel());
+            }
+        }
+
+        if (!ignoreRelationshipAttr) {
+            for (Map.Entry<String, Map<String, AtlasAttribute>> entry : entityType.getRelationshipAttributes().entrySet()) {
+                if (isIncluded(entry.getKey(), relationshipAttributes)) {
+                    for (AtlasAttribute attribute : entry.getValue().values()) {
+                        edgeLabels.add(attribute.getRelationshipEdgeLabel());
+                    }
+                }
+            }
+        }
+
+        edgeLabels.remove(null);
+
+        AtlasGraph                            graph            = getGraph();
+        Map<AtlasVertex, Iterable<AtlasEdge>> vertexEdges      = graph.getEdges(Collections.singletonList(entityVertex), AtlasEdgeDirection.BOTH, edgeLabels.toArray(new String[0]));
+        Iterable<AtlasEdge>                   edges            = vertexEdges.get(entityVertex);
+        Map<Object, AtlasVertex>              adjacentVertices = new LinkedHashMap<>();
+
+        if (edges != null) {
+            for (AtlasEdge edge : edges) {
+                AtlasVertex adjacentVertex = getOtherVertex(edge, entityVertex);
+
+                adjacentVertices.putIfAbsent(adjacentVertex.getId(), adjacentVertex);
+            }
+        }
+
+        for (List<AtlasVertex> batch : Lists.partition(new ArrayList<>(adjacentVertices.values()), PREFETCH_BATCH_SIZE)) {
+            graph.loadProperties(batch);
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("prefetchAdjacentVertices(typeName={}): edgeLabels={}, adjacentVertices={}", typeName, edgeLabels.size(), adjacentVertices.size());
+        }
+    }
+
+    // unique attributes are always mapped, as these are used to authorize access to the entity
+    private Set<String> withUniqueAttributes(String typeName, Set<String> attributes) {
+        AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeName);
+
+        if (entityType == null || attributes.containsAll(entityType.getUniqAttributes().keySet())) {
+            return attributes;
+        }
+
+        Set<String> ret = new HashSet<>(attributes);
+
+        ret.addAll(entityType.getUniqAttributes().keySet());
+
+        return ret;
+    }
+
+    private static boolean isIncluded(String attributeName, Set<String> attributes) {
+        return attributes == null || attributes.contains(attributeName);
+    }
+
+    // attributes whose values are stored in adjacent vertices, except soft-references
+    private static boolean isEdgeAttribute(AtlasAttribute attribute) {
+        if (attribute.getAttributeDef().isSoftReferenced()) {
+            return false;
+        }
+
+        AtlasType attrType = attribute.getAttributeType();
+
+        if (attrType instanceof AtlasArrayType) {
+            attrType = ((AtlasArrayType) attrType).getElementType();
+        } else if (attrType instanceof AtlasMapType) {
+            attrType = ((AtlasMapType) attrType).getValueType();
+        }
+
+        return attrType.getTypeCategory() == TypeCategory.STRUCT || attrType.getTypeCategory() == TypeCategory.OBJECT_ID_TYPE;
+    }
+
     private AtlasEntity mapVertexToAtlasEntityMin(AtlasVertex entityVertex, AtlasEntityExtInfo entityExtInfo, Set<String> attributes) throws AtlasBaseException {
         String      guid   = GraphHelper.getGuid(entityVertex);
         AtlasEntity entity = entityExtInfo != null ? entityExtInfo.getEntity(guid) : null;
@@ -741,14 +1364,9 @@ public class EntityGraphRetriever {
     }
 
     private String toNonQualifiedName(String attrName) {
-        String ret;
-        if (attrName.contains(".")) {
-            String[] attributeParts = attrName.split("\\.");
-            ret = attributeParts[attributeParts.length - 1];
-        } else {
-            ret = attrName;
-        }
-        return ret;
+        int idx = attrName.lastIndexOf('.');
+
+        return idx != -1 ? attrName.substring(idx + 1) : attrName;
     }
 
     private AtlasEntity mapSystemAttributes(AtlasVertex entityVertex, AtlasEntity entity) {
@@ -788,6 +1406,10 @@ public class EntityGraphRetriever {
     }
 
     private void mapAttributes(AtlasVertex entityVertex, AtlasStruct struct, AtlasEntityExtInfo entityExtInfo, boolean isMinExtInfo, boolean includeReferences) throws AtlasBaseException {
+        mapAttributes(entityVertex, struct, entityExtInfo, isMinExtInfo, includeReferences, null);
+    }
+
+    private void mapAttributes(AtlasVertex entityVertex, AtlasStruct struct, AtlasEntityExtInfo entityExtInfo, boolean isMinExtInfo, boolean includeReferences, Set<String> attributes) throws AtlasBaseException {
         AtlasType objType = typeRegistry.getType(struct.getTypeName());
 
         if (!(objType instanceof AtlasStructType)) {
@@ -797,6 +1419,10 @@ public class EntityGraphRetriever {
         AtlasStructType structType = (AtlasStructType) objType;
 
         for (AtlasAttribute attribute : structType.getAllAttributes().values()) {
+            if (!isIncluded(attribute.getName(), attributes)) {
+                continue;
+            }
+
             Object attrValue = mapVertexToAttribute(entityVertex, attribute, entityExtInfo, isMinExtInfo, includeReferences);
 
             struct.setAttribute(attribute.getName(), attrValue);
@@ -1017,7 +1643,7 @@ public class EntityGraphRetriever {
             ret = new HashMap<>();
 
             for (Object mapKey : softRefVal.keySet()) {
-                AtlasObjectId objectId = getAtlasObjectIdFromSoftRefFormat(Objects.toString(softRefVal.get(mapKey)), attribute, entityExtInfo, isMinExtInfo);
+                AtlasObjectId objectId = getAtlasObjectIdFromSoftRefFormat(entityVertex, Objects.toString(softRefVal.get(mapKey)), attribute, entityExtInfo, isMinExtInfo);
 
                 if (objectId != null) {
                     ret.put(Objects.toString(mapKey), objectId);
@@ -1037,7 +1663,7 @@ public class EntityGraphRetriever {
             ret = new ArrayList<>();
 
             for (Object o : softRefVal) {
-                AtlasObjectId objectId = getAtlasObjectIdFromSoftRefFormat(Objects.toString(o), attribute, entityExtInfo, isMinExtInfo);
+                AtlasObjectId objectId = getAtlasObjectIdFromSoftRefFormat(entityVertex, Objects.toString(o), attribute, entityExtInfo, isMinExtInfo);
 
                 if(objectId != null) {
                     ret.add(objectId);
@@ -1051,10 +1677,10 @@ public class EntityGraphRetriever {
     private AtlasObjectId mapVertexToObjectIdForSoftRef(AtlasVertex entityVertex, AtlasAttribute attribute, AtlasEntityExtInfo entityExtInfo, final boolean isMinExtInfo) {
         String softRefVal = AtlasGraphUtilsV2.getEncodedProperty(entityVertex, attribute.getVertexPropertyName(), String.class);
 
-        return StringUtils.isNotEmpty(softRefVal) ? getAtlasObjectIdFromSoftRefFormat(softRefVal, attribute, entityExtInfo, isMinExtInfo) : null;
+        return StringUtils.isNotEmpty(softRefVal) ? getAtlasObjectIdFromSoftRefFormat(entityVertex, softRefVal, attribute, entityExtInfo, isMinExtInfo) : null;
     }
 
-    private AtlasObjectId getAtlasObjectIdFromSoftRefFormat(String softRefVal, AtlasAttribute attribute, AtlasEntityExtInfo entityExtInfo, final boolean isMinExtInfo) {
+    private AtlasObjectId getAtlasObjectIdFromSoftRefFormat(AtlasVertex entityVertex, String softRefVal, AtlasAttribute attribute, AtlasEntityExtInfo entityExtInfo, final boolean isMinExtInfo) {
         AtlasObjectId ret = AtlasEntityUtil.parseSoftRefValue(softRefVal);
 
         if(ret != null) {
@@ -1063,13 +1689,7 @@ public class EntityGraphRetriever {
                     AtlasVertex referenceVertex = getEntityVertex(ret.getGuid());
 
                     if (referenceVertex != null) {
-                        final AtlasEntity entity;
-
-                        if (isMinExtInfo) {
-                            entity = mapVertexToAtlasEntityMin(referenceVertex, entityExtInfo);
-                        } else {
-                            entity = mapVertexToAtlasEntity(referenceVertex, entityExtInfo);
-                        }
+                        AtlasEntity entity = mapReferredEntity(entityVertex, referenceVertex, entityExtInfo, isMinExtInfo);
 
                         if (entity != null) {
                             ret = toAtlasObjectId(entity);
@@ -1112,7 +1732,7 @@ public class EntityGraphRetriever {
                 }
             }
         } else {
-            ret = getPrimitiveMap(entityVertex, attribute.getVertexPropertyName());
+            ret = getPrimitiveMap(entityVertex, attribute);
         }
 
         return ret;
@@ -1252,18 +1872,14 @@ public class EntityGraphRetriever {
             }
 
             if (referenceVertex != null) {
-                if (entityExtInfo != null && isOwnedAttribute) {
-                    final AtlasEntity entity;
+                AtlasEntity entity = null;
 
-                    if (isMinExtInfo) {
-                        entity = mapVertexToAtlasEntityMin(referenceVertex, entityExtInfo);
-                    } else {
-                        entity = mapVertexToAtlasEntity(referenceVertex, entityExtInfo);
-                    }
+                if (entityExtInfo != null && isOwnedAttribute) {
+                    entity = mapReferredEntity(entityVertex, referenceVertex, entityExtInfo, isMinExtInfo);
+                }
 
-                    if (entity != null) {
-                        ret = AtlasTypeUtil.getAtlasObjectId(entity);
-                    }
+                if (entity != null) {
+                    ret = AtlasTypeUtil.getAtlasObjectId(entity);
                 } else {
                     ret = toAtlasObjectId(referenceVertex);
                 }
@@ -1294,7 +1910,7 @@ public class EntityGraphRetriever {
         return vertex != null && attribute != null ? mapVertexToAttribute(vertex, attribute, null, false) : null;
     }
 
-    private void mapRelationshipAttributes(AtlasVertex entityVertex, AtlasEntity entity, AtlasEntityExtInfo entityExtInfo, boolean isMinExtInfo) throws AtlasBaseException {
+    private void mapRelationshipAttributes(AtlasVertex entityVertex, AtlasEntity entity, AtlasEntityExtInfo entityExtInfo, boolean isMinExtInfo, Set<String> relationshipAttributes) throws AtlasBaseException {
         AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
 
         if (entityType == null) {
@@ -1302,6 +1918,10 @@ public class EntityGraphRetriever {
         }
 
         for (String attributeName : entityType.getRelationshipAttributes().keySet()) {
+            if (!isIncluded(attributeName, relationshipAttributes)) {
+                continue;
+            }
+
             mapVertexToRelationshipAttribute(entityVertex, entityType, attributeName, entity, entityExtInfo, isMinExtInfo);
         }
     }
@@ -1419,15 +2039,7 @@ public class EntityGraphRetriever {
 
     private List<AtlasRelatedObjectId> mapRelationshipArrayAttribute(AtlasVertex entityVertex, AtlasAttribute attribute, AtlasEntityExtInfo entityExtInfo, boolean isMinExtInfo) throws AtlasBaseException {
         List<AtlasRelatedObjectId> ret   = new ArrayList<>();
-        Iterator<AtlasEdge>        edges = null;
-
-        if (attribute.getRelationshipEdgeDirection() == IN) {
-            edges = getIncomingEdgesByLabel(entityVertex, attribute.getRelationshipEdgeLabel());
-        } else if (attribute.getRelationshipEdgeDirection() == OUT) {
-            edges = getOutGoingEdgesByLabel(entityVertex, attribute.getRelationshipEdgeLabel());
-        } else if (attribute.getRelationshipEdgeDirection() == BOTH) {
-            edges = getAdjacentEdgesByLabel(entityVertex, AtlasEdgeDirection.BOTH, attribute.getRelationshipEdgeLabel());
-        }
+        Iterator<AtlasEdge>        edges = getRelationshipEdges(entityVertex, attribute);
 
         if (edges != null) {
             while (edges.hasNext()) {
@@ -1442,6 +2054,131 @@ public class EntityGraphRetriever {
         return ret;
     }
 
+    /**
+     * Returns the given page of entities related to entityVertex through the given relationship attribute, considering
+     * only active relationships. Only the entities in the requested page are mapped.
+     *
+     * Without a sort order, edges are read only up to the end of the page. With a sort order, entities are sorted by
+     * display text, which is not indexed on the edges: every active edge, its related vertex and the vertex's display
+     * text are read, whatever the page, and offset + limit of them are held in memory. The cost of a sorted page thus
+     * grows with the number of related entities - for example, with the number of entities a glossary term is assigned to.
+     *
+     * @param limit maximum number of entities to return; -1 for no limit
+     */
+    public List<AtlasRelatedObjectId> getRelatedObjectIds(AtlasVertex entityVertex, AtlasAttribute attribute, int offset, int limit, SortOrder sortOrder) throws AtlasBaseException {
+        Iterator<AtlasEdge> edges    = getRelationshipEdges(entityVertex, attribute);
+        int                 maxCount = limit < 0 ? Integer.MAX_VALUE : (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        List<AtlasEdge>     page     = new ArrayList<>();
+
+        if (edges == null || maxCount <= offset) {
+            return new ArrayList<>();
+        }
+
+        if (sortOrder == null) {
+            int skipped = 0;
+
+            while (edges.hasNext() && page.size() < maxCount - offset) {
+                AtlasEdge edge = edges.next();
+
+                if (!isActiveRelationship(edge)) {
+                    continue;
+                }
+
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page.add(edge);
+                }
+            }
+        } else {
+            Comparator<RelatedEdge>    comparator  = sortOrder == SortOrder.DESCENDING ? RelatedEdge.COMPARATOR.reversed() : RelatedEdge.COMPARATOR;
+            PriorityQueue<RelatedEdge> topEdges    = new PriorityQueue<>(Math.min(maxCount, 1024), comparator.reversed()); // head is the last in sort order
+
+            while (edges.hasNext()) {
+                AtlasEdge edge = edges.next();
+
+                if (!isActiveRelationship(edge)) {
+                    continue;
+                }
+
+                AtlasVertex referenceVertex = getRelatedVertex(entityVertex, edge);
+                Object      displayText     = getDisplayText(referenceVertex, getTypeName(referenceVertex));
+                RelatedEdge candidate       = new RelatedEdge(edge, displayText != null ? displayText.toString() : null);
+
+                if (topEdges.size() < maxCount) {
+                    topEdges.add(candidate);
+                } else if (comparator.compare(candidate, topEdges.peek()) < 0) {
+                    topEdges.poll();
+                    topEdges.add(candidate);
+                }
+            }
+
+            List<RelatedEdge> sorted = new ArrayList<>(topEdges);
+
+            sorted.sort(comparator);
+
+            for (int i = offset; i < sorted.size(); i++) {
+                page.add(sorted.get(i).edge);
+            }
+        }
+
+        List<AtlasRelatedObjectId> ret = new ArrayList<>(page.size());
+
+        for (AtlasEdge edge : page) {
+            AtlasRelatedObjectId relatedObjectId = mapVertexToRelatedObjectId(entityVertex, edge, false, null, true);
+
+            if (relatedObjectId != null) {
+                ret.add(relatedObjectId);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return number of active relationships of entityVertex through the given relationship attribute; related entities are not read
+     */
+    public long getRelatedObjectCount(AtlasVertex entityVertex, AtlasAttribute attribute) {
+        Iterator<AtlasEdge> edges = getRelationshipEdges(entityVertex, attribute);
+        long                ret   = 0;
+
+        while (edges != null && edges.hasNext()) {
+            if (isActiveRelationship(edges.next())) {
+                ret++;
+            }
+        }
+
+        return ret;
+    }
+
+    private Iterator<AtlasEdge> getRelationshipEdges(AtlasVertex entityVertex, AtlasAttribute attribute) {
+        Iterator<AtlasEdge> ret = null;
+
+        if (attribute.getRelationshipEdgeDirection() == IN) {
+            ret = getIncomingEdgesByLabel(entityVertex, attribute.getRelationshipEdgeLabel());
+        } else if (attribute.getRelationshipEdgeDirection() == OUT) {
+            ret = getOutGoingEdgesByLabel(entityVertex, attribute.getRelationshipEdgeLabel());
+        } else if (attribute.getRelationshipEdgeDirection() == BOTH) {
+            ret = getAdjacentEdgesByLabel(entityVertex, AtlasEdgeDirection.BOTH, attribute.getRelationshipEdgeLabel());
+        }
+
+        return ret;
+    }
+
+    private static boolean isActiveRelationship(AtlasEdge edge) {
+        return GraphHelper.elementExists(edge) && GraphHelper.getStatus(edge) == AtlasEntity.Status.ACTIVE;
+    }
+
+    private static AtlasVertex getRelatedVertex(AtlasVertex entityVertex, AtlasEdge edge) {
+        AtlasVertex ret = edge.getInVertex();
+
+        if (StringUtils.equals(getIdFromVertex(ret), getIdFromVertex(entityVertex))) {
+            ret = edge.getOutVertex();
+        }
+
+        return ret;
+    }
+
     private AtlasRelatedObjectId mapVertexToRelatedObjectId(AtlasVertex entityVertex, AtlasEdge edge, boolean isOwnedRef, AtlasEntityExtInfo entityExtInfo, boolean isMinExtInfo) throws AtlasBaseException {
         AtlasRelatedObjectId ret = null;
 
@@ -1469,11 +2206,7 @@ public class EntityGraphRetriever {
                 }
 
                 if (isOwnedRef && entityExtInfo != null) {
-                    if (isMinExtInfo) {
-                        mapVertexToAtlasEntityMin(referenceVertex, entityExtInfo);
-                    } else {
-                        mapVertexToAtlasEntity(referenceVertex, entityExtInfo);
-                    }
+                    mapReferredEntity(entityVertex, referenceVertex, entityExtInfo, isMinExtInfo);
                 }
 
             }
@@ -1482,6 +2215,17 @@ public class EntityGraphRetriever {
         return ret;
     }
 
+    /**
+     * @return the referred entity, after adding it to entityExtInfo; null if the entity is excluded by the bound on referred entities
+     */
+    private AtlasEntity mapReferredEntity(AtlasVertex entityVertex, AtlasVertex referenceVertex, AtlasEntityExtInfo entityExtInfo, boolean isMinExtInfo) throws AtlasBaseException {
+        if (entityExtInfo instanceof BoundedEntityExtInfo && !((BoundedEntityExtInfo) entityExtInfo).include(GraphHelper.getGuid(entityVertex), referenceVertex)) {
+            return null;
+        }
+
+        return isMinExtInfo ? mapVertexToAtlasEntityMin(referenceVertex, entityExtInfo) : mapVertexToAtlasEntity(referenceVertex, entityExtInfo);
+    }
+
     private Object getDisplayText(AtlasVertex entityVertex, String entityTypeName) throws AtlasBaseException {
         return getDisplayText(entityVertex, typeRegistry.getEntityTypeByName(entityTypeName));
     }
@@ -1649,4 +2393,86 @@ public class EntityGraphRetriever {
             relationship.setAttribute(attribute.getName(), attrValue);
         }
     }
+
+    /**
+     * Relationship edge to a related entity, with the display text of the entity, used to sort related entities.
+     */
+    private static class RelatedEdge {
+        // entities without display text are ordered after the rest
+        static final Comparator<RelatedEdge> COMPARATOR = Comparator.comparing((RelatedEdge e) -> e.displayText, Comparator.nullsLast(Comparator.naturalOrder()))
+                                                                    .thenComparing(e -> String.valueOf(e.edge.getId()));
+
+        final AtlasEdge edge;
+        final String    displayText;
+
+        RelatedEdge(AtlasEdge edge, String displayText) {
+            this.edge        = edge;
+            this.displayText = displayText;
+        }
+    }
+
+    /**
+     * Referred entities of an entity being mapped, restricted to a window of the entities directly referred by it.
+     *
+     * Entities directly referred by the entity are only collected while the entity is mapped; the window is then taken
+     * from them in the order of guids, so that consecutive windows neither overlap nor skip entities, irrespective
+     * of the order in which edges are read. With a limit, only the first offset + limit of them are held, hence
+     * memory is bounded by the window and not by the number of references.
+     */
+    private static class BoundedEntityExtInfo extends AtlasEntityExtInfo {
+        private final String                       entityGuid;
+        private final int                          offset;
+        private final int                          limit;
+        private final TreeMap<String, AtlasVertex> referredVertices = new TreeMap<>(); // guid -> vertex, of the first offset + limit entities directly referred by entityGuid
+        private       boolean                      hasMore          = false;
+
+        BoundedEntityExtInfo(String entityGuid, int offset, int limit) {
+            this.entityGuid = entityGuid;
+            this.offset     = Math.max(offset, 0);
+            this.limit      = limit;
+        }
+
+        boolean include(String referringGuid, AtlasVertex referredVertex) {
+            if (!StringUtils.equals(entityGuid, referringGuid)) {
+                return true;
+            }
+
+            String referredGuid = GraphHelper.getGuid(referredVertex);
+
+            if (getReferredEntity(referredGuid) != null) {
+                return true;
+            }
+
+            if (!referredVertices.containsKey(referredGuid)) {
+                referredVertices.put(referredGuid, referredVertex);
+
+                if (limit >= 0 && referredVertices.size() > offset + limit) {
+                    referredVertices.pollLastEntry();
+
+                    hasMore = true;
+                }
+            }
+
+            return false;
+        }
+
+        List<AtlasVertex> getWindow() {
+            List<AtlasVertex> ret   = new ArrayList<>();
+            int               index = 0;
+
+            for (AtlasVertex referredVertex : referredVertices.values()) {
+                if (index >= offset) {
+                    ret.add(referredVertex);
+                }
+
+                index++;
+            }
+
+            return ret;
+        }
+
+        boolean hasMore() {
+            return hasMore;
+        }
+    }
 }
@@ -0,0 +1,315 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.listener.ChangedTypeDefs;
+import org.apache.atlas.listener.TypeDefChangeListener;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.collections.MapUtils;
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.atlas.repository.Constants.MODIFICATION_TIMESTAMP_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.VERSION_PROPERTY_KEY;
+
+/**
+ * Size-bounded cache of committed entity snapshots, used to serve entity reads by guid without re-reading the entity
+ * from the graph.
+ *
+ * Snapshots are held in a Guava cache, bounded by the total size of the snapshots, and are stored serialized, so that
+ * callers always receive a private copy. Java serialization is used rather than JSON, as it keeps the types of
+ * attribute values - like AtlasObjectId and Date - that callers of the entity store expect. Each snapshot records the
+ * version and modification timestamp of the entity vertex, which are verified on every read. Snapshots are invalidated
+ * after commit of a transaction that updates the entity, or any of the entities it refers to. All snapshots are
+ * discarded on type-definition changes.
+ */
+@Component
+public class EntitySnapshotCache implements TypeDefChangeListener {
+    private static final Logger LOG = LoggerFactory.getLogger(EntitySnapshotCache.class);
+
+    private static final int CONCURRENCY_LEVEL = 4;
+
+    private final boolean                      isEnabled;
+    private final Cache<String, CacheEntry>    entries;
+    private final Map<String, Set<CacheEntry>> entriesByGuid = new ConcurrentHashMap<>(); // guid -> entries that include the entity
+    private final AtomicLong                   generation    = new AtomicLong();          // incremented on every invalidation
+    private final AtomicLong                   hitCount      = new AtomicLong();
+    private final AtomicLong                   missCount     = new AtomicLong();
+
+    public EntitySnapshotCache() {
+        this(AtlasConfiguration.ENTITY_SNAPSHOT_CACHE_ENABLED.getBoolean(), AtlasConfiguration.ENTITY_SNAPSHOT_CACHE_MAX_SIZE_MB.getLong() * 1024 * 1024, CONCURRENCY_LEVEL);
+    }
+
+    @VisibleForTesting
+    EntitySnapshotCache(boolean isEnabled, long maxSizeBytes, int concurrencyLevel) {
+        this.isEnabled = isEnabled && maxSizeBytes > 0;
+        this.entries   = CacheBuilder.newBuilder()
+                                     .maximumWeight(Math.max(maxSizeBytes, 0))
+                                     .weigher((String key, CacheEntry entry) -> entry.snapshot.length)
+                                     .concurrencyLevel(concurrencyLevel)
+                                     .removalListener(this::onRemoval)
+                                     .recordStats()
+                                     .build();
+
+        LOG.info("EntitySnapshotCache: isEnabled={}, maxSizeBytes={}", this.isEnabled, maxSizeBytes);
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    @Override
+    public void onChange(ChangedTypeDefs changedTypeDefs) {
+        if (isEnabled) {
+            clear();
+        }
+    }
+
+    @Override
+    public void onLoadCompletion() {
+        // nothing to do
+    }
+
+    /**
+     * @return the cached snapshot of the entity, if it is current; null otherwise
+     */
+    public AtlasEntityWithExtInfo get(String guid, boolean isMinExtInfo, boolean ignoreRelationships) {
+        if (!isUsable()) {
+            return null;
+        }
+
+        String     key   = getKey(guid, isMinExtInfo, ignoreRelationships);
+        CacheEntry entry = entries.getIfPresent(key);
+
+        if (entry == null) {
+            missCount.incrementAndGet();
+
+            return null;
+        }
+
+        AtlasVertex vertex = AtlasGraphUtilsV2.findByGuid(guid);
+
+        if (vertex == null || !entry.isCurrent(vertex)) {
+            missCount.incrementAndGet();
+
+            entries.asMap().remove(key, entry);
+
+            return null;
+        }
+
+        hitCount.incrementAndGet();
+
+        return SerializationUtils.deserialize(entry.snapshot);
+    }
+
+    /**
+     * @return value to pass to put(), for an entity read after this call
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Adds the given entity to the cache. The entity is not added if any entity was invalidated since the given
+     * generation, as the entity may have been read before the invalidation.
+     */
+    public void put(String guid, boolean isMinExtInfo, boolean ignoreRelationships, AtlasEntityWithExtInfo entity, long readGeneration) {
+        if (!isUsable() || entity == null || entity.getEntity() == null || generation.get() != readGeneration) {
+            return;
+        }
+
+        AtlasVertex vertex = AtlasGraphUtilsV2.findByGuid(guid);
+
+        if (vertex == null) {
+            return;
+        }
+
+        final byte[] snapshot;
+
+        try {
+            snapshot = SerializationUtils.serialize(entity);
+        } catch (SerializationException excp) {
+            LOG.warn("EntitySnapshotCache: failed to serialize entity {}. It will not be cached", guid, excp);
+
+            return;
+        }
+
+        Set<String> guids = new HashSet<>();
+
+        guids.add(guid);
+
+        if (MapUtils.isNotEmpty(entity.getReferredEntities())) {
+            guids.addAll(entity.getReferredEntities().keySet());
+        }
+
+        CacheEntry entry = new CacheEntry(getKey(guid, isMinExtInfo, ignoreRelationships), vertex, snapshot, guids);
+
+        // the entry is indexed before it is added, and is removed if an invalidation ran meanwhile: an invalidation
+        // either finds the entry through the index, or is seen by the check below
+        for (String entryGuid : guids) {
+            entriesByGuid.compute(entryGuid, (k, guidEntries) -> {
+                Set<CacheEntry> ret = guidEntries != null ? guidEntries : new HashSet<>();
+
+                ret.add(entry);
+
+                return ret;
+            });
+        }
+
+        entries.put(entry.key, entry);
+
+        if (generation.get() != readGeneration) {
+            entries.asMap().remove(entry.key, entry);
+        }
+    }
+
+    /**
+     * Invalidates cached snapshots that include the given entities, once the current graph transaction completes.
+     * Snapshots are invalidated even if the transaction fails, as the entities might have been read by another thread
+     * in the meantime.
+     */
+    public void invalidateOnCommit(Collection<String> guids) {
+        if (!isEnabled || CollectionUtils.isEmpty(guids)) {
+            return;
+        }
+
+        final List<String> toInvalidate = new ArrayList<>(guids);
+
+        new GraphTransactionInterceptor.PostTransactionHook() {
+            @Override
+            public void onComplete(boolean isSuccess) {
+                invalidate(toInvalidate);
+            }
+        };
+    }
+
+    public void invalidate(Collection<String> guids) {
+        generation.incrementAndGet();
+
+        for (String guid : guids) {
+            Set<CacheEntry> guidEntries = entriesByGuid.remove(guid);
+
+            if (guidEntries != null) {
+                for (CacheEntry entry : guidEntries) {
+                    entries.asMap().remove(entry.key, entry);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+
+        entries.invalidateAll();
+        entriesByGuid.clear();
+    }
+
+    public long getSize() {
+        entries.cleanUp();
+
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return entries.stats().evictionCount();
+    }
+
+    // snapshots are not used while the current request has updated entities, which are not committed yet
+    private boolean isUsable() {
+        if (!isEnabled) {
+            return false;
+        }
+
+        RequestContext context = RequestContext.get();
+
+        return context.getUpdatedEntities().isEmpty() && context.getDeletedEntities().isEmpty() &&
+               context.getAddedPropagations().isEmpty() && context.getRemovedPropagations().isEmpty();
+    }
+
+    // entries are indexed by identity, so that removal of an entry leaves the index of an entry that replaced it
+    private void onRemoval(RemovalNotification<String, CacheEntry> notification) {
+        CacheEntry entry = notification.getValue();
+
+        if (entry == null) {
+            return;
+        }
+
+        for (String guid : entry.guids) {
+            entriesByGuid.computeIfPresent(guid, (k, guidEntries) -> {
+                guidEntries.remove(entry);
+
+                return guidEntries.isEmpty() ? null : guidEntries;
+            });
+        }
+    }
+
+    private static String getKey(String guid, boolean isMinExtInfo, boolean ignoreRelationships) {
+        return guid + (isMinExtInfo ? ":min" : ":full") + (ignoreRelationships ? ":norel" : ":rel");
+    }
+
+    private static class CacheEntry {
+        final String      key;
+        final Long        version;
+        final Long        modificationTimestamp;
+        final byte[]      snapshot;
+        final Set<String> guids;
+
+        CacheEntry(String key, AtlasVertex vertex, byte[] snapshot, Set<String> guids) {
+            this.key                   = key;
+            this.version               = vertex.getProperty(VERSION_PROPERTY_KEY, Long.class);
+            this.modificationTimestamp = vertex.getProperty(MODIFICATION_TIMESTAMP_PROPERTY_KEY, Long.class);
+            this.snapshot              = snapshot;
+            this.guids                 = guids;
+        }
+
+        boolean isCurrent(AtlasVertex vertex) {
+            return Objects.equals(version, vertex.getProperty(VERSION_PROPERTY_KEY, Long.class)) &&
+                   Objects.equals(modificationTimestamp, vertex.getProperty(MODIFICATION_TIMESTAMP_PROPERTY_KEY, Long.class));
+        }
+    }
+}
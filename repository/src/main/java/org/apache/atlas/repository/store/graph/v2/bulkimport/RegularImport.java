@@ -20,16 +20,23 @@ package org.apache.atlas.repository.store.graph.v2.bulkimport;
 
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContext;
 import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.impexp.AtlasImportResult;
 import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
 import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasStruct;
 import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AtlasSchemaViolationException;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
@@ -46,10 +53,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.apache.atlas.repository.Constants.HISTORICAL_GUID_PROPERTY_KEY;
 import static org.apache.atlas.repository.store.graph.v2.BulkImporterImpl.updateImportProgress;
@@ -57,10 +72,12 @@ import static org.apache.atlas.repository.store.graph.v2.BulkImporterImpl.update
 public class RegularImport extends ImportStrategy {
     private static final Logger LOG = LoggerFactory.getLogger(RegularImport.class);
     private static final int MAX_ATTEMPTS = 3;
+    private static final int WAVE_BATCHES_PER_WORKER = 4;
     private final AtlasEntityStore entityStore;
     private final AtlasTypeRegistry typeRegistry;
     private final EntityGraphRetriever entityGraphRetriever;
     private boolean directoryBasedImportConfigured;
+    private int lastCheckpoint = -1;
 
     public RegularImport(AtlasEntityStore entityStore, AtlasTypeRegistry typeRegistry) {
         this.entityStore = entityStore;
@@ -82,6 +99,12 @@ public class RegularImport extends ImportStrategy {
         EntityMutationResponse ret = new EntityMutationResponse();
         ret.setGuidAssignments(new HashMap<>());
 
+        int numWorkers = importResult.getRequest() != null ? importResult.getRequest().getOptionKeyNumWorkers() : 1;
+
+        if (numWorkers > 1) {
+            return runParallel(entityStream, importResult, ret, numWorkers, Math.max(importResult.getRequest().getOptionKeyBatchSize(), 1));
+        }
+
         Set<String> processedGuids = new HashSet<>();
         float        currentPercent = 0f;
         List<String> residualList   = new ArrayList<>();
@@ -96,58 +119,321 @@ public class RegularImport extends ImportStrategy {
                 continue;
             }
 
-            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
-                try {
-                    AtlasEntityStreamForImport oneEntityStream = new AtlasEntityStreamForImport(entityWithExtInfo, null);
-                    EntityMutationResponse resp = entityStore.createOrUpdateForImport(oneEntityStream);
+            EntityMutationResponse resp = importEntity(entityWithExtInfo, residualList);
+
+            if (resp != null) {
+                if (resp.getGuidAssignments() != null) {
+                    ret.getGuidAssignments().putAll(resp.getGuidAssignments());
+                }
+
+                currentPercent = updateImportMetrics(entityWithExtInfo, resp, importResult, processedGuids,
+                        entityStream.getPosition(),
+                        entityImportStreamWithResidualList.getStreamSize(),
+                        currentPercent);
+
+                entityStream.onImportComplete(entity.getGuid());
+            }
+        }
+
+        importResult.getProcessedEntities().addAll(processedGuids);
+        LOG.info("bulkImport(): done. Total number of entities (including referred entities) imported: {}", processedGuids.size());
+
+        return ret;
+    }
+
+    /**
+     * Imports entities on multiple threads, in the order given by the export's entity creation order.
+     *
+     * Entities are read into waves; a wave ends before an entity that refers to, or is referred along with, an entity
+     * already in the wave. Entities in a wave are imported concurrently, in batches of batchSize entities per graph
+     * transaction. A wave completes before the next one starts, so the entity position logged after each wave is a
+     * checkpoint: the import can be resumed from it using startPosition or startGuid options. Entities left to be retried
+     * after all waves hold the checkpoint back to the position before the first of them, so that they are not skipped
+     * on resume.
+     */
+    private EntityMutationResponse runParallel(EntityImportStream entityStream, AtlasImportResult importResult, EntityMutationResponse ret,
+                                               int numWorkers, int batchSize) throws AtlasBaseException {
+        LOG.info("bulkImport(): numWorkers={}, batchSize={}", numWorkers, batchSize);
+
+        Set<String>     processedGuids = new HashSet<>();
+        List<String>    residualList   = new ArrayList<>();
+        ImportWave      wave           = new ImportWave(numWorkers * batchSize * WAVE_BATCHES_PER_WORKER);
+        ExecutorService executor       = Executors.newFixedThreadPool(numWorkers, new ThreadFactoryBuilder().setNameFormat("atlas-import-%d").setDaemon(true).build());
+        float           currentPercent = 0f;
+
+        try {
+            while (entityStream.hasNext()) {
+                AtlasEntityWithExtInfo entityWithExtInfo = entityStream.getNextEntityWithExtInfo();
+                AtlasEntity            entity            = entityWithExtInfo != null ? entityWithExtInfo.getEntity() : null;
+
+                if (entity == null) {
+                    continue;
+                }
+
+                ImportItem item = new ImportItem(entityWithExtInfo, entityStream.getPosition());
+
+                if (!wave.canAdd(item)) {
+                    currentPercent = importWave(wave, entityStream, importResult, ret, processedGuids, residualList, executor, batchSize, currentPercent);
+                }
+
+                wave.add(item);
+            }
+
+            currentPercent = importWave(wave, entityStream, importResult, ret, processedGuids, residualList, executor, batchSize, currentPercent);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // entities that referred to entities not yet imported are retried serially, once all other entities are imported
+        List<String> unresolvedList = new ArrayList<>();
+
+        for (String guid : residualList) {
+            entityStream.setPositionUsingEntityGuid(guid);
+
+            AtlasEntityWithExtInfo entityWithExtInfo = entityStream.getNextEntityWithExtInfo();
+
+            if (entityWithExtInfo == null || entityWithExtInfo.getEntity() == null) {
+                continue;
+            }
+
+            EntityMutationResponse resp = importEntity(entityWithExtInfo, unresolvedList);
+
+            if (resp != null) {
+                if (resp.getGuidAssignments() != null) {
+                    ret.getGuidAssignments().putAll(resp.getGuidAssignments());
+                }
+
+                currentPercent = updateImportMetrics(entityWithExtInfo, resp, importResult, processedGuids, entityStream.getPosition(), entityStream.size() + residualList.size(), currentPercent);
+
+                entityStream.onImportComplete(guid);
+            }
+        }
+
+        if (!unresolvedList.isEmpty()) {
+            LOG.warn("bulkImport(): {} entities were not imported, as they refer to entities not found: {}", unresolvedList.size(), unresolvedList);
+        }
+
+        importResult.getProcessedEntities().addAll(processedGuids);
+        LOG.info("bulkImport(): done. Total number of entities (including referred entities) imported: {}", processedGuids.size());
+
+        return ret;
+    }
+
+    private float importWave(ImportWave wave, EntityImportStream entityStream, AtlasImportResult importResult, EntityMutationResponse ret,
+                             Set<String> processedGuids, List<String> residualList, ExecutorService executor, int batchSize, float currentPercent) throws AtlasBaseException {
+        if (wave.isEmpty()) {
+            return currentPercent;
+        }
+
+        RequestContext            requestContext = RequestContext.get();
+        List<Future<BatchResult>> futures        = new ArrayList<>();
+
+        try {
+            for (List<ImportItem> batch : Lists.partition(wave.getItems(), batchSize)) {
+                futures.add(executor.submit(() -> importBatch(batch, requestContext)));
+            }
+
+            for (Future<BatchResult> future : futures) {
+                BatchResult result = future.get();
+
+                residualList.addAll(result.residualGuids);
+
+                for (ImportItem item : result.items) {
+                    if (!result.responses.containsKey(item)) {
+                        wave.setPending(item);
+                    }
+                }
+
+                for (Map.Entry<ImportItem, EntityMutationResponse> entry : result.responses.entrySet()) {
+                    ImportItem             item = entry.getKey();
+                    EntityMutationResponse resp = entry.getValue();
 
                     if (resp.getGuidAssignments() != null) {
                         ret.getGuidAssignments().putAll(resp.getGuidAssignments());
                     }
 
-                    currentPercent = updateImportMetrics(entityWithExtInfo, resp, importResult, processedGuids,
-                            entityStream.getPosition(),
-                            entityImportStreamWithResidualList.getStreamSize(),
-                            currentPercent);
+                    currentPercent = updateImportMetrics(item.entityWithExtInfo, resp, importResult, processedGuids, item.position, entityStream.size(), currentPercent);
 
-                    entityStream.onImportComplete(entity.getGuid());
-                    break;
-                } catch (AtlasBaseException e) {
-                    if (!updateResidualList(e, residualList, entityWithExtInfo.getEntity().getGuid())) {
-                        throw e;
-                    }
-                    break;
-                } catch (AtlasSchemaViolationException e) {
-                    if (LOG.isDebugEnabled()) {
-                        LOG.debug("Entity: {}", entity.getGuid(), e);
-                    }
+                    entityStream.onImportComplete(item.getGuid());
+                }
+            }
+        } catch (ExecutionException excp) {
+            Throwable cause = excp.getCause();
 
-                    if (attempt == 0) {
-                        updateVertexGuid(entity);
-                    } else {
-                        LOG.error("Guid update failed: {}", entityWithExtInfo.getEntity().getGuid());
-                        throw e;
-                    }
-                } catch (Throwable e) {
-                    AtlasBaseException abe = new AtlasBaseException(e);
-                    if (!updateResidualList(abe, residualList, entityWithExtInfo.getEntity().getGuid())) {
-                        throw abe;
+            if (cause instanceof AtlasBaseException) {
+                throw (AtlasBaseException) cause;
+            }
+
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, cause, cause.getMessage());
+        } catch (InterruptedException excp) {
+            Thread.currentThread().interrupt();
+
+            throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, excp, excp.getMessage());
+        } finally {
+            for (Future<BatchResult> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        ImportItem last = wave.getLastItem();
+
+        if (wave.getFirstPendingPosition() == -1) {
+            lastCheckpoint = last.position;
+
+            LOG.info("bulkImport(): checkpoint: entity:last-imported:{}:[{}]:({})", last.entityWithExtInfo.getEntity().getTypeName(), last.position, last.getGuid());
+        } else {
+            lastCheckpoint = wave.getFirstPendingPosition() - 1;
+
+            LOG.info("bulkImport(): checkpoint: position {}; entities from position {} are pending retry", lastCheckpoint, wave.getFirstPendingPosition());
+        }
+
+        wave.clear();
+
+        return currentPercent;
+    }
+
+    // runs in a worker thread: imports the batch in one transaction; on failure, imports entities of the batch one at a time
+    private BatchResult importBatch(List<ImportItem> batch, RequestContext requestContext) throws AtlasBaseException {
+        BatchResult ret = new BatchResult(batch);
+
+        RequestContext.clear();
+        RequestContext.get().copyRequestDetails(requestContext);
+        RequestContext.get().setImportInProgress(true);
+
+        try {
+            if (batch.size() > 1) {
+                try {
+                    AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo();
+
+                    for (ImportItem item : batch) {
+                        entities.addEntity(item.entityWithExtInfo.getEntity());
+
+                        if (item.entityWithExtInfo.getReferredEntities() != null) {
+                            for (AtlasEntity referredEntity : item.entityWithExtInfo.getReferredEntities().values()) {
+                                entities.addReferredEntity(referredEntity);
+                            }
+                        }
                     }
 
-                    LOG.warn("Exception: {}", entity.getGuid(), e);
-                    break;
+                    EntityMutationResponse resp = entityStore.createOrUpdateForImport(new AtlasEntityStreamForImport(entities, null));
+
+                    ret.responses.putAll(splitResponse(batch, resp));
+
+                    return ret;
+                } catch (Throwable t) {
+                    LOG.warn("bulkImport(): import of a batch of {} entities, from position {}, failed; importing them one at a time", batch.size(), batch.get(0).position, t);
                 } finally {
                     RequestContext.get().clearCache();
                 }
             }
+
+            for (ImportItem item : batch) {
+                EntityMutationResponse resp = importEntity(item.entityWithExtInfo, ret.residualGuids);
+
+                if (resp != null) {
+                    ret.responses.put(item, resp);
+                }
+            }
+        } finally {
+            GraphTransactionInterceptor.clearCache();
+            RequestContext.clear();
         }
 
-        importResult.getProcessedEntities().addAll(processedGuids);
-        LOG.info("bulkImport(): done. Total number of entities (including referred entities) imported: {}", processedGuids.size());
+        return ret;
+    }
+
+    // reports each mutation of a batch against the entity of the batch it was imported along with
+    private static Map<ImportItem, EntityMutationResponse> splitResponse(List<ImportItem> batch, EntityMutationResponse resp) {
+        Map<ImportItem, EntityMutationResponse> ret             = new LinkedHashMap<>();
+        Map<String, ImportItem>                 itemsByGuid     = new HashMap<>();
+        Map<String, String>                     guidAssignments = resp.getGuidAssignments();
+
+        for (ImportItem item : batch) {
+            EntityMutationResponse itemResp = new EntityMutationResponse();
+
+            for (String guid : item.importedGuids) {
+                itemsByGuid.put(guid, item);
+
+                if (guidAssignments != null && guidAssignments.containsKey(guid)) {
+                    String assignedGuid = guidAssignments.get(guid);
+
+                    itemsByGuid.put(assignedGuid, item);
+
+                    if (itemResp.getGuidAssignments() == null) {
+                        itemResp.setGuidAssignments(new HashMap<>());
+                    }
+
+                    itemResp.getGuidAssignments().put(guid, assignedGuid);
+                }
+            }
+
+            ret.put(item, itemResp);
+        }
+
+        if (resp.getMutatedEntities() != null) {
+            ImportItem last = batch.get(batch.size() - 1);
+
+            for (Map.Entry<EntityOperation, List<AtlasEntityHeader>> entry : resp.getMutatedEntities().entrySet()) {
+                for (AtlasEntityHeader header : entry.getValue()) {
+                    ImportItem item = itemsByGuid.get(header.getGuid());
+
+                    ret.get(item != null ? item : last).addEntity(entry.getKey(), header);
+                }
+            }
+        }
 
         return ret;
     }
 
+    @VisibleForTesting
+    int getLastCheckpoint() {
+        return lastCheckpoint;
+    }
+
+    /**
+     * @return response of the import; null if the entity refers to an entity that is not imported yet, in which case
+     * its guid is added to residualList
+     */
+    private EntityMutationResponse importEntity(AtlasEntityWithExtInfo entityWithExtInfo, List<String> residualList) throws AtlasBaseException {
+        AtlasEntity entity = entityWithExtInfo.getEntity();
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            try {
+                AtlasEntityStreamForImport oneEntityStream = new AtlasEntityStreamForImport(entityWithExtInfo, null);
+
+                return entityStore.createOrUpdateForImport(oneEntityStream);
+            } catch (AtlasBaseException e) {
+                if (!updateResidualList(e, residualList, entity.getGuid())) {
+                    throw e;
+                }
+                break;
+            } catch (AtlasSchemaViolationException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Entity: {}", entity.getGuid(), e);
+                }
+
+                if (attempt == 0) {
+                    updateVertexGuid(entity);
+                } else {
+                    LOG.error("Guid update failed: {}", entity.getGuid());
+                    throw e;
+                }
+            } catch (Throwable e) {
+                AtlasBaseException abe = new AtlasBaseException(e);
+                if (!updateResidualList(abe, residualList, entity.getGuid())) {
+                    throw abe;
+                }
+
+                LOG.warn("Exception: {}", entity.getGuid(), e);
+                break;
+            } finally {
+                RequestContext.get().clearCache();
+            }
+        }
+
+        return null;
+    }
+
     @GraphTransaction
     public void updateVertexGuid(AtlasEntity entity) {
         String entityGuid = entity.getGuid();
@@ -257,4 +543,128 @@ public class RegularImport extends ImportStrategy {
             return stream.size() + residualList.size();
         }
     }
+
+    private static class ImportItem {
+        final AtlasEntityWithExtInfo entityWithExtInfo;
+        final int                    position;
+        final Set<String>            importedGuids   = new HashSet<>(); // guids of the entity and of entities imported along with it
+        final Set<String>            referencedGuids = new HashSet<>(); // guids of entities referred to by these entities
+
+        ImportItem(AtlasEntityWithExtInfo entityWithExtInfo, int position) {
+            this.entityWithExtInfo = entityWithExtInfo;
+            this.position          = position;
+
+            importedGuids.add(getGuid());
+            addReferencedGuids(entityWithExtInfo.getEntity(), referencedGuids);
+
+            if (entityWithExtInfo.getReferredEntities() != null) {
+                for (AtlasEntity referredEntity : entityWithExtInfo.getReferredEntities().values()) {
+                    importedGuids.add(referredEntity.getGuid());
+                    addReferencedGuids(referredEntity, referencedGuids);
+                }
+            }
+        }
+
+        String getGuid() {
+            return entityWithExtInfo.getEntity().getGuid();
+        }
+
+        private static void addReferencedGuids(AtlasEntity entity, Set<String> guids) {
+            if (entity.getAttributes() != null) {
+                addReferencedGuids(entity.getAttributes().values(), guids);
+            }
+
+            if (entity.getRelationshipAttributes() != null) {
+                addReferencedGuids(entity.getRelationshipAttributes().values(), guids);
+            }
+        }
+
+        private static void addReferencedGuids(Object value, Set<String> guids) {
+            if (value instanceof AtlasObjectId) {
+                String guid = ((AtlasObjectId) value).getGuid();
+
+                if (guid != null) {
+                    guids.add(guid);
+                }
+            } else if (value instanceof AtlasStruct) {
+                if (((AtlasStruct) value).getAttributes() != null) {
+                    addReferencedGuids(((AtlasStruct) value).getAttributes().values(), guids);
+                }
+            } else if (value instanceof Map) {
+                Object guid = ((Map) value).get(AtlasObjectId.KEY_GUID);
+
+                if (guid instanceof String) {
+                    guids.add((String) guid);
+                }
+
+                addReferencedGuids(((Map) value).values(), guids);
+            } else if (value instanceof Collection) {
+                for (Object element : (Collection) value) {
+                    addReferencedGuids(element, guids);
+                }
+            }
+        }
+    }
+
+    private static class ImportWave {
+        private final int              maxSize;
+        private final List<ImportItem> items         = new ArrayList<>();
+        private final Set<String>      importedGuids = new HashSet<>();
+        private       int              firstPendingPosition = -1; // position of the first entity, of this or earlier waves, left to be retried
+
+        ImportWave(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        // an entity is not imported concurrently with entities it refers to, or with other entities imported along with its referred entities
+        boolean canAdd(ImportItem item) {
+            if (items.size() >= maxSize) {
+                return false;
+            }
+
+            return Collections.disjoint(importedGuids, item.importedGuids) && Collections.disjoint(importedGuids, item.referencedGuids);
+        }
+
+        void add(ImportItem item) {
+            items.add(item);
+            importedGuids.addAll(item.importedGuids);
+        }
+
+        boolean isEmpty() {
+            return items.isEmpty();
+        }
+
+        List<ImportItem> getItems() {
+            return items;
+        }
+
+        ImportItem getLastItem() {
+            return items.get(items.size() - 1);
+        }
+
+        void setPending(ImportItem item) {
+            if (firstPendingPosition == -1 || item.position < firstPendingPosition) {
+                firstPendingPosition = item.position;
+            }
+        }
+
+        int getFirstPendingPosition() {
+            return firstPendingPosition;
+        }
+
+        void clear() {
+            items.clear();
+            importedGuids.clear();
+        }
+    }
+
+    private static class BatchResult {
+        final List<ImportItem>                        items;
+        final Map<ImportItem, EntityMutationResponse> responses     = new LinkedHashMap<>();
+        final List<String>                            residualGuids = new ArrayList<>();
+
+        BatchResult(List<ImportItem> items) {
+            this.items = items;
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2.tasks;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphMapper;
+import org.apache.atlas.tasks.AbstractTask;
+import org.apache.atlas.tasks.TaskRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory.PARAM_CLASSIFICATION_VERTEX_ID;
+import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory.PARAM_ENTITY_GUID;
+
+/**
+ * Propagates a classification to entities reachable from its associated entity, in batches.
+ *
+ * Each batch is committed in its own transaction, followed by a checkpoint of the number of entities processed, to
+ * report progress. The traversal doesn't return impacted entities in a stable order, and lineage can change between
+ * attempts, so the checkpoint can't identify the entities processed earlier: on a retry or after a restart, the
+ * propagation is run again for all impacted entities. Adding a propagation that already exists is a no-op, hence
+ * entities processed by an earlier attempt are skipped.
+ */
+public class ClassificationPropagationTask extends AbstractTask {
+    private static final Logger LOG = LoggerFactory.getLogger(ClassificationPropagationTask.class);
+
+    private final EntityGraphMapper entityGraphMapper;
+    private final int               batchSize;
+
+    public ClassificationPropagationTask(AtlasTask task, TaskRegistry registry, EntityGraphMapper entityGraphMapper) {
+        this(task, registry, entityGraphMapper, AtlasConfiguration.TASKS_BATCH_SIZE.getInt());
+    }
+
+    @VisibleForTesting
+    ClassificationPropagationTask(AtlasTask task, TaskRegistry registry, EntityGraphMapper entityGraphMapper, int batchSize) {
+        super(task, registry);
+
+        this.entityGraphMapper = entityGraphMapper;
+        this.batchSize         = batchSize;
+    }
+
+    @Override
+    public void run() throws AtlasBaseException {
+        Map<String, Object> parameters             = getTaskDef().getParameters();
+        String              entityGuid             = (String) parameters.get(PARAM_ENTITY_GUID);
+        String              classificationVertexId = (String) parameters.get(PARAM_CLASSIFICATION_VERTEX_ID);
+        List<String>        impactedVertexIds      = entityGraphMapper.getPropagationTargetVertexIds(entityGuid, classificationVertexId);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("==> ClassificationPropagationTask.run(entityGuid={}, classificationVertexId={}): {} entities", entityGuid, classificationVertexId, impactedVertexIds.size());
+        }
+
+        if (getTaskDef().getProcessedCount() > 0) {
+            LOG.info("ClassificationPropagationTask: {} entities were processed by an earlier attempt; propagating to all {} impacted entities again", getTaskDef().getProcessedCount(), impactedVertexIds.size());
+        }
+
+        setTotalCount(impactedVertexIds.size());
+        checkpoint(0);
+
+        for (int fromIdx = 0; fromIdx < impactedVertexIds.size(); fromIdx += batchSize) {
+            int     toIdx     = Math.min(fromIdx + batchSize, impactedVertexIds.size());
+            boolean isPending = entityGraphMapper.propagateClassification(classificationVertexId, impactedVertexIds.subList(fromIdx, toIdx));
+
+            // release entities cached for notifications in the batch just committed
+            RequestContext.get().clearCache();
+
+            checkpoint(toIdx);
+
+            if (!isPending) {
+                LOG.info("ClassificationPropagationTask: classification {} was deleted or no longer propagates; stopping", classificationVertexId);
+
+                break;
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("<== ClassificationPropagationTask.run(entityGuid={}, classificationVertexId={})", entityGuid, classificationVertexId);
+        }
+    }
+}
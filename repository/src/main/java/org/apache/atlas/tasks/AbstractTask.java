@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.tasks.AtlasTask;
+
+public abstract class AbstractTask {
+    private final AtlasTask    task;
+    private final TaskRegistry registry;
+
+    protected AbstractTask(AtlasTask task, TaskRegistry registry) {
+        this.task     = task;
+        this.registry = registry;
+    }
+
+    public AtlasTask getTaskDef() {
+        return task;
+    }
+
+    /**
+     * Runs the task. Implementations must be idempotent: a task that was interrupted (server restart, fail-over)
+     * or that failed is run again. The last checkpoint is available in getTaskDef().getProcessedCount(); a task
+     * should resume from it only if it identifies the work already done regardless of how the work is ordered.
+     */
+    public abstract void run() throws AtlasBaseException;
+
+    protected void setTotalCount(long totalCount) {
+        task.setTotalCount(totalCount);
+    }
+
+    protected void checkpoint(long processedCount) {
+        task.setProcessedCount(processedCount);
+
+        registry.updateStatus(task);
+    }
+}
@@ -0,0 +1,318 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.atlas.service.Service;
+import org.apache.commons.configuration.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs background tasks persisted in TaskRegistry, on a bounded pool of worker threads.
+ *
+ * Tasks are created in the caller's graph transaction and are queued for execution only after that transaction
+ * commits. Tasks that are pending when the server starts (or becomes active in HA mode) are queued as well.
+ *
+ * A failed task is queued again after a delay of attempts * retryBaseDelayMs, until it has been attempted maxAttempts
+ * times; it is then marked FAILED. A retry that is waiting when the instance stops is run on the next activation, as
+ * the task remains pending.
+ */
+@Component
+@Order(6)
+public class TaskManagement implements Service, ActiveStateChangeHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(TaskManagement.class);
+
+    private final Configuration            configuration;
+    private final TaskRegistry             registry;
+    private final boolean                  isEnabled;
+    private final int                      numWorkers;
+    private final int                      maxAttempts;
+    private final long                     retryBaseDelayMs;
+    private final Map<String, TaskFactory>     taskTypeFactoryMap   = new ConcurrentHashMap<>();
+    private final Set<String>                  queuedTaskGuids      = ConcurrentHashMap.newKeySet();
+    private final Map<String, List<AtlasTask>> tasksAwaitingFactory = new HashMap<>(); // task-type -> tasks
+    private       ExecutorService              executorService;
+    private       ScheduledExecutorService     retryScheduler;
+
+    @Inject
+    public TaskManagement(Configuration configuration, TaskRegistry registry) {
+        this(configuration, registry, AtlasConfiguration.TASKS_ENABLED.getBoolean(), AtlasConfiguration.TASKS_WORKER_COUNT.getInt(),
+             AtlasConfiguration.TASKS_MAX_ATTEMPTS.getInt(), AtlasConfiguration.TASKS_RETRY_BASE_DELAY_MS.getLong());
+    }
+
+    @VisibleForTesting
+    TaskManagement(Configuration configuration, TaskRegistry registry, boolean isEnabled, int numWorkers, int maxAttempts, long retryBaseDelayMs) {
+        this.configuration    = configuration;
+        this.registry         = registry;
+        this.isEnabled        = isEnabled;
+        this.numWorkers       = numWorkers;
+        this.maxAttempts      = maxAttempts;
+        this.retryBaseDelayMs = Math.max(retryBaseDelayMs, 0);
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        if (!isEnabled) {
+            LOG.info("TaskManagement.start(): tasks are disabled");
+
+            return;
+        }
+
+        if (!HAConfiguration.isHAEnabled(configuration)) {
+            startInternal();
+        } else {
+            LOG.info("TaskManagement.start(): deferring tasks until instance activation");
+        }
+    }
+
+    @Override
+    public void stop() throws AtlasException {
+        stopInternal();
+
+        LOG.info("TaskManagement.stop(): stopped");
+    }
+
+    @Override
+    public void instanceIsActive() throws AtlasException {
+        if (isEnabled) {
+            startInternal();
+        }
+    }
+
+    @Override
+    public void instanceIsPassive() throws AtlasException {
+        stopInternal();
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.TASK_MANAGEMENT.getOrder();
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    public synchronized void addFactory(TaskFactory factory) {
+        for (String taskType : factory.getSupportedTypes()) {
+            taskTypeFactoryMap.put(taskType, factory);
+
+            // tasks read at startup, before this factory was available, are queued now
+            List<AtlasTask> tasks = tasksAwaitingFactory.remove(taskType);
+
+            if (tasks != null) {
+                for (AtlasTask task : tasks) {
+                    dispatch(task);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a task in the current graph transaction. The task is queued for execution once the transaction commits.
+     */
+    public AtlasTask createTask(String taskType, String createdBy, Map<String, Object> parameters) {
+        final AtlasTask ret = new AtlasTask(UUID.randomUUID().toString(), taskType, createdBy, parameters);
+
+        registry.createVertex(ret);
+
+        new GraphTransactionInterceptor.PostTransactionHook() {
+            @Override
+            public void onComplete(boolean isSuccess) {
+                if (isSuccess) {
+                    dispatch(ret);
+                }
+            }
+        };
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("createTask(): created {}", ret);
+        }
+
+        return ret;
+    }
+
+    public List<AtlasTask> getTasks(List<String> guids) {
+        return registry.getByGuids(guids);
+    }
+
+    private synchronized void startInternal() {
+        if (executorService != null) {
+            return;
+        }
+
+        LOG.info("TaskManagement: starting {} workers", numWorkers);
+
+        executorService = Executors.newFixedThreadPool(numWorkers, new ThreadFactoryBuilder().setNameFormat("atlas-task-%d").setDaemon(true).build());
+        retryScheduler  = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("atlas-task-retry").setDaemon(true).build());
+
+        List<AtlasTask> pendingTasks = registry.getPendingTasks();
+
+        LOG.info("TaskManagement: found {} pending tasks", pendingTasks.size());
+
+        for (AtlasTask task : pendingTasks) {
+            dispatch(task);
+        }
+    }
+
+    private synchronized void stopInternal() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+
+            executorService = null;
+        }
+
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+
+            retryScheduler = null;
+        }
+
+        queuedTaskGuids.clear();
+        tasksAwaitingFactory.clear();
+    }
+
+    private synchronized void dispatch(AtlasTask task) {
+        if (executorService == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("dispatch(): not active. task {} will be run on activation", task.getGuid());
+            }
+
+            return;
+        }
+
+        if (!taskTypeFactoryMap.containsKey(task.getType())) {
+            LOG.info("dispatch(): no factory registered yet for task type {}. task {} will be run once the factory is added", task.getType(), task.getGuid());
+
+            tasksAwaitingFactory.computeIfAbsent(task.getType(), k -> new ArrayList<>()).add(task);
+
+            return;
+        }
+
+        if (queuedTaskGuids.add(task.getGuid())) {
+            executorService.submit(new TaskConsumer(task));
+        }
+    }
+
+    private synchronized void scheduleRetry(AtlasTask task) {
+        if (retryScheduler == null) {
+            return; // not active: the task, still pending, is run on activation
+        }
+
+        long delayMs = task.getAttemptCount() * retryBaseDelayMs;
+
+        LOG.info("TaskManagement: task {} will be retried in {} ms", task.getGuid(), delayMs);
+
+        retryScheduler.schedule(() -> dispatch(task), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private class TaskConsumer implements Runnable {
+        private final AtlasTask task;
+
+        TaskConsumer(AtlasTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            boolean requeue = false;
+
+            try {
+                TaskFactory factory = taskTypeFactoryMap.get(task.getType());
+
+                if (factory == null) {
+                    LOG.warn("TaskManagement: no factory registered for task type {}. task {} will remain pending", task.getType(), task.getGuid());
+
+                    return;
+                }
+
+                RequestContext.clear();
+                RequestContext.get().setUser(task.getCreatedBy(), null);
+
+                task.setStatus(Status.IN_PROGRESS);
+                task.setStartTime(System.currentTimeMillis());
+                task.incrementAttemptCount();
+
+                registry.updateStatus(task);
+
+                LOG.info("TaskManagement: running task {} (type={}, attempt={})", task.getGuid(), task.getType(), task.getAttemptCount());
+
+                factory.create(task).run();
+
+                task.setStatus(Status.COMPLETE);
+                task.setEndTime(System.currentTimeMillis());
+
+                registry.updateStatus(task);
+
+                LOG.info("TaskManagement: completed task {}: processed {} of {}", task.getGuid(), task.getProcessedCount(), task.getTotalCount());
+            } catch (Throwable t) {
+                LOG.error("TaskManagement: task {} failed (attempt={})", task.getGuid(), task.getAttemptCount(), t);
+
+                task.setErrorMessage(t.getMessage());
+
+                if (task.getAttemptCount() < maxAttempts) {
+                    task.setStatus(Status.PENDING);
+
+                    requeue = true;
+                } else {
+                    task.setStatus(Status.FAILED);
+                    task.setEndTime(System.currentTimeMillis());
+                }
+
+                try {
+                    registry.updateStatus(task);
+                } catch (Throwable excp) {
+                    LOG.error("TaskManagement: failed to update status of task {}", task.getGuid(), excp);
+                }
+            } finally {
+                queuedTaskGuids.remove(task.getGuid());
+
+                RequestContext.clear();
+
+                if (requeue) {
+                    scheduleRetry(task);
+                }
+            }
+        }
+    }
+}
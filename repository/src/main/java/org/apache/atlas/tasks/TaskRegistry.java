@@ -0,0 +1,226 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasType;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.atlas.repository.Constants.*;
+import static org.apache.atlas.repository.graphdb.AtlasGraphQuery.ComparisionOperator.EQUAL;
+import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getEncodedProperty;
+import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.setEncodedProperty;
+
+/**
+ * Persists background tasks as vertices in the graph, so that tasks survive restarts and fail-over.
+ */
+@Component
+public class TaskRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(TaskRegistry.class);
+
+    private final AtlasGraph graph;
+
+    @Inject
+    public TaskRegistry(AtlasGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Creates the vertex for the given task in the current graph transaction; caller is responsible for commit.
+     */
+    public AtlasVertex createVertex(AtlasTask task) {
+        AtlasVertex ret = graph.addVertex();
+
+        setEncodedProperty(ret, TASK_GUID_PROPERTY_KEY, task.getGuid());
+        setEncodedProperty(ret, TASK_TYPE_PROPERTY_KEY, task.getType());
+        setEncodedProperty(ret, CREATED_BY_KEY, task.getCreatedBy());
+        setEncodedProperty(ret, TIMESTAMP_PROPERTY_KEY, task.getCreatedTime());
+
+        if (task.getParameters() != null) {
+            setEncodedProperty(ret, TASK_PARAMETERS_PROPERTY_KEY, AtlasType.toJson(task.getParameters()));
+        }
+
+        updateVertex(ret, task);
+
+        return ret;
+    }
+
+    /**
+     * Updates the status and progress of the given task and commits.
+     */
+    public void updateStatus(AtlasTask task) {
+        try {
+            AtlasVertex taskVertex = findByGuid(task.getGuid());
+
+            if (taskVertex != null) {
+                task.setUpdatedTime(System.currentTimeMillis());
+
+                updateVertex(taskVertex, task);
+            } else {
+                LOG.warn("updateStatus(): task vertex not found for guid={}", task.getGuid());
+            }
+        } finally {
+            graph.commit();
+        }
+    }
+
+    public AtlasTask getByGuid(String guid) {
+        try {
+            AtlasVertex taskVertex = findByGuid(guid);
+
+            return taskVertex != null ? toAtlasTask(taskVertex) : null;
+        } finally {
+            graph.commit();
+        }
+    }
+
+    public List<AtlasTask> getByGuids(List<String> guids) {
+        List<AtlasTask> ret = new ArrayList<>();
+
+        if (CollectionUtils.isEmpty(guids)) {
+            return getAll();
+        }
+
+        for (String guid : guids) {
+            AtlasTask task = getByGuid(guid);
+
+            if (task != null) {
+                ret.add(task);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Tasks that have not completed yet - including those that were in progress when the server went down.
+     */
+    public List<AtlasTask> getPendingTasks() {
+        List<AtlasGraphQuery> orConditions = new ArrayList<>();
+        AtlasGraphQuery       query        = graph.query();
+
+        orConditions.add(query.createChildQuery().has(TASK_STATUS_PROPERTY_KEY, EQUAL, Status.PENDING.toString()));
+        orConditions.add(query.createChildQuery().has(TASK_STATUS_PROPERTY_KEY, EQUAL, Status.IN_PROGRESS.toString()));
+
+        query.or(orConditions);
+
+        return getTasks(query);
+    }
+
+    public List<AtlasTask> getAll() {
+        List<AtlasGraphQuery> orConditions = new ArrayList<>();
+        AtlasGraphQuery       query        = graph.query();
+
+        for (Status status : Status.values()) {
+            orConditions.add(query.createChildQuery().has(TASK_STATUS_PROPERTY_KEY, EQUAL, status.toString()));
+        }
+
+        query.or(orConditions);
+
+        return getTasks(query);
+    }
+
+    private List<AtlasTask> getTasks(AtlasGraphQuery query) {
+        List<AtlasTask> ret = new ArrayList<>();
+
+        try {
+            Iterator<AtlasVertex> results = query.vertices().iterator();
+
+            while (results != null && results.hasNext()) {
+                ret.add(toAtlasTask(results.next()));
+            }
+
+            ret.sort(Comparator.comparingLong(AtlasTask::getCreatedTime));
+        } catch (Throwable t) {
+            LOG.warn("getTasks(): Returned empty result!", t);
+        } finally {
+            graph.commit();
+        }
+
+        return ret;
+    }
+
+    private AtlasVertex findByGuid(String guid) {
+        Iterator<AtlasVertex> results = graph.query().has(TASK_GUID_PROPERTY_KEY, guid).vertices().iterator();
+
+        return results.hasNext() ? results.next() : null;
+    }
+
+    private static void updateVertex(AtlasVertex vertex, AtlasTask task) {
+        setEncodedProperty(vertex, TASK_STATUS_PROPERTY_KEY, task.getStatus().toString());
+        setEncodedProperty(vertex, MODIFICATION_TIMESTAMP_PROPERTY_KEY, task.getUpdatedTime());
+        setEncodedProperty(vertex, TASK_ATTEMPT_COUNT_PROPERTY_KEY, task.getAttemptCount());
+        setEncodedProperty(vertex, TASK_START_TIME_PROPERTY_KEY, task.getStartTime());
+        setEncodedProperty(vertex, TASK_END_TIME_PROPERTY_KEY, task.getEndTime());
+        setEncodedProperty(vertex, TASK_TOTAL_COUNT_PROPERTY_KEY, task.getTotalCount());
+        setEncodedProperty(vertex, TASK_PROCESSED_COUNT_PROPERTY_KEY, task.getProcessedCount());
+
+        if (StringUtils.isNotEmpty(task.getErrorMessage())) {
+            setEncodedProperty(vertex, TASK_ERROR_MESSAGE_PROPERTY_KEY, task.getErrorMessage());
+        }
+    }
+
+    private static AtlasTask toAtlasTask(AtlasVertex vertex) {
+        AtlasTask ret        = new AtlasTask();
+        String    parameters = getEncodedProperty(vertex, TASK_PARAMETERS_PROPERTY_KEY, String.class);
+        String    status     = getEncodedProperty(vertex, TASK_STATUS_PROPERTY_KEY, String.class);
+
+        ret.setGuid(getEncodedProperty(vertex, TASK_GUID_PROPERTY_KEY, String.class));
+        ret.setType(getEncodedProperty(vertex, TASK_TYPE_PROPERTY_KEY, String.class));
+        ret.setCreatedBy(getEncodedProperty(vertex, CREATED_BY_KEY, String.class));
+        ret.setCreatedTime(getLong(vertex, TIMESTAMP_PROPERTY_KEY));
+        ret.setUpdatedTime(getLong(vertex, MODIFICATION_TIMESTAMP_PROPERTY_KEY));
+        ret.setStartTime(getLong(vertex, TASK_START_TIME_PROPERTY_KEY));
+        ret.setEndTime(getLong(vertex, TASK_END_TIME_PROPERTY_KEY));
+        ret.setTotalCount(getLong(vertex, TASK_TOTAL_COUNT_PROPERTY_KEY));
+        ret.setProcessedCount(getLong(vertex, TASK_PROCESSED_COUNT_PROPERTY_KEY));
+        ret.setErrorMessage(getEncodedProperty(vertex, TASK_ERROR_MESSAGE_PROPERTY_KEY, String.class));
+        ret.setStatus(status != null ? Status.valueOf(status) : Status.PENDING);
+
+        Integer attemptCount = getEncodedProperty(vertex, TASK_ATTEMPT_COUNT_PROPERTY_KEY, Integer.class);
+
+        ret.setAttemptCount(attemptCount != null ? attemptCount : 0);
+
+        if (parameters != null) {
+            ret.setParameters(AtlasType.fromJson(parameters, Map.class));
+        }
+
+        return ret;
+    }
+
+    private static long getLong(AtlasVertex vertex, String propertyName) {
+        Long ret = getEncodedProperty(vertex, propertyName, Long.class);
+
+        return ret != null ? ret : 0L;
+    }
+}
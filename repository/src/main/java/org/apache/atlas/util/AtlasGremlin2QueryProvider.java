@@ -90,12 +90,6 @@ public class AtlasGremlin2QueryProvider extends AtlasGremlinQueryProvider {
                 return ".hasNot('%s')";
             case COMPARE_NOT_NULL:
                 return ".has('%s')";
-            case RELATIONSHIP_SEARCH:
-                return "g.V('__guid', guid).both(relation).has('__state', within(states))";
-            case RELATIONSHIP_SEARCH_ASCENDING_SORT:
-                return ".order{it.a.getProperty(sortAttributeName) <=> it.b.getProperty(sortAttributeName)}";
-            case RELATIONSHIP_SEARCH_DESCENDING_SORT:
-                return ".order{it.b.getProperty(sortAttributeName) <=> it.a.getProperty(sortAttributeName)}";
             case GREMLIN_SEARCH_RETURNS_VERTEX_ID:
                 return "g.V.range(0,0).collect()";
             case GREMLIN_SEARCH_RETURNS_EDGE_ID:
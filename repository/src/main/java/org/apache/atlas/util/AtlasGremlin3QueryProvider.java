@@ -55,12 +55,6 @@ public class AtlasGremlin3QueryProvider extends AtlasGremlin2QueryProvider {
                 return "g.V().has('__guid', guid).outE(outgoingEdgeLabel).store('e').inV().until(loops().is(eq(processDepth))).repeat(__.inE(incomingEdgeLabel).store('e').outV().outE(outgoingEdgeLabel).store('e').inV()).cap('e').unfold().toList()";
             case TO_RANGE_LIST:
                 return ".range(startIdx, endIdx).toList()";
-            case RELATIONSHIP_SEARCH:
-                return "g.V().has('__guid', guid).bothE(relation).has('__state', within(states)).otherV().has('__state', within(states))";
-            case RELATIONSHIP_SEARCH_ASCENDING_SORT:
-                return ".order().by(sortAttributeName, incr)";
-            case RELATIONSHIP_SEARCH_DESCENDING_SORT:
-                return ".order().by(sortAttributeName, decr)";
             case GREMLIN_SEARCH_RETURNS_VERTEX_ID:
                 return "g.V().range(0,1).toList()";
             case GREMLIN_SEARCH_RETURNS_EDGE_ID:
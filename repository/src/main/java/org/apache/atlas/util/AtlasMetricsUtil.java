@@ -19,8 +19,10 @@ package org.apache.atlas.util;
 
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graph.FullTextIndexer;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
+import org.apache.atlas.repository.store.graph.v2.EntitySnapshotCache;
 import org.apache.atlas.util.AtlasMetricsCounter.StatsReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +53,8 @@ public class AtlasMetricsUtil {
     private static final String STATUS_NOT_CONNECTED = "not-connected";
 
     private final AtlasGraph              graph;
+    private final FullTextIndexer         fullTextIndexer;
+    private final EntitySnapshotCache     entitySnapshotCache;
     private       long                    serverStartTime   = 0;
     private       long                    serverActiveTime  = 0;
     private final Map<String, TopicStats> topicStats        = new HashMap<>();
@@ -61,8 +65,10 @@ public class AtlasMetricsUtil {
     private final AtlasMetricsCounter     entityDeletes     = new AtlasMetricsCounter("entityDeletes");
 
     @Inject
-    public AtlasMetricsUtil(AtlasGraph graph) {
-        this.graph = graph;
+    public AtlasMetricsUtil(AtlasGraph graph, FullTextIndexer fullTextIndexer, EntitySnapshotCache entitySnapshotCache) {
+        this.graph               = graph;
+        this.fullTextIndexer     = fullTextIndexer;
+        this.entitySnapshotCache = entitySnapshotCache;
     }
 
     // visible only for testing
@@ -189,6 +195,20 @@ public class AtlasMetricsUtil {
         ret.put(STAT_NOTIFY_UPDATES_COUNT_PREV_DAY, entityUpdates.getCount(PREV_DAY));
         ret.put(STAT_NOTIFY_DELETES_COUNT_PREV_DAY, entityDeletes.getCount(PREV_DAY));
 
+        if (fullTextIndexer != null && fullTextIndexer.isEnabled()) {
+            ret.put(STAT_FULLTEXT_PENDING_COUNT,     fullTextIndexer.getPendingCount());
+            ret.put(STAT_FULLTEXT_LAG,               fullTextIndexer.getLagMs());
+            ret.put(STAT_FULLTEXT_INDEXED_COUNT,     fullTextIndexer.getIndexedCount());
+            ret.put(STAT_FULLTEXT_LAST_INDEXED_TIME, fullTextIndexer.getLastIndexedTime());
+        }
+
+        if (entitySnapshotCache != null && entitySnapshotCache.isEnabled()) {
+            ret.put(STAT_ENTITY_CACHE_SIZE,           entitySnapshotCache.getSize());
+            ret.put(STAT_ENTITY_CACHE_HIT_COUNT,      entitySnapshotCache.getHitCount());
+            ret.put(STAT_ENTITY_CACHE_MISS_COUNT,     entitySnapshotCache.getMissCount());
+            ret.put(STAT_ENTITY_CACHE_EVICTION_COUNT, entitySnapshotCache.getEvictionCount());
+        }
+
         return ret;
     }
 
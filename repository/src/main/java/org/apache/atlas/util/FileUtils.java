@@ -36,6 +36,7 @@ import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.apache.atlas.repository.Constants.SupportedFileExtensions.*;
 
@@ -53,14 +54,12 @@ public class FileUtils {
 
     public static List<String[]> readFileData(String fileName, InputStream inputStream) throws IOException, AtlasBaseException {
         List<String[]>                        ret;
-        String                                extension     = FilenameUtils.getExtension(fileName);
+        String                                extension     = getFileExtension(fileName);
 
         if (extension.equalsIgnoreCase(CSV.name())) {
             ret = readCSV(inputStream);
-        } else if (extension.equalsIgnoreCase(XLS.name()) || extension.equalsIgnoreCase(XLSX.name())) {
-            ret = readExcel(inputStream, extension);
         } else {
-            throw new AtlasBaseException(AtlasErrorCode.INVALID_FILE_TYPE);
+            ret = readExcel(inputStream, extension);
         }
 
         if (CollectionUtils.isEmpty(ret)) {
@@ -70,6 +69,66 @@ public class FileUtils {
         return ret;
     }
 
+    /**
+     * Reads records of the file one at a time, without holding all records of a CSV file in memory.
+     *
+     * @return number of records read
+     */
+    public static long readFileData(String fileName, InputStream inputStream, Consumer<String[]> recordConsumer) throws IOException, AtlasBaseException {
+        long   ret       = 0;
+        String extension = getFileExtension(fileName);
+
+        if (extension.equalsIgnoreCase(CSV.name())) {
+            try (CSVReader csvReader = new CSVReader(new InputStreamReader(inputStream))) {
+                String[] header = csvReader.readNext();
+
+                if (header != null && header.length > 0) {
+                    String[] data;
+
+                    while ((data = csvReader.readNext()) != null) {
+                        if (data.length > 1) {
+                            recordConsumer.accept(data);
+
+                            ret++;
+                        }
+                    }
+                }
+            }
+        } else {
+            for (String[] data : readExcel(inputStream, extension)) {
+                recordConsumer.accept(data);
+
+                ret++;
+            }
+        }
+
+        if (ret == 0) {
+            throw new AtlasBaseException(AtlasErrorCode.NO_DATA_FOUND);
+        }
+
+        return ret;
+    }
+
+    /**
+     * @throws AtlasBaseException if the given file name is not of a supported file type
+     */
+    public static void validateFileType(String fileName) throws AtlasBaseException {
+        getFileExtension(fileName);
+    }
+
+    /**
+     * @return extension of the given file name, if it is of a supported file type
+     */
+    public static String getFileExtension(String fileName) throws AtlasBaseException {
+        String extension = FilenameUtils.getExtension(fileName);
+
+        if (!extension.equalsIgnoreCase(CSV.name()) && !extension.equalsIgnoreCase(XLS.name()) && !extension.equalsIgnoreCase(XLSX.name())) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_FILE_TYPE);
+        }
+
+        return extension;
+    }
+
     public static List<String[]> readCSV(InputStream inputStream) throws IOException {
         List<String[]> ret = new ArrayList<>();
 
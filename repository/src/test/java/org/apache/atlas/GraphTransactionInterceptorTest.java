@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.atlas.annotation.GraphTransaction;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class GraphTransactionInterceptorTest {
+    private static final String EDGE_LABEL = "__testEdge";
+
+    @AfterMethod
+    public void clear() {
+        GraphTransactionInterceptor.clearCache();
+        RequestContext.clear();
+    }
+
+    @Test
+    public void edgesAreCachedWithinInterceptorTransaction() throws Throwable {
+        AtlasEdge   edge   = mock(AtlasEdge.class);
+        AtlasVertex vertex = createVertex(edge);
+
+        runInTransaction(() -> {
+            assertTrue(GraphTransactionInterceptor.isTxnOpen());
+
+            assertSame(GraphTransactionInterceptor.getEdges(vertex, AtlasEdgeDirection.OUT, EDGE_LABEL).next(), edge);
+            assertSame(GraphTransactionInterceptor.getEdges(vertex, AtlasEdgeDirection.OUT, EDGE_LABEL).next(), edge);
+
+            return null;
+        });
+
+        verify(vertex, times(1)).getEdges(AtlasEdgeDirection.OUT, EDGE_LABEL);
+    }
+
+    @Test
+    public void edgesAreNotCachedAfterCommit() throws Throwable {
+        AtlasEdge   edge   = mock(AtlasEdge.class);
+        AtlasVertex vertex = createVertex(edge);
+
+        runInTransaction(() -> GraphTransactionInterceptor.getEdges(vertex, AtlasEdgeDirection.OUT, EDGE_LABEL).next());
+
+        assertFalse(GraphTransactionInterceptor.isTxnOpen());
+
+        // a thread that commits without the interceptor must read edges from the graph, as they may have changed since
+        GraphTransactionInterceptor.getEdges(vertex, AtlasEdgeDirection.OUT, EDGE_LABEL);
+        GraphTransactionInterceptor.getEdges(vertex, AtlasEdgeDirection.OUT, EDGE_LABEL);
+
+        verify(vertex, times(3)).getEdges(AtlasEdgeDirection.OUT, EDGE_LABEL);
+    }
+
+    private static AtlasVertex createVertex(AtlasEdge edge) {
+        AtlasVertex vertex = mock(AtlasVertex.class);
+
+        when(vertex.getId()).thenReturn("vertex-1");
+        when(vertex.getEdges(AtlasEdgeDirection.OUT, EDGE_LABEL)).thenReturn(Collections.singletonList(edge));
+
+        return vertex;
+    }
+
+    private static void runInTransaction(TransactionBody body) throws Throwable {
+        GraphTransactionInterceptor interceptor = new GraphTransactionInterceptor(mock(AtlasGraph.class));
+        MethodInvocation            invocation  = mock(MethodInvocation.class);
+
+        when(invocation.getMethod()).thenReturn(TransactionBody.class.getMethod("run"));
+        when(invocation.proceed()).thenAnswer(i -> body.run());
+
+        interceptor.invoke(invocation);
+    }
+
+    private interface TransactionBody {
+        @GraphTransaction
+        Object run() throws Exception;
+    }
+}
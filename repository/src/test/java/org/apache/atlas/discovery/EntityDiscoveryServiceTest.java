@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.SortOrder;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.query.BasicTestSetup;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.runner.LocalSolrRunner;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.atlas.graph.GraphSandboxUtil.useLocalSolr;
+import static org.testng.Assert.assertEquals;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class EntityDiscoveryServiceTest extends BasicTestSetup {
+    @Inject
+    private EntityDiscoveryService discoveryService;
+
+    @BeforeClass
+    public void setup() throws Exception {
+        if (useLocalSolr()) {
+            LocalSolrRunner.start();
+        }
+
+        setupTestData();
+    }
+
+    @AfterClass
+    public void teardown() throws Exception {
+        AtlasGraphProvider.cleanup();
+
+        if (useLocalSolr()) {
+            LocalSolrRunner.stop();
+        }
+    }
+
+    @Test
+    public void searchRelatedEntitiesPagesSortedAndCountsActiveRelations() throws AtlasBaseException {
+        String tableGuid = entityStore.getByUniqueAttributes(typeRegistry.getEntityTypeByName(HIVE_TABLE_TYPE),
+                                                             Collections.singletonMap("qualifiedName", "Sales.time_dim")).getEntity().getGuid();
+
+        AtlasSearchResult firstPage  = discoveryService.searchRelatedEntities(tableGuid, "columns", "name", SortOrder.ASCENDING, true, 2, 0);
+        AtlasSearchResult secondPage = discoveryService.searchRelatedEntities(tableGuid, "columns", "name", SortOrder.ASCENDING, true, 2, 2);
+        AtlasSearchResult descending = discoveryService.searchRelatedEntities(tableGuid, "columns", "name", SortOrder.DESCENDING, true, 1, 0);
+
+        assertEquals(firstPage.getApproximateCount(), 3);
+        assertEquals(getNames(firstPage), Arrays.asList("dayOfYear", "time_id"));
+        assertEquals(getNames(secondPage), Collections.singletonList("weekDay"));
+        assertEquals(getNames(descending), Collections.singletonList("weekDay"));
+
+        // the column's relationship to the table is read from the other end of the same edge label
+        String weekDayGuid = secondPage.getEntities().get(0).getGuid();
+
+        assertEquals(discoveryService.searchRelatedEntities(weekDayGuid, "table", null, null, true, 10, 0).getApproximateCount(), 1);
+
+        entityStore.deleteById(weekDayGuid);
+
+        AtlasSearchResult activeOnly  = discoveryService.searchRelatedEntities(tableGuid, "columns", "name", SortOrder.ASCENDING, true, 10, 0);
+        AtlasSearchResult withDeleted = discoveryService.searchRelatedEntities(tableGuid, "columns", "name", SortOrder.ASCENDING, false, 10, 0);
+
+        assertEquals(activeOnly.getApproximateCount(), 2);
+        assertEquals(getNames(activeOnly), Arrays.asList("dayOfYear", "time_id"));
+        assertEquals(withDeleted.getApproximateCount(), 3);
+        assertEquals(getNames(withDeleted).size(), 3);
+    }
+
+    private static List<String> getNames(AtlasSearchResult result) {
+        List<String> ret = new ArrayList<>();
+
+        for (AtlasEntityHeader header : result.getEntities()) {
+            ret.add((String) header.getAttribute("name"));
+        }
+
+        return ret;
+    }
+}
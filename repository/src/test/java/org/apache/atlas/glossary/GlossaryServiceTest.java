@@ -20,6 +20,7 @@ package org.apache.atlas.glossary;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.SortOrder;
 import org.apache.atlas.TestModules;
+import org.apache.atlas.bulkimport.BulkImportResponse;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.glossary.AtlasGlossary;
 import org.apache.atlas.model.glossary.AtlasGlossaryCategory;
@@ -36,6 +37,8 @@ import org.apache.atlas.model.instance.AtlasRelatedObjectId;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.model.typedef.AtlasClassificationDef;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.ogm.DataAccess;
+import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.repository.store.graph.v2.AtlasEntityStream;
 import org.apache.atlas.store.AtlasTypeDefStore;
@@ -53,11 +56,13 @@ import org.testng.annotations.Guice;
 import org.testng.annotations.Test;
 
 import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -78,6 +83,10 @@ public class GlossaryServiceTest {
     private AtlasTypeRegistry typeRegistry;
     @Inject
     private AtlasEntityStore entityStore;
+    @Inject
+    private DataAccess dataAccess;
+    @Inject
+    private AtlasRelationshipStore relationshipStore;
 
     private AtlasGlossary     bankGlossary, creditUnionGlossary;
     private AtlasGlossaryTerm checkingAccount, savingsAccount, fixedRateMortgage, adjustableRateMortgage;
@@ -808,6 +817,71 @@ public class GlossaryServiceTest {
         }
     }
 
+    @Test(groups = "Glossary.UPDATE", dependsOnGroups = "Glossary.CREATE")
+    public void testAssignedEntitiesPagingAndCount() {
+        List<AtlasRelatedObjectId> assets = new ArrayList<>();
+
+        try {
+            for (String name : Arrays.asList("pagedAsset-c", "pagedAsset-a", "pagedAsset-b")) {
+                AtlasEntity assetEntity = new AtlasEntity("Asset");
+                assetEntity.setAttribute("qualifiedName", name);
+                assetEntity.setAttribute("name", name);
+
+                AtlasEntityHeader    header = entityStore.createOrUpdate(new AtlasEntityStream(assetEntity), false).getFirstEntityCreated();
+                AtlasRelatedObjectId asset  = new AtlasRelatedObjectId();
+
+                asset.setGuid(header.getGuid());
+                asset.setTypeName(header.getTypeName());
+                assets.add(asset);
+            }
+
+            glossaryService.assignTermToEntities(savingsAccount.getGuid(), assets);
+        } catch (AtlasBaseException e) {
+            fail("Term assignment to assets should've succeeded", e);
+        }
+
+        try {
+            assertEquals(glossaryService.getAssignedEntitiesCount(savingsAccount.getGuid()), 3);
+
+            List<AtlasRelatedObjectId> firstPage  = glossaryService.getAssignedEntities(savingsAccount.getGuid(), 0, 2, SortOrder.ASCENDING);
+            List<AtlasRelatedObjectId> secondPage = glossaryService.getAssignedEntities(savingsAccount.getGuid(), 2, 2, SortOrder.ASCENDING);
+            List<AtlasRelatedObjectId> descending = glossaryService.getAssignedEntities(savingsAccount.getGuid(), 0, 1, SortOrder.DESCENDING);
+            List<AtlasRelatedObjectId> all        = glossaryService.getAssignedEntities(savingsAccount.getGuid(), 0, -1, null);
+
+            assertEquals(firstPage.size(), 2);
+            assertEquals(firstPage.get(0).getDisplayText(), "pagedAsset-a");
+            assertEquals(firstPage.get(1).getDisplayText(), "pagedAsset-b");
+            assertEquals(secondPage.size(), 1);
+            assertEquals(secondPage.get(0).getDisplayText(), "pagedAsset-c");
+            assertEquals(descending.size(), 1);
+            assertEquals(descending.get(0).getDisplayText(), "pagedAsset-c");
+            assertEquals(all.size(), 3);
+
+            for (AtlasRelatedObjectId assigned : all) {
+                for (AtlasRelatedObjectId asset : assets) {
+                    if (asset.getGuid().equals(assigned.getGuid())) {
+                        asset.setRelationshipGuid(assigned.getRelationshipGuid());
+                    }
+                }
+            }
+        } catch (AtlasBaseException e) {
+            fail("Assigned entities fetch should've succeeded", e);
+        }
+
+        try {
+            glossaryService.removeTermFromEntities(savingsAccount.getGuid(), assets);
+
+            assertEquals(glossaryService.getAssignedEntitiesCount(savingsAccount.getGuid()), 0);
+            assertTrue(glossaryService.getAssignedEntities(savingsAccount.getGuid(), 0, -1, SortOrder.ASCENDING).isEmpty());
+
+            for (AtlasRelatedObjectId asset : assets) {
+                entityStore.deleteById(asset.getGuid());
+            }
+        } catch (AtlasBaseException e) {
+            fail("Term dissociation should've succeeded", e);
+        }
+    }
+
     @Test(groups = "Glossary.UPDATE", dependsOnGroups = "Glossary.CREATE")
     public void testTermRelation() {
         AtlasRelatedTermHeader relatedTerm = new AtlasRelatedTermHeader();
@@ -948,6 +1022,37 @@ public class GlossaryServiceTest {
         }
     }
 
+    @Test(dependsOnGroups = {"Glossary.MIGRATE"})
+    public void testImportGlossaryTermsInBatches() {
+        String data = GlossaryTermUtils.getGlossaryTermHeaders() + "\n" +
+                      "testBulkImportGlossary,BulkTerm1,SD1,LD1\n" +
+                      "testBulkImportGlossary,BulkTerm2,SD2,LD2\n" +
+                      "testBulkImportGlossary,BulkTerm1,SD3,LD3\n" +
+                      "testBulkImportGlossary,BulkTerm3,SD4,LD4,,,,,,,,,,,,,,,,\":GentsFootwear\",\n" +
+                      "testBulkImportGlossary,BulkTerm4,SD5,LD5\n";
+
+        try {
+            InputStream          inputStream        = new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+            GlossaryTermImporter importer           = new GlossaryTermImporter(glossaryService, dataAccess, relationshipStore, typeRegistry, 2);
+            BulkImportResponse   bulkImportResponse = importer.importGlossaryTerms(inputStream, "bulkTerms.csv");
+
+            assertEquals(bulkImportResponse.getSuccessImportInfoList().size(), 3);
+            assertEquals(bulkImportResponse.getFailedImportInfoList().size(), 2);
+            assertEquals(bulkImportResponse.getFailedImportInfoList().get(0).getRowNumber(), Integer.valueOf(3));
+            assertEquals(bulkImportResponse.getFailedImportInfoList().get(1).getRowNumber(), Integer.valueOf(4));
+
+            AtlasEntity.AtlasEntityWithExtInfo term = entityStore.getByUniqueAttributes(typeRegistry.getEntityTypeByName(GlossaryUtils.ATLAS_GLOSSARY_TERM_TYPENAME),
+                                                                                      Collections.<String, Object>singletonMap("qualifiedName", "BulkTerm2@testBulkImportGlossary"));
+
+            assertEquals(term.getEntity().getAttribute("shortDescription"), "SD2");
+
+            // the glossary created by the import is deleted, along with its terms, so that other tests don't see it
+            glossaryService.deleteGlossary(glossaryService.getTerm(term.getEntity().getGuid()).getAnchor().getGlossaryGuid());
+        } catch (AtlasBaseException e) {
+            fail("The GlossaryTerms should have been created " + e);
+        }
+    }
+
     @Test
     public void testEmptyFileException() {
         InputStream inputStream = getFile(CSV_FILES, "empty.csv");
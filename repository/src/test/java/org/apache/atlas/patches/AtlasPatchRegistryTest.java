@@ -30,6 +30,7 @@ import javax.inject.Inject;
 import static org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer.TYPEDEF_PATCH_TYPE;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 
 @Guice(modules = TestModules.TestOnlyModule.class)
 public class AtlasPatchRegistryTest {
@@ -67,6 +68,22 @@ public class AtlasPatchRegistryTest {
         assertEquals(patches.getPatches().get(0).getStatus(), expectedStatus);
     }
 
+    @Test(dependsOnMethods = "updateStatusForPatch")
+    public void updateProgressForPatch() {
+        String             patchId  = "1";
+        AtlasPatchRegistry registry = new AtlasPatchRegistry(graph);
+
+        assertNull(registry.getProgress(patchId));
+
+        registry.updateProgress(patchId, "-9223372036854775808:9223372036854775807:100");
+
+        assertEquals(new AtlasPatchRegistry(graph).getProgress(patchId), "-9223372036854775808:9223372036854775807:100");
+
+        registry.updateProgress(patchId, null);
+
+        assertNull(registry.getProgress(patchId));
+    }
+
 
     private AtlasPatch.AtlasPatches assertPatches(AtlasPatchRegistry registry, int i) {
         AtlasPatch.AtlasPatches patches = registry.getAllPatches();
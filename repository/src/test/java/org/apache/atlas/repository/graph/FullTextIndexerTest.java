@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graph;
+
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class FullTextIndexerTest {
+    private static final long WINDOW_MS = 60000; // long enough that the indexer thread doesn't process entities during a test
+
+    @Test
+    public void entitiesOfFailedBatchAreQueuedAgainUpToMaxAttempts() {
+        AtlasGraph      graph   = mock(AtlasGraph.class);
+        FullTextIndexer indexer = new FullTextIndexer(graph, mock(FullTextMapperV2.class), true, 10, WINDOW_MS, 100, 2);
+
+        doThrow(new RuntimeException("commit failed")).when(graph).commit();
+
+        indexer.enqueue(Arrays.asList("guid-1", "guid-2"));
+
+        indexer.processPending();
+
+        assertEquals(indexer.getPendingCount(), 2);
+
+        indexer.processPending();
+
+        assertEquals(indexer.getPendingCount(), 0); // given up after 2 attempts
+        verify(graph, times(2)).rollback();
+    }
+
+    @Test
+    public void entitiesOfFailedBatchAreUpdatedOnRetry() {
+        AtlasGraph      graph   = mock(AtlasGraph.class);
+        FullTextIndexer indexer = new FullTextIndexer(graph, mock(FullTextMapperV2.class), true, 1, WINDOW_MS, 100, 2);
+
+        doThrow(new RuntimeException("commit failed")).doNothing().when(graph).commit();
+
+        indexer.enqueue(Arrays.asList("guid-1", "guid-2"));
+
+        // guid-1 fails and is queued again, behind guid-2; it isn't retried in the same window
+        indexer.processPending();
+
+        assertEquals(indexer.getPendingCount(), 1);
+
+        indexer.processPending();
+
+        assertEquals(indexer.getPendingCount(), 0);
+        verify(graph, times(3)).commit();
+        verify(graph, times(1)).rollback();
+    }
+
+    @Test
+    public void enqueueWaitsForRoomWhenQueueIsFull() throws Exception {
+        AtlasGraph      graph   = mock(AtlasGraph.class);
+        FullTextIndexer indexer = new FullTextIndexer(graph, mock(FullTextMapperV2.class), true, 1, WINDOW_MS, 2, 1) {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+        };
+
+        doNothing().when(graph).commit();
+
+        indexer.start();
+
+        try {
+            indexer.enqueue(Arrays.asList("guid-1", "guid-2"));
+
+            // an entity already pending doesn't need room in the queue
+            indexer.enqueue(Collections.singletonList("guid-1"));
+
+            Thread producer = new Thread(() -> indexer.enqueue(Collections.singletonList("guid-3")));
+
+            producer.start();
+            producer.join(500);
+
+            assertTrue(producer.isAlive());
+            assertEquals(indexer.getPendingCount(), 2);
+
+            indexer.processPending();
+
+            producer.join(10000);
+
+            assertFalse(producer.isAlive());
+            assertEquals(indexer.getPendingCount(), 1);
+        } finally {
+            indexer.stop();
+        }
+
+        // pending entities are processed on stop
+        assertEquals(indexer.getPendingCount(), 0);
+
+        // once stopped, entities beyond the bound are dropped instead of waiting for an indexer that won't run
+        indexer.enqueue(Arrays.asList("guid-4", "guid-5", "guid-6"));
+
+        assertEquals(indexer.getPendingCount(), 2);
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class CompactGuidSetTest {
+    @Test
+    public void addAndContainsUUIDGuids() {
+        CompactGuidSet set   = new CompactGuidSet();
+        List<String>   guids = new ArrayList<>();
+
+        for (int i = 0; i < 10000; i++) {
+            guids.add(UUID.randomUUID().toString());
+        }
+
+        for (String guid : guids) {
+            assertTrue(set.add(guid));
+        }
+
+        for (String guid : guids) {
+            assertFalse(set.add(guid));
+            assertTrue(set.contains(guid));
+        }
+
+        assertEquals(set.size(), guids.size());
+        assertFalse(set.contains(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void addAndContainsOtherGuids() {
+        CompactGuidSet set       = new CompactGuidSet();
+        String         uuidGuid  = UUID.randomUUID().toString();
+        String         upperGuid = uuidGuid.toUpperCase();
+
+        assertTrue(set.add("111-222-333-1"));
+        assertFalse(set.add("111-222-333-1"));
+        assertTrue(set.add(uuidGuid));
+        assertTrue(set.add(upperGuid));
+
+        assertTrue(set.contains("111-222-333-1"));
+        assertTrue(set.contains(uuidGuid));
+        assertTrue(set.contains(upperGuid));
+        assertFalse(set.contains("111-222-333-2"));
+        assertFalse(set.contains(null));
+        assertEquals(set.size(), 3);
+    }
+}
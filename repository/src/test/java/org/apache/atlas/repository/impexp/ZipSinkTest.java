@@ -30,7 +30,6 @@ import org.testng.annotations.Test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -47,23 +46,6 @@ public class ZipSinkTest {
     private AtlasExportResult defaultExportResult;
     private String knownEntityGuidFormat = "111-222-333-%s";
 
-    private class MockOutputStream extends OutputStream {
-        List<byte[]> collected = new ArrayList<>();
-
-        @Override
-        public void write(int b) throws IOException {
-        }
-
-        @Override
-        public void write(byte[] bytes) {
-            collected.add(bytes);
-        }
-
-        public List<byte[]> getCollected()  {
-            return collected;
-        }
-    };
-
     private void initZipSinkWithExportOrder() throws AtlasBaseException {
         zipSink = new ZipSink(byteArrayOutputStream);
         zipSink.setExportOrder(defaultExportOrder);
@@ -227,24 +209,32 @@ public class ZipSinkTest {
     }
 
     @Test
-    public void splitTest() throws IOException {
-        assertSplit("ABCDEFGHIJKLMNOPQRSTUVWXYZ01", 7, new String[] {"ABCDEFG", "HIJKLMN", "OPQRSTU", "VWXYZ01"});
-        assertSplit("ABCDEFGHIJKLMNOPQRSTUVWXYZ", 7, new String[] {"ABCDEFG", "HIJKLMN", "OPQRSTU", "VWXYZ"});
-    }
-
-    private void assertSplit(String msg, int bufferSize, String[] splits) throws IOException {
-        MockOutputStream os = getOutputStream();
-        ZipSink.splitAndWriteBytes(msg, bufferSize, os);
-        assertEquals(os.getCollected().size(), splits.length);
+    public void entityLargerThanOutputBufferIsWrittenWhole() throws AtlasBaseException, IOException {
+        StringBuilder description = new StringBuilder();
 
-        for (int i = 0; i < os.collected.size(); i++) {
-            byte[] bytes = os.getCollected().get(i);
-            String s = new String(bytes);
-            assertEquals(s, splits[i]);
+        while (description.length() < 200 * 1024) {
+            description.append("ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789");
         }
-    }
 
-    private MockOutputStream getOutputStream() {
-        return new MockOutputStream();
+        AtlasEntity entity = new AtlasEntity("hive_table");
+        entity.setGuid(String.format(knownEntityGuidFormat, 0));
+        entity.setAttribute("description", description.toString());
+
+        ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
+        ZipSink zs = new ZipSink(byteOutputStream);
+
+        zs.add(new AtlasEntity.AtlasEntityWithExtInfo(entity));
+        zs.close();
+
+        ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(byteOutputStream.toByteArray()));
+        ZipEntry entry = zipStream.getNextEntry();
+
+        assertEquals(entry.getName(), entity.getGuid() + ".json");
+
+        AtlasEntity.AtlasEntityWithExtInfo read = AtlasType.fromJson(getZipEntryAsStream(zipStream), AtlasEntity.AtlasEntityWithExtInfo.class);
+
+        assertEquals(read.getEntity().getGuid(), entity.getGuid());
+        assertEquals(read.getEntity().getAttribute("description"), description.toString());
+        assertNull(zipStream.getNextEntry());
     }
 }
@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.impexp;
+
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.type.AtlasType;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+public class ZipSourceWithBackingDirectoryTest {
+    @Test
+    public void entriesSpanningSegmentsAreRead() throws Exception {
+        ZipSource                     zipSource        = new ZipSource(ZipFileResourceTestUtils.getFileInputStream("stocks.zip"));
+        // segments much smaller than the entries, so that each entry is read from several segments
+        ZipSourceWithBackingDirectory backedZipSource = new ZipSourceWithBackingDirectory(ZipFileResourceTestUtils.getFileInputStream("stocks.zip"),
+                                                                                           Files.createTempDirectory("temp").toString(), 7);
+
+        try {
+            List<String> creationOrder = backedZipSource.getCreationOrder();
+
+            assertEquals(creationOrder, zipSource.getCreationOrder());
+            assertEquals(AtlasType.toJson(backedZipSource.getTypesDef()), AtlasType.toJson(zipSource.getTypesDef()));
+
+            for (String guid : creationOrder) {
+                AtlasEntityWithExtInfo entity = backedZipSource.getEntityWithExtInfo(guid);
+
+                assertNotNull(entity);
+                assertEquals(AtlasType.toJson(entity), AtlasType.toJson(zipSource.getEntityWithExtInfo(guid)));
+            }
+        } finally {
+            backedZipSource.close();
+        }
+    }
+}
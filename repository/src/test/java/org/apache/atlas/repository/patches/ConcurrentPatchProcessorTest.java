@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.repository.patches;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+import static org.apache.atlas.repository.Constants.ENTITY_TYPE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.STATE_PROPERTY_KEY;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class ConcurrentPatchProcessorTest {
+    private static final String PATCH_ID  = "TEST_PATCH";
+    private static final String TYPE_NAME = "test_type";
+
+    @Test
+    public void verticesOfAllKeysAreProcessed() throws Exception {
+        Map<String, long[]> keyIds = new HashMap<>();
+
+        keyIds.put("A", new long[] { 1, 2, 3, 4, 5 });
+        keyIds.put("B", new long[] { 6, 6, 7, 8 }); // duplicates are processed once, when in the same batch
+        keyIds.put("C", new long[0]);
+
+        PatchContext       context   = createContext(null);
+        TestPatchProcessor processor = new TestPatchProcessor(context, keyIds, null);
+
+        processor.apply();
+
+        assertEquals(new HashSet<>(processor.processedIds), new HashSet<>(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L)));
+        assertEquals(processor.processedIds.size(), 8);
+        assertEquals(processor.scannedKeys, new HashSet<>(Arrays.asList("A", "B", "C")));
+
+        // progress is removed once the patch completes
+        verify(context.getPatchRegistry()).updateProgress(PATCH_ID, null);
+    }
+
+    @Test
+    public void completeKeysAreSkippedOnResume() throws Exception {
+        Map<String, long[]> keyIds = new HashMap<>();
+
+        keyIds.put("A", new long[] { 1, 2 });
+        keyIds.put("B", new long[] { 3, 4 });
+
+        PatchContext       context   = createContext(ConcurrentPatchProcessor.toProgressString(Collections.singletonList("A")));
+        TestPatchProcessor processor = new TestPatchProcessor(context, keyIds, null);
+
+        processor.apply();
+
+        assertEquals(processor.scannedKeys, Collections.singleton("B"));
+        assertEquals(new HashSet<>(processor.processedIds), new HashSet<>(Arrays.asList(3L, 4L)));
+    }
+
+    @Test
+    public void completeKeysAreSavedWhenPatchFails() throws Exception {
+        Map<String, long[]> keyIds = new HashMap<>();
+
+        keyIds.put("A", new long[] { 1, 2, 3 });
+        keyIds.put("B", new long[] { 4, 5, 6 });
+
+        PatchContext       context   = createContext(null);
+        TestPatchProcessor processor = new TestPatchProcessor(context, keyIds, "B");
+
+        try {
+            processor.apply();
+
+            fail("patch should have failed");
+        } catch (AtlasBaseException excp) {
+            // expected
+        }
+
+        verify(context.getPatchRegistry()).updateProgress(PATCH_ID, ConcurrentPatchProcessor.toProgressString(Collections.singletonList("A")));
+        verify(context.getPatchRegistry(), never()).updateProgress(PATCH_ID, null);
+    }
+
+    @Test
+    public void progressRoundTrip() {
+        List<String> keys = Arrays.asList("hive_table", "hive_column");
+
+        assertEquals(ConcurrentPatchProcessor.fromProgressString(ConcurrentPatchProcessor.toProgressString(keys)), new HashSet<>(keys));
+        assertTrue(ConcurrentPatchProcessor.fromProgressString(ConcurrentPatchProcessor.toProgressString(Collections.emptyList())).isEmpty());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void malformedProgressIsRejected() {
+        ConcurrentPatchProcessor.fromProgressString("0:10:0");
+    }
+
+    private static PatchContext createContext(String savedProgress) {
+        PatchContext       context       = mock(PatchContext.class);
+        AtlasGraph         graph         = mock(AtlasGraph.class);
+        AtlasTypeRegistry  typeRegistry  = mock(AtlasTypeRegistry.class);
+        AtlasPatchRegistry patchRegistry = mock(AtlasPatchRegistry.class);
+        AtlasVertex        vertex        = mock(AtlasVertex.class);
+        AtlasEntityType    entityType    = mock(AtlasEntityType.class);
+
+        when(vertex.getProperty(STATE_PROPERTY_KEY, String.class)).thenReturn("ACTIVE");
+        when(vertex.getProperty(ENTITY_TYPE_PROPERTY_KEY, String.class)).thenReturn(TYPE_NAME);
+        when(graph.getVertex(anyString())).thenReturn(vertex);
+        when(typeRegistry.getEntityTypeByName(TYPE_NAME)).thenReturn(entityType);
+        when(patchRegistry.getProgress(PATCH_ID)).thenReturn(savedProgress);
+
+        when(context.getGraph()).thenReturn(graph);
+        when(context.getTypeRegistry()).thenReturn(typeRegistry);
+        when(context.getPatchRegistry()).thenReturn(patchRegistry);
+
+        return context;
+    }
+
+    private static class TestPatchProcessor extends ConcurrentPatchProcessor {
+        final Map<String, long[]> keyIds;
+        final String              failingKey;
+        final Set<String>         scannedKeys  = ConcurrentHashMap.newKeySet();
+        final List<Long>          processedIds = new CopyOnWriteArrayList<>();
+
+        TestPatchProcessor(PatchContext context, Map<String, long[]> keyIds, String failingKey) {
+            super(context, PATCH_ID, 2, 2, 0);
+
+            this.keyIds     = keyIds;
+            this.failingKey = failingKey;
+        }
+
+        @Override
+        protected void prepareForExecution() {
+        }
+
+        @Override
+        protected Collection<String> getScanKeys() {
+            return keyIds.keySet();
+        }
+
+        @Override
+        protected void submitVerticesToUpdate(String scanKey, LongConsumer vertexIds) {
+            scannedKeys.add(scanKey);
+
+            if (scanKey.equals(failingKey)) {
+                throw new IllegalStateException("scan of " + scanKey + " failed");
+            }
+
+            for (long id : keyIds.get(scanKey)) {
+                vertexIds.accept(id);
+            }
+        }
+
+        @Override
+        protected void processVertexItem(Long vertexId, AtlasVertex vertex, String typeName, AtlasEntityType entityType) {
+            processedIds.add(vertexId);
+        }
+    }
+}
@@ -1380,4 +1380,83 @@ public class AtlasEntityStoreV2Test extends AtlasEntityTestBase {
             fail("The BusinessMetadata Attribute should have been assigned " +e);
         }
     }
-}
\ No newline at end of file
+
+    @Test(dependsOnMethods = "testCreate")
+    public void testGetByIdPagesReferredEntitiesInStableOrder() throws Exception {
+        AtlasEntityWithExtInfo   db          = TestUtilsV2.createDBEntityV2();
+        AtlasEntity              tableEntity = TestUtilsV2.createTableEntityV2(db.getEntity()).getEntity();
+        AtlasEntitiesWithExtInfo entities    = new AtlasEntitiesWithExtInfo(tableEntity);
+        List<AtlasObjectId>      columns     = new ArrayList<>();
+
+        entities.addReferredEntity(db.getEntity());
+
+        for (int i = 0; i < 5; i++) {
+            AtlasEntity column = TestUtilsV2.createColumnEntity(tableEntity);
+
+            column.setAttribute(NAME, "col" + i);
+
+            columns.add(AtlasTypeUtil.getAtlasObjectId(column));
+            entities.addReferredEntity(column);
+        }
+
+        tableEntity.setAttribute(COLUMNS_ATTR_NAME, columns);
+
+        init();
+
+        EntityMutationResponse response  = entityStore.createOrUpdate(new AtlasEntityStream(entities), false);
+        String                 tableGuid = response.getFirstCreatedEntityByTypeName(TABLE_TYPE).getGuid();
+        Set<String>            allGuids  = getReferredGuids(entityStore.getById(tableGuid, false, false, null, null), tableGuid);
+        Set<String>            seenGuids = new HashSet<>();
+
+        assertTrue(allGuids.size() >= columns.size());
+
+        for (Integer offset = 0; offset != null; ) {
+            AtlasEntityWithExtInfo page      = entityStore.getById(tableGuid, false, false, null, null, offset, 2);
+            Set<String>            pageGuids = getReferredGuids(page, tableGuid);
+
+            assertTrue(pageGuids.size() <= 2);
+            assertEquals(getReferredGuids(entityStore.getById(tableGuid, false, false, null, null, offset, 2), tableGuid), pageGuids);
+
+            for (String guid : pageGuids) {
+                assertTrue(seenGuids.add(guid), "referred entity " + guid + " returned in more than one page");
+            }
+
+            offset = page.getNextReferredEntitiesOffset();
+        }
+
+        assertEquals(seenGuids, allGuids);
+    }
+
+    @Test(dependsOnMethods = "testCreate")
+    public void testImportBusinessAttributesInBatches() {
+        try {
+            AtlasEntity hive_db_1 = getEntityFromStore(dbEntityGuid);
+            String dbName = (String) hive_db_1.getAttribute("name");
+            String data = TestUtilsV2.getFileData(CSV_FILES, "template_2.csv");
+            data = data.replaceAll("hive_db_1", dbName) + "\nhive_database,no_such_db,bmWithAllTypes.attr8,\"Awesome Attribute 2\",name";
+            InputStream inputStream = new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+            BusinessMetadataImporter importer = new BusinessMetadataImporter(entityStore, typeRegistry, graph, 2, 1);
+            BulkImportResponse bulkImportResponse = importer.importBusinessAttributes(inputStream, "template_2.csv");
+
+            assertEquals(bulkImportResponse.getSuccessImportInfoList().size(), 1);
+            assertEquals(bulkImportResponse.getSuccessImportInfoList().get(0).getRowNumber(), Integer.valueOf(1));
+            assertEquals(bulkImportResponse.getFailedImportInfoList().size(), 1);
+            assertEquals(bulkImportResponse.getFailedImportInfoList().get(0).getRowNumber(), Integer.valueOf(2));
+            assertEquals(getEntityFromStore(dbEntityGuid).getBusinessAttribute("bmWithAllTypes", "attr8"), "Awesome Attribute 1");
+        } catch (Exception e) {
+            fail("The BusinessMetadata Attribute should have been assigned " +e);
+        }
+    }
+
+    private static Set<String> getReferredGuids(AtlasEntityWithExtInfo entity, String entityGuid) {
+        Set<String> ret = new HashSet<>();
+
+        if (entity.getReferredEntities() != null) {
+            ret.addAll(entity.getReferredEntities().keySet());
+        }
+
+        ret.remove(entityGuid);
+
+        return ret;
+    }
+}
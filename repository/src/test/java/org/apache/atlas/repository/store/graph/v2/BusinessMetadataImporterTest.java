@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.bulkimport.BulkImportResponse;
+import org.apache.atlas.bulkimport.BulkImportResponse.ImportInfo;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.audit.EntityAuditEventV2;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.audit.EntityAuditRepository;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graph.GraphBackedSearchIndexer;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.runner.LocalSolrRunner;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.atlas.graph.GraphSandboxUtil.useLocalSolr;
+import static org.apache.atlas.model.audit.EntityAuditEventV2.EntityAuditActionV2.BUSINESS_ATTRIBUTE_UPDATE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class BusinessMetadataImporterTest {
+    private static final String HEADER = "TypeName,UniqueAttributeValue,BusinessAttributeName,BusinessAttributeValue,UniqueAttributeName[optional]";
+
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasEntityStore entityStore;
+
+    @Inject
+    private AtlasGraph graph;
+
+    @Inject
+    private EntityAuditRepository auditRepository;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        RequestContext.clear();
+        RequestContext.get().setUser(TestUtilsV2.TEST_USER, null);
+
+        new GraphBackedSearchIndexer(typeRegistry);
+
+        for (AtlasTypesDef typesDef : new AtlasTypesDef[] { TestUtilsV2.defineHiveTypes(), TestUtilsV2.defineEnumTypes(), TestUtilsV2.defineBusinessMetadataTypes() }) {
+            AtlasTypesDef typesToCreate = AtlasTypeDefStoreInitializer.getTypesToCreate(typesDef, typeRegistry);
+
+            if (!typesToCreate.isEmpty()) {
+                typeDefStore.createTypesDef(typesToCreate);
+            }
+        }
+    }
+
+    @AfterClass
+    public void clear() throws Exception {
+        AtlasGraphProvider.cleanup();
+
+        if (useLocalSolr()) {
+            LocalSolrRunner.stop();
+        }
+    }
+
+    @Test
+    public void failedChunkIsRetriedPerEntityWithoutDuplicateAudits() throws Exception {
+        AtlasEntity db1 = createDatabase();
+        AtlasEntity db2 = createDatabase();
+
+        // all rows are in one chunk: db2's invalid int value fails the chunk after db1 is updated; db1 has more than one row
+        String data = HEADER + "\n" +
+                      row(db1, "bmWithAllTypes.attr8", "first") + "\n" +
+                      row(db2, "bmWithAllTypes.attr4", "not-a-number") + "\n" +
+                      row(db1, "bmWithAllTypes.attr8", "second") + "\n" +
+                      row(db1, "bmWithAllTypes.attr4", "5");
+
+        BusinessMetadataImporter importer = new BusinessMetadataImporter(entityStore, typeRegistry, graph, 1, 10);
+        BulkImportResponse       response = importer.importBusinessAttributes(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), "bm.csv");
+
+        assertEquals(getRowNumbers(response.getSuccessImportInfoList()), Arrays.asList(1, 3, 4));
+        assertEquals(getRowNumbers(response.getFailedImportInfoList()), Collections.singletonList(2));
+
+        AtlasEntity updatedDb1 = entityStore.getById(db1.getGuid()).getEntity();
+        AtlasEntity updatedDb2 = entityStore.getById(db2.getGuid()).getEntity();
+
+        // later rows of an entity override earlier rows for the same attribute
+        assertEquals(updatedDb1.getBusinessAttribute("bmWithAllTypes", "attr8"), "second");
+        assertEquals(((Number) updatedDb1.getBusinessAttribute("bmWithAllTypes", "attr4")).intValue(), 5);
+        assertEquals(updatedDb2.getBusinessAttributes(), null);
+
+        // update of db1 in the rolled back chunk is not audited; only its update on retry is
+        assertEquals(getBusinessAttributeUpdateCount(db1.getGuid()), 1);
+        assertEquals(getBusinessAttributeUpdateCount(db2.getGuid()), 0);
+    }
+
+    @Test
+    public void rolledBackUpdatesAreNotNotifiedWhenNotifyingOnCommit() throws Exception {
+        AtlasEntity db1 = createDatabase();
+        AtlasEntity db2 = createDatabase();
+
+        Map<String, Map<String, Map<String, Object>>> businessAttributesByGuid = new LinkedHashMap<>();
+
+        businessAttributesByGuid.put(db1.getGuid(), toBusinessAttributes("attr8", "value"));
+        businessAttributesByGuid.put(db2.getGuid(), toBusinessAttributes("attr4", "not-a-number"));
+
+        RequestContext.get().setNotifyListenersOnCommit(true);
+
+        try {
+            entityStore.addOrUpdateBusinessAttributes(businessAttributesByGuid, false);
+
+            fail("update of business attributes should have failed");
+        } catch (AtlasBaseException excp) {
+            // expected: db2's update fails after db1 is updated, in the same transaction
+        } finally {
+            RequestContext.get().setNotifyListenersOnCommit(false);
+        }
+
+        assertNull(entityStore.getById(db1.getGuid()).getEntity().getBusinessAttributes());
+        assertEquals(getBusinessAttributeUpdateCount(db1.getGuid()), 0);
+    }
+
+    private AtlasEntity createDatabase() throws Exception {
+        AtlasEntity db = TestUtilsV2.createDBEntity();
+
+        db.setGuid(entityStore.createOrUpdate(new AtlasEntityStream(new AtlasEntityWithExtInfo(db)), false).getCreatedEntities().get(0).getGuid());
+
+        return db;
+    }
+
+    private int getBusinessAttributeUpdateCount(String guid) throws Exception {
+        int ret = 0;
+
+        for (EntityAuditEventV2 event : auditRepository.listEventsV2(guid, BUSINESS_ATTRIBUTE_UPDATE, null, (short) 100)) {
+            if (event.getAction() == BUSINESS_ATTRIBUTE_UPDATE) { // the in-memory repository doesn't filter by action
+                ret++;
+            }
+        }
+
+        return ret;
+    }
+
+    private static Map<String, Map<String, Object>> toBusinessAttributes(String attrName, Object attrValue) {
+        Map<String, Object>              attributes = new HashMap<>();
+        Map<String, Map<String, Object>> ret        = new HashMap<>();
+
+        attributes.put(attrName, attrValue);
+        ret.put("bmWithAllTypes", attributes);
+
+        return ret;
+    }
+
+    private static String row(AtlasEntity db, String bmAttribute, String value) {
+        return db.getTypeName() + "," + db.getAttribute("name") + "," + bmAttribute + "," + value + ",name";
+    }
+
+    private static List<Integer> getRowNumbers(List<ImportInfo> importInfos) {
+        List<Integer> ret = new ArrayList<>();
+
+        for (ImportInfo importInfo : importInfos) {
+            ret.add(importInfo.getRowNumber());
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import org.apache.atlas.TestModules;
+import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graph.GraphBackedSearchIndexer;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.runner.LocalSolrRunner;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.apache.atlas.graph.GraphSandboxUtil.useLocalSolr;
+import static org.apache.atlas.repository.Constants.CHANGE_LOG_GUID_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.CHANGE_LOG_OPERATION_PROPERTY_KEY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class EntityChangeLogTest {
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasGraph graph;
+
+    private EntityChangeLog changeLog;
+    private long            logCreateTime;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        new GraphBackedSearchIndexer(typeRegistry);
+
+        logCreateTime = System.currentTimeMillis();
+        changeLog     = new EntityChangeLog(graph, true, 0, 0);
+
+        Thread.sleep(5);
+    }
+
+    @AfterClass
+    public void clear() throws Exception {
+        AtlasGraphProvider.cleanup();
+
+        if (useLocalSolr()) {
+            LocalSolrRunner.stop();
+        }
+    }
+
+    @Test
+    public void changesSinceMarkerAreReturned() throws Exception {
+        changeLog.record(Collections.singletonMap("guid-1", EntityOperation.CREATE));
+        graph.commit();
+
+        Thread.sleep(5);
+
+        long marker = System.currentTimeMillis();
+
+        changeLog.record(Collections.singletonMap("guid-2", EntityOperation.CREATE));
+        graph.commit();
+
+        // an entity changed more than once is returned once
+        changeLog.record(Collections.singletonMap("guid-2", EntityOperation.UPDATE));
+        changeLog.record(Collections.singletonMap("guid-3", EntityOperation.DELETE));
+        graph.commit();
+
+        assertEquals(changeLog.getChangedGuids(marker), new HashSet<>(Arrays.asList("guid-2", "guid-3")));
+
+        // changes before the log started are not in the log
+        assertNull(changeLog.getChangedGuids(logCreateTime));
+
+        graph.commit();
+    }
+
+    @Test
+    public void changesAreRolledBackWithTheirTransaction() {
+        changeLog.record(Collections.singletonMap("guid-committed", EntityOperation.CREATE));
+        graph.commit();
+
+        changeLog.record(Collections.singletonMap("guid-rolled-back", EntityOperation.CREATE));
+        graph.rollback();
+
+        assertTrue(hasRecord("guid-committed"));
+        assertFalse(hasRecord("guid-rolled-back"));
+    }
+
+    @Test
+    public void disabledLogIsNotWritten() {
+        EntityChangeLog disabledLog = new EntityChangeLog(graph, false, 0, 0);
+
+        disabledLog.record(Collections.singletonMap("guid-disabled", EntityOperation.CREATE));
+        graph.commit();
+
+        assertFalse(hasRecord("guid-disabled"));
+        assertNull(disabledLog.getChangedGuids(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void compactionKeepsLatestRecordOfEachEntity() {
+        for (int i = 0; i < 10; i++) {
+            changeLog.record(Collections.singletonMap("guid-updated", EntityOperation.UPDATE));
+            graph.commit();
+        }
+
+        changeLog.record(Collections.singletonMap("guid-other", EntityOperation.CREATE));
+        graph.commit();
+
+        assertEquals(getRecordCount("guid-updated"), 10);
+
+        changeLog.compact();
+
+        assertEquals(getRecordCount("guid-updated"), 1);
+        assertEquals(getRecordCount("guid-other"), 1);
+
+        // further updates are compacted on the next run
+        changeLog.record(Collections.singletonMap("guid-updated", EntityOperation.DELETE));
+        graph.commit();
+
+        changeLog.compact();
+
+        assertEquals(getRecordCount("guid-updated"), 1);
+        assertEquals(getLatestOperation("guid-updated"), EntityOperation.DELETE.name());
+    }
+
+    private boolean hasRecord(String guid) {
+        return getRecordCount(guid) > 0;
+    }
+
+    private int getRecordCount(String guid) {
+        try {
+            int ret = 0;
+
+            for (Object ignored : graph.query().has(CHANGE_LOG_GUID_PROPERTY_KEY, guid).vertices()) {
+                ret++;
+            }
+
+            return ret;
+        } finally {
+            graph.commit();
+        }
+    }
+
+    private String getLatestOperation(String guid) {
+        try {
+            AtlasVertex vertex = (AtlasVertex) graph.query().has(CHANGE_LOG_GUID_PROPERTY_KEY, guid).vertices().iterator().next();
+
+            return vertex.getProperty(CHANGE_LOG_OPERATION_PROPERTY_KEY, String.class);
+        } finally {
+            graph.commit();
+        }
+    }
+}
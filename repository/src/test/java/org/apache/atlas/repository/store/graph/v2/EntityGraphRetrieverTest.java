@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graph.GraphBackedSearchIndexer;
+import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.runner.LocalSolrRunner;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.atlas.graph.GraphSandboxUtil.useLocalSolr;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class EntityGraphRetrieverTest {
+    private static final String WORKER_THREAD_PREFIX = "atlas-entity-retriever-";
+
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasEntityStore entityStore;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        RequestContext.clear();
+        RequestContext.get().setUser(TestUtilsV2.TEST_USER, null);
+
+        new GraphBackedSearchIndexer(typeRegistry);
+
+        AtlasTypesDef typesToCreate = AtlasTypeDefStoreInitializer.getTypesToCreate(TestUtilsV2.defineHiveTypes(), typeRegistry);
+
+        if (!typesToCreate.isEmpty()) {
+            typeDefStore.createTypesDef(typesToCreate);
+        }
+    }
+
+    @AfterClass
+    public void clear() throws Exception {
+        AtlasGraphProvider.cleanup();
+
+        if (useLocalSolr()) {
+            LocalSolrRunner.stop();
+        }
+    }
+
+    @Test
+    public void bulkReadWorkersStopOnDestroy() throws Exception {
+        List<AtlasEntity> dbs = new ArrayList<>();
+
+        // enough entities to be read in more than one batch
+        for (int i = 0; i < 2 * AtlasConfiguration.ENTITY_BULK_GET_MIN_BATCH_SIZE.getInt(); i++) {
+            dbs.add(TestUtilsV2.createDBEntity());
+        }
+
+        List<String> guids = new ArrayList<>();
+
+        for (AtlasEntityHeader header : entityStore.createOrUpdate(new AtlasEntityStream(dbs), false).getCreatedEntities()) {
+            guids.add(header.getGuid());
+        }
+
+        RequestContext.clear();
+        RequestContext.get().setUser(TestUtilsV2.TEST_USER, null);
+
+        EntityGraphRetriever entityRetriever = new EntityGraphRetriever(typeRegistry);
+
+        assertEquals(entityRetriever.toAtlasEntitiesWithExtInfo(guids).getEntities().size(), guids.size());
+        assertTrue(getWorkerThreadCount() > 0);
+
+        entityRetriever.destroy();
+
+        assertEquals(getWorkerThreadCount(), 0);
+
+        // a bulk read after shutdown starts new workers
+        AtlasEntitiesWithExtInfo entities = entityRetriever.toAtlasEntitiesWithExtInfo(guids);
+
+        assertEquals(entities.getEntities().size(), guids.size());
+        assertEquals(entities.getEntities().get(0).getGuid(), guids.get(0));
+
+        entityRetriever.destroy();
+    }
+
+    @Test
+    public void prefetchDoesNotChangeMappedEntity() throws Exception {
+        AtlasEntity            db        = TestUtilsV2.createDBEntity();
+        AtlasEntityWithExtInfo table     = TestUtilsV2.createTableEntityV2(db);
+        EntityMutationResponse response  = entityStore.createOrUpdate(new AtlasEntityStream(new AtlasEntitiesWithExtInfo(table)), false);
+        String                 tableGuid = response.getFirstCreatedEntityByTypeName(TestUtilsV2.TABLE_TYPE).getGuid();
+
+        RequestContext.clear();
+        RequestContext.get().setUser(TestUtilsV2.TEST_USER, null);
+
+        AtlasEntityWithExtInfo expected = new EntityGraphRetriever(typeRegistry, false, false).toAtlasEntityWithExtInfo(tableGuid);
+
+        RequestContext.clear();
+        RequestContext.get().setUser(TestUtilsV2.TEST_USER, null);
+
+        AtlasEntityWithExtInfo actual = new EntityGraphRetriever(typeRegistry, false, true).toAtlasEntityWithExtInfo(tableGuid);
+
+        assertNotNull(actual.getEntity().getAttribute("database"));
+        assertEquals(actual, expected);
+    }
+
+    private static int getWorkerThreadCount() {
+        int ret = 0;
+
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith(WORKER_THREAD_PREFIX)) {
+                ret++;
+            }
+        }
+
+        return ret;
+    }
+}
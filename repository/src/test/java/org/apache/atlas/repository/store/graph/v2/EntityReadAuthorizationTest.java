@@ -0,0 +1,225 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.authorize.AtlasAuthorizer;
+import org.apache.atlas.authorize.AtlasAuthorizerFactory;
+import org.apache.atlas.authorize.AtlasEntityAccessRequest;
+import org.apache.atlas.authorize.AtlasNoneAuthorizer;
+import org.apache.atlas.authorize.AtlasPrivilege;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graph.GraphBackedSearchIndexer;
+import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.runner.LocalSolrRunner;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.atlas.graph.GraphSandboxUtil.useLocalSolr;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class EntityReadAuthorizationTest {
+    private static final String DENIED_DESCRIPTION = "restricted";
+
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasEntityStore entityStore;
+
+    private final DescriptionBasedAuthorizer authorizer = new DescriptionBasedAuthorizer();
+
+    private AtlasEntity allowedDb;
+    private AtlasEntity deniedDb;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        RequestContext.clear();
+        RequestContext.get().setUser(TestUtilsV2.TEST_USER, null);
+
+        new GraphBackedSearchIndexer(typeRegistry);
+
+        AtlasTypesDef typesToCreate = AtlasTypeDefStoreInitializer.getTypesToCreate(TestUtilsV2.defineHiveTypes(), typeRegistry);
+
+        if (!typesToCreate.isEmpty()) {
+            typeDefStore.createTypesDef(typesToCreate);
+        }
+
+        allowedDb = createDatabase("allowed");
+        deniedDb  = createDatabase(DENIED_DESCRIPTION);
+    }
+
+    @AfterClass
+    public void clear() throws Exception {
+        AtlasGraphProvider.cleanup();
+
+        if (useLocalSolr()) {
+            LocalSolrRunner.stop();
+        }
+    }
+
+    @AfterMethod
+    public void resetAuthorizer() throws Exception {
+        setAuthorizer(null);
+
+        authorizer.readRequests.clear();
+    }
+
+    @Test
+    public void allowedReadIsUnchanged() throws Exception {
+        AtlasEntityWithExtInfo expected = entityStore.getById(allowedDb.getGuid());
+
+        setAuthorizer(authorizer);
+
+        assertEquals(entityStore.getById(allowedDb.getGuid()), expected);
+
+        // the policy is evaluated on a non-unique attribute, read before the entity is
+        AtlasEntityHeader header = authorizer.readRequests.get(0).getEntity();
+
+        assertEquals(header.getGuid(), allowedDb.getGuid());
+        assertEquals(header.getAttribute("name"), allowedDb.getAttribute("name"));
+        assertEquals(header.getAttribute("description"), "allowed");
+    }
+
+    @Test
+    public void deniedReadFails() throws Exception {
+        setAuthorizer(authorizer);
+
+        try {
+            entityStore.getById(deniedDb.getGuid());
+
+            fail("read of entity should have been denied");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.UNAUTHORIZED_ACCESS);
+        }
+
+        try {
+            entityStore.getByIds(Arrays.asList(allowedDb.getGuid(), deniedDb.getGuid()));
+
+            fail("read of entities should have been denied");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.UNAUTHORIZED_ACCESS);
+        }
+    }
+
+    @Test
+    public void allowedBulkReadIsUnchanged() throws Exception {
+        List<String>             guids    = Collections.singletonList(allowedDb.getGuid());
+        AtlasEntitiesWithExtInfo expected = entityStore.getByIds(guids);
+
+        setAuthorizer(authorizer);
+
+        assertEquals(entityStore.getByIds(guids), expected);
+    }
+
+    @Test
+    public void classificationAttributesAreAvailableToPolicies() throws Exception {
+        AtlasEntity         db             = createDatabase("classified");
+        AtlasClassification classification = new AtlasClassification(TestUtilsV2.PHI);
+
+        classification.setAttribute("stringAttr", "sensitive");
+        classification.setAttribute("booleanAttr", true);
+        classification.setAttribute("integerAttr", 10);
+
+        entityStore.addClassifications(db.getGuid(), Arrays.asList(classification, new AtlasClassification(TestUtilsV2.PII)));
+
+        setAuthorizer(authorizer);
+
+        entityStore.getById(db.getGuid());
+
+        AtlasEntityHeader header = authorizer.readRequests.get(0).getEntity();
+
+        assertEquals(header.getClassificationNames().size(), 2);
+        assertEquals(header.getClassifications().size(), 2);
+
+        for (AtlasClassification headerClassification : header.getClassifications()) {
+            if (TestUtilsV2.PHI.equals(headerClassification.getTypeName())) {
+                assertEquals(headerClassification.getAttribute("stringAttr"), "sensitive");
+                assertEquals(headerClassification.getAttribute("booleanAttr"), true);
+                assertEquals(headerClassification.getAttribute("integerAttr"), 10);
+            } else {
+                assertEquals(headerClassification.getTypeName(), TestUtilsV2.PII);
+            }
+        }
+    }
+
+    private AtlasEntity createDatabase(String description) throws Exception {
+        AtlasEntity db = TestUtilsV2.createDBEntity();
+
+        db.setAttribute("description", description);
+        db.setGuid(entityStore.createOrUpdate(new AtlasEntityStream(new AtlasEntityWithExtInfo(db)), false).getCreatedEntities().get(0).getGuid());
+
+        return db;
+    }
+
+    // requests are authorized only for an authenticated user
+    private static void setAuthorizer(AtlasAuthorizer authorizer) throws Exception {
+        Field instance = AtlasAuthorizerFactory.class.getDeclaredField("INSTANCE");
+
+        instance.setAccessible(true);
+        instance.set(null, authorizer);
+
+        SecurityContextHolder.getContext().setAuthentication(authorizer != null ? new UsernamePasswordAuthenticationToken(TestUtilsV2.TEST_USER, null, Collections.emptyList()) : null);
+    }
+
+    // denies read of entities with a given description, like a policy with a condition on an entity attribute
+    private static class DescriptionBasedAuthorizer extends AtlasNoneAuthorizer {
+        final List<AtlasEntityAccessRequest> readRequests = new ArrayList<>();
+
+        @Override
+        public boolean isAccessAllowed(AtlasEntityAccessRequest request) {
+            if (request.getAction() != AtlasPrivilege.ENTITY_READ) {
+                return true;
+            }
+
+            readRequests.add(request);
+
+            return !DENIED_DESCRIPTION.equals(request.getEntity().getAttribute("description"));
+        }
+    }
+}
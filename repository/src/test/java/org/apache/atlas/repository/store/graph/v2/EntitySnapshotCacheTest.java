@@ -0,0 +1,226 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.TestModules;
+import org.apache.atlas.TestUtilsV2;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.typedef.AtlasTypesDef;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graph.GraphBackedSearchIndexer;
+import org.apache.atlas.repository.store.bootstrap.AtlasTypeDefStoreInitializer;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.runner.LocalSolrRunner;
+import org.apache.atlas.store.AtlasTypeDefStore;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.lang3.SerializationUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.Collections;
+
+import static org.apache.atlas.graph.GraphSandboxUtil.useLocalSolr;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class EntitySnapshotCacheTest {
+    private static final long MAX_SIZE_BYTES = 10 * 1024 * 1024;
+
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasTypeDefStore typeDefStore;
+
+    @Inject
+    private AtlasEntityStore entityStore;
+
+    private AtlasEntityWithExtInfo db1;
+    private AtlasEntityWithExtInfo db2;
+    private AtlasEntityWithExtInfo db3;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        RequestContext.clear();
+        RequestContext.get().setUser(TestUtilsV2.TEST_USER, null);
+
+        new GraphBackedSearchIndexer(typeRegistry);
+
+        AtlasTypesDef typesToCreate = AtlasTypeDefStoreInitializer.getTypesToCreate(TestUtilsV2.defineHiveTypes(), typeRegistry);
+
+        if (!typesToCreate.isEmpty()) {
+            typeDefStore.createTypesDef(typesToCreate);
+        }
+
+        db1 = createDatabase();
+        db2 = createDatabase();
+        db3 = createDatabase();
+    }
+
+    @AfterClass
+    public void clear() throws Exception {
+        AtlasGraphProvider.cleanup();
+
+        if (useLocalSolr()) {
+            LocalSolrRunner.stop();
+        }
+    }
+
+    @BeforeMethod
+    public void clearRequestContext() {
+        // snapshots are not used by requests that updated entities
+        RequestContext.clear();
+        RequestContext.get().setUser(TestUtilsV2.TEST_USER, null);
+    }
+
+    @Test
+    public void snapshotIsReturnedAsCopy() {
+        EntitySnapshotCache cache = new EntitySnapshotCache(true, MAX_SIZE_BYTES, 1);
+
+        cache.put(getGuid(db1), false, false, db1, cache.getGeneration());
+
+        AtlasEntityWithExtInfo first  = cache.get(getGuid(db1), false, false);
+        AtlasEntityWithExtInfo second = cache.get(getGuid(db1), false, false);
+
+        assertEquals(first, db1);
+        assertNotSame(first, second);
+        assertEquals(cache.getHitCount(), 2);
+
+        // snapshots are cached separately for each combination of read options
+        assertNull(cache.get(getGuid(db1), true, false));
+        assertEquals(cache.getMissCount(), 1);
+    }
+
+    @Test
+    public void snapshotsIncludingInvalidatedEntityAreRemoved() {
+        EntitySnapshotCache    cache      = new EntitySnapshotCache(true, MAX_SIZE_BYTES, 1);
+        AtlasEntityWithExtInfo withDb2Ref = new AtlasEntityWithExtInfo(db1.getEntity());
+
+        withDb2Ref.addReferredEntity(db2.getEntity());
+
+        cache.put(getGuid(db1), false, false, withDb2Ref, cache.getGeneration());
+        cache.put(getGuid(db3), false, false, db3, cache.getGeneration());
+
+        // db1's snapshot includes db2, as a referred entity
+        cache.invalidate(Collections.singletonList(getGuid(db2)));
+
+        assertNull(cache.get(getGuid(db1), false, false));
+        assertNotNull(cache.get(getGuid(db3), false, false));
+        assertEquals(cache.getSize(), 1);
+
+        cache.onChange(null);
+
+        assertEquals(cache.getSize(), 0);
+    }
+
+    @Test
+    public void entityReadBeforeInvalidationIsNotCached() {
+        EntitySnapshotCache cache          = new EntitySnapshotCache(true, MAX_SIZE_BYTES, 1);
+        long                readGeneration = cache.getGeneration();
+
+        cache.invalidate(Collections.singletonList(getGuid(db2)));
+
+        cache.put(getGuid(db1), false, false, db1, readGeneration);
+
+        assertEquals(cache.getSize(), 0);
+        assertNull(cache.get(getGuid(db1), false, false));
+    }
+
+    @Test
+    public void leastRecentlyUsedSnapshotIsEvictedAtCapacity() {
+        // room for the 3 snapshots, less a byte
+        long                maxSizeBytes = getSize(db1) + getSize(db2) + getSize(db3) - 1;
+        EntitySnapshotCache cache        = new EntitySnapshotCache(true, maxSizeBytes, 1);
+
+        cache.put(getGuid(db1), false, false, db1, cache.getGeneration());
+        cache.put(getGuid(db2), false, false, db2, cache.getGeneration());
+
+        // db1 is used after db2, so db2 is evicted to make room for db3
+        assertNotNull(cache.get(getGuid(db1), false, false));
+
+        cache.put(getGuid(db3), false, false, db3, cache.getGeneration());
+
+        assertEquals(cache.getSize(), 2);
+        assertEquals(cache.getEvictionCount(), 1);
+        assertNull(cache.get(getGuid(db2), false, false));
+        assertNotNull(cache.get(getGuid(db1), false, false));
+        assertNotNull(cache.get(getGuid(db3), false, false));
+
+        // invalidation of an evicted entity leaves other snapshots
+        cache.invalidate(Collections.singletonList(getGuid(db2)));
+
+        assertEquals(cache.getSize(), 2);
+    }
+
+    @Test
+    public void snapshotOfUpdatedEntityIsNotReturned() throws Exception {
+        EntitySnapshotCache    cache = new EntitySnapshotCache(true, MAX_SIZE_BYTES, 1);
+        AtlasEntityWithExtInfo db    = createDatabase();
+
+        clearRequestContext();
+
+        cache.put(getGuid(db), false, false, db, cache.getGeneration());
+
+        assertNotNull(cache.get(getGuid(db), false, false));
+
+        // update without invalidating the cache: the vertex version no longer matches the snapshot
+        AtlasEntity updated = db.getEntity();
+
+        updated.setAttribute("description", "updated");
+        entityStore.createOrUpdate(new AtlasEntityStream(updated), false);
+
+        clearRequestContext();
+
+        assertNull(cache.get(getGuid(db), false, false));
+        assertEquals(cache.getSize(), 0);
+    }
+
+    @Test
+    public void disabledCacheIsNotUsed() {
+        EntitySnapshotCache cache = new EntitySnapshotCache(false, MAX_SIZE_BYTES, 1);
+
+        cache.put(getGuid(db1), false, false, db1, cache.getGeneration());
+
+        assertNull(cache.get(getGuid(db1), false, false));
+        assertEquals(cache.getSize(), 0);
+    }
+
+    private AtlasEntityWithExtInfo createDatabase() throws Exception {
+        AtlasEntity db   = TestUtilsV2.createDBEntity();
+        String      guid = entityStore.createOrUpdate(new AtlasEntityStream(db), false).getCreatedEntities().get(0).getGuid();
+
+        return entityStore.getById(guid);
+    }
+
+    private static long getSize(AtlasEntityWithExtInfo entity) {
+        return SerializationUtils.serialize(entity).length;
+    }
+
+    private static String getGuid(AtlasEntityWithExtInfo entity) {
+        return entity.getEntity().getGuid();
+    }
+}
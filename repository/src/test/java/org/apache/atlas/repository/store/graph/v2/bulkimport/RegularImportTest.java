@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.repository.store.graph.v2.bulkimport;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.impexp.AtlasImportRequest;
+import org.apache.atlas.model.impexp.AtlasImportResult;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
+import org.apache.atlas.repository.store.graph.AtlasEntityStore;
+import org.apache.atlas.repository.store.graph.v2.AtlasEntityStreamForImport;
+import org.apache.atlas.repository.store.graph.v2.EntityImportStream;
+import org.apache.atlas.repository.store.graph.v2.EntityStream;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class RegularImportTest {
+    private static final String TYPE_NAME = "hive_db";
+    private static final String CLIENT_IP = "10.0.0.1";
+
+    @AfterMethod
+    public void clearRequestContext() {
+        RequestContext.clear();
+    }
+
+    @Test
+    public void failedBatchIsImportedOneAtATimeAndPendingEntitiesHoldTheCheckpoint() throws Exception {
+        // with 2 workers and batches of 2: [db1, db2], [db3, db4], [db5, db6] in the first wave; db7 refers to db1, so starts the next wave
+        List<AtlasEntityWithExtInfo> entities = new ArrayList<>();
+
+        for (int i = 1; i <= 6; i++) {
+            entities.add(new AtlasEntityWithExtInfo(createEntity("db" + i)));
+        }
+
+        AtlasEntity db7 = createEntity("db7");
+
+        db7.setAttribute("parent", new AtlasObjectId("db1", TYPE_NAME));
+        entities.add(new AtlasEntityWithExtInfo(db7));
+
+        // db4 is imported along with a referred entity
+        entities.get(3).addReferredEntity(createEntity("db4-ref"));
+
+        final Set<String>                  failingBatchGuids  = new HashSet<>(Arrays.asList("db3"));   // fails any batch it is in
+        final AtomicInteger                pendingAttempts    = new AtomicInteger();                       // db5 refers to an entity not imported yet, on first 2 attempts
+        final List<EntityStream>           streams            = new CopyOnWriteArrayList<>();
+        final Map<String, EntityOperation> importedGuids      = new ConcurrentHashMap<>();
+        final Set<String>                  clientIPs          = ConcurrentHashMap.newKeySet();            // client IP seen by each import, in worker threads too
+        AtlasEntityStore                   entityStore        = mock(AtlasEntityStore.class);
+
+        when(entityStore.createOrUpdateForImport(any(EntityStream.class))).thenAnswer(invocation -> {
+            EntityStream           stream = (EntityStream) invocation.getArguments()[0];
+            EntityMutationResponse ret    = new EntityMutationResponse();
+            List<AtlasEntity>      batch  = new ArrayList<>();
+
+            streams.add(stream);
+            clientIPs.add(String.valueOf(RequestContext.get().getClientIPAddress()));
+
+            for (AtlasEntity entity = stream.next(); entity != null; entity = stream.next()) {
+                batch.add(entity);
+            }
+
+            for (AtlasEntity entity : batch) {
+                if (batch.size() > 1 && failingBatchGuids.contains(entity.getGuid())) {
+                    throw new AtlasBaseException(AtlasErrorCode.INTERNAL_ERROR, "batch failed");
+                }
+
+                if (entity.getGuid().equals("db5") && pendingAttempts.incrementAndGet() <= 2) {
+                    throw new AtlasBaseException(AtlasErrorCode.INVALID_OBJECT_ID, "db5");
+                }
+            }
+
+            for (AtlasEntity entity : batch) {
+                ret.addEntity(EntityOperation.CREATE, new AtlasEntityHeader(entity));
+
+                AtlasEntity referredEntity = stream.getByGuid(entity.getGuid() + "-ref");
+
+                if (referredEntity != null) {
+                    ret.addEntity(EntityOperation.CREATE, new AtlasEntityHeader(referredEntity));
+                }
+            }
+
+            for (AtlasEntityHeader header : ret.getCreatedEntities()) {
+                importedGuids.put(header.getGuid(), EntityOperation.CREATE);
+            }
+
+            return ret;
+        });
+
+        AtlasImportRequest request = new AtlasImportRequest();
+
+        request.setOption(AtlasImportRequest.OPTION_KEY_NUM_WORKERS, "2");
+        request.setOption(AtlasImportRequest.OPTION_KEY_BATCH_SIZE, "2");
+
+        AtlasImportResult importResult  = new AtlasImportResult(request, "admin", "localhost", "localhost", 0L);
+        RegularImport     regularImport = new RegularImport(entityStore, mock(AtlasTypeRegistry.class));
+        List<String>      completed     = new ArrayList<>();
+
+        RequestContext.get().setUser("admin", null);
+        RequestContext.get().setClientIPAddress(CLIENT_IP);
+
+        regularImport.run(createStream(entities, completed), importResult);
+
+        Set<String> expectedGuids = new HashSet<>(Arrays.asList("db1", "db2", "db3", "db4", "db4-ref", "db5", "db6", "db7"));
+
+        assertEquals(importedGuids.keySet(), expectedGuids);
+        assertEquals(new HashSet<>(importResult.getProcessedEntities()), expectedGuids);
+        assertEquals(importResult.getMetrics().get("entity:" + TYPE_NAME + ":created"), Integer.valueOf(expectedGuids.size()));
+
+        // db5, left to be retried after all waves, is completed last
+        assertEquals(completed, Arrays.asList("db1", "db2", "db3", "db4", "db6", "db7", "db5"));
+
+        // db5, at position 5, was pending when the waves completed: a resume must not skip it
+        assertEquals(regularImport.getLastCheckpoint(), 4);
+
+        assertEquals(clientIPs, Collections.singleton(CLIENT_IP));
+
+        for (EntityStream stream : streams) {
+            assertTrue(stream instanceof AtlasEntityStreamForImport);
+        }
+    }
+
+    private static AtlasEntity createEntity(String guid) {
+        AtlasEntity ret = new AtlasEntity(TYPE_NAME);
+
+        ret.setGuid(guid);
+        ret.setAttribute("name", guid);
+
+        return ret;
+    }
+
+    // a stream over the given entities, positioned as ZipSource is: position is the count of entities read
+    private static EntityImportStream createStream(List<AtlasEntityWithExtInfo> entities, List<String> completed) {
+        EntityImportStream ret      = mock(EntityImportStream.class);
+        AtomicInteger      position = new AtomicInteger();
+
+        when(ret.size()).thenReturn(entities.size());
+        when(ret.hasNext()).thenAnswer(invocation -> position.get() < entities.size());
+        when(ret.getNextEntityWithExtInfo()).thenAnswer(invocation -> position.get() < entities.size() ? entities.get(position.getAndIncrement()) : null);
+        when(ret.getPosition()).thenAnswer(invocation -> position.get());
+
+        doAnswer(invocation -> {
+            String guid = (String) invocation.getArguments()[0];
+
+            for (int i = 0; i < entities.size(); i++) {
+                if (entities.get(i).getEntity().getGuid().equals(guid)) {
+                    position.set(i);
+                }
+            }
+
+            return null;
+        }).when(ret).setPositionUsingEntityGuid(anyString());
+
+        doAnswer(invocation -> completed.add((String) invocation.getArguments()[0])).when(ret).onImportComplete(anyString());
+
+        return ret;
+    }
+}
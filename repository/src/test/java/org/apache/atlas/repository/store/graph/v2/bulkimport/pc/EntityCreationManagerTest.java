@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.repository.store.graph.v2.bulkimport.pc;
+
+import org.apache.atlas.model.impexp.AtlasImportResult;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
+import org.apache.atlas.pc.WorkItemBuilder;
+import org.apache.atlas.pc.WorkItemConsumer;
+import org.apache.atlas.repository.migration.DataMigrationStatusService;
+import org.apache.atlas.repository.store.graph.v2.EntityImportStream;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+public class EntityCreationManagerTest {
+    private static class RecordingConsumer extends WorkItemConsumer<AtlasEntityWithExtInfo> {
+        private final ConcurrentLinkedQueue<AtlasEntity> processed;
+
+        RecordingConsumer(BlockingQueue<AtlasEntityWithExtInfo> queue, ConcurrentLinkedQueue<AtlasEntity> processed) {
+            super(queue);
+
+            this.processed = processed;
+        }
+
+        @Override
+        protected void doCommit() {
+        }
+
+        @Override
+        protected void processItem(AtlasEntityWithExtInfo item) {
+            processed.add(item.getEntity());
+
+            addResult(item.getEntity().getGuid());
+        }
+    }
+
+    private static class RecordingConsumerBuilder implements WorkItemBuilder<RecordingConsumer, AtlasEntityWithExtInfo> {
+        private final ConcurrentLinkedQueue<AtlasEntity> processed = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public RecordingConsumer build(BlockingQueue<AtlasEntityWithExtInfo> queue) {
+            return new RecordingConsumer(queue, processed);
+        }
+    }
+
+    @Test
+    public void entitiesOfEachTypeAreDrainedBeforeTheNextTypeAndShutdownCompletes() throws Exception {
+        final int numOfEachType = 25;
+
+        List<AtlasEntityWithExtInfo> entities = new ArrayList<>();
+
+        for (String typeName : new String[] { "hive_db", "hive_table", "hive_column" }) {
+            for (int i = 0; i < numOfEachType; i++) {
+                AtlasEntity entity = new AtlasEntity(typeName);
+
+                entity.setGuid(typeName + "-" + i);
+
+                entities.add(new AtlasEntityWithExtInfo(entity));
+            }
+        }
+
+        Iterator<AtlasEntityWithExtInfo> iter   = entities.iterator();
+        EntityImportStream               stream = mock(EntityImportStream.class);
+
+        when(stream.getPosition()).thenReturn(0);
+        when(stream.size()).thenReturn(entities.size());
+        when(stream.getNextEntityWithExtInfo()).thenAnswer(invocation -> iter.hasNext() ? iter.next() : null);
+
+        DataMigrationStatusService statusService = mock(DataMigrationStatusService.class);
+        RecordingConsumerBuilder   builder       = new RecordingConsumerBuilder();
+        EntityCreationManager      manager       = new EntityCreationManager(builder, 4, 3, new AtlasImportResult(), statusService);
+
+        long index = manager.read(stream);
+
+        manager.drain();
+        manager.extractResults();
+        manager.shutdown();
+
+        assertEquals(index, entities.size());
+        assertEquals(builder.processed.size(), entities.size());
+
+        // drain() on change of type completes all entities of a type before entities of the next type are handed off
+        List<AtlasEntity> processed = new ArrayList<>(builder.processed);
+
+        for (int i = 0; i < processed.size(); i++) {
+            assertEquals(processed.get(i).getTypeName(), entities.get(i).getEntity().getTypeName(), "entity #" + i);
+        }
+
+        verify(statusService).setStatus("DONE");
+        verify(statusService, atLeastOnce()).savePosition((long) entities.size() - 1);
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2.tasks;
+
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphMapper;
+import org.apache.atlas.tasks.TaskRegistry;
+import org.mockito.InOrder;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory.CLASSIFICATION_PROPAGATION_ADD;
+import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory.PARAM_CLASSIFICATION_VERTEX_ID;
+import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationPropagateTaskFactory.PARAM_ENTITY_GUID;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+public class ClassificationPropagationTaskTest {
+    private static final String ENTITY_GUID              = "entity-guid";
+    private static final String CLASSIFICATION_VERTEX_ID = "classification-vertex";
+
+    @AfterMethod
+    public void clearRequestContext() {
+        RequestContext.clear();
+    }
+
+    @Test
+    public void resumedTaskPropagatesToAllImpactedEntities() throws Exception {
+        TaskRegistry      registry = mock(TaskRegistry.class);
+        EntityGraphMapper mapper   = mock(EntityGraphMapper.class);
+        AtlasTask         taskDef  = createTaskDef();
+
+        // an earlier attempt processed 3 entities, in an order the traversal doesn't reproduce
+        taskDef.setProcessedCount(3);
+
+        when(mapper.getPropagationTargetVertexIds(ENTITY_GUID, CLASSIFICATION_VERTEX_ID)).thenReturn(Arrays.asList("v5", "v4", "v3", "v2", "v1"));
+        when(mapper.propagateClassification(eq(CLASSIFICATION_VERTEX_ID), anyListOf(String.class))).thenReturn(true);
+
+        new ClassificationPropagationTask(taskDef, registry, mapper, 2).run();
+
+        InOrder inOrder = inOrder(mapper);
+
+        inOrder.verify(mapper).propagateClassification(CLASSIFICATION_VERTEX_ID, Arrays.asList("v5", "v4"));
+        inOrder.verify(mapper).propagateClassification(CLASSIFICATION_VERTEX_ID, Arrays.asList("v3", "v2"));
+        inOrder.verify(mapper).propagateClassification(CLASSIFICATION_VERTEX_ID, Arrays.asList("v1"));
+
+        assertEquals(taskDef.getTotalCount(), 5);
+        assertEquals(taskDef.getProcessedCount(), 5);
+
+        // progress is reset when the attempt starts, then checkpointed after each batch
+        verify(registry, times(4)).updateStatus(taskDef);
+    }
+
+    @Test
+    public void propagationStopsWhenClassificationNoLongerPropagates() throws Exception {
+        TaskRegistry      registry = mock(TaskRegistry.class);
+        EntityGraphMapper mapper   = mock(EntityGraphMapper.class);
+        AtlasTask         taskDef  = createTaskDef();
+
+        when(mapper.getPropagationTargetVertexIds(ENTITY_GUID, CLASSIFICATION_VERTEX_ID)).thenReturn(Arrays.asList("v1", "v2", "v3"));
+        when(mapper.propagateClassification(eq(CLASSIFICATION_VERTEX_ID), anyListOf(String.class))).thenReturn(false);
+
+        new ClassificationPropagationTask(taskDef, registry, mapper, 2).run();
+
+        verify(mapper, times(1)).propagateClassification(eq(CLASSIFICATION_VERTEX_ID), anyListOf(String.class));
+
+        assertEquals(taskDef.getTotalCount(), 3);
+        assertEquals(taskDef.getProcessedCount(), 2);
+    }
+
+    private static AtlasTask createTaskDef() {
+        Map<String, Object> parameters = new HashMap<>();
+
+        parameters.put(PARAM_ENTITY_GUID, ENTITY_GUID);
+        parameters.put(PARAM_CLASSIFICATION_VERTEX_ID, CLASSIFICATION_VERTEX_ID);
+
+        return new AtlasTask("task-guid", CLASSIFICATION_PROPAGATION_ADD, "admin", parameters);
+    }
+}
@@ -34,10 +34,15 @@ import org.apache.atlas.model.typedef.AtlasClassificationDef;
 import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graph.GraphHelper;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.impexp.ImportService;
 import org.apache.atlas.repository.impexp.ZipFileResourceTestUtils;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
+import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
 import org.apache.atlas.runner.LocalSolrRunner;
 import org.apache.atlas.store.AtlasTypeDefStore;
 import org.apache.atlas.type.AtlasTypeRegistry;
@@ -155,6 +160,26 @@ public class ClassificationPropagationTest {
 
      */
 
+    @Test
+    public void impactedVerticesBeyondLimitFailPropagation() throws AtlasBaseException {
+        EntityGraphRetriever entityRetriever = new EntityGraphRetriever(typeRegistry);
+        AtlasVertex          hdfsVertex      = AtlasGraphUtilsV2.findByGuid(entitiesMap.get(HDFS_PATH_EMPLOYEES));
+        int                  impactedCount   = entityRetriever.getImpactedVerticesV2(hdfsVertex, null, null, -1).size();
+
+        assertTrue(impactedCount > 1);
+
+        // all impacted vertices are returned when their number is at the limit
+        assertEquals(entityRetriever.getImpactedVerticesV2(hdfsVertex, null, null, impactedCount).size(), impactedCount);
+
+        try {
+            entityRetriever.getImpactedVerticesV2(hdfsVertex, null, null, impactedCount - 1);
+
+            fail("propagation beyond the limit should have failed");
+        } catch (AtlasBaseException excp) {
+            assertEquals(excp.getAtlasErrorCode(), AtlasErrorCode.CLASSIFICATION_PROPAGATION_LIMIT_EXCEEDED);
+        }
+    }
+
     @Test
     public void addClassification_PropagateFalse() throws AtlasBaseException {
         AtlasEntity         hdfs_employees = getEntity(HDFS_PATH_EMPLOYEES);
@@ -515,6 +540,52 @@ public class ClassificationPropagationTest {
         assertClassificationExistInEntity(US_EMPLOYEES_TABLE, tag1);
     }
 
+    @Test(dependsOnMethods = {"addClassification_removePropagationsFalse_DeleteCase"})
+    public void relationshipChangeRemovesOnlyUnreachablePropagations() throws AtlasBaseException {
+        AtlasEntity         hdfs_employees   = getEntity(HDFS_PATH_EMPLOYEES);
+        AtlasEntity         employees2_table = getEntity(EMPLOYEES2_TABLE);
+        AtlasClassification tag3             = new AtlasClassification("tag3"); tag3.setPropagate(true); tag3.setEntityGuid(hdfs_employees.getGuid());
+        AtlasClassification tag4             = new AtlasClassification("tag4"); tag4.setPropagate(true); tag4.setEntityGuid(employees2_table.getGuid());
+
+        addClassification(hdfs_employees, tag3);
+        addClassification(employees2_table, tag4);
+
+        EntityGraphRetriever entityRetriever  = new EntityGraphRetriever(typeRegistry);
+        AtlasVertex          tag3Vertex       = GraphHelper.getClassificationVertex(AtlasGraphUtilsV2.findByGuid(hdfs_employees.getGuid()), "tag3");
+        AtlasVertex          tag4Vertex       = GraphHelper.getClassificationVertex(AtlasGraphUtilsV2.findByGuid(employees2_table.getGuid()), "tag4");
+        List<AtlasVertex>    tagVertices      = Arrays.asList(tag3Vertex, tag4Vertex);
+        AtlasEdge            relationshipEdge = GraphHelper.getInstance().getEdgeForGUID(getRelationship(EMPLOYEES2_TABLE, EMPLOYEES_UNION_PROCESS).getGuid());
+
+        // current propagations, read from propagated classification edges, are the ones found by traversing the lineage
+        Map<AtlasVertex, List<AtlasVertex>> currentPropagations   = entityRetriever.getCurrentPropagatedEntitiesMapping(tagVertices);
+        Map<AtlasVertex, List<AtlasVertex>> traversedPropagations = entityRetriever.getClassificationPropagatedEntitiesMapping(tagVertices);
+
+        for (AtlasVertex tagVertex : tagVertices) {
+            assertEquals(getGuids(currentPropagations.get(tagVertex)), getGuids(traversedPropagations.get(tagVertex)));
+        }
+
+        // without employees2 -> process3, employees_union is still reachable from hdfs_employees through employees1
+        assertTrue(entityRetriever.getPropagationsToRemove(tag3Vertex, relationshipEdge).isEmpty());
+
+        // process3 and employees_union are reachable from employees2 only through employees2 -> process3
+        assertEquals(getGuids(entityRetriever.getPropagationsToRemove(tag4Vertex, relationshipEdge)),
+                     new HashSet<>(Arrays.asList(entitiesMap.get(EMPLOYEES_UNION_PROCESS), entitiesMap.get(EMPLOYEES_UNION_TABLE))));
+
+        //cleanup
+        deleteClassification(hdfs_employees, tag3);
+        deleteClassification(employees2_table, tag4);
+    }
+
+    private static Set<String> getGuids(List<AtlasVertex> vertices) {
+        Set<String> ret = new HashSet<>();
+
+        for (AtlasVertex vertex : vertices) {
+            ret.add(GraphHelper.getGuid(vertex));
+        }
+
+        return ret;
+    }
+
     private void assertClassificationExistInList(Set<AtlasClassification> classifications, AtlasClassification classification) {
         String  classificationName  = classification.getTypeName();
         String  entityGuid          = classification.getEntityGuid();
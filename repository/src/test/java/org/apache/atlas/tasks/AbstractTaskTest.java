@@ -0,0 +1,54 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class AbstractTaskTest {
+    @Test
+    public void checkpointPersistsProgress() throws Exception {
+        TaskRegistry registry = mock(TaskRegistry.class);
+        AtlasTask    taskDef  = new AtlasTask("guid-a", "TYPE_A", "admin", Collections.emptyMap());
+        AbstractTask task     = new AbstractTask(taskDef, registry) {
+            @Override
+            public void run() {
+                setTotalCount(10);
+
+                checkpoint(4);
+                checkpoint(10);
+            }
+        };
+
+        assertSame(task.getTaskDef(), taskDef);
+
+        task.run();
+
+        assertEquals(taskDef.getTotalCount(), 10);
+        assertEquals(taskDef.getProcessedCount(), 10);
+        verify(registry, times(2)).updateStatus(taskDef);
+    }
+}
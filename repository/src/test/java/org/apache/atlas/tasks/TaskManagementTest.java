@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.commons.configuration.PropertiesConfiguration;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TaskManagementTest {
+    private static final String TYPE_A = "TYPE_A";
+    private static final String TYPE_B = "TYPE_B";
+
+    @Test
+    public void pendingTasksAreReadOnceAndRunWhenTheirFactoryIsAdded() throws Exception {
+        TaskRegistry   registry       = mock(TaskRegistry.class);
+        AtlasTask      taskA          = new AtlasTask("guid-a", TYPE_A, "admin", Collections.emptyMap());
+        AtlasTask      taskB          = new AtlasTask("guid-b", TYPE_B, "admin", Collections.emptyMap());
+        TaskManagement taskManagement = new TaskManagement(new PropertiesConfiguration(), registry, true, 2, 1, 0);
+
+        when(registry.getPendingTasks()).thenReturn(Arrays.asList(taskA, taskB));
+
+        taskManagement.start();
+
+        try {
+            CountDownLatch taskARun = new CountDownLatch(1);
+            CountDownLatch taskBRun = new CountDownLatch(1);
+
+            taskManagement.addFactory(new TestTaskFactory(TYPE_A, taskARun, false));
+
+            assertTrue(taskARun.await(10, TimeUnit.SECONDS));
+
+            taskManagement.addFactory(new TestTaskFactory(TYPE_B, taskBRun, false));
+
+            assertTrue(taskBRun.await(10, TimeUnit.SECONDS));
+
+            waitForStatus(taskA, Status.COMPLETE);
+            waitForStatus(taskB, Status.COMPLETE);
+
+            // tasks that were pending at startup are not read again as factories are added
+            verify(registry, times(1)).getPendingTasks();
+        } finally {
+            taskManagement.stop();
+        }
+    }
+
+    @Test
+    public void failedTaskIsRetriedUpToMaxAttempts() throws Exception {
+        TaskRegistry   registry       = mock(TaskRegistry.class);
+        AtlasTask      task           = new AtlasTask("guid-a", TYPE_A, "admin", Collections.emptyMap());
+        TaskManagement taskManagement = new TaskManagement(new PropertiesConfiguration(), registry, true, 1, 3, 0);
+        CountDownLatch taskRun        = new CountDownLatch(3);
+
+        when(registry.getPendingTasks()).thenReturn(Collections.singletonList(task));
+
+        taskManagement.addFactory(new TestTaskFactory(TYPE_A, taskRun, true));
+        taskManagement.start();
+
+        try {
+            assertTrue(taskRun.await(10, TimeUnit.SECONDS));
+
+            waitForStatus(task, Status.FAILED);
+
+            assertEquals(task.getAttemptCount(), 3);
+            assertEquals(task.getErrorMessage(), "task failed");
+        } finally {
+            taskManagement.stop();
+        }
+    }
+
+    @Test
+    public void failedTaskIsRetriedAfterIncreasingDelays() throws Exception {
+        TaskRegistry   registry       = mock(TaskRegistry.class);
+        AtlasTask      task           = new AtlasTask("guid-a", TYPE_A, "admin", Collections.emptyMap());
+        TaskManagement taskManagement = new TaskManagement(new PropertiesConfiguration(), registry, true, 1, 3, 200);
+        CountDownLatch taskRun        = new CountDownLatch(3);
+
+        when(registry.getPendingTasks()).thenReturn(Collections.singletonList(task));
+
+        taskManagement.addFactory(new TestTaskFactory(TYPE_A, taskRun, true));
+
+        long startTime = System.currentTimeMillis();
+
+        taskManagement.start();
+
+        try {
+            assertTrue(taskRun.await(10, TimeUnit.SECONDS));
+
+            // retried after 1 * 200 ms, then after 2 * 200 ms
+            assertTrue(System.currentTimeMillis() - startTime >= 600);
+
+            waitForStatus(task, Status.FAILED);
+
+            assertEquals(task.getAttemptCount(), 3);
+        } finally {
+            taskManagement.stop();
+        }
+    }
+
+    @Test
+    public void tasksAreNotReadWhenDisabled() throws Exception {
+        TaskRegistry   registry       = mock(TaskRegistry.class);
+        TaskManagement taskManagement = new TaskManagement(new PropertiesConfiguration(), registry, false, 1, 1, 0);
+
+        taskManagement.start();
+        taskManagement.instanceIsActive();
+
+        verify(registry, never()).getPendingTasks();
+
+        taskManagement.stop();
+    }
+
+    private static void waitForStatus(AtlasTask task, Status status) throws InterruptedException {
+        for (int i = 0; i < 100 && task.getStatus() != status; i++) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(task.getStatus(), status);
+    }
+
+    private static class TestTaskFactory implements TaskFactory {
+        private final String         taskType;
+        private final CountDownLatch taskRun;
+        private final boolean        isFailing;
+
+        TestTaskFactory(String taskType, CountDownLatch taskRun, boolean isFailing) {
+            this.taskType  = taskType;
+            this.taskRun   = taskRun;
+            this.isFailing = isFailing;
+        }
+
+        @Override
+        public AbstractTask create(AtlasTask task) {
+            return new AbstractTask(task, null) {
+                @Override
+                public void run() throws AtlasBaseException {
+                    taskRun.countDown();
+
+                    if (isFailing) {
+                        throw new AtlasBaseException("task failed");
+                    }
+                }
+            };
+        }
+
+        @Override
+        public List<String> getSupportedTypes() {
+            return Collections.singletonList(taskType);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.tasks;
+
+import org.apache.atlas.TestModules;
+import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.model.tasks.AtlasTask.Status;
+import org.apache.atlas.repository.graph.AtlasGraphProvider;
+import org.apache.atlas.repository.graph.GraphBackedSearchIndexer;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.runner.LocalSolrRunner;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Guice;
+import org.testng.annotations.Test;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.apache.atlas.graph.GraphSandboxUtil.useLocalSolr;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+@Guice(modules = TestModules.TestOnlyModule.class)
+public class TaskRegistryTest {
+    @Inject
+    private AtlasTypeRegistry typeRegistry;
+
+    @Inject
+    private AtlasGraph graph;
+
+    @Inject
+    private TaskRegistry registry;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        new GraphBackedSearchIndexer(typeRegistry);
+    }
+
+    @AfterClass
+    public void clear() throws Exception {
+        AtlasGraphProvider.cleanup();
+
+        if (useLocalSolr()) {
+            LocalSolrRunner.stop();
+        }
+    }
+
+    @Test
+    public void createdTaskIsReadBack() {
+        AtlasTask task = createTask("TYPE_A");
+        AtlasTask ret  = registry.getByGuid(task.getGuid());
+
+        assertEquals(ret.getGuid(), task.getGuid());
+        assertEquals(ret.getType(), "TYPE_A");
+        assertEquals(ret.getCreatedBy(), "admin");
+        assertEquals(ret.getCreatedTime(), task.getCreatedTime());
+        assertEquals(ret.getParameters(), Collections.singletonMap("entityGuid", "entity-guid"));
+        assertEquals(ret.getStatus(), Status.PENDING);
+        assertEquals(ret.getAttemptCount(), 0);
+
+        assertNull(registry.getByGuid("unknown-guid"));
+    }
+
+    @Test
+    public void statusAndProgressArePersisted() {
+        AtlasTask task = createTask("TYPE_A");
+
+        task.setStatus(Status.IN_PROGRESS);
+        task.incrementAttemptCount();
+        task.setTotalCount(10);
+        task.setProcessedCount(4);
+        task.setErrorMessage("interrupted");
+
+        registry.updateStatus(task);
+
+        AtlasTask ret = registry.getByGuid(task.getGuid());
+
+        assertEquals(ret.getStatus(), Status.IN_PROGRESS);
+        assertEquals(ret.getAttemptCount(), 1);
+        assertEquals(ret.getTotalCount(), 10);
+        assertEquals(ret.getProcessedCount(), 4);
+        assertEquals(ret.getErrorMessage(), "interrupted");
+    }
+
+    @Test
+    public void pendingTasksIncludeTasksInProgress() {
+        AtlasTask pending    = createTask("TYPE_PENDING");
+        AtlasTask inProgress = createTask("TYPE_PENDING");
+        AtlasTask complete   = createTask("TYPE_PENDING");
+        AtlasTask failed     = createTask("TYPE_PENDING");
+
+        setStatus(inProgress, Status.IN_PROGRESS);
+        setStatus(complete, Status.COMPLETE);
+        setStatus(failed, Status.FAILED);
+
+        Set<String> pendingGuids = getGuids(registry.getPendingTasks());
+
+        assertTrue(pendingGuids.contains(pending.getGuid()));
+        assertTrue(pendingGuids.contains(inProgress.getGuid()));
+        assertFalse(pendingGuids.contains(complete.getGuid()));
+        assertFalse(pendingGuids.contains(failed.getGuid()));
+
+        // all tasks are returned when no guid is given
+        Set<String> allGuids = getGuids(registry.getByGuids(null));
+
+        assertTrue(allGuids.containsAll(pendingGuids));
+        assertTrue(allGuids.contains(complete.getGuid()));
+        assertTrue(allGuids.contains(failed.getGuid()));
+
+        assertEquals(getGuids(registry.getByGuids(Collections.singletonList(complete.getGuid()))), Collections.singleton(complete.getGuid()));
+    }
+
+    private AtlasTask createTask(String type) {
+        AtlasTask ret = new AtlasTask(UUID.randomUUID().toString(), type, "admin", Collections.singletonMap("entityGuid", "entity-guid"));
+
+        registry.createVertex(ret);
+
+        graph.commit();
+
+        return ret;
+    }
+
+    private void setStatus(AtlasTask task, Status status) {
+        task.setStatus(status);
+
+        registry.updateStatus(task);
+    }
+
+    private static Set<String> getGuids(List<AtlasTask> tasks) {
+        Set<String> ret = new HashSet<>();
+
+        for (AtlasTask task : tasks) {
+            ret.add(task.getGuid());
+        }
+
+        return ret;
+    }
+}
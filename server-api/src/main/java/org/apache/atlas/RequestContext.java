@@ -71,6 +71,7 @@ public class RequestContext {
     private boolean     isInNotificationProcessing = false;
     private boolean     isInTypePatching           = false;
     private boolean     createShellEntityForNonExistingReference = false;
+    private boolean     notifyListenersOnCommit = false;
 
     private RequestContext() {
     }
@@ -126,6 +127,25 @@ public class RequestContext {
         }
     }
 
+    /**
+     * Copies the details of the given request - its user, client addresses and options - but none of its state, like
+     * cached or updated entities. Used to process parts of a request in worker threads.
+     */
+    public void copyRequestDetails(RequestContext other) {
+        this.user                                     = other.user;
+        this.userGroups                               = other.userGroups;
+        this.clientIPAddress                          = other.clientIPAddress;
+        this.forwardedAddresses                       = other.forwardedAddresses;
+        this.deleteType                               = other.deleteType;
+        this.isPurgeRequested                         = other.isPurgeRequested;
+        this.maxAttempts                              = other.maxAttempts;
+        this.isImportInProgress                       = other.isImportInProgress;
+        this.isInNotificationProcessing               = other.isInNotificationProcessing;
+        this.isInTypePatching                         = other.isInTypePatching;
+        this.createShellEntityForNonExistingReference = other.createShellEntityForNonExistingReference;
+        this.notifyListenersOnCommit                  = other.notifyListenersOnCommit;
+    }
+
     public static String getCurrentUser() {
         RequestContext context = CURRENT_CONTEXT.get();
         return context != null ? context.getUser() : null;
@@ -208,6 +228,18 @@ public class RequestContext {
         this.createShellEntityForNonExistingReference = createShellEntityForNonExistingReference;
     }
 
+    public boolean isNotifyListenersOnCommit() {
+        return notifyListenersOnCommit;
+    }
+
+    /**
+     * When set, entity-change listeners are notified of changes only after the graph transaction commits; changes that
+     * are rolled back are not notified to listeners.
+     */
+    public void setNotifyListenersOnCommit(boolean notifyListenersOnCommit) {
+        this.notifyListenersOnCommit = notifyListenersOnCommit;
+    }
+
     public void recordEntityUpdate(AtlasEntityHeader entity) {
         if (entity != null && entity.getGuid() != null && ! entitiesToSkipUpdate.contains(entity.getGuid())) {
             updatedEntities.put(entity.getGuid(), entity);
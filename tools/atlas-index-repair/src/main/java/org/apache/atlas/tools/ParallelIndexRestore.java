@@ -0,0 +1,310 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.atlas.tools;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphEdge;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.janusgraph.core.JanusGraphVertex;
+import org.janusgraph.diskstorage.BackendTransaction;
+import org.janusgraph.diskstorage.indexing.IndexEntry;
+import org.janusgraph.graphdb.database.IndexSerializer;
+import org.janusgraph.graphdb.database.StandardJanusGraph;
+import org.janusgraph.graphdb.database.management.ManagementSystem;
+import org.janusgraph.graphdb.internal.ElementCategory;
+import org.janusgraph.graphdb.transaction.StandardJanusGraphTx;
+import org.janusgraph.graphdb.types.MixedIndexType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Restores documents of mixed indexes from the graph, with multiple workers.
+ *
+ * Vertex ids are read by a single scan of the graph and split into batches, which are restored by the workers: each
+ * worker builds the documents of the vertices in a batch (and of their outgoing edges, for edge indexes) and sends them
+ * to the index backend in one restore() call per index.
+ *
+ * The number of vertices scanned before the first incomplete batch is saved in a checkpoint file. A restarted run
+ * skips those vertices; the scan follows the storage order, which is stable while the graph is not updated.
+ */
+public class ParallelIndexRestore {
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelIndexRestore.class);
+
+    private static final int    MAX_TRIES_ON_FAILURE      = 3;
+    private static final long   PROGRESS_INTERVAL_MS      = 10000;
+    private static final String CHECKPOINT_SCANNED_COUNT  = "scannedCount";
+    private static final String CHECKPOINT_RESTORED_COUNT = "restoredCount";
+
+    private final StandardJanusGraph     graph;
+    private final String[]               indexNames;
+    private final int                    numWorkers;
+    private final int                    batchSize;
+    private final File                   checkpointFile;
+    private final IndexSerializer        indexSerializer;
+    private final TreeMap<Long, Integer> completedBatches = new TreeMap<>(); // batch number -> number of vertices, for batches after the checkpoint
+    private final AtomicLong             vertexCount      = new AtomicLong();
+    private final AtomicLong             edgeCount        = new AtomicLong();
+    private       long                   nextBatchToCheckpoint;
+    private       long                   checkpointCount;
+    private       long                   startTime;
+    private       long                   lastProgressTime;
+    private volatile Throwable           failure;
+
+    public ParallelIndexRestore(JanusGraph graph, String[] indexNames, int numWorkers, int batchSize, File checkpointFile) {
+        this.graph           = (StandardJanusGraph) graph;
+        this.indexNames      = indexNames;
+        this.numWorkers      = Math.max(numWorkers, 1);
+        this.batchSize       = Math.max(batchSize, 1);
+        this.checkpointFile  = checkpointFile;
+        this.indexSerializer = this.graph.getIndexSerializer();
+    }
+
+    public void run() throws Exception {
+        long toSkip = readCheckpoint();
+
+        checkpointCount = toSkip;
+        startTime       = System.currentTimeMillis();
+
+        RepairIndex.displayCrlf(String.format("Restoring: %s: workers=%d, batchSize=%d, resuming after %d vertices", String.join(",", indexNames), numWorkers, batchSize, toSkip));
+
+        ExecutorService       executor = Executors.newFixedThreadPool(numWorkers);
+        Semaphore             permits  = new Semaphore(numWorkers * 2); // bounds the batches waiting for a worker
+        JanusGraphTransaction scanTx   = graph.buildTransaction().readOnly().start();
+
+        try {
+            Iterator<Vertex> vertices    = scanTx.vertices();
+            long             batchNumber = 0;
+            long[]           ids         = new long[batchSize];
+            int              count       = 0;
+
+            for (long skipped = 0; skipped < toSkip && vertices.hasNext(); skipped++) {
+                vertices.next();
+            }
+
+            while (vertices.hasNext() && failure == null) {
+                ids[count++] = ((JanusGraphVertex) vertices.next()).longId();
+
+                if (count == batchSize || !vertices.hasNext()) {
+                    final long   batch    = batchNumber++;
+                    final long[] batchIds = count == batchSize ? ids : Arrays.copyOf(ids, count);
+
+                    permits.acquire();
+
+                    executor.submit(() -> {
+                        try {
+                            restoreBatch(batch, batchIds);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+
+                    ids   = new long[batchSize];
+                    count = 0;
+                }
+            }
+        } finally {
+            scanTx.rollback();
+
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+
+        if (failure != null) {
+            RepairIndex.displayCrlf(String.format("Failed. Rerun to resume after %d vertices (checkpoint: %s)", checkpointCount, checkpointFile));
+
+            throw new Exception("index restore failed", failure);
+        }
+
+        displayProgress(true);
+
+        if (checkpointFile != null && checkpointFile.exists() && !checkpointFile.delete()) {
+            LOG.warn("failed to delete checkpoint file {}", checkpointFile);
+        }
+    }
+
+    private void restoreBatch(long batchNumber, long[] ids) {
+        if (failure != null) {
+            return;
+        }
+
+        for (int attemptCount = 1; attemptCount <= MAX_TRIES_ON_FAILURE; attemptCount++) {
+            ManagementSystem mgmt = (ManagementSystem) graph.openManagement();
+
+            try {
+                StandardJanusGraphTx tx         = mgmt.getWrappedTx();
+                BackendTransaction   mutator    = tx.getTxHandle();
+                List<MixedIndexType> indexTypes = new ArrayList<>(indexNames.length);
+                long                 edges      = 0;
+
+                Map<MixedIndexType, Map<String, Map<String, List<IndexEntry>>>> documents = new HashMap<>();
+
+                for (String indexName : indexNames) {
+                    MixedIndexType indexType = (MixedIndexType) mgmt.getSchemaVertex(mgmt.getGraphIndex(indexName)).asIndexType();
+
+                    indexTypes.add(indexType);
+                    documents.put(indexType, new HashMap<>());
+                }
+
+                for (JanusGraphVertex vertex : tx.getVertices(ids)) {
+                    for (MixedIndexType indexType : indexTypes) {
+                        if (indexType.getElement() == ElementCategory.VERTEX) {
+                            indexSerializer.reindexElement(vertex, indexType, documents.get(indexType));
+                        } else if (indexType.getElement() == ElementCategory.EDGE) {
+                            for (Iterator<Edge> iter = vertex.edges(Direction.OUT); iter.hasNext(); ) {
+                                indexSerializer.reindexElement((JanusGraphEdge) iter.next(), indexType, documents.get(indexType));
+
+                                edges++;
+                            }
+                        }
+                    }
+                }
+
+                for (MixedIndexType indexType : indexTypes) {
+                    mutator.getIndexTransaction(indexType.getBackingIndexName()).restore(documents.get(indexType));
+                }
+
+                vertexCount.addAndGet(ids.length);
+                edgeCount.addAndGet(edges);
+
+                onBatchComplete(batchNumber, ids.length);
+
+                return;
+            } catch (Throwable t) {
+                LOG.warn("batch {}: attempt {} failed", batchNumber, attemptCount, t);
+
+                if (attemptCount == MAX_TRIES_ON_FAILURE) {
+                    failure = t;
+                } else {
+                    pause(2000L * attemptCount);
+                }
+            } finally {
+                mgmt.rollback();
+            }
+        }
+    }
+
+    private synchronized void onBatchComplete(long batchNumber, int count) {
+        completedBatches.put(batchNumber, count);
+
+        boolean isAdvanced = false;
+
+        for (Integer batchCount = completedBatches.remove(nextBatchToCheckpoint); batchCount != null; batchCount = completedBatches.remove(nextBatchToCheckpoint)) {
+            checkpointCount += batchCount;
+
+            nextBatchToCheckpoint++;
+
+            isAdvanced = true;
+        }
+
+        if (isAdvanced) {
+            writeCheckpoint();
+        }
+
+        displayProgress(false);
+    }
+
+    private synchronized void displayProgress(boolean isFinal) {
+        long now = System.currentTimeMillis();
+
+        if (!isFinal && now - lastProgressTime < PROGRESS_INTERVAL_MS) {
+            return;
+        }
+
+        long elapsedMs = Math.max(now - startTime, 1);
+
+        lastProgressTime = now;
+
+        RepairIndex.displayCrlf(String.format("%s: vertices=%d, edges=%d, vertices/sec=%d, checkpoint=%d, elapsed=%d ms",
+                                              isFinal ? "Done" : "In progress", vertexCount.get(), edgeCount.get(), (vertexCount.get() * 1000L) / elapsedMs, checkpointCount, elapsedMs));
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (checkpointFile == null || !checkpointFile.exists()) {
+            return 0;
+        }
+
+        Properties properties = new Properties();
+
+        try (InputStream in = new FileInputStream(checkpointFile)) {
+            properties.load(in);
+        }
+
+        return Long.parseLong(properties.getProperty(CHECKPOINT_SCANNED_COUNT, "0"));
+    }
+
+    // written to a temporary file first, so that a crash doesn't leave a partial checkpoint
+    private void writeCheckpoint() {
+        if (checkpointFile == null) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        File       tmpFile    = new File(checkpointFile.getPath() + ".tmp");
+
+        properties.setProperty(CHECKPOINT_SCANNED_COUNT, Long.toString(checkpointCount));
+        properties.setProperty(CHECKPOINT_RESTORED_COUNT, Long.toString(vertexCount.get()));
+
+        try (OutputStream out = new FileOutputStream(tmpFile)) {
+            properties.store(out, "atlas-index-repair: " + String.join(",", indexNames));
+        } catch (IOException e) {
+            LOG.warn("failed to write checkpoint file {}", tmpFile, e);
+
+            return;
+        }
+
+        try {
+            Files.move(tmpFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("failed to update checkpoint file {}", checkpointFile, e);
+        }
+    }
+
+    private static void pause(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
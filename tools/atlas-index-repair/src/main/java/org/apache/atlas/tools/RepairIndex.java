@@ -46,6 +46,7 @@ import org.janusgraph.graphdb.types.MixedIndexType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -64,10 +65,17 @@ public class RepairIndex {
     private static final String INDEX_NAME_EDGE_INDEX = "edge_index";
     private static final String DEFAULT_ATLAS_URL = "http://localhost:21000/";
     private static final String APPLICATION_PROPERTY_ATLAS_ENDPOINT = "atlas.rest.address";
+    private static final int    DEFAULT_WORKER_COUNT = 4;
+    private static final int    DEFAULT_BATCH_SIZE = 1000;
+    private static final String DEFAULT_CHECKPOINT_FILE = "atlas-index-repair.checkpoint";
 
     private static JanusGraph graph;
     private static AtlasClientV2 atlasClientV2;
     private static boolean isSelectiveRestore;
+    private static boolean isReindex;
+    private static int workerCount = DEFAULT_WORKER_COUNT;
+    private static int batchSize = DEFAULT_BATCH_SIZE;
+    private static File checkpointFile = new File(DEFAULT_CHECKPOINT_FILE);
 
     public static void main(String[] args) {
         int exitCode = EXIT_CODE_FAILED;
@@ -84,6 +92,20 @@ public class RepairIndex {
                 setupAtlasClient(uid, pwd);
             }
 
+            isReindex = cmd.hasOption("r");
+
+            if (cmd.hasOption("w")) {
+                workerCount = Integer.parseInt(cmd.getOptionValue("w"));
+            }
+
+            if (cmd.hasOption("b")) {
+                batchSize = Integer.parseInt(cmd.getOptionValue("b"));
+            }
+
+            if (cmd.hasOption("c")) {
+                checkpointFile = new File(cmd.getOptionValue("c"));
+            }
+
             process(guid);
 
             LOG.info("Completed index repair!");
@@ -103,8 +125,10 @@ public class RepairIndex {
 
         if (isSelectiveRestore) {
             repairIndex.restoreSelective(guid);
-        }else{
+        } else if (isReindex) {
             repairIndex.restoreAll();
+        } else {
+            new ParallelIndexRestore(graph, getIndexes(), workerCount, batchSize, checkpointFile).run();
         }
 
         displayCrlf("Repair Index: Done!");
@@ -115,6 +139,10 @@ public class RepairIndex {
         options.addOption("g", "guid", true, "guid for which update index should be executed.");
         options.addOption("u", "user", true, "User name.");
         options.addOption("p", "password", true, "Password name.");
+        options.addOption("r", "reindex", false, "Reindex using JanusGraph REINDEX, one index at a time.");
+        options.addOption("w", "workers", true, "Number of workers to restore indexes with. Default: " + DEFAULT_WORKER_COUNT);
+        options.addOption("b", "batch-size", true, "Number of vertices restored in each batch. Default: " + DEFAULT_BATCH_SIZE);
+        options.addOption("c", "checkpoint", true, "File to save progress in, to resume from. Default: " + DEFAULT_CHECKPOINT_FILE);
 
         return new DefaultParser().parse(options, args);
     }
@@ -208,11 +236,11 @@ public class RepairIndex {
         return set;
     }
 
-    private static void display(String... formatMessage) {
+    static void display(String... formatMessage) {
         displayFn(System.out::print, formatMessage);
     }
 
-    private static void displayCrlf(String... formatMessage) {
+    static void displayCrlf(String... formatMessage) {
         displayFn(System.out::println, formatMessage);
     }
 
@@ -47,6 +47,7 @@ import org.apache.atlas.model.instance.AtlasEntityHeader;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.model.metrics.AtlasMetrics;
 import org.apache.atlas.model.patches.AtlasPatch.AtlasPatches;
+import org.apache.atlas.model.tasks.AtlasTask;
 import org.apache.atlas.repository.audit.AtlasAuditService;
 import org.apache.atlas.repository.audit.EntityAuditRepository;
 import org.apache.atlas.repository.impexp.AtlasServerService;
@@ -58,6 +59,7 @@ import org.apache.atlas.repository.impexp.ZipSink;
 import org.apache.atlas.repository.patches.AtlasPatchManager;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.services.MetricsService;
+import org.apache.atlas.tasks.TaskManagement;
 import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.SearchTracker;
@@ -157,6 +159,7 @@ public class AdminResource {
     private final  AtlasAuditService        auditService;
     private final  String                   defaultUIVersion;
     private final  EntityAuditRepository    auditRepository;
+    private final  TaskManagement           taskManagement;
 
     static {
         try {
@@ -172,7 +175,8 @@ public class AdminResource {
                          MigrationProgressService migrationProgressService,
                          AtlasServerService serverService,
                          ExportImportAuditService exportImportAuditService, AtlasEntityStore entityStore,
-                         AtlasPatchManager patchManager, AtlasAuditService auditService, EntityAuditRepository auditRepository) {
+                         AtlasPatchManager patchManager, AtlasAuditService auditService, EntityAuditRepository auditRepository,
+                         TaskManagement taskManagement) {
         this.serviceState              = serviceState;
         this.metricsService            = metricsService;
         this.exportService             = exportService;
@@ -187,6 +191,7 @@ public class AdminResource {
         this.patchManager              = patchManager;
         this.auditService              = auditService;
         this.auditRepository           = auditRepository;
+        this.taskManagement            = taskManagement;
 
         if (atlasProperties != null) {
             defaultUIVersion = atlasProperties.getString(DEFAULT_UI_VERSION, UI_VERSION_V2);
@@ -700,6 +705,29 @@ public class AdminResource {
         return ret;
     }
 
+    /**
+     * Fetches status and progress of background tasks, like deferred classification propagation.
+     *
+     * @param guids guids of the tasks to fetch; all tasks are returned when not specified
+     * @return list of tasks
+     */
+    @GET
+    @Path("tasks")
+    @Produces(Servlets.JSON_MEDIA_TYPE)
+    public List<AtlasTask> getTaskStatus(@QueryParam("guids") List<String> guids) throws AtlasBaseException {
+        AtlasPerfTracer perf = null;
+
+        try {
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "AdminResource.getTaskStatus(" + guids + ")");
+            }
+
+            return taskManagement.getTasks(guids);
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
     private String getEditableEntityTypes(Configuration config) {
         String ret = DEFAULT_EDITABLE_ENTITY_TYPES;
 
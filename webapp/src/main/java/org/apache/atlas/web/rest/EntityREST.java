@@ -19,6 +19,7 @@ package org.apache.atlas.web.rest;
 
 import com.sun.jersey.core.header.FormDataContentDisposition;
 import com.sun.jersey.multipart.FormDataParam;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.EntityAuditEvent;
 import org.apache.atlas.bulkimport.BulkImportResponse;
@@ -38,10 +39,12 @@ import org.apache.atlas.repository.audit.EntityAuditRepository;
 import org.apache.atlas.repository.converters.AtlasInstanceConverter;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
 import org.apache.atlas.repository.store.graph.v2.AtlasEntityStream;
+import org.apache.atlas.repository.store.graph.v2.BusinessMetadataImporter;
 import org.apache.atlas.repository.store.graph.v2.ClassificationAssociator;
 import org.apache.atlas.repository.store.graph.v2.EntityStream;
 import org.apache.atlas.type.AtlasClassificationType;
 import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.FileUtils;
 import org.apache.atlas.utils.AtlasPerfTracer;
@@ -71,12 +74,18 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -96,33 +105,52 @@ public class EntityREST {
 
     public static final String PREFIX_ATTR  = "attr:";
     public static final String PREFIX_ATTR_ = "attr_";
+    public static final String NDJSON       = "application/x-ndjson";
 
 
-    private final AtlasTypeRegistry      typeRegistry;
-    private final AtlasEntityStore       entitiesStore;
-    private final EntityAuditRepository  auditRepository;
-    private final AtlasInstanceConverter instanceConverter;
+    private final AtlasTypeRegistry        typeRegistry;
+    private final AtlasEntityStore         entitiesStore;
+    private final EntityAuditRepository    auditRepository;
+    private final AtlasInstanceConverter   instanceConverter;
+    private final BusinessMetadataImporter businessMetadataImporter;
 
     @Inject
     public EntityREST(AtlasTypeRegistry typeRegistry, AtlasEntityStore entitiesStore,
-                      EntityAuditRepository auditRepository, AtlasInstanceConverter instanceConverter) {
-        this.typeRegistry      = typeRegistry;
-        this.entitiesStore     = entitiesStore;
-        this.auditRepository   = auditRepository;
-        this.instanceConverter = instanceConverter;
+                      EntityAuditRepository auditRepository, AtlasInstanceConverter instanceConverter,
+                      BusinessMetadataImporter businessMetadataImporter) {
+        this.typeRegistry             = typeRegistry;
+        this.entitiesStore            = entitiesStore;
+        this.auditRepository          = auditRepository;
+        this.instanceConverter        = instanceConverter;
+        this.businessMetadataImporter = businessMetadataImporter;
     }
 
     /**
      * Fetch complete definition of an entity given its GUID.
+     * When attributes or relationshipAttributes is specified, only the specified attributes and relationship
+     * attributes of the entity are retrieved. Unique attributes of the entity are always retrieved.
+     * Number of entities directly referred by the entity, included in referredEntities, is limited by
+     * referredEntitiesLimit and, when set, by the server configuration atlas.entity.referred.entities.max.count. When more
+     * referred entities exist, the response includes nextReferredEntitiesOffset, to retrieve the next set with.
      * @param guid GUID for the entity
+     * @param attributes names of attributes to retrieve; comma-separated or repeated
+     * @param relationshipAttributes names of relationship attributes to retrieve; comma-separated or repeated
+     * @param referredEntitiesOffset number of referred entities to skip
+     * @param referredEntitiesLimit maximum number of referred entities to retrieve
      * @return AtlasEntity
      * @throws AtlasBaseException
      */
     @GET
     @Path("/guid/{guid}")
-    public AtlasEntityWithExtInfo getById(@PathParam("guid") String guid, @QueryParam("minExtInfo") @DefaultValue("false") boolean minExtInfo, @QueryParam("ignoreRelationships") @DefaultValue("false") boolean ignoreRelationships) throws AtlasBaseException {
+    public AtlasEntityWithExtInfo getById(@PathParam("guid") String guid, @QueryParam("minExtInfo") @DefaultValue("false") boolean minExtInfo, @QueryParam("ignoreRelationships") @DefaultValue("false") boolean ignoreRelationships,
+                                          @QueryParam("attributes") List<String> attributes, @QueryParam("relationshipAttributes") List<String> relationshipAttributes,
+                                          @QueryParam("referredEntitiesOffset") @DefaultValue("0") int referredEntitiesOffset, @QueryParam("referredEntitiesLimit") @DefaultValue("-1") int referredEntitiesLimit) throws AtlasBaseException {
         Servlets.validateQueryParamLength("guid", guid);
 
+        if (referredEntitiesOffset < 0) {
+            throw new AtlasBaseException(AtlasErrorCode.INVALID_PARAMETERS, "referredEntitiesOffset=" + referredEntitiesOffset);
+        }
+
         AtlasPerfTracer perf = null;
 
         try {
@@ -130,7 +158,10 @@ public class EntityREST {
                 perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "EntityREST.getById(" + guid + ", " + minExtInfo + " )");
             }
 
-            return entitiesStore.getById(guid, minExtInfo, ignoreRelationships);
+            Set<String> attributeNames             = getAttributeNames(attributes, relationshipAttributes);
+            Set<String> relationshipAttributeNames = getAttributeNames(relationshipAttributes, attributes);
+
+            return entitiesStore.getById(guid, minExtInfo, ignoreRelationships, attributeNames, relationshipAttributeNames, referredEntitiesOffset, getReferredEntitiesLimit(referredEntitiesLimit));
         } finally {
             AtlasPerfTracer.log(perf);
         }
@@ -689,10 +720,13 @@ public class EntityREST {
 
     /**
      * Bulk API to retrieve list of entities identified by its GUIDs.
+     * When attributes or relationshipAttributes is specified, only the specified attributes and relationship
+     * attributes of the entities are retrieved. Unique attributes of the entities are always retrieved.
      */
     @GET
     @Path("/bulk")
-    public AtlasEntitiesWithExtInfo getByGuids(@QueryParam("guid") List<String> guids, @QueryParam("minExtInfo") @DefaultValue("false") boolean minExtInfo, @QueryParam("ignoreRelationships") @DefaultValue("false") boolean ignoreRelationships) throws AtlasBaseException {
+    public AtlasEntitiesWithExtInfo getByGuids(@QueryParam("guid") List<String> guids, @QueryParam("minExtInfo") @DefaultValue("false") boolean minExtInfo, @QueryParam("ignoreRelationships") @DefaultValue("false") boolean ignoreRelationships,
+                                               @QueryParam("attributes") List<String> attributes, @QueryParam("relationshipAttributes") List<String> relationshipAttributes) throws AtlasBaseException {
         if (CollectionUtils.isNotEmpty(guids)) {
             for (String guid : guids) {
                 Servlets.validateQueryParamLength("guid", guid);
@@ -710,7 +744,10 @@ public class EntityREST {
                 throw new AtlasBaseException(AtlasErrorCode.INSTANCE_GUID_NOT_FOUND, guids);
             }
 
-            return entitiesStore.getByIds(guids, minExtInfo, ignoreRelationships);
+            Set<String> attributeNames             = getAttributeNames(attributes, relationshipAttributes);
+            Set<String> relationshipAttributeNames = getAttributeNames(relationshipAttributes, attributes);
+
+            return entitiesStore.getByIds(guids, minExtInfo, ignoreRelationships, attributeNames, relationshipAttributeNames);
         } finally {
             AtlasPerfTracer.log(perf);
         }
@@ -1115,6 +1152,39 @@ public class EntityREST {
         return ret;
     }
 
+    /**
+     * @return names in the given query parameter values; null if neither this nor the other projection parameter
+     *         is specified, to retrieve all attributes; an empty set if only the other parameter is specified
+     */
+    private static Set<String> getAttributeNames(List<String> paramValues, List<String> otherParamValues) {
+        if (CollectionUtils.isEmpty(paramValues)) {
+            return CollectionUtils.isEmpty(otherParamValues) ? null : Collections.emptySet();
+        }
+
+        Set<String> ret = new HashSet<>();
+
+        for (String paramValue : paramValues) {
+            for (String name : StringUtils.split(paramValue, ',')) {
+                if (StringUtils.isNotBlank(name)) {
+                    ret.add(name.trim());
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    // limit requested by the caller, capped by the server configuration; -1 for no limit
+    private static int getReferredEntitiesLimit(int requestedLimit) {
+        int maxCount = AtlasConfiguration.ENTITY_REFERRED_ENTITIES_MAX_COUNT.getInt();
+
+        if (maxCount > 0 && (requestedLimit < 0 || requestedLimit > maxCount)) {
+            return maxCount;
+        }
+
+        return requestedLimit;
+    }
+
     // attr:qualifiedName=db1@cl1 ==> { qualifiedName:db1@cl1 }
     private Map<String, Object> getAttributes(HttpServletRequest request) {
         Map<String, Object> attributes = new HashMap<>();
@@ -1227,6 +1297,61 @@ public class EntityREST {
     public BulkImportResponse importBMAttributes(@FormDataParam("file") InputStream uploadedInputStream,
                                                  @FormDataParam("file") FormDataContentDisposition fileDetail) throws AtlasBaseException {
 
-        return entitiesStore.bulkCreateOrUpdateBusinessAttributes(uploadedInputStream, fileDetail.getFileName());
+        return businessMetadataImporter.importBusinessAttributes(uploadedInputStream, fileDetail.getFileName());
+    }
+
+    /**
+     * Upload the file for creating Business Metadata in BULK, with the result of each row streamed as it is processed
+     *
+     * @param uploadedInputStream InputStream of file
+     * @param fileDetail          FormDataContentDisposition metadata of file
+     * @return result of each row of the file, one JSON object per line
+     * @throws AtlasBaseException
+     * @HTTP 200 If the file was processed; failed rows are reported in the response
+     * @HTTP 400 If the provided fileType is not supported
+     */
+    @POST
+    @Path("/businessmetadata/import/report")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    @Produces(NDJSON)
+    public Response importBMAttributesWithReport(@FormDataParam("file") final InputStream uploadedInputStream,
+                                                 @FormDataParam("file") FormDataContentDisposition fileDetail) throws AtlasBaseException {
+        final String fileName = fileDetail.getFileName();
+
+        if (StringUtils.isBlank(fileName)) {
+            throw new AtlasBaseException(AtlasErrorCode.FILE_NAME_NOT_FOUND, fileName);
+        }
+
+        FileUtils.validateFileType(fileName);
+
+        return Response.ok(new StreamingOutput() {
+            @Override
+            public void write(OutputStream outputStream) throws IOException, WebApplicationException {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+                try {
+                    businessMetadataImporter.importBusinessAttributes(uploadedInputStream, fileName, importInfo -> {
+                        try {
+                            writer.write(AtlasType.toJson(importInfo));
+                            writer.write('\n');
+
+                            // each row is sent as it is processed, so that the client sees progress of large files
+                            writer.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (AtlasBaseException e) {
+                    LOG.error("importBMAttributesWithReport(fileName={}): failed", fileName, e);
+
+                    writer.write(AtlasType.toJson(new BulkImportResponse.ImportInfo(BulkImportResponse.ImportStatus.FAILED, e.getMessage(), -1)));
+                    writer.write('\n');
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+
+                writer.flush();
+            }
+        }).build();
     }
 }
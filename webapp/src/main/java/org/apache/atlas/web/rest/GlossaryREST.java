@@ -21,8 +21,10 @@ import com.sun.jersey.core.header.FormDataContentDisposition;
 import com.sun.jersey.multipart.FormDataParam;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.SortOrder;
+import org.apache.atlas.bulkimport.BulkImportResponse;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.glossary.GlossaryService;
+import org.apache.atlas.glossary.GlossaryTermImporter;
 import org.apache.atlas.glossary.GlossaryTermUtils;
 import org.apache.atlas.model.glossary.AtlasGlossary;
 import org.apache.atlas.model.glossary.AtlasGlossaryCategory;
@@ -67,11 +69,13 @@ public class GlossaryREST {
     private static final Logger LOG = LoggerFactory.getLogger(GlossaryREST.class);
     private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("rest.GlossaryREST");
 
-    private final GlossaryService glossaryService;
+    private final GlossaryService      glossaryService;
+    private final GlossaryTermImporter glossaryTermImporter;
 
     @Inject
-    public GlossaryREST(final GlossaryService glossaryService) {
-        this.glossaryService = glossaryService;
+    public GlossaryREST(final GlossaryService glossaryService, final GlossaryTermImporter glossaryTermImporter) {
+        this.glossaryService      = glossaryService;
+        this.glossaryTermImporter = glossaryTermImporter;
     }
 
     /**
@@ -808,7 +812,8 @@ public class GlossaryREST {
      * @param termGuid GUID of the term
      * @param limit page size - by default there is no paging
      * @param offset offset for pagination purpose
-     * @param sort ASC (default) or DESC
+     * @param sort ASC (default) or DESC, by display text. To sort, every entity the term is assigned to is read, so the
+     *             cost of each page grows with the number of assigned entities
      * @return
      * @throws AtlasBaseException
      * @HTTP 200 List of entity headers (if any) for the given glossary or an empty list
@@ -836,6 +841,31 @@ public class GlossaryREST {
     }
 
 
+    /**
+     * Get the number of entities assigned with the specified term
+     * @param termGuid GUID of the term
+     * @return number of entities assigned with the term
+     * @throws AtlasBaseException
+     * @HTTP 200 Number of entities assigned with the term
+     * @HTTP 404 If glossary term guid in invalid
+     */
+    @GET
+    @Path("/terms/{termGuid}/assignedEntities/count")
+    public long getEntitiesAssignedWithTermCount(@PathParam("termGuid") String termGuid) throws AtlasBaseException {
+        Servlets.validateQueryParamLength("termGuid", termGuid);
+
+        AtlasPerfTracer perf = null;
+        try {
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, "GlossaryREST.getEntitiesAssignedWithTermCount(" + termGuid + ")");
+            }
+
+            return glossaryService.getAssignedEntitiesCount(termGuid);
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
     /**
      * Assign the given term to the provided list of entity headers
      * @param termGuid Glossary term GUID
@@ -987,4 +1017,22 @@ public class GlossaryREST {
                                                       @FormDataParam("file") FormDataContentDisposition fileDetail) throws AtlasBaseException {
         return glossaryService.importGlossaryData(inputStream, fileDetail.getFileName());
     }
+
+    /**
+     * Upload glossary file for creating AtlasGlossaryTerms in bulk, in batches, with the result of each row reported
+     *
+     * @param inputStream InputStream of file
+     * @param fileDetail  FormDataContentDisposition metadata of file
+     * @return result of each row of the file
+     * @throws AtlasBaseException
+     * @HTTP 200 If the file was processed; failed rows are reported in the response
+     * @HTTP 400 If the provided fileType is not supported
+     */
+    @POST
+    @Path("/import/bulk")
+    @Consumes(MediaType.MULTIPART_FORM_DATA)
+    public BulkImportResponse importGlossaryTerms(@FormDataParam("file") InputStream inputStream,
+                                                  @FormDataParam("file") FormDataContentDisposition fileDetail) throws AtlasBaseException {
+        return glossaryTermImporter.importGlossaryTerms(inputStream, fileDetail.getFileName());
+    }
 }
\ No newline at end of file
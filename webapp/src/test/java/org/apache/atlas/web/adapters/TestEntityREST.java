@@ -103,13 +103,25 @@ public class TestEntityREST {
     @Test
     public void testGetEntityById() throws Exception {
         createTestEntity();
-        AtlasEntityWithExtInfo response = entityREST.getById(dbEntity.getGuid(), false, false);
+        AtlasEntityWithExtInfo response = entityREST.getById(dbEntity.getGuid(), false, false, null, null, 0, -1);
 
         Assert.assertNotNull(response);
         Assert.assertNotNull(response.getEntity());
         TestEntitiesREST.verifyAttributes(response.getEntity().getAttributes(), dbEntity.getAttributes());
     }
 
+    @Test
+    public void testGetEntityByIdWithAttributes() throws Exception {
+        createTestEntity();
+        AtlasEntityWithExtInfo response = entityREST.getById(dbEntity.getGuid(), false, false, Collections.singletonList("description"), null, 0, -1);
+
+        Assert.assertNotNull(response);
+        Assert.assertNotNull(response.getEntity());
+        Assert.assertEquals(response.getEntity().getAttributes().keySet(), new HashSet<>(Arrays.asList(TestUtilsV2.NAME, "description")));
+        Assert.assertEquals(response.getEntity().getAttribute("description"), dbEntity.getAttribute("description"));
+        Assert.assertTrue(response.getEntity().getRelationshipAttributes() == null || response.getEntity().getRelationshipAttributes().isEmpty());
+    }
+
     @Test
     public void testGetEntityHeaderByUniqueAttributes() throws Exception {
         createTestEntity();
@@ -266,7 +278,7 @@ public class TestEntityREST {
     @Test(dependsOnMethods = "testAddAndGetClassification")
     public void testGetEntityWithAssociations() throws Exception {
 
-        AtlasEntityWithExtInfo entity = entityREST.getById(dbEntity.getGuid(), false, false);
+        AtlasEntityWithExtInfo entity = entityREST.getById(dbEntity.getGuid(), false, false, null, null, 0, -1);
         final List<AtlasClassification> retrievedClassifications = entity.getEntity().getClassifications();
 
         Assert.assertNotNull(retrievedClassifications);
@@ -559,7 +571,7 @@ public class TestEntityREST {
         bmAttrMapReq = populateMultivaluedBusinessMetadataAttributeMap(bmAttrMapReq);
         entityREST.addOrUpdateBusinessAttributes(dbEntity.getGuid(), false, bmAttrMapReq);
 
-        AtlasEntityWithExtInfo entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false);
+        AtlasEntityWithExtInfo entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false, null, null, 0, -1);
         AtlasEntity atlasEntity = entityWithExtInfo.getEntity();
         Map<String, Map<String, Object>> bmAttrMapRes = atlasEntity.getBusinessAttributes();
 
@@ -576,7 +588,7 @@ public class TestEntityREST {
         bmAttrMapReq = populateMultivaluedBusinessMetadataAttributeMap(null);
         entityREST.addOrUpdateBusinessAttributes(dbEntity.getGuid(), true, bmAttrMapReq);
 
-        AtlasEntityWithExtInfo entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false);
+        AtlasEntityWithExtInfo entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false, null, null, 0, -1);
         AtlasEntity atlasEntity = entityWithExtInfo.getEntity();
         Map<String, Map<String, Object>> bmAttrMapRes = atlasEntity.getBusinessAttributes();
 
@@ -591,7 +603,7 @@ public class TestEntityREST {
         Map<String, Map<String, Object>> bmAttrMapReq = populateBusinessMetadataAttributeMap(null);
         entityREST.addOrUpdateBusinessAttributes(dbEntity.getGuid(), false, bmAttrMapReq);
 
-        AtlasEntityWithExtInfo entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false);
+        AtlasEntityWithExtInfo entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false, null, null, 0, -1);
         AtlasEntity atlasEntity = entityWithExtInfo.getEntity();
         Map<String, Map<String, Object>> bmAttrMapRes = atlasEntity.getBusinessAttributes();
 
@@ -603,7 +615,7 @@ public class TestEntityREST {
         bmAttrMapReq.put("bmWithAllTypes", attrValueMapReq);
         entityREST.addOrUpdateBusinessAttributes(dbEntity.getGuid(), true, bmAttrMapReq);
 
-        entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false);
+        entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false, null, null, 0, -1);
         atlasEntity = entityWithExtInfo.getEntity();
         bmAttrMapRes = atlasEntity.getBusinessAttributes();
 
@@ -626,7 +638,7 @@ public class TestEntityREST {
         Map<String, Map<String, Object>> bmAttrMapReq = populateBusinessMetadataAttributeMap(null);
         entityREST.addOrUpdateBusinessAttributes(dbEntity.getGuid(), false, bmAttrMapReq);
 
-        AtlasEntityWithExtInfo entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false);
+        AtlasEntityWithExtInfo entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false, null, null, 0, -1);
         AtlasEntity atlasEntity = entityWithExtInfo.getEntity();
         Map<String, Map<String, Object>> bmAttrMapRes = atlasEntity.getBusinessAttributes();
 
@@ -638,7 +650,7 @@ public class TestEntityREST {
         bmAttrMapReq_2.put("bmWithAllTypes", attrValueMapReq_2);
         entityREST.addOrUpdateBusinessAttributes(dbEntity.getGuid(), false, bmAttrMapReq_2);
 
-        entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false);
+        entityWithExtInfo = entityREST.getById(dbEntity.getGuid(), false, false, null, null, 0, -1);
         atlasEntity = entityWithExtInfo.getEntity();
         Map<String, Map<String, Object>> bmAttrMapRes_2 = atlasEntity.getBusinessAttributes();
 